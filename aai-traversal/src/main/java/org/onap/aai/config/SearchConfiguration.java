@@ -23,6 +23,7 @@ import org.onap.aai.dbgraphmap.SearchGraph;
 import org.onap.aai.edges.EdgeIngestor;
 import org.onap.aai.introspection.LoaderFactory;
 import org.onap.aai.rest.search.CQConfig;
+import org.onap.aai.rest.search.GremlinScriptCache;
 import org.onap.aai.rest.search.GremlinServerSingleton;
 import org.onap.aai.rest.search.LocalCQConfig;
 import org.onap.aai.rest.search.SchemaServiceCQConfig;
@@ -43,6 +44,9 @@ public class SearchConfiguration {
     @Value("${schema.translator.list}")
     private String translator;
 
+    @Value("${aai.traversal.script.cache.size:500}")
+    private long scriptCacheSize;
+
     @Bean
     public SearchGraph searchGraph(LoaderFactory loaderFactory, EdgeIngestor edgeIngestor,
         SchemaVersions schemaVersions) {
@@ -51,15 +55,23 @@ public class SearchConfiguration {
 
     @Bean
     public GremlinServerSingleton gremlinServerSingleton() {
-        return new GremlinServerSingleton(getCustomQueryConfig());
+        GremlinServerSingleton gremlinServerSingleton =
+            new GremlinServerSingleton(getCustomQueryConfig());
+        gremlinServerSingleton.setScriptCache(gremlinScriptCache());
+        return gremlinServerSingleton;
+    }
+
+    @Bean
+    public GremlinScriptCache gremlinScriptCache() {
+        return new GremlinScriptCache(scriptCacheSize);
     }
 
     @Bean
     public CQConfig getCustomQueryConfig() {
-        if (translator.equals(SCHEMA_SERVICE_TRANSLATOR)) {
-            return new SchemaServiceCQConfig();
-        }
-        return new LocalCQConfig();
+        CQConfig customQueryConfig = translator.equals(SCHEMA_SERVICE_TRANSLATOR)
+            ? new SchemaServiceCQConfig() : new LocalCQConfig();
+        customQueryConfig.setScriptCache(gremlinScriptCache());
+        return customQueryConfig;
     }
 
 }
@@ -557,7 +557,7 @@ public class ModelBasedProcessing {
             if (!skipModelVerIdList.contains(modVerKey)) {
                 Vertex modelVerVtx = distinctModelVersHash.get(modVerKey);
                 Multimap<String, String> tmpTopoMap =
-                    genTopoMap4ModelVer(transId, fromAppId, modelVerVtx, modVerKey);
+                    getTopoMap4ModelVer(transId, fromAppId, modelVerVtx, modVerKey);
                 validNextStepHash.put(modVerKey, tmpTopoMap);
             }
         }
@@ -777,13 +777,12 @@ public class ModelBasedProcessing {
         }
 
         // Get the deleteKeyHash for this model
-        String incomingTrail = "";
-        Map<String, String> currentHash = new HashMap<>();
-        Map<String, Vertex> modConHash = new HashMap<>();
-        ArrayList<String> vidsTraversed = new ArrayList<>();
-        Map<String, String> delKeyHash = collectDeleteKeyHash(transId, fromAppId,
-            firstModElementVertex, incomingTrail, currentHash, vidsTraversed, 0, modConHash,
-            chkFirstNodePersonaModInvId, chkFirstNodePersonaModVerId);
+        final String overRideModelId = chkFirstNodePersonaModInvId;
+        final String overRideModelVersionId = chkFirstNodePersonaModVerId;
+        Map<String, String> delKeyHash = getDeleteKeyHash(modelVerVtx,
+            () -> collectDeleteKeyHash(transId, fromAppId, firstModElementVertex, "",
+                new HashMap<>(), new ArrayList<>(), 0, new HashMap<>(), overRideModelId,
+                overRideModelVersionId));
 
         System.out.println(
             "\n ----DEBUG -----:  Delete Hash for model: [" + modelVersionId + "] looks like: ");
@@ -818,11 +817,11 @@ public class ModelBasedProcessing {
 
         // Read the model-ver into a Map for processing
         Multimap<String, String> validNextStepMap =
-            genTopoMap4ModelVer(transId, fromAppId, modelVerVtx, modelVersionId);
+            getTopoMap4ModelVer(transId, fromAppId, modelVerVtx, modelVersionId);
 
         // Collect the data
         String elementLocationTrail = topNType + personaData;
-        vidsTraversed = new ArrayList<>();
+        List<String> vidsTraversed = new ArrayList<>();
         Map<String, String> emptyHash = new HashMap<>();
 
         // Pass emptyHash for the NQElement hash since that parameter only applies to Named Queries
@@ -1128,8 +1127,13 @@ public class ModelBasedProcessing {
         }
 
         // Read the topology into a hash for processing
-        Multimap<String, String> validNextStepMap =
-            genTopoMap4NamedQ(transId, fromAppId, queryVtx, namedQueryUuid);
+        ModelTopologyCache topologyCache = getTopologyCache();
+        String queryResourceVersion =
+            queryVtx.<String>property(AAIProperties.RESOURCE_VERSION).orElse(null);
+        Multimap<String, String> validNextStepMap = topologyCache == null
+            ? genTopoMap4NamedQ(transId, fromAppId, queryVtx, namedQueryUuid)
+            : topologyCache.getNamedQueryTopology(namedQueryUuid, queryResourceVersion,
+                () -> genTopoMap4NamedQ(transId, fromAppId, queryVtx, namedQueryUuid));
 
         List<Vertex> startVertList = new ArrayList<>();
         if (startNodeFilterArrayOfHashes.size() == 1) {
@@ -1205,6 +1209,16 @@ public class ModelBasedProcessing {
             }
         }
 
+        // Get the mapping of namedQuery elements to our widget topology for this namedQuery,
+        // which is the same for every start node
+        final Vertex topNqElementVert = firstNqElementVert;
+        Map<String, String> namedQueryElementHash = topologyCache == null
+            ? collectNQElementHash(transId, fromAppId, topNqElementVert, "", new HashMap<>(),
+                new ArrayList<>(), 0)
+            : topologyCache.getNamedQueryElementHash(namedQueryUuid, queryResourceVersion,
+                () -> collectNQElementHash(transId, fromAppId, topNqElementVert, "",
+                    new HashMap<>(), new ArrayList<>(), 0));
+
         // Loop through each start node and get its data
         List<ResultSet> resSetList = new ArrayList<>();
         for (int i = 0; i < startVertList.size(); i++) {
@@ -1215,14 +1229,6 @@ public class ModelBasedProcessing {
             Map<String, String> emptyDelKeyHash = new HashMap<>(); // Does not apply to Named
                                                                    // Queries
 
-            // Get the mapping of namedQuery elements to our widget topology for this namedQuery
-            String incomingTrail = "";
-            Map<String, String> currentHash = new HashMap<>();
-
-            Map<String, String> namedQueryElementHash = collectNQElementHash(transId, fromAppId,
-                firstNqElementVert, incomingTrail, currentHash, vidsTraversed, 0);
-
-            vidsTraversed = new ArrayList<>();
             ResultSet tmpResSet = collectInstanceData(transId, fromAppId, startVtx,
                 elementLocationTrail, validNextStepMap, vidsTraversed, 0, emptyDelKeyHash,
                 namedQueryElementHash, apiVer);
@@ -1654,6 +1660,56 @@ public class ModelBasedProcessing {
 
     } // End of collectInstanceData()
 
+    /**
+     * Gets the topology of a model-ver from the topology cache, if there is one.
+     *
+     * @param transId the trans id
+     * @param fromAppId the from app id
+     * @param modelVerVertex the model-ver vertex
+     * @param modelVerId the model-version-id
+     * @return MultiMap of valid next steps for each potential model-element
+     * @throws AAIException the AAI exception
+     */
+    protected Multimap<String, String> getTopoMap4ModelVer(String transId, String fromAppId,
+        Vertex modelVerVertex, String modelVerId) throws AAIException {
+        ModelTopologyCache topologyCache = getTopologyCache();
+        if (topologyCache == null || modelVerVertex == null) {
+            return genTopoMap4ModelVer(transId, fromAppId, modelVerVertex, modelVerId);
+        }
+        return topologyCache.getModelVerTopology(
+            modelVerVertex.<String>property("model-version-id").orElse(null),
+            modelVerVertex.<String>property(AAIProperties.RESOURCE_VERSION).orElse(null),
+            () -> genTopoMap4ModelVer(transId, fromAppId, modelVerVertex, modelVerId));
+    }
+
+    /**
+     * Gets the delete key hash of a model-ver from the topology cache, if there is one.
+     *
+     * @param modelVerVertex the model-ver vertex
+     * @param computation collects the delete key hash
+     * @return HashMap of all widget-points on the model topology with their "newDataDelFlag"
+     * @throws AAIException the AAI exception
+     */
+    private Map<String, String> getDeleteKeyHash(Vertex modelVerVertex,
+        ModelTopologyCache.Computation<Map<String, String>> computation) throws AAIException {
+        ModelTopologyCache topologyCache = getTopologyCache();
+        if (topologyCache == null || modelVerVertex == null) {
+            return computation.compute();
+        }
+        return topologyCache.getDeleteKeyHash(
+            modelVerVertex.<String>property("model-version-id").orElse(null),
+            modelVerVertex.<String>property(AAIProperties.RESOURCE_VERSION).orElse(null),
+            computation);
+    }
+
+    protected ModelTopologyCache getTopologyCache() {
+        if (SpringContextAware.getApplicationContext() == null) {
+            return null;
+        }
+        return SpringContextAware.getApplicationContext()
+            .getBeanProvider(ModelTopologyCache.class).getIfAvailable();
+    }
+
     /**
      * Gen topo map 4 model.
      *
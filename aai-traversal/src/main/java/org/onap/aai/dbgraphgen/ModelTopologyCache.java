@@ -0,0 +1,238 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.dbgraphgen;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableListMultimap;
+import com.google.common.collect.Multimap;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.onap.aai.exceptions.AAIException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the topologies {@link ModelBasedProcessing} computes from model and
+ * named-query definitions.
+ *
+ * Computing the valid next steps of a model-ver or named-query walks its whole element and
+ * constraint subgraph, while the definitions themselves hardly ever change. The topologies
+ * are therefore kept across requests, keyed by the model-version-id or named-query-uuid.
+ * Every entry remembers the resource-version of the definition it was computed from and
+ * is recomputed once the definition has a different one. Elements changed on their own,
+ * without the model-ver or named-query being written, drop all cached topologies through
+ * {@link #definitionsChanged()} once their event arrives, see
+ * {@link org.onap.aai.rest.search.GraphChangeListener}, and are picked up after the ttl
+ * in any case.
+ */
+@Component
+public class ModelTopologyCache implements MeterBinder {
+
+    /**
+     * Computes a topology that is not cached
+     */
+    @FunctionalInterface
+    public interface Computation<T> {
+        T compute() throws AAIException;
+    }
+
+    private static final String METRIC_PREFIX = "aai.model.topology.cache";
+    private static final String MODEL_VER = "model-ver|";
+    private static final String DELETE_KEYS = "delete-keys|";
+    private static final String NAMED_QUERY = "named-query|";
+    private static final String NAMED_QUERY_ELEMENTS = "named-query-elements|";
+
+    private final boolean enabled;
+    private final Cache<String, Entry> topologies;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final AtomicLong definitionChanges = new AtomicLong();
+
+    @Autowired
+    public ModelTopologyCache(@Value("${model.topology.cache.enabled:false}") boolean enabled,
+        @Value("${model.topology.cache.max-entries:1000}") long maxEntries,
+        @Value("${model.topology.cache.ttl-minutes:10}") long ttlMinutes) {
+        this.enabled = enabled;
+        this.topologies = CacheBuilder.newBuilder().maximumSize(maxEntries)
+            .expireAfterWrite(ttlMinutes, TimeUnit.MINUTES).recordStats().build();
+    }
+
+    /**
+     * Gets the valid next steps of a model-ver
+     *
+     * @param modelVersionId the model-version-id of the model-ver
+     * @param resourceVersion the resource-version of the model-ver
+     * @param computation computes the valid next steps if they are not cached
+     * @return the valid next steps, which must not be modified
+     * @throws AAIException if the model-ver is invalid
+     */
+    public Multimap<String, String> getModelVerTopology(String modelVersionId,
+        String resourceVersion, Computation<Multimap<String, String>> computation)
+        throws AAIException {
+        return get(MODEL_VER, modelVersionId, resourceVersion,
+            () -> ImmutableListMultimap.copyOf(computation.compute()));
+    }
+
+    /**
+     * Gets the delete flags of the widget-points of a model-ver
+     *
+     * @param modelVersionId the model-version-id of the model-ver
+     * @param resourceVersion the resource-version of the model-ver
+     * @param computation computes the delete flags if they are not cached
+     * @return the delete flags, which must not be modified
+     * @throws AAIException if the model-ver is invalid
+     */
+    public Map<String, String> getDeleteKeyHash(String modelVersionId, String resourceVersion,
+        Computation<Map<String, String>> computation) throws AAIException {
+        return get(DELETE_KEYS, modelVersionId, resourceVersion,
+            () -> Collections.unmodifiableMap(new HashMap<>(computation.compute())));
+    }
+
+    /**
+     * Gets the valid next steps of a named-query
+     *
+     * @param namedQueryUuid the named-query-uuid of the named-query
+     * @param resourceVersion the resource-version of the named-query
+     * @param computation computes the valid next steps if they are not cached
+     * @return the valid next steps, which must not be modified
+     * @throws AAIException if the named-query is invalid
+     */
+    public Multimap<String, String> getNamedQueryTopology(String namedQueryUuid,
+        String resourceVersion, Computation<Multimap<String, String>> computation)
+        throws AAIException {
+        return get(NAMED_QUERY, namedQueryUuid, resourceVersion,
+            () -> ImmutableListMultimap.copyOf(computation.compute()));
+    }
+
+    /**
+     * Gets the named-query-element-uuids of the widget-points of a named-query
+     *
+     * @param namedQueryUuid the named-query-uuid of the named-query
+     * @param resourceVersion the resource-version of the named-query
+     * @param computation computes the named-query-element-uuids if they are not cached
+     * @return the named-query-element-uuids, which must not be modified
+     * @throws AAIException if the named-query is invalid
+     */
+    public Map<String, String> getNamedQueryElementHash(String namedQueryUuid,
+        String resourceVersion, Computation<Map<String, String>> computation)
+        throws AAIException {
+        return get(NAMED_QUERY_ELEMENTS, namedQueryUuid, resourceVersion,
+            () -> Collections.unmodifiableMap(new HashMap<>(computation.compute())));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String kind, String id, String resourceVersion,
+        Computation<T> computation) throws AAIException {
+        // without a resource-version a change of the definition could not be noticed
+        if (!enabled || id == null || resourceVersion == null) {
+            return computation.compute();
+        }
+        String key = kind + id;
+        Entry entry = topologies.getIfPresent(key);
+        if (entry != null && entry.resourceVersion.equals(resourceVersion)) {
+            hits.increment();
+            return (T) entry.topology;
+        }
+        if (entry != null) {
+            invalidations.increment();
+        }
+        misses.increment();
+        long generation = definitionChanges.get();
+        T topology = computation.compute();
+        // a topology computed while a definition changed may already be outdated
+        if (generation == definitionChanges.get()) {
+            topologies.put(key, new Entry(resourceVersion, topology));
+        }
+        return topology;
+    }
+
+    /**
+     * Drops all cached topologies, since a model or named-query definition changed
+     */
+    public void definitionsChanged() {
+        definitionChanges.incrementAndGet();
+        invalidations.add(topologies.size());
+        topologies.invalidateAll();
+    }
+
+    public long size() {
+        return topologies.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long invalidationCount() {
+        return invalidations.sum();
+    }
+
+    public long evictionCount() {
+        return topologies.stats().evictionCount();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".hits", this, ModelTopologyCache::hitCount)
+            .description("Model and named-query topologies served from the cache")
+            .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".misses", this, ModelTopologyCache::missCount)
+            .description("Model and named-query topologies that had to be computed")
+            .register(registry);
+        FunctionCounter
+            .builder(METRIC_PREFIX + ".invalidations", this, ModelTopologyCache::invalidationCount)
+            .description("Cached topologies recomputed or dropped for a changed definition")
+            .register(registry);
+        FunctionCounter
+            .builder(METRIC_PREFIX + ".evictions", this, ModelTopologyCache::evictionCount)
+            .description("Cached topologies evicted for the size or age of the cache")
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, ModelTopologyCache::size)
+            .description("Model and named-query topologies currently cached").register(registry);
+    }
+
+    private static final class Entry {
+        private final String resourceVersion;
+        private final Object topology;
+
+        private Entry(String resourceVersion, Object topology) {
+            this.resourceVersion = resourceVersion;
+            this.topology = topology;
+        }
+    }
+}
@@ -79,6 +79,7 @@ public class RequestTransactionLogging extends AAIContainerFilter
             if (uriInfo != null) {
                 String path = uriInfo.getPath();
                 if (path.endsWith("/dsl") || path.endsWith("/query")
+                    || path.contains("/dsl/jobs") || path.contains("/query/jobs")
                     || path.contains("/recents/")) {
                     requestContext.getHeaders().putSingle(ACCEPT, APPLICATION_JSON);
                 } else {
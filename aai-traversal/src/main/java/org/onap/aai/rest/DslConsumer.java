@@ -21,21 +21,27 @@
 package org.onap.aai.rest;
 
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.ws.rs.core.MultivaluedHashMap;
 import jakarta.ws.rs.core.MultivaluedMap;
 
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
-import org.javatuples.Pair;
 import org.onap.aai.exceptions.AAIException;
 import org.onap.aai.introspection.ModelType;
 import org.onap.aai.query.builder.Pageable;
@@ -45,10 +51,19 @@ import org.onap.aai.rest.dsl.V1DslQueryProcessor;
 import org.onap.aai.rest.dsl.V2DslQueryProcessor;
 import org.onap.aai.rest.dsl.v1.DslListener;
 import org.onap.aai.rest.enums.QueryVersion;
+import org.onap.aai.rest.jobs.QueryJob;
+import org.onap.aai.rest.jobs.ResultSpool;
 import org.onap.aai.rest.search.GenericQueryProcessor;
 import org.onap.aai.rest.search.GremlinServerSingleton;
+import org.onap.aai.rest.search.QueryAdmission;
+import org.onap.aai.rest.search.QueryCoalescer;
 import org.onap.aai.rest.search.QueryProcessorType;
+import org.onap.aai.rest.search.ResponseCache;
+import org.onap.aai.rest.search.SerializedQueryResult;
 import org.onap.aai.rest.util.PaginationUtil;
+import org.onap.aai.rest.util.QueryCursor;
+import org.onap.aai.rest.util.QueryDeadline;
+import org.onap.aai.rest.util.StreamingResults;
 import org.onap.aai.serialization.db.DBSerializer;
 import org.onap.aai.serialization.engines.TransactionalGraphEngine;
 import org.onap.aai.serialization.queryformats.Format;
@@ -57,7 +72,7 @@ import org.onap.aai.serialization.queryformats.Formatter;
 import org.onap.aai.serialization.queryformats.SubGraphStyle;
 import org.onap.aai.setup.SchemaVersion;
 import org.onap.aai.setup.SchemaVersions;
-import org.onap.aai.transforms.XmlFormatTransformer;
+import org.onap.aai.transforms.StreamingXmlTransformer;
 import org.onap.aai.util.AAIConfig;
 import org.onap.aai.util.TraversalConstants;
 import org.slf4j.Logger;
@@ -68,7 +83,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
@@ -90,33 +108,30 @@ public class DslConsumer extends TraversalConsumer {
     private static final Logger LOGGER = LoggerFactory.getLogger(DslConsumer.class);
     private static final QueryProcessorType processorType = QueryProcessorType.LOCAL_GROOVY;
     private static final QueryVersion DEFAULT_VERSION = QueryVersion.V1;
+    private static final String ENDPOINT = "dsl";
 
     private final HttpEntry httpEntry;
     private final SchemaVersions schemaVersions;
     private final String basePath;
     private final GremlinServerSingleton gremlinServerSingleton;
-    private final XmlFormatTransformer xmlFormatTransformer;
     private final DslListener v1DslListener;
     private final org.onap.aai.rest.dsl.v2.DslListener v2DslListener;
 
-    private QueryVersion dslApiVersion = DEFAULT_VERSION;
     Map<QueryVersion, DslQueryProcessor> dslQueryProcessors;
 
     @Autowired
     public DslConsumer(@Qualifier("requestScopedTraversalUriHttpEntry") HttpEntry requestScopedTraversalUriHttpEntry,
             SchemaVersions schemaVersions, GremlinServerSingleton gremlinServerSingleton,
-            XmlFormatTransformer xmlFormatTransformer,
             @Value("${schema.uri.base.path}") String basePath, DslListener v1DslListener, org.onap.aai.rest.dsl.v2.DslListener v2DslListener) {
         this.httpEntry = requestScopedTraversalUriHttpEntry;
         this.schemaVersions = schemaVersions;
         this.gremlinServerSingleton = gremlinServerSingleton;
-        this.xmlFormatTransformer = xmlFormatTransformer;
         this.basePath = basePath;
         this.v1DslListener = v1DslListener;
         this.v2DslListener = v2DslListener;
     }
 
-    @PutMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE})
+    @PutMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE, StreamingResults.NDJSON})
     public ResponseEntity<String> executeQuery(@RequestBody String dslQuery,
                                                @PathVariable("version") String versionParam,
                                                @RequestParam(defaultValue = "graphson") String format,
@@ -125,56 +140,357 @@ public class DslConsumer extends TraversalConsumer {
                                                @RequestParam(defaultValue = "-1") int resultIndex,
                                                @RequestParam(defaultValue = "-1") int resultSize,
                                                @RequestHeader HttpHeaders headers,
-                                               HttpServletRequest request) throws FileNotFoundException, AAIException {
+                                               HttpServletRequest request,
+                                               HttpServletResponse response) throws FileNotFoundException, AAIException {
         Set<String> roles = Collections.emptySet();
 
-        return processExecuteQuery(dslQuery, request, versionParam, format, subgraph,
-                validate, headers, new Pageable(resultIndex, resultSize), roles);
+        // the query runs on the request thread, so its deadline interrupts it there
+        long timeout = getTimeout(headers.getFirst("X-FromAppId"));
+        try (QueryDeadline deadline = QueryDeadline.start(timeout)) {
+            try {
+                return processExecuteQuery(dslQuery, request, response, versionParam, format, subgraph,
+                        validate, headers, new Pageable(resultIndex, resultSize), roles);
+            } catch (Exception e) {
+                if (!deadline.isExpired()) {
+                    throw e;
+                }
+                deadline.close();
+                httpEntry.getDbEngine().rollback();
+                throw new AAIException("AAI_7406", "The dsl query did not finish in time");
+            }
+        }
     }
 
-    public ResponseEntity<String> processExecuteQuery(String dslQuery, HttpServletRequest request, String versionParam,
+    /**
+     * Runs the dsl query. If the results are streamed, they are written to the
+     * response directly and null is returned.
+     */
+    public ResponseEntity<String> processExecuteQuery(String dslQuery, HttpServletRequest request,
+            HttpServletResponse response, String versionParam,
             String queryFormat, String subgraph, String validate, HttpHeaders headers,
            Pageable pageable, Set<String> roles) throws FileNotFoundException, AAIException {
 
         final SchemaVersion version = new SchemaVersion(versionParam);
         final String sourceOfTruth = headers.getFirst("X-FromAppId");
         final String dslOverride = headers.getFirst("X-DslOverride");
+        final String dslCompiler = Optional.ofNullable(headers.getFirst("X-DslCompiler"))
+            .orElseGet(() -> AAIConfig.get(TraversalConstants.DSL_COMPILER, "groovy"));
+        final String admissionOverride = headers.getFirst(QueryAdmission.OVERRIDE_HEADER);
         final MultivaluedMap<String,String> queryParams = toMultivaluedMap(request.getParameterMap());
 
+        // the controller is shared, so the version must not outlive the request
+        final QueryVersion queryVersion = getDslApiVersion(headers);
+
+        if (isExplain(queryParams) || isProfile(queryParams)) {
+            validateExplainClient(sourceOfTruth);
+            GenericQueryProcessor processor = createProcessor(dslQuery, request, queryFormat,
+                validate, queryParams, roles, version, queryVersion, dslOverride, dslCompiler);
+            JsonObject explanation =
+                isProfile(queryParams) ? processor.profile() : processor.explain();
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+                .body(explanation.toString());
+        }
+
+        QueryCursor cursor = null;
+        String fingerprint = null;
+        boolean isCursorPagination = isCursorPagination(queryParams);
+        if (isCursorPagination) {
+            if (isAggregate(Format.getFormat(queryFormat))) {
+                throw new AAIException("AAI_3019",
+                    "Cursor pagination is not supported for the aggregate format");
+            }
+            fingerprint = getCursorFingerprint(queryVersion + " " + dslQuery, queryFormat,
+                queryParams);
+            cursor = getCursor(queryParams, pageable, subgraph, fingerprint);
+        }
+
+        MediaType acceptType = getAcceptType(headers);
+        boolean isNdjson = isNdjson(acceptType.toString());
+        if (isNdjson) {
+            validateNdjsonFormat(Format.getFormat(queryFormat));
+        }
+        boolean isXml = MediaType.APPLICATION_XML.isCompatibleWith(acceptType);
+        boolean isStreaming = response != null && (isNdjson || isStreaming(Format.getFormat(queryFormat)));
+        boolean isTotalCountIncluded =
+            PaginationUtil.hasValidPaginationParams(pageable) && isTotalCountIncluded(queryParams);
+
+        // the results of streamed, cursor paginated and history queries are not shared
+        boolean isShared = !isStreaming && !isCursorPagination
+            && !isHistory(Format.getFormat(queryFormat));
+        QueryCoalescer queryCoalescer = isShared ? getQueryCoalescer(ENDPOINT) : null;
+        ResponseCache responseCache = isShared ? getResponseCache() : null;
+        if (responseCache != null && !responseCache.isDslEnabled()) {
+            responseCache = null;
+        }
+        QueryAdmission queryAdmission = getQueryAdmission();
+        if (queryCoalescer != null || responseCache != null) {
+            String key = getQueryKey(ENDPOINT,
+                Arrays.asList(versionParam, String.valueOf(queryVersion), dslOverride, dslCompiler,
+                    dslQuery, String.valueOf(isXml)),
+                queryParams, roles);
+            long cacheEpoch = responseCache != null ? responseCache.epoch() : 0;
+            SerializedQueryResult result = responseCache != null ? responseCache.get(key) : null;
+            AtomicReference<QueryAdmission.Ticket> sharedTicket = new AtomicReference<>();
+            if (result == null) {
+                // identical queries running at the same time share one execution,
+                // its serialized result is also what gets cached
+                result = executeShared(key, queryCoalescer, () -> {
+                    GenericQueryProcessor processor = createProcessor(dslQuery, request, queryFormat,
+                        validate, queryParams, roles, version, queryVersion, dslOverride,
+                        dslCompiler);
+                    try (QueryAdmission.Ticket ticket =
+                        admit(queryAdmission, processor, admissionOverride)) {
+                        sharedTicket.set(ticket);
+                        List<Object> vertices = executeQuery(processor, queryFormat, subgraph, pageable);
+                        Formatter formatter = createFormatter(request, queryFormat, version, sourceOfTruth, queryParams);
+                        JsonObject formatted = format(formatter, processor.getPropertiesMap(), vertices);
+                        Long totalCount = null;
+                        if (isTotalCountIncluded) {
+                            totalCount = isAggregate(Format.getFormat(queryFormat))
+                                ? vertices.size()
+                                : processor.count();
+                        }
+                        return new SerializedQueryResult(
+                            isXml ? StreamingXmlTransformer.transform(formatted) : formatted.toString(),
+                            totalCount);
+                    }
+                });
+                if (responseCache != null) {
+                    responseCache.put(key, cacheEpoch, result);
+                }
+            }
+            HttpHeaders responseHeaders = new HttpHeaders();
+            if (result.getTotalCount() != null) {
+                responseHeaders.add("total-results", String.valueOf(result.getTotalCount()));
+                responseHeaders.add("total-pages", String.valueOf(
+                    PaginationUtil.getTotalPages(pageable, result.getTotalCount())));
+            }
+            if (responseCache != null) {
+                getCacheHeaders(result).forEach(responseHeaders::add);
+            }
+            if (sharedTicket.get() != null) {
+                sharedTicket.get().getHeaders().forEach(responseHeaders::add);
+            }
+            return ResponseEntity.ok().headers(responseHeaders).body(result.getBody());
+        }
+
+        GenericQueryProcessor processor = createProcessor(dslQuery, request, queryFormat,
+            validate, queryParams, roles, version, queryVersion, dslOverride, dslCompiler);
+        // a streamed response holds its admission until it has been written
+        try (QueryAdmission.Ticket admissionTicket =
+            admit(queryAdmission, processor, admissionOverride)) {
+            List<Object> vertices = null;
+            Iterator<?> results = null;
+            String nextCursor = null;
+            if (isCursorPagination) {
+                vertices = processor.executeAfter(cursor == null ? null : cursor.getLastId(),
+                    pageable.getPageSize());
+                nextCursor = getNextCursor(vertices, pageable, fingerprint);
+            } else if (isStreaming && !isAggregate(Format.getFormat(queryFormat))) {
+                results = processor.iterate(SubGraphStyle.valueOf(subgraph), pageable);
+            } else {
+                vertices = executeQuery(processor, queryFormat, subgraph, pageable);
+            }
+
+            HttpHeaders responseHeaders = new HttpHeaders();
+            if (isTotalCountIncluded) {
+                long totalCount = isAggregate(Format.getFormat(queryFormat))
+                    ? vertices.size()
+                    : processor.count();
+                long totalPages = PaginationUtil.getTotalPages(pageable, totalCount);
+                responseHeaders.add("total-results", String.valueOf(totalCount));
+                responseHeaders.add("total-pages", String.valueOf(totalPages));
+            } else if (nextCursor != null) {
+                responseHeaders.add("next-cursor", nextCursor);
+            }
+            if (admissionTicket != null) {
+                admissionTicket.getHeaders().forEach(responseHeaders::add);
+            }
+
+            if (isStreaming || (isXml && response != null)) {
+                // written on the request thread, since the request scoped http entry
+                // and its transaction are only valid while the request is handled
+                Formatter formatter = createFormatter(request, queryFormat, version, sourceOfTruth, queryParams);
+                responseHeaders.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+                if (isNdjson) {
+                    response.setContentType(StreamingResults.NDJSON);
+                } else if (isXml) {
+                    response.setContentType(MediaType.APPLICATION_XML_VALUE);
+                    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                } else {
+                    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                }
+                try {
+                    if (!isStreaming) {
+                        // xml is written from the formatted results instead of a json string
+                        StreamingResults.writeXml(format(formatter, processor.getPropertiesMap(), vertices),
+                            response.getOutputStream());
+                        return null;
+                    }
+                    Iterator<?> streamedResults = vertices != null ? vertices.iterator() : results;
+                    if (isNdjson) {
+                        StreamingResults.writeLines(formatter, streamedResults,
+                            processor.getPropertiesMap(), response.getOutputStream());
+                    } else if (isXml) {
+                        StreamingResults.writeXml(formatter, streamedResults,
+                            processor.getPropertiesMap(), response.getOutputStream());
+                    } else {
+                        StreamingResults.write(formatter, streamedResults,
+                            processor.getPropertiesMap(), response.getOutputStream());
+                    }
+                } catch (IOException e) {
+                    throw new AAIException("AAI_3002", e);
+                }
+                return null;
+            }
+
+            Formatter formatter = createFormatter(request, queryFormat, version, sourceOfTruth, queryParams);
+            JsonObject formatted = format(formatter, processor.getPropertiesMap(), vertices);
+            String result = isXml ? StreamingXmlTransformer.transform(formatted) : formatted.toString();
+            return ResponseEntity.ok().headers(responseHeaders).body(result);
+        }
+    }
+
+    /**
+     * Submits the dsl query as a job, whose results are spooled
+     * and can be fetched once it is done
+     */
+    @PostMapping(value = "/jobs", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> submitJob(@RequestBody String dslQuery,
+                                            @PathVariable("version") String versionParam,
+                                            @RequestParam(defaultValue = "graphson") String format,
+                                            @RequestParam(defaultValue = "no_op") String subgraph,
+                                            @RequestParam(defaultValue = "all") String validate,
+                                            @RequestHeader HttpHeaders headers,
+                                            HttpServletRequest request) throws AAIException {
+        final SchemaVersion version = new SchemaVersion(versionParam);
+        final String sourceOfTruth = headers.getFirst("X-FromAppId");
+        final String dslOverride = headers.getFirst("X-DslOverride");
+        final String dslCompiler = Optional.ofNullable(headers.getFirst("X-DslCompiler"))
+            .orElseGet(() -> AAIConfig.get(TraversalConstants.DSL_COMPILER, "groovy"));
+        final QueryVersion queryVersion = getDslApiVersion(headers);
+        final MultivaluedMap<String, String> queryParams =
+            toMultivaluedMap(request.getParameterMap());
+        final String serverBase =
+            request.getRequestURL().toString().replaceAll("/(v[0-9]+|latest)/.*", "/");
+        final Set<String> roles = Collections.emptySet();
+        Format queryFormat = Format.getFormat(format);
+        // the results are spooled as ndjson
+        validateNdjsonFormat(queryFormat);
+        if (isHistory(queryFormat)) {
+            validateHistoryParams(queryFormat, queryParams);
+        }
+
+        QueryJob job = getQueryJobManager().submit(sourceOfTruth, ENDPOINT, results -> {
+            HttpEntry jobHttpEntry = newHttpEntry();
+            jobHttpEntry.setHttpEntryProperties(version, serverBase);
+            try {
+                GraphTraversalSource traversalSource = getJobTraversalSource(
+                    jobHttpEntry.getDbEngine(), queryFormat, queryParams, roles);
+                GenericQueryProcessor processor = createProcessor(jobHttpEntry, queryVersion,
+                    traversalSource, dslQuery, format, validate, queryParams, dslOverride,
+                    dslCompiler);
+                Formatter formatter = createFormatter(jobHttpEntry, serverBase, format, version,
+                    sourceOfTruth, queryParams);
+                Iterator<?> vertices = isAggregate(queryFormat)
+                    ? executeQuery(processor, format, subgraph, new Pageable(-1, -1)).iterator()
+                    : processor.iterate(SubGraphStyle.valueOf(subgraph), new Pageable(-1, -1));
+                StreamingResults.writeLines(formatter, vertices, processor.getPropertiesMap(),
+                    results);
+            } finally {
+                jobHttpEntry.getDbEngine().rollback();
+            }
+        });
+        return ResponseEntity.accepted()
+            .location(URI.create(request.getRequestURL() + "/" + job.getId()))
+            .contentType(MediaType.APPLICATION_JSON).body(job.toJson().toString());
+    }
+
+    @GetMapping(value = "/jobs/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> getJob(@PathVariable("jobId") String jobId,
+                                         @RequestHeader HttpHeaders headers) throws AAIException {
+        QueryJob job = getQueryJobManager().get(headers.getFirst("X-FromAppId"), jobId);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+            .body(job.toJson().toString());
+    }
+
+    /**
+     * Writes a page of the results of a done job, or all of them as ndjson
+     */
+    @GetMapping(value = "/jobs/{jobId}/results", produces = {MediaType.APPLICATION_JSON_VALUE,
+        MediaType.APPLICATION_XML_VALUE, StreamingResults.NDJSON})
+    public ResponseEntity<String> getJobResults(@PathVariable("jobId") String jobId,
+                                                @RequestParam(defaultValue = "-1") int resultIndex,
+                                                @RequestParam(defaultValue = "-1") int resultSize,
+                                                @RequestHeader HttpHeaders headers,
+                                                HttpServletResponse response) throws AAIException {
+        QueryJob job = getQueryJobManager().getDone(headers.getFirst("X-FromAppId"), jobId);
+        Pageable pageable = new Pageable(resultIndex, resultSize);
+        MediaType acceptType = getAcceptType(headers);
+        boolean isNdjson = isNdjson(acceptType.toString());
+        boolean isXml = MediaType.APPLICATION_XML.isCompatibleWith(acceptType);
+        if (isNdjson) {
+            response.setContentType(StreamingResults.NDJSON);
+            response.addHeader("total-results", String.valueOf(job.getResultCount()));
+        } else {
+            response.setContentType(
+                isXml ? MediaType.APPLICATION_XML_VALUE : MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            getJobResultHeaders(job, pageable).forEach(response::addHeader);
+        }
+        try {
+            if (isNdjson) {
+                ResultSpool.writeLines(job.getSpool(), response.getOutputStream());
+            } else {
+                ResultSpool.writePage(job.getSpool(), pageable, isXml, response.getOutputStream());
+            }
+        } catch (IOException e) {
+            throw new AAIException("AAI_3002", e);
+        }
+        return null;
+    }
+
+    @DeleteMapping(value = "/jobs/{jobId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> cancelJob(@PathVariable("jobId") String jobId,
+                                            @RequestHeader HttpHeaders headers) throws AAIException {
+        QueryJob job = getQueryJobManager().cancel(headers.getFirst("X-FromAppId"), jobId);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON)
+            .body(job.toJson().toString());
+    }
+
+    private QueryVersion getDslApiVersion(HttpHeaders headers) {
         Optional<String> dslApiVersionHeader =
             Optional.ofNullable(headers.getFirst("X-DslApiVersion"));
         if (dslApiVersionHeader.isPresent()) {
             try {
-                dslApiVersion = QueryVersion.valueOf(dslApiVersionHeader.get());
+                return QueryVersion.valueOf(dslApiVersionHeader.get());
             } catch (IllegalArgumentException e) {
                 LOGGER.debug("Defaulting DSL Api Version to  " + DEFAULT_VERSION);
             }
         }
+        return DEFAULT_VERSION;
+    }
 
-        Pair<List<Object>,Map<String,List<String>>> executionResult = executeQuery(dslQuery, request, queryFormat, subgraph, validate, queryParams, pageable,
-                roles, version, sourceOfTruth, dslOverride);
-        List<Object> vertices = executionResult.getValue0();
-
-        String result = serializeResponse(request, queryFormat, headers, version, sourceOfTruth, queryParams, executionResult.getValue1(), vertices);
+    private long getTimeout(String fromAppId) {
+        return QueryDeadline.getTimeout(
+            AAIConfig.get(TraversalConstants.AAI_TRAVERSAL_DSL_TIMEOUT_ENABLED, "false"),
+            AAIConfig.get(TraversalConstants.AAI_TRAVERSAL_DSL_TIMEOUT_APP, ""),
+            AAIConfig.get(TraversalConstants.AAI_TRAVERSAL_DSL_TIMEOUT_LIMIT, "-1"), fromAppId);
+    }
 
-        if (PaginationUtil.hasValidPaginationParams(pageable)) {
-            int totalCount = vertices.size();
-            long totalPages = PaginationUtil.getTotalPages(pageable, totalCount);
-            return ResponseEntity.ok()
-                .header("total-results", String.valueOf(totalCount))
-                .header("total-pages", String.valueOf(totalPages))
-                .body(result);
-        } else {
-            return ResponseEntity.ok(result);
-        }
+    private Formatter createFormatter(HttpServletRequest request, String queryFormat,
+            final SchemaVersion version, final String sourceOfTruth,
+            MultivaluedMap<String, String> queryParameters) throws AAIException {
+        String serverBase = request.getRequestURL().toString().replaceAll("/(v[0-9]+|latest)/.*", "/");
+        return createFormatter(httpEntry, serverBase, queryFormat, version, sourceOfTruth,
+            queryParameters);
     }
 
-    private String serializeResponse(HttpServletRequest request, String queryFormat, HttpHeaders headers,
-            final SchemaVersion version, final String sourceOfTruth, MultivaluedMap<String, String> queryParameters, final Map<String, List<String>> propertiesMap,
-            List<Object> vertices) throws AAIException {
+    private Formatter createFormatter(HttpEntry httpEntry, String serverBase, String queryFormat,
+            final SchemaVersion version, final String sourceOfTruth,
+            MultivaluedMap<String, String> queryParameters) throws AAIException {
         DBSerializer serializer =
             new DBSerializer(version, httpEntry.getDbEngine(), ModelType.MOXY, sourceOfTruth);
-        String serverBase = request.getRequestURL().toString().replaceAll("/(v[0-9]+|latest)/.*", "/");
         FormatFactory ff = new FormatFactory(httpEntry.getLoader(), serializer,
                 schemaVersions, this.basePath, serverBase);
 
@@ -185,35 +501,66 @@ public class DslConsumer extends TraversalConsumer {
             mvm.putSingle("startTs", Long.toString(getStartTime(format, mvm)));
             mvm.putSingle("endTs", Long.toString(getEndTime(mvm)));
         }
-        Formatter formatter = ff.get(format, mvm);
-
-        String result = "";
-        if (propertiesMap != null && !propertiesMap.isEmpty()) {
-            result = formatter.output(vertices, propertiesMap).toString();
-        } else {
-            result = formatter.output(vertices).toString();
-        }
+        return ff.get(format, mvm);
+    }
 
-        MediaType acceptType = headers.getAccept().stream()
+    private MediaType getAcceptType(HttpHeaders headers) {
+        return headers.getAccept().stream()
             .filter(Objects::nonNull)
             .filter(header -> !header.equals(MediaType.ALL))
             .findAny()
             .orElse(MediaType.APPLICATION_JSON);
+    }
+
+    private JsonObject format(Formatter formatter, final Map<String, List<String>> propertiesMap,
+            List<Object> vertices) throws AAIException {
+        if (propertiesMap != null && !propertiesMap.isEmpty()) {
+            return formatter.output(vertices, propertiesMap);
+        }
+        return formatter.output(vertices);
+    }
+
+    private List<Object> executeQuery(GenericQueryProcessor processor, String queryFormat,
+            String subgraph, Pageable pageable) throws AAIException, FileNotFoundException {
+        Format format = Format.getFormat(queryFormat);
+        SubGraphStyle subGraphStyle = SubGraphStyle.valueOf(subgraph);
 
-        if (MediaType.APPLICATION_XML.isCompatibleWith(acceptType)) {
-            result = xmlFormatTransformer.transform(result);
+        if (isAggregate(format)) {
+            // The aggregate format returns all results in a single row,
+            // so its pages can only be cut out of the complete result.
+            List<Object> vertTemp = processor.execute(subGraphStyle);
+            // Dedup if duplicate objects are returned in each array in the aggregate format
+            // scenario.
+            List<Object> vertTempDedupedObjectList = dedupObjectInAggregateFormatResultStreams(vertTemp);
+            return PaginationUtil.hasValidPaginationParams(pageable)
+                ? PaginationUtil.getPaginatedVertexListForAggregateFormat(vertTempDedupedObjectList, pageable)
+                : vertTempDedupedObjectList;
         }
-        return result;
+        return processor.execute(subGraphStyle, pageable);
     }
 
-    private Pair<List<Object>,Map<String,List<String>>> executeQuery(String content, HttpServletRequest req, String queryFormat, String subgraph,
-            String validate, MultivaluedMap<String, String> queryParameters, Pageable pageable, Set<String> roles,
-            final SchemaVersion version, final String sourceOfTruth, final String dslOverride)
-            throws AAIException, FileNotFoundException {
+    private GenericQueryProcessor createProcessor(String content, HttpServletRequest req,
+            String queryFormat, String validate, MultivaluedMap<String, String> queryParameters,
+            Set<String> roles, final SchemaVersion version, final QueryVersion queryVersion,
+            final String dslOverride, final String dslCompiler) throws AAIException {
         final String serverBase =
             req.getRequestURL().toString().replaceAll("/(v[0-9]+|latest)/.*", "/");
         httpEntry.setHttpEntryProperties(version, serverBase);
 
+        Format format = Format.getFormat(queryFormat);
+        if (isHistory(format)) {
+            validateHistoryParams(format, queryParameters);
+        }
+        GraphTraversalSource traversalSource =
+            getTraversalSource(httpEntry.getDbEngine(), format, queryParameters, roles);
+        return createProcessor(httpEntry, queryVersion, traversalSource, content, queryFormat,
+            validate, queryParameters, dslOverride, dslCompiler);
+    }
+
+    private GenericQueryProcessor createProcessor(HttpEntry httpEntry, QueryVersion queryVersion,
+            GraphTraversalSource traversalSource, String content, String queryFormat,
+            String validate, MultivaluedMap<String, String> queryParameters,
+            final String dslOverride, final String dslCompiler) throws AAIException {
         JsonObject input = JsonParser.parseString(content).getAsJsonObject();
         JsonElement dslElement = input.get("dsl");
         String dsl = "";
@@ -225,7 +572,7 @@ public class DslConsumer extends TraversalConsumer {
                 && !AAIConfig.get(TraversalConstants.DSL_OVERRIDE).equals("false")
                 && dslOverride.equals(AAIConfig.get(TraversalConstants.DSL_OVERRIDE));
 
-        DslQueryProcessor dslQueryProcessor = dslApiVersion.equals(QueryVersion.V1)
+        DslQueryProcessor dslQueryProcessor = queryVersion.equals(QueryVersion.V1)
             ? new V1DslQueryProcessor()
             : new V2DslQueryProcessor();
         if (isDslOverride) {
@@ -240,39 +587,14 @@ public class DslConsumer extends TraversalConsumer {
             dslQueryProcessor.setAggregate(true);
         }
 
-        if (isHistory(format)) {
-            validateHistoryParams(format, queryParameters);
-        }
-
         final TransactionalGraphEngine dbEngine = httpEntry.getDbEngine();
-        GraphTraversalSource traversalSource =
-            getTraversalSource(dbEngine, format, queryParameters, roles);
-
-        GenericQueryProcessor processor =
-            new GenericQueryProcessor.Builder(dbEngine, gremlinServerSingleton)
-                .queryFrom(dsl, "dsl").queryProcessor(dslQueryProcessor).version(dslApiVersion)
+        return new GenericQueryProcessor.Builder(dbEngine, gremlinServerSingleton)
+                .queryFrom(dsl, "dsl").queryProcessor(dslQueryProcessor).version(queryVersion)
+                .nativeDsl(TraversalConstants.DSL_COMPILER_NATIVE.equalsIgnoreCase(dslCompiler))
+                .parameterizedDsl(
+                    TraversalConstants.DSL_COMPILER_PARAMETERIZED.equalsIgnoreCase(dslCompiler))
                 .processWith(processorType).format(format).uriParams(queryParameters)
                 .traversalSource(isHistory(format), traversalSource).create();
-
-        SubGraphStyle subGraphStyle = SubGraphStyle.valueOf(subgraph);
-        List<Object> vertTemp = processor.execute(subGraphStyle);
-
-        List<Object> vertices;
-        if (isAggregate(format)) {
-            // Dedup if duplicate objects are returned in each array in the aggregate format
-            // scenario.
-            List<Object> vertTempDedupedObjectList = dedupObjectInAggregateFormatResultStreams(vertTemp);
-            vertices = PaginationUtil.hasValidPaginationParams(pageable)
-                ? vertices = PaginationUtil.getPaginatedVertexListForAggregateFormat(vertTempDedupedObjectList, pageable)
-                : vertTempDedupedObjectList;
-        } else {
-            int startIndex = pageable.getPage() * pageable.getPageSize();
-            vertices = PaginationUtil.hasValidPaginationParams(pageable)
-                ? vertTemp.subList(startIndex, startIndex + pageable.getPageSize())
-                : vertTemp;
-        }
-
-        return Pair.with(vertices, processor.getPropertiesMap());
     }
 
     private List<Object> dedupObjectInAggregateFormatResultStreams(List<Object> vertTemp) {
@@ -30,6 +30,7 @@ import jakarta.ws.rs.core.MediaType;
 import org.janusgraph.core.SchemaViolationException;
 import org.onap.aai.exceptions.AAIException;
 import org.onap.aai.logging.ErrorLogHelper;
+import org.onap.aai.rest.search.QueryAdmission;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -73,7 +74,16 @@ public class GlobalExceptionHandler extends ResponseEntityExceptionHandler {
   AAIException exception,
   WebRequest request
   ){
-    return buildAAIExceptionResponse(exception);
+    if (QueryAdmission.REJECTED.equals(exception.getCode())) {
+      // the query may be admitted once the load is lower
+      HttpHeaders headers = new HttpHeaders();
+      headers.add(HttpHeaders.RETRY_AFTER, "1");
+      return new ResponseEntity<>(getResponseBody(exception), headers,
+          HttpStatus.SERVICE_UNAVAILABLE);
+    }
+    // like the jax-rs consumers, the status is the one configured for the error code
+    return new ResponseEntity<>(getResponseBody(exception), new HttpHeaders(),
+        HttpStatus.valueOf(exception.getErrorObject().getHTTPResponseCode().getStatusCode()));
   }
 
   @ExceptionHandler(Exception.class)
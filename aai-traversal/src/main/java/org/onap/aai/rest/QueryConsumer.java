@@ -19,18 +19,24 @@
  */
 package org.onap.aai.rest;
 
+import java.io.UnsupportedEncodingException;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.LinkedHashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
@@ -42,7 +48,9 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.MultivaluedHashMap;
 import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.Response.ResponseBuilder;
 import jakarta.ws.rs.core.Response.Status;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.core.UriInfo;
 
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
@@ -51,14 +59,24 @@ import org.onap.aai.concurrent.AaiCallable;
 import org.onap.aai.exceptions.AAIException;
 import org.onap.aai.introspection.ModelType;
 import org.onap.aai.logging.ErrorLogHelper;
-import org.onap.aai.parsers.query.QueryParser;
 import org.onap.aai.query.builder.Pageable;
 import org.onap.aai.rest.db.HttpEntry;
+import org.onap.aai.rest.jobs.QueryJob;
+import org.onap.aai.rest.jobs.ResultSpool;
 import org.onap.aai.rest.search.CustomQueryConfig;
 import org.onap.aai.rest.search.GenericQueryProcessor;
 import org.onap.aai.rest.search.GremlinServerSingleton;
+import org.onap.aai.rest.search.QueryAdmission;
+import org.onap.aai.rest.search.QueryCoalescer;
 import org.onap.aai.rest.search.QueryProcessorType;
+import org.onap.aai.rest.search.ResponseCache;
+import org.onap.aai.rest.search.SerializedQueryResult;
+import org.onap.aai.rest.search.StartUriResolver;
 import org.onap.aai.rest.util.PaginationUtil;
+import org.onap.aai.rest.util.QueryCursor;
+import org.onap.aai.rest.util.QueryDeadline;
+import org.onap.aai.rest.util.StreamingResults;
+import org.onap.aai.rest.util.VirtualThreadRunner;
 import org.onap.aai.restcore.HttpMethod;
 import org.onap.aai.restcore.util.URITools;
 import org.onap.aai.serialization.db.DBSerializer;
@@ -70,7 +88,7 @@ import org.onap.aai.serialization.queryformats.Formatter;
 import org.onap.aai.serialization.queryformats.SubGraphStyle;
 import org.onap.aai.setup.SchemaVersion;
 import org.onap.aai.setup.SchemaVersions;
-import org.onap.aai.transforms.XmlFormatTransformer;
+import org.onap.aai.transforms.StreamingXmlTransformer;
 import org.onap.aai.util.TraversalConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -97,27 +115,26 @@ public class QueryConsumer extends TraversalConsumer {
     private QueryProcessorType processorType = QueryProcessorType.LOCAL_GROOVY;
 
     private static final Logger LOGGER = LoggerFactory.getLogger(QueryConsumer.class);
+    private static final String ENDPOINT = "query";
 
     private final HttpEntry traversalUriHttpEntry;
     private final SchemaVersions schemaVersions;
     private final String basePath;
     private final GremlinServerSingleton gremlinServerSingleton;
-    private final XmlFormatTransformer xmlFormatTransformer;
 
     @Autowired
     public QueryConsumer(@Qualifier("traversalUriHttpEntry") HttpEntry traversalUriHttpEntry, SchemaVersions schemaVersions,
-        GremlinServerSingleton gremlinServerSingleton, XmlFormatTransformer xmlFormatTransformer,
+        GremlinServerSingleton gremlinServerSingleton,
         @Value("${schema.uri.base.path}") String basePath) {
         this.traversalUriHttpEntry = traversalUriHttpEntry;
         this.schemaVersions = schemaVersions;
         this.gremlinServerSingleton = gremlinServerSingleton;
         this.basePath = basePath;
-        this.xmlFormatTransformer = xmlFormatTransformer;
     }
 
     @PUT
     @Consumes({ MediaType.APPLICATION_JSON })
-    @Produces({ MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML })
+    @Produces({ MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, StreamingResults.NDJSON })
     @Operation(summary = "Execute A&AI Query", description = "Runs a query using start URIs, a query name, or a Gremlin string.", responses = {
             @ApiResponse(responseCode = "200", description = "Query executed successfully", content = {
                     @Content(mediaType = MediaType.APPLICATION_JSON, schema = @Schema(implementation = String.class)),
@@ -139,7 +156,8 @@ public class QueryConsumer extends TraversalConsumer {
         @Context UriInfo info) {
         Set<String> roles = Collections.emptySet();
 
-        return runner(TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
+        return VirtualThreadRunner.runner(this::runner, this::consumerExceptionResponseGenerator,
+            TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
             TraversalConstants.AAI_TRAVERSAL_TIMEOUT_APP,
             TraversalConstants.AAI_TRAVERSAL_TIMEOUT_LIMIT, headers, info, HttpMethod.GET,
             new AaiCallable<Response>() {
@@ -154,14 +172,21 @@ public class QueryConsumer extends TraversalConsumer {
     public Response processExecuteQuery(String content, HttpServletRequest req, String versionParam,
         String queryFormat, String subgraph, HttpHeaders headers, UriInfo info, Pageable pageable, Set<String> roles) {
 
+        long requestStart = System.nanoTime();
         String sourceOfTruth = headers.getRequestHeaders().getFirst("X-FromAppId");
         String queryProcessor = headers.getRequestHeaders().getFirst("QueryProcessor");
         QueryProcessorType processorType = this.processorType;
         Response response;
         TransactionalGraphEngine dbEngine = null;
+        QueryAdmission.Ticket admissionTicket = null;
 
         try {
             this.checkQueryParams(info.getQueryParameters());
+            boolean isExplain = isExplain(info.getQueryParameters());
+            boolean isProfile = isProfile(info.getQueryParameters());
+            if (isExplain || isProfile) {
+                validateExplainClient(sourceOfTruth);
+            }
             Format format = Format.getFormat(queryFormat);
             if (queryProcessor != null) {
                 processorType = QueryProcessorType.valueOf(queryProcessor);
@@ -226,82 +251,171 @@ public class QueryConsumer extends TraversalConsumer {
                 return (createMessageInvalidQuerySection(queryURI, headers));
             }
 
-            GenericQueryProcessor processor;
+            String acceptType = headers.getHeaderString("Accept");
+
+            if (acceptType == null) {
+                acceptType = MediaType.APPLICATION_JSON;
+            }
+            boolean isXml =
+                MediaType.APPLICATION_XML_TYPE.isCompatible(MediaType.valueOf(acceptType));
+            boolean isNdjson = isNdjson(acceptType);
+            if (isNdjson) {
+                validateNdjsonFormat(format);
+            }
+            boolean isStreaming = isNdjson || isStreaming(format);
+            boolean isCursorPagination = isCursorPagination(info.getQueryParameters());
+            boolean isTotalCountIncluded = PaginationUtil.hasValidPaginationParams(pageable)
+                && isTotalCountIncluded(info.getQueryParameters());
+
+            // the results of other queries are not shared
+            boolean isShared = !isStreaming && !isCursorPagination && !isHistory(format)
+                && !isExplain && !isProfile;
+            QueryCoalescer queryCoalescer = isShared ? getQueryCoalescer(ENDPOINT) : null;
+            ResponseCache responseCache = isShared ? getResponseCache() : null;
+            if (responseCache != null
+                && !responseCache.isEnabled(getStoredQueryName(queryURIObj))) {
+                responseCache = null;
+            }
+            String queryKey = null;
+            long cacheEpoch = 0;
+            if (queryCoalescer != null || responseCache != null) {
+                queryKey = getQueryKey(ENDPOINT,
+                    Arrays.asList(versionParam, content, String.valueOf(isXml), processorType.name()),
+                    info.getQueryParameters(), roles);
+            }
+            if (responseCache != null) {
+                cacheEpoch = responseCache.epoch();
+                SerializedQueryResult cached = responseCache.get(queryKey);
+                if (cached != null) {
+                    return createSharedResponse(cached, acceptType, pageable, true, null);
+                }
+            }
 
             if (isHistory(format)) {
                 validateHistoryParams(format, info.getQueryParameters());
             }
             GraphTraversalSource traversalSource =
                 getTraversalSource(dbEngine, format, info.getQueryParameters(), roles);
-            QueryStyle queryStyle = getQueryStyle(format, traversalUriHttpEntry);
-
-            if (!startURIs.isEmpty()) {
-                Set<Vertex> vertexSet = new LinkedHashSet<>();
-                QueryParser uriQuery;
-                List<Vertex> vertices;
-                for (URI startUri : startURIs) {
-                    uriQuery = dbEngine.getQueryBuilder(queryStyle, traversalSource)
-                        .createQueryFromURI(startUri, URITools.getQueryMap(startUri));
-                    vertices = uriQuery.getQueryBuilder().toList();
-                    vertexSet.addAll(vertices);
-                }
-
-                processor = new GenericQueryProcessor.Builder(dbEngine, gremlinServerSingleton)
-                    .startFrom(vertexSet).queryFrom(queryURIObj).format(format)
-                    .processWith(processorType).traversalSource(isHistory(format), traversalSource)
-                    .create();
-            } else if (!queryURI.equals("")) {
-                processor = new GenericQueryProcessor.Builder(dbEngine, gremlinServerSingleton)
-                    .queryFrom(queryURIObj).processWith(processorType)
-                    .traversalSource(isHistory(format), traversalSource).create();
-            } else {
-                processor = new GenericQueryProcessor.Builder(dbEngine, gremlinServerSingleton)
-                    .queryFrom(gremlin, "gremlin").processWith(processorType)
-                    .traversalSource(isHistory(format), traversalSource).create();
-            }
-            List<Object> vertTemp = processor.execute(subGraphStyle);
-            int fromIndex = pageable.getPage() * pageable.getPageSize();
-            List<Object> vertices = PaginationUtil.hasValidPaginationParams(pageable)
-                ? vertTemp.subList(fromIndex, fromIndex + pageable.getPageSize())
-                : vertTemp;
-
-            DBSerializer serializer =
-                new DBSerializer(version, dbEngine, ModelType.MOXY, sourceOfTruth);
-            FormatFactory ff = new FormatFactory(traversalUriHttpEntry.getLoader(), serializer,
-                schemaVersions, this.basePath, serverBase);
-
-            MultivaluedMap<String, String> mvm = new MultivaluedHashMap<>();
-            mvm.putAll(info.getQueryParameters());
-            if (isHistory(format)) {
-                mvm.putSingle("startTs", Long.toString(getStartTime(format, mvm)));
-                mvm.putSingle("endTs", Long.toString(getEndTime(mvm)));
+            GenericQueryProcessor processor = createProcessor(traversalUriHttpEntry,
+                traversalSource, format, startURIs, queryURIObj, gremlin, processorType);
+            if (isExplain || isProfile) {
+                JsonObject explanation = isProfile ? processor.profile() : processor.explain();
+                return Response.status(Status.OK).type(MediaType.APPLICATION_JSON)
+                    .entity(explanation.toString()).build();
             }
-            Formatter formatter = ff.get(format, mvm);
 
-            String result = formatter.output(vertices).toString();
+            QueryAdmission queryAdmission = getQueryAdmission();
+            String admissionOverride =
+                headers.getRequestHeaders().getFirst(QueryAdmission.OVERRIDE_HEADER);
+            if (queryKey == null) {
+                admissionTicket = admit(queryAdmission, processor, admissionOverride);
+            }
 
-            String acceptType = headers.getHeaderString("Accept");
+            List<Object> vertices = null;
+            String nextCursor = null;
+            if (isCursorPagination) {
+                String fingerprint =
+                    getCursorFingerprint(content, queryFormat, info.getQueryParameters());
+                QueryCursor cursor =
+                    getCursor(info.getQueryParameters(), pageable, subgraph, fingerprint);
+                vertices = processor.executeAfter(cursor == null ? null : cursor.getLastId(),
+                    pageable.getPageSize());
+                nextCursor = getNextCursor(vertices, pageable, fingerprint);
+            } else if (!isStreaming && queryKey == null) {
+                vertices = processor.execute(subGraphStyle, pageable);
+            }
 
-            if (acceptType == null) {
-                acceptType = MediaType.APPLICATION_JSON;
+            Formatter formatter = createFormatter(traversalUriHttpEntry, version, serverBase,
+                sourceOfTruth, format, info.getQueryParameters());
+
+            if (queryKey != null) {
+                // identical queries running at the same time share one execution,
+                // its serialized result is also what gets cached
+                AtomicReference<QueryAdmission.Ticket> sharedTicket = new AtomicReference<>();
+                SerializedQueryResult result = executeShared(queryKey, queryCoalescer, () -> {
+                    try (QueryAdmission.Ticket ticket =
+                        admit(queryAdmission, processor, admissionOverride)) {
+                        sharedTicket.set(ticket);
+                        JsonObject formatted =
+                            formatter.output(processor.execute(subGraphStyle, pageable));
+                        return new SerializedQueryResult(isXml
+                            ? StreamingXmlTransformer.transform(formatted) : formatted.toString(),
+                            isTotalCountIncluded ? processor.count() : null);
+                    }
+                });
+                if (responseCache != null) {
+                    responseCache.put(queryKey, cacheEpoch, result);
+                }
+                return createSharedResponse(result, acceptType, pageable, responseCache != null,
+                    sharedTicket.get());
             }
 
-            if (MediaType.APPLICATION_XML_TYPE.isCompatible(MediaType.valueOf(acceptType))) {
-                result = xmlFormatTransformer.transform(result);
+            Object entity;
+            if (isStreaming) {
+                // the results are read while they are written, so the transaction
+                // is rolled back once the response has been written
+                Iterator<?> results = vertices != null ? vertices.iterator()
+                    : processor.iterate(subGraphStyle, pageable);
+                TransactionalGraphEngine streamingDbEngine = dbEngine;
+                QueryAdmission.Ticket streamingTicket = admissionTicket;
+                // released once written, or when the request completes if it never is
+                QueryAdmission.releaseOnCompletion(req, streamingTicket);
+                // the deadline is closed before the rollback, which clears its interrupt
+                StreamingOutput writeResults = StreamingResults.withDeadline(outputStream -> {
+                    if (isNdjson) {
+                        StreamingResults.writeLines(formatter, results, null, outputStream);
+                    } else if (isXml) {
+                        StreamingResults.writeXml(formatter, results, null, outputStream);
+                    } else {
+                        StreamingResults.write(formatter, results, null, outputStream);
+                    }
+                }, QueryDeadline.getConfiguredTimeout(
+                    TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
+                    TraversalConstants.AAI_TRAVERSAL_TIMEOUT_APP,
+                    TraversalConstants.AAI_TRAVERSAL_TIMEOUT_LIMIT, sourceOfTruth), requestStart);
+                entity = (StreamingOutput) outputStream -> {
+                    try {
+                        writeResults.write(outputStream);
+                    } finally {
+                        streamingDbEngine.rollback();
+                        if (streamingTicket != null) {
+                            streamingTicket.close();
+                        }
+                    }
+                };
+            } else {
+                JsonObject formatted = formatter.output(vertices);
+                if (isXml) {
+                    entity = (StreamingOutput) outputStream -> StreamingResults
+                        .writeXml(formatted, outputStream);
+                } else {
+                    entity = formatted.toString();
+                }
             }
 
-            if (PaginationUtil.hasValidPaginationParams(pageable)) {
-                int totalCount = vertTemp.size();
+            ResponseBuilder responseBuilder =
+                Response.status(Status.OK).type(acceptType).entity(entity);
+            if (isTotalCountIncluded) {
+                long totalCount = processor.count();
                 long totalPages = PaginationUtil.getTotalPages(pageable, totalCount);
-                response = Response.status(Status.OK).type(acceptType)
-                    .header("total-results", totalCount)
-                    .header("total-pages", totalPages)
-                    .entity(result).build();
-            } else {
-                response = Response.status(Status.OK).type(acceptType).entity(result).build();
+                responseBuilder.header("total-results", totalCount)
+                    .header("total-pages", totalPages);
+            } else if (nextCursor != null) {
+                responseBuilder.header("next-cursor", nextCursor);
+            }
+            if (admissionTicket != null) {
+                admissionTicket.getHeaders().forEach(responseBuilder::header);
+            }
+            response = responseBuilder.build();
+            if (isStreaming) {
+                dbEngine = null;
+                admissionTicket = null;
             }
         } catch (AAIException e) {
             response = consumerExceptionResponseGenerator(headers, info, HttpMethod.GET, e);
+            if (QueryAdmission.REJECTED.equals(e.getCode())) {
+                response = Response.fromResponse(response).header("Retry-After", "1").build();
+            }
         } catch (Exception e) {
             AAIException ex = new AAIException("AAI_4000", e);
             response = consumerExceptionResponseGenerator(headers, info, HttpMethod.GET, ex);
@@ -309,12 +423,240 @@ public class QueryConsumer extends TraversalConsumer {
             if (dbEngine != null) {
                 dbEngine.rollback();
             }
+            if (admissionTicket != null) {
+                admissionTicket.close();
+            }
 
         }
 
         return response;
     }
 
+    @POST
+    @Path("jobs")
+    @Consumes({ MediaType.APPLICATION_JSON })
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Submit A&AI Query Job", description = "Runs a query in the background and spools its results.", responses = {
+            @ApiResponse(responseCode = "202", description = "Query job submitted"),
+            @ApiResponse(responseCode = "400", description = "Invalid request"),
+            @ApiResponse(responseCode = "429", description = "Too many query jobs")
+    })
+    public Response submitJob(
+        String content,
+        @PathParam("version") String versionParam,
+        @DefaultValue("graphson") @QueryParam("format") String queryFormat,
+        @DefaultValue("no_op") @QueryParam("subgraph") String subgraph,
+        @Context HttpHeaders headers,
+        @Context HttpServletRequest req,
+        @Context UriInfo info) {
+        Set<String> roles = Collections.emptySet();
+        String sourceOfTruth = headers.getRequestHeaders().getFirst("X-FromAppId");
+        String queryProcessor = headers.getRequestHeaders().getFirst("QueryProcessor");
+        MultivaluedMap<String, String> queryParameters = info.getQueryParameters();
+
+        try {
+            this.checkQueryParams(queryParameters);
+            Format format = Format.getFormat(queryFormat);
+            // the results are spooled as ndjson
+            validateNdjsonFormat(format);
+            if (isHistory(format)) {
+                validateHistoryParams(format, queryParameters);
+            }
+            QueryProcessorType jobProcessorType = queryProcessor != null
+                ? QueryProcessorType.valueOf(queryProcessor) : this.processorType;
+            SubGraphStyle subGraphStyle = SubGraphStyle.valueOf(subgraph);
+
+            JsonObject input = JsonParser.parseString(content).getAsJsonObject();
+            JsonElement startElement = input.get("start");
+            JsonElement queryElement = input.get("query");
+            JsonElement gremlinElement = input.get("gremlin");
+            List<URI> startURIs = new ArrayList<>();
+            if (startElement != null) {
+                if (startElement.isJsonArray()) {
+                    for (JsonElement element : startElement.getAsJsonArray()) {
+                        startURIs.add(new URI(element.getAsString()));
+                    }
+                } else {
+                    startURIs.add(new URI(startElement.getAsString()));
+                }
+            }
+            String queryURI = queryElement != null ? queryElement.getAsString() : "";
+            String gremlin = gremlinElement != null ? gremlinElement.getAsString() : "";
+            URI queryURIObj = new URI(queryURI);
+
+            // an invalid stored query is rejected right away instead of failing the job
+            CustomQueryConfig customQueryConfig = getCustomQueryConfig(queryURIObj);
+            if (customQueryConfig != null) {
+                List<String> missingRequiredQueryParameters =
+                    checkForMissingQueryParameters(customQueryConfig.getQueryRequiredProperties(),
+                        URITools.getQueryMap(queryURIObj));
+                if (!missingRequiredQueryParameters.isEmpty()) {
+                    return createMessageMissingQueryRequiredParameters(
+                        missingRequiredQueryParameters, headers);
+                }
+                List<String> invalidQueryParameters = checkForInvalidQueryParameters(
+                    customQueryConfig, URITools.getQueryMap(queryURIObj));
+                if (!invalidQueryParameters.isEmpty()) {
+                    return createMessageInvalidQueryParameters(invalidQueryParameters, headers);
+                }
+            } else if (queryElement != null) {
+                return createMessageInvalidQuerySection(queryURI, headers);
+            }
+
+            SchemaVersion version = new SchemaVersion(versionParam);
+            String serverBase =
+                req.getRequestURL().toString().replaceAll("/(v[0-9]+|latest)/.*", "/");
+            QueryJob job = getQueryJobManager().submit(sourceOfTruth, ENDPOINT, results -> {
+                HttpEntry jobHttpEntry = newHttpEntry();
+                jobHttpEntry.setHttpEntryProperties(version, serverBase);
+                try {
+                    GenericQueryProcessor processor = createProcessor(jobHttpEntry,
+                        getJobTraversalSource(jobHttpEntry.getDbEngine(), format, queryParameters,
+                            roles),
+                        format, startURIs, queryURIObj, gremlin, jobProcessorType);
+                    Formatter formatter = createFormatter(jobHttpEntry, version, serverBase,
+                        sourceOfTruth, format, queryParameters);
+                    StreamingResults.writeLines(formatter,
+                        processor.iterate(subGraphStyle, new Pageable(-1, -1)), null, results);
+                } finally {
+                    jobHttpEntry.getDbEngine().rollback();
+                }
+            });
+            return Response.status(Status.ACCEPTED).type(MediaType.APPLICATION_JSON)
+                .location(info.getAbsolutePathBuilder().path(job.getId()).build())
+                .entity(job.toJson().toString()).build();
+        } catch (AAIException e) {
+            return consumerExceptionResponseGenerator(headers, info, HttpMethod.POST, e);
+        } catch (Exception e) {
+            AAIException ex = new AAIException("AAI_4000", e);
+            return consumerExceptionResponseGenerator(headers, info, HttpMethod.POST, ex);
+        }
+    }
+
+    @GET
+    @Path("jobs/{jobId}")
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Get A&AI Query Job", description = "Gets the status of a query job.", responses = {
+            @ApiResponse(responseCode = "200", description = "Status of the query job"),
+            @ApiResponse(responseCode = "404", description = "Query job not found")
+    })
+    public Response getJob(
+        @PathParam("jobId") String jobId,
+        @Context HttpHeaders headers,
+        @Context UriInfo info) {
+        try {
+            QueryJob job = getQueryJobManager()
+                .get(headers.getRequestHeaders().getFirst("X-FromAppId"), jobId);
+            return Response.status(Status.OK).type(MediaType.APPLICATION_JSON)
+                .entity(job.toJson().toString()).build();
+        } catch (AAIException e) {
+            return consumerExceptionResponseGenerator(headers, info, HttpMethod.GET, e);
+        }
+    }
+
+    @GET
+    @Path("jobs/{jobId}/results")
+    @Produces({ MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, StreamingResults.NDJSON })
+    @Operation(summary = "Get A&AI Query Job Results", description = "Gets a page of the results of a done query job, or all of them as ndjson.", responses = {
+            @ApiResponse(responseCode = "200", description = "Results of the query job"),
+            @ApiResponse(responseCode = "404", description = "Query job not found"),
+            @ApiResponse(responseCode = "409", description = "Query job is not done")
+    })
+    public Response getJobResults(
+        @PathParam("jobId") String jobId,
+        @DefaultValue("-1") @QueryParam("resultIndex") int resultIndex,
+        @DefaultValue("-1") @QueryParam("resultSize") int resultSize,
+        @Context HttpHeaders headers,
+        @Context UriInfo info) {
+        try {
+            QueryJob job = getQueryJobManager()
+                .getDone(headers.getRequestHeaders().getFirst("X-FromAppId"), jobId);
+            Pageable pageable = new Pageable(resultIndex, resultSize);
+            String acceptType = headers.getHeaderString("Accept");
+            if (acceptType == null) {
+                acceptType = MediaType.APPLICATION_JSON;
+            }
+            boolean isNdjson = isNdjson(acceptType);
+            boolean isXml =
+                MediaType.APPLICATION_XML_TYPE.isCompatible(MediaType.valueOf(acceptType));
+            ResponseBuilder responseBuilder = Response.status(Status.OK).type(acceptType);
+            if (isNdjson) {
+                responseBuilder.header("total-results", job.getResultCount()).entity(
+                    (StreamingOutput) outputStream -> ResultSpool.writeLines(job.getSpool(),
+                        outputStream));
+            } else {
+                getJobResultHeaders(job, pageable).forEach(responseBuilder::header);
+                responseBuilder.entity((StreamingOutput) outputStream -> ResultSpool
+                    .writePage(job.getSpool(), pageable, isXml, outputStream));
+            }
+            return responseBuilder.build();
+        } catch (AAIException e) {
+            return consumerExceptionResponseGenerator(headers, info, HttpMethod.GET, e);
+        }
+    }
+
+    @DELETE
+    @Path("jobs/{jobId}")
+    @Produces({ MediaType.APPLICATION_JSON })
+    @Operation(summary = "Cancel A&AI Query Job", description = "Cancels a query job and removes its results.", responses = {
+            @ApiResponse(responseCode = "200", description = "Query job cancelled"),
+            @ApiResponse(responseCode = "404", description = "Query job not found")
+    })
+    public Response cancelJob(
+        @PathParam("jobId") String jobId,
+        @Context HttpHeaders headers,
+        @Context UriInfo info) {
+        try {
+            QueryJob job = getQueryJobManager()
+                .cancel(headers.getRequestHeaders().getFirst("X-FromAppId"), jobId);
+            return Response.status(Status.OK).type(MediaType.APPLICATION_JSON)
+                .entity(job.toJson().toString()).build();
+        } catch (AAIException e) {
+            return consumerExceptionResponseGenerator(headers, info, HttpMethod.DELETE, e);
+        }
+    }
+
+    private GenericQueryProcessor createProcessor(HttpEntry httpEntry,
+        GraphTraversalSource traversalSource, Format format, List<URI> startURIs, URI queryURIObj,
+        String gremlin, QueryProcessorType processorType)
+        throws AAIException, UnsupportedEncodingException {
+        TransactionalGraphEngine dbEngine = httpEntry.getDbEngine();
+        if (!startURIs.isEmpty()) {
+            QueryStyle queryStyle = getQueryStyle(format, httpEntry);
+            Set<Vertex> vertexSet = new StartUriResolver(dbEngine, queryStyle,
+                traversalSource, httpEntry.getLoader()).resolve(startURIs);
+
+            return new GenericQueryProcessor.Builder(dbEngine, gremlinServerSingleton)
+                .startFrom(vertexSet).queryFrom(queryURIObj).format(format)
+                .processWith(processorType).traversalSource(isHistory(format), traversalSource)
+                .create();
+        } else if (!queryURIObj.toString().equals("")) {
+            return new GenericQueryProcessor.Builder(dbEngine, gremlinServerSingleton)
+                .queryFrom(queryURIObj).processWith(processorType)
+                .traversalSource(isHistory(format), traversalSource).create();
+        }
+        return new GenericQueryProcessor.Builder(dbEngine, gremlinServerSingleton)
+            .queryFrom(gremlin, "gremlin").processWith(processorType)
+            .traversalSource(isHistory(format), traversalSource).create();
+    }
+
+    private Formatter createFormatter(HttpEntry httpEntry, SchemaVersion version,
+        String serverBase, String sourceOfTruth, Format format,
+        MultivaluedMap<String, String> queryParameters) throws AAIException {
+        DBSerializer serializer =
+            new DBSerializer(version, httpEntry.getDbEngine(), ModelType.MOXY, sourceOfTruth);
+        FormatFactory ff = new FormatFactory(httpEntry.getLoader(), serializer,
+            schemaVersions, this.basePath, serverBase);
+
+        MultivaluedMap<String, String> mvm = new MultivaluedHashMap<>();
+        mvm.putAll(queryParameters);
+        if (isHistory(format)) {
+            mvm.putSingle("startTs", Long.toString(getStartTime(format, mvm)));
+            mvm.putSingle("endTs", Long.toString(getEndTime(mvm)));
+        }
+        return ff.get(format, mvm);
+    }
+
     public void checkQueryParams(MultivaluedMap<String, String> params) throws AAIException {
 
         if (params.containsKey("depth") && params.getFirst("depth").matches("\\d+")) {
@@ -340,13 +682,19 @@ public class QueryConsumer extends TraversalConsumer {
     }
 
     private CustomQueryConfig getCustomQueryConfig(URI uriObj) {
+        String storedQueryName = getStoredQueryName(uriObj);
+        return storedQueryName == null ? null
+            : gremlinServerSingleton.getCustomQueryConfig(storedQueryName);
+    }
+
+    private String getStoredQueryName(URI uriObj) {
         String path = uriObj.getPath();
 
         String[] parts = path.split("/");
         boolean hasQuery = false;
         for (String part : parts) {
             if (hasQuery) {
-                return gremlinServerSingleton.getCustomQueryConfig(part);
+                return part;
             }
             if ("query".equals(part)) {
                 hasQuery = true;
@@ -354,7 +702,23 @@ public class QueryConsumer extends TraversalConsumer {
         }
 
         return null;
+    }
 
+    private Response createSharedResponse(SerializedQueryResult result, String acceptType,
+        Pageable pageable, boolean isCacheable, QueryAdmission.Ticket admissionTicket) {
+        ResponseBuilder responseBuilder =
+            Response.status(Status.OK).type(acceptType).entity(result.getBody());
+        if (result.getTotalCount() != null) {
+            responseBuilder.header("total-results", result.getTotalCount()).header("total-pages",
+                PaginationUtil.getTotalPages(pageable, result.getTotalCount()));
+        }
+        if (isCacheable) {
+            getCacheHeaders(result).forEach(responseBuilder::header);
+        }
+        if (admissionTicket != null) {
+            admissionTicket.getHeaders().forEach(responseBuilder::header);
+        }
+        return responseBuilder.build();
     }
 
     private Response createMessageMissingQueryRequiredParameters(
@@ -34,6 +34,7 @@ import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.core.Response.Status;
+import jakarta.ws.rs.core.StreamingOutput;
 import jakarta.ws.rs.core.UriInfo;
 
 import org.onap.aai.concurrent.AaiCallable;
@@ -44,6 +45,9 @@ import org.onap.aai.rest.db.HttpEntry;
 import org.onap.aai.rest.search.GenericQueryProcessor;
 import org.onap.aai.rest.search.GremlinServerSingleton;
 import org.onap.aai.rest.search.QueryProcessorType;
+import org.onap.aai.rest.util.QueryDeadline;
+import org.onap.aai.rest.util.StreamingResults;
+import org.onap.aai.rest.util.VirtualThreadRunner;
 import org.onap.aai.restcore.HttpMethod;
 import org.onap.aai.restcore.RESTAPI;
 import org.onap.aai.serialization.db.DBSerializer;
@@ -54,7 +58,6 @@ import org.onap.aai.serialization.queryformats.Formatter;
 import org.onap.aai.serialization.queryformats.SubGraphStyle;
 import org.onap.aai.setup.SchemaVersion;
 import org.onap.aai.setup.SchemaVersions;
-import org.onap.aai.transforms.XmlFormatTransformer;
 import org.onap.aai.util.AAIConstants;
 import org.onap.aai.util.TraversalConstants;
 import org.slf4j.Logger;
@@ -63,6 +66,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 
+import com.google.gson.JsonObject;
+
 import io.micrometer.core.annotation.Timed;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -92,16 +97,16 @@ public class RecentAPIConsumer extends RESTAPI {
 
     private GremlinServerSingleton gremlinServerSingleton;
 
-    private XmlFormatTransformer xmlFormatTransformer;
+    @Value("${response.streaming.enabled:false}")
+    private boolean streamingEnabled;
 
     @Autowired
     public RecentAPIConsumer(@Qualifier("traversalUriHttpEntry") HttpEntry traversalUriHttpEntry, SchemaVersions schemaVersions,
-            GremlinServerSingleton gremlinServerSingleton, XmlFormatTransformer xmlFormatTransformer,
+            GremlinServerSingleton gremlinServerSingleton,
             @Value("${schema.uri.base.path}") String basePath) {
         this.traversalUriHttpEntry = traversalUriHttpEntry;
         this.schemaVersions = schemaVersions;
         this.gremlinServerSingleton = gremlinServerSingleton;
-        this.xmlFormatTransformer = xmlFormatTransformer;
         this.basePath = basePath;
     }
 
@@ -124,7 +129,8 @@ public class RecentAPIConsumer extends RESTAPI {
             @PathParam("nodeType") String nodeType, @Context HttpHeaders headers,
             @Context HttpServletRequest req, @Context UriInfo info) {
 
-        return runner(TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
+        return VirtualThreadRunner.runner(this::runner, this::consumerExceptionResponseGenerator,
+            TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
             TraversalConstants.AAI_TRAVERSAL_TIMEOUT_APP,
             TraversalConstants.AAI_TRAVERSAL_TIMEOUT_LIMIT, headers, info, HttpMethod.GET,
             new AaiCallable<Response>() {
@@ -140,6 +146,7 @@ public class RecentAPIConsumer extends RESTAPI {
         @PathParam("version") String versionParam, @PathParam("nodeType") String nodeType,
         @Context UriInfo info, @Context HttpHeaders headers) {
 
+        long requestStart = System.nanoTime();
         String sourceOfTruth = headers.getRequestHeaders().getFirst("X-FromAppId");
         String queryProcessor = headers.getRequestHeaders().getFirst("QueryProcessor");
         QueryProcessorType processorType = this.processorType;
@@ -172,7 +179,6 @@ public class RecentAPIConsumer extends RESTAPI {
                 .queryFrom(nodeType, "nodeQuery").uriParams(info.getQueryParameters())
                 .processWith(processorType).create();
 
-            String result = "";
             SubGraphStyle subGraphStyle = null;
             List<Object> vertices = processor.execute(subGraphStyle);
 
@@ -184,22 +190,56 @@ public class RecentAPIConsumer extends RESTAPI {
 
             Formatter formater = ff.get(format, info.getQueryParameters());
 
-            result = formater.output(vertices).toString();
-
-            // LOGGER.info("Completed");
-
             String acceptType = headers.getHeaderString("Accept");
 
             if (acceptType == null) {
                 acceptType = MediaType.APPLICATION_JSON;
             }
+            boolean isXml =
+                MediaType.APPLICATION_XML_TYPE.isCompatible(MediaType.valueOf(acceptType));
+
+            if (streamingEnabled && StreamingResults.isStreamable(format)) {
+                // the vertices are read while they are written, so the transaction
+                // is rolled back once the response has been written
+                TransactionalGraphEngine streamingDbEngine = dbEngine;
+                // the deadline is closed before the rollback, which clears its interrupt
+                StreamingOutput writeResults = StreamingResults.withDeadline(outputStream -> {
+                    if (isXml) {
+                        StreamingResults.writeXml(formater, vertices.iterator(), null,
+                            outputStream);
+                    } else {
+                        StreamingResults.write(formater, vertices.iterator(), null,
+                            outputStream);
+                    }
+                }, QueryDeadline.getConfiguredTimeout(
+                    TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
+                    TraversalConstants.AAI_TRAVERSAL_TIMEOUT_APP,
+                    TraversalConstants.AAI_TRAVERSAL_TIMEOUT_LIMIT, sourceOfTruth), requestStart);
+                StreamingOutput entity = outputStream -> {
+                    try {
+                        writeResults.write(outputStream);
+                    } finally {
+                        streamingDbEngine.rollback();
+                    }
+                };
+                response = Response.status(Status.OK).type(acceptType).entity(entity).build();
+                dbEngine = null;
+            } else {
+                JsonObject formatted = formater.output(vertices);
+
+                // LOGGER.info("Completed");
+
+                Object entity;
+                if (isXml) {
+                    entity = (StreamingOutput) outputStream -> StreamingResults
+                        .writeXml(formatted, outputStream);
+                } else {
+                    entity = formatted.toString();
+                }
 
-            if (MediaType.APPLICATION_XML_TYPE.isCompatible(MediaType.valueOf(acceptType))) {
-                result = xmlFormatTransformer.transform(result);
+                response = Response.status(Status.OK).type(acceptType).entity(entity).build();
             }
 
-            response = Response.status(Status.OK).type(acceptType).entity(result).build();
-
         } catch (AAIException e) {
             response = consumerExceptionResponseGenerator(headers, info, HttpMethod.GET, e);
         } catch (Exception e) {
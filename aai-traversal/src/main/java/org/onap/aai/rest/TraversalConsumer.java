@@ -19,17 +19,38 @@
  */
 package org.onap.aai.rest;
 
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 import jakarta.ws.rs.core.MultivaluedMap;
 import org.apache.tinkerpop.gremlin.process.traversal.P;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
 import org.apache.tinkerpop.gremlin.process.traversal.strategy.decoration.SubgraphStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.strategy.verification.ReadOnlyStrategy;
+import org.apache.tinkerpop.gremlin.structure.Element;
 import org.onap.aai.config.SpringContextAware;
 import org.onap.aai.db.props.AAIProperties;
 import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.query.builder.Pageable;
 import org.onap.aai.rest.db.HttpEntry;
+import org.onap.aai.rest.jobs.QueryJob;
+import org.onap.aai.rest.jobs.QueryJobManager;
+import org.onap.aai.rest.search.GenericQueryProcessor;
+import org.onap.aai.rest.search.QueryAdmission;
+import org.onap.aai.rest.search.QueryCoalescer;
+import org.onap.aai.rest.search.ResponseCache;
+import org.onap.aai.rest.search.SerializedQueryResult;
+import org.onap.aai.rest.util.PaginationUtil;
+import org.onap.aai.rest.util.QueryCursor;
+import org.onap.aai.rest.util.StreamingResults;
 import org.onap.aai.restcore.RESTAPI;
 import org.onap.aai.serialization.engines.QueryStyle;
 import org.onap.aai.serialization.engines.TransactionalGraphEngine;
@@ -42,6 +63,8 @@ public abstract class TraversalConsumer extends RESTAPI {
     private final boolean historyEnabled;
     private final boolean multiTenancyEnabled;
     private final int historyTruncateWindow;
+    private final Set<String> explainClients;
+    private final boolean streamingEnabled;
     private final long currentTime = System.currentTimeMillis();
     private Long startTime = null;
     private Long endTime = null;
@@ -55,6 +78,12 @@ public abstract class TraversalConsumer extends RESTAPI {
             .getEnvironment().getProperty("history.enabled", "false"));
         this.multiTenancyEnabled = Boolean.parseBoolean(SpringContextAware.getApplicationContext()
             .getEnvironment().getProperty("multi.tenancy.enabled", "false"));
+        this.explainClients = Arrays
+            .stream(SpringContextAware.getApplicationContext().getEnvironment()
+                .getProperty("query.explain.clients", "").split(","))
+            .map(String::trim).filter(client -> !client.isEmpty()).collect(Collectors.toSet());
+        this.streamingEnabled = Boolean.parseBoolean(SpringContextAware.getApplicationContext()
+            .getEnvironment().getProperty("response.streaming.enabled", "false"));
     }
 
     public boolean isHistory(Format queryFormat) {
@@ -65,6 +94,35 @@ public abstract class TraversalConsumer extends RESTAPI {
         return Format.aggregate.equals(queryFormat);
     }
 
+    /**
+     * Only the formats that format every result on their own are streamed,
+     * both as json and as xml
+     *
+     * @param queryFormat the format of the results
+     * @return true if the results are written while the traversal is iterated
+     */
+    public boolean isStreaming(Format queryFormat) {
+        return streamingEnabled && StreamingResults.isStreamable(queryFormat);
+    }
+
+    public boolean isNdjson(String acceptType) {
+        return acceptType != null && acceptType.toLowerCase().startsWith(StreamingResults.NDJSON);
+    }
+
+    /**
+     * ndjson responses are always streamed, with one formatted result,
+     * or one row of the aggregate format, per line
+     *
+     * @param queryFormat the format of the results
+     * @throws AAIException if the results of the format cannot be written one per line
+     */
+    protected void validateNdjsonFormat(Format queryFormat) throws AAIException {
+        if (!StreamingResults.isNdjsonFormat(queryFormat)) {
+            throw new AAIException("AAI_3019",
+                "The " + queryFormat + " format cannot be returned as " + StreamingResults.NDJSON);
+        }
+    }
+
     public boolean isHistoryEnabled() {
         return historyEnabled;
     }
@@ -141,6 +199,286 @@ public abstract class TraversalConsumer extends RESTAPI {
         return traversalSource;
     }
 
+    public boolean isExplain(MultivaluedMap<String, String> queryParameters) {
+        return "true".equalsIgnoreCase(queryParameters.getFirst("explain"));
+    }
+
+    public boolean isProfile(MultivaluedMap<String, String> queryParameters) {
+        return "true".equalsIgnoreCase(queryParameters.getFirst("profile"));
+    }
+
+    /**
+     * Counting all results of a paged query needs a second traversal,
+     * so clients that do not need the total-results can skip it
+     *
+     * @param queryParameters the query parameters of the request
+     * @return false if includeTotalCount=false was given
+     */
+    public boolean isTotalCountIncluded(MultivaluedMap<String, String> queryParameters) {
+        return !"false".equalsIgnoreCase(queryParameters.getFirst("includeTotalCount"));
+    }
+
+    public boolean isCursorPagination(MultivaluedMap<String, String> queryParameters) {
+        return queryParameters.containsKey("cursor");
+    }
+
+    /**
+     * Gets the cursor of a cursor paginated request. The first page is requested
+     * with an empty cursor, every following one with the next-cursor of the previous page.
+     *
+     * @param queryParameters the query parameters of the request
+     * @param pageable the resultSize is the size of the pages, a resultIndex is not allowed
+     * @param subGraphStyle only plain results can be ordered by their vertex id
+     * @param fingerprint the fingerprint of the query of the request
+     * @return the cursor or null for the first page
+     * @throws AAIException if the cursor does not match the request
+     */
+    protected QueryCursor getCursor(MultivaluedMap<String, String> queryParameters,
+        Pageable pageable, String subGraphStyle, String fingerprint) throws AAIException {
+        if (pageable.getPageSize() <= 0) {
+            throw new AAIException("AAI_3018", "Cursor pagination requires a resultSize");
+        }
+        if (pageable.getPage() >= 0) {
+            throw new AAIException("AAI_3019", "Use either a cursor or a resultIndex");
+        }
+        if (!"no_op".equals(subGraphStyle)
+            || "true".equalsIgnoreCase(queryParameters.getFirst("as-tree"))) {
+            throw new AAIException("AAI_3019",
+                "Cursor pagination is not supported for subgraphs and trees");
+        }
+        String cursor = queryParameters.getFirst("cursor");
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        return QueryCursor.decode(cursor, fingerprint);
+    }
+
+    /**
+     * Computes the fingerprint a cursor of the request has to match
+     *
+     * @param query the query payload
+     * @param format the format of the results
+     * @param queryParameters the query parameters of the request
+     * @return the fingerprint of the query
+     */
+    protected String getCursorFingerprint(String query, String format,
+        MultivaluedMap<String, String> queryParameters) {
+        return QueryCursor.fingerprint(query, format, queryParameters.getFirst("startTs"),
+            queryParameters.getFirst("endTs"));
+    }
+
+    /**
+     * Gets the query coalescer if identical queries of the endpoint are coalesced
+     *
+     * @param endpoint the endpoint, like query or dsl
+     * @return the coalescer or null if the queries of the endpoint are not coalesced
+     */
+    protected QueryCoalescer getQueryCoalescer(String endpoint) {
+        if (SpringContextAware.getApplicationContext() == null) {
+            return null;
+        }
+        QueryCoalescer queryCoalescer = SpringContextAware.getApplicationContext()
+            .getBeanProvider(QueryCoalescer.class).getIfAvailable();
+        return queryCoalescer != null && queryCoalescer.isEnabled(endpoint) ? queryCoalescer
+            : null;
+    }
+
+    /**
+     * Gets the response cache
+     *
+     * @return the response cache or null if there is none
+     */
+    protected ResponseCache getResponseCache() {
+        if (SpringContextAware.getApplicationContext() == null) {
+            return null;
+        }
+        return SpringContextAware.getApplicationContext().getBeanProvider(ResponseCache.class)
+            .getIfAvailable();
+    }
+
+    /**
+     * Gets the admission control of queries by their estimated cost
+     *
+     * @return the admission control or null if it is disabled
+     */
+    protected QueryAdmission getQueryAdmission() {
+        if (SpringContextAware.getApplicationContext() == null) {
+            return null;
+        }
+        QueryAdmission queryAdmission = SpringContextAware.getApplicationContext()
+            .getBeanProvider(QueryAdmission.class).getIfAvailable();
+        return queryAdmission != null && queryAdmission.isEnabled() ? queryAdmission : null;
+    }
+
+    /**
+     * Admits a query if admission control is enabled
+     *
+     * @param queryAdmission the admission control or null if it is disabled
+     * @param processor the query
+     * @param overrideHeader the X-AdmissionOverride header of the request
+     * @return the ticket of the query or null if admission control is disabled
+     * @throws AAIException if the query is rejected
+     */
+    protected QueryAdmission.Ticket admit(QueryAdmission queryAdmission,
+        GenericQueryProcessor processor, String overrideHeader) throws AAIException {
+        if (queryAdmission == null) {
+            return null;
+        }
+        return queryAdmission.admit(processor.estimateCost(),
+            queryAdmission.isOverride(overrideHeader));
+    }
+
+    /**
+     * Gets the manager of the query jobs
+     *
+     * @return the query job manager
+     * @throws AAIException if the query jobs are not enabled
+     */
+    protected QueryJobManager getQueryJobManager() throws AAIException {
+        QueryJobManager queryJobManager = SpringContextAware.getApplicationContext()
+            .getBeanProvider(QueryJobManager.class).getIfAvailable();
+        if (queryJobManager == null) {
+            throw new AAIException("AAI_3309", "Set query.jobs.enabled=true to run query jobs");
+        }
+        return queryJobManager;
+    }
+
+    /**
+     * Creates an http entry of its own for a query job, since the http entry
+     * of the request and its transaction are gone once the job runs
+     *
+     * @return a new http entry
+     */
+    protected HttpEntry newHttpEntry() {
+        return SpringContextAware.getApplicationContext().getBean("traversalUriHttpEntry",
+            HttpEntry.class);
+    }
+
+    /**
+     * Gets the traversal source of a query job, which may only read the graph
+     *
+     * @param dbEngine the db engine of the job
+     * @param format the format of the results
+     * @param queryParameters the query parameters of the request
+     * @param roles the roles of the request
+     * @return the read only traversal source
+     * @throws AAIException if the history parameters are invalid
+     */
+    protected GraphTraversalSource getJobTraversalSource(TransactionalGraphEngine dbEngine,
+        Format format, MultivaluedMap<String, String> queryParameters, Set<String> roles)
+        throws AAIException {
+        return getTraversalSource(dbEngine, format, queryParameters, roles)
+            .withStrategies(ReadOnlyStrategy.instance());
+    }
+
+    /**
+     * Gets the headers with the number of results of a query job
+     *
+     * @param job the job, which is done
+     * @param pageable the page of the results
+     * @return the total-results and, for a page, the total-pages
+     */
+    protected Map<String, String> getJobResultHeaders(QueryJob job, Pageable pageable) {
+        Map<String, String> resultHeaders = new LinkedHashMap<>();
+        resultHeaders.put("total-results", String.valueOf(job.getResultCount()));
+        if (PaginationUtil.hasValidPaginationParams(pageable)) {
+            resultHeaders.put("total-pages",
+                String.valueOf(PaginationUtil.getTotalPages(pageable, job.getResultCount())));
+        }
+        return resultHeaders;
+    }
+
+    /**
+     * Executes a query whose serialized result is shared, through the coalescer if any
+     *
+     * @param key the key of the query
+     * @param queryCoalescer the coalescer or null if the query is not coalesced
+     * @param execution executes and serializes the query
+     * @return the result
+     * @throws AAIException if the query failed
+     */
+    protected SerializedQueryResult executeShared(String key, QueryCoalescer queryCoalescer,
+        Callable<SerializedQueryResult> execution) throws AAIException {
+        if (queryCoalescer != null) {
+            return queryCoalescer.execute(key, execution);
+        }
+        try {
+            return execution.call();
+        } catch (AAIException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AAIException("AAI_4000", e);
+        }
+    }
+
+    /**
+     * Gets the headers telling if a cacheable result was served from the response cache
+     *
+     * @param result the result
+     * @return the X-Cache header and, for a cached result, its Age in seconds
+     */
+    protected Map<String, String> getCacheHeaders(SerializedQueryResult result) {
+        Map<String, String> cacheHeaders = new LinkedHashMap<>();
+        cacheHeaders.put("X-Cache", result.isCached() ? "HIT" : "MISS");
+        if (result.isCached()) {
+            long age = (System.currentTimeMillis() - result.getCreatedAt()) / 1000;
+            cacheHeaders.put("Age", String.valueOf(Math.max(age, 0)));
+        }
+        return cacheHeaders;
+    }
+
+    /**
+     * Computes the key identifying the result of a query, under which identical
+     * queries are coalesced and their results cached
+     *
+     * @param endpoint the endpoint, like query or dsl
+     * @param query the query payload and everything else outside of the query
+     *        parameters the result depends on, like the version and the media type
+     * @param queryParameters the query parameters of the request
+     * @param roles the roles of the request
+     * @return the key
+     */
+    protected String getQueryKey(String endpoint, List<String> query,
+        MultivaluedMap<String, String> queryParameters, Set<String> roles) {
+        StringBuilder key = new StringBuilder(endpoint);
+        query.forEach(part -> key.append('\0').append(part));
+        new TreeMap<>(queryParameters)
+            .forEach((name, values) -> key.append('\0').append(name).append('=').append(values));
+        key.append('\0').append(new TreeSet<>(roles));
+        return key.toString();
+    }
+
+    /**
+     * Creates the cursor of the page after the given one
+     *
+     * @param results the results of the current page
+     * @param pageable the resultSize is the size of the pages
+     * @param fingerprint the fingerprint of the query of the request
+     * @return the next cursor or null if this was the last page
+     */
+    protected String getNextCursor(List<Object> results, Pageable pageable, String fingerprint) {
+        if (results.isEmpty() || results.size() < pageable.getPageSize()) {
+            return null;
+        }
+        Object last = results.get(results.size() - 1);
+        long lastId = ((Number) ((Element) last).id()).longValue();
+        return new QueryCursor(fingerprint, lastId).encode();
+    }
+
+    /**
+     * Explaining and profiling queries shows their internals and profiling runs them
+     * with extra overhead, so only the clients in query.explain.clients may do it
+     *
+     * @param sourceOfTruth the X-FromAppId of the request
+     * @throws AAIException if the client is not allowed to explain or profile queries
+     */
+    protected void validateExplainClient(String sourceOfTruth) throws AAIException {
+        if (sourceOfTruth == null || !explainClients.contains(sourceOfTruth)) {
+            throw new AAIException("AAI_3101",
+                "Client " + sourceOfTruth + " is not allowed to explain or profile queries");
+        }
+    }
+
     protected void validateHistoryParams(Format format, MultivaluedMap<String, String> params)
         throws AAIException {
         getStartTime(format, params);
@@ -22,12 +22,18 @@ package org.onap.aai.rest.dsl;
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+import org.apache.tinkerpop.gremlin.process.traversal.Pop;
 import org.onap.aai.edges.EdgeIngestor;
 import org.onap.aai.edges.EdgeRule;
 import org.onap.aai.edges.EdgeRuleQuery;
@@ -37,6 +43,9 @@ import org.onap.aai.edges.exceptions.EdgeRuleNotFoundException;
 import org.onap.aai.introspection.Introspector;
 import org.onap.aai.introspection.Loader;
 import org.onap.aai.introspection.exceptions.AAIUnknownObjectException;
+import org.onap.aai.rest.dsl.DslTraversal.DslStep;
+import org.onap.aai.rest.dsl.DslTraversal.EndStep;
+import org.onap.aai.rest.search.QueryCost;
 import org.onap.aai.schema.enums.PropertyMetadata;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,13 +57,39 @@ public class DslQueryBuilder {
     private final Loader loader;
     private StringBuilder query;
     private StringBuilder queryException;
+    private final List<DslStep> steps = new ArrayList<>();
+    private final Map<String, Object> bindings;
+    private final List<Parameter> parameters = new ArrayList<>();
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DslQueryBuilder.class);
     private long selectCount = 0;
 
+    /*
+     * what the cost of the query is estimated from
+     */
+    private String startNode;
+    private QueryCost.Selectivity startSelectivity = QueryCost.Selectivity.SCAN;
+    private int startCount = 1;
+    private int edgeHops = 0;
+    private long limit = -1;
+
     public DslQueryBuilder(EdgeIngestor edgeIngestor, Loader loader) {
+        this(edgeIngestor, loader, new HashMap<>());
+    }
+
+    /**
+     * Instantiates a new DslQueryBuilder
+     *
+     * @param edgeIngestor the edge rules
+     * @param loader the loader of the schema version
+     * @param bindings the filter values of the query by binding name, shared by all
+     *        builders of one query so the binding names are unique
+     */
+    public DslQueryBuilder(EdgeIngestor edgeIngestor, Loader loader,
+        Map<String, Object> bindings) {
         this.edgeRules = edgeIngestor;
         this.loader = loader;
+        this.bindings = bindings;
         query = new StringBuilder();
         queryException = new StringBuilder();
     }
@@ -75,6 +110,62 @@ public class DslQueryBuilder {
         this.queryException = queryException;
     }
 
+    /**
+     * Gets the steps recorded alongside the query string, used to build the
+     * traversal natively instead of evaluating the query string
+     *
+     * @return the recorded steps
+     */
+    public List<DslStep> getSteps() {
+        return steps;
+    }
+
+    public QueryCost.Selectivity getStartSelectivity() {
+        return startSelectivity;
+    }
+
+    public int getStartCount() {
+        return startCount;
+    }
+
+    public int getEdgeHops() {
+        return edgeHops;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+    /**
+     * Gets the cost of a query, estimated from the start of its outermost traversal
+     * and the edge hops of all its traversals
+     *
+     * @param builders the builders of the traversals of the query, the outermost last
+     * @return the cost
+     */
+    public static QueryCost getCost(Deque<DslQueryBuilder> builders) {
+        DslQueryBuilder root = builders.peekLast();
+        int edgeHops = builders.stream().mapToInt(DslQueryBuilder::getEdgeHops).sum();
+        return new QueryCost(root.getStartSelectivity(), root.getStartCount(), edgeHops,
+            root.getLimit());
+    }
+
+    /**
+     * Gets the query with every filter value replaced by the name of its binding,
+     * so queries that only differ in their values have the same parameterized query
+     *
+     * @return the parameterized query
+     */
+    public String getParameterizedQuery() {
+        StringBuilder parameterized = new StringBuilder(query.length());
+        int position = 0;
+        for (Parameter parameter : parameters) {
+            parameterized.append(query, position, parameter.start).append(parameter.name);
+            position = parameter.end;
+        }
+        return parameterized.append(query, position, query.length()).toString();
+    }
+
     public DslQueryBuilder start() {
         query.append("builder");
         return this;
@@ -89,17 +180,25 @@ public class DslQueryBuilder {
             return this.end();
         } else {
             query.append(".select(Pop.mixed,'stepMain').fold().dedup()");
+            steps.add(context -> context
+                .update(builder -> builder.select(Pop.mixed, "stepMain").fold().dedup()));
         }
         return this;
     }
 
     public DslQueryBuilder end() {
         query.append(".cap('x').unfold().dedup()");
+        steps.add(new EndStep());
         return this;
     }
 
     public DslQueryBuilder nodeQuery(String node) {
+        if (startNode == null && edgeHops == 0) {
+            startNode = node;
+        }
         query.append(".getVerticesByProperty('aai-node-type', '").append(node).append("')");
+        steps.add(context -> context
+            .update(builder -> builder.getVerticesByProperty("aai-node-type", node)));
         return this;
     }
 
@@ -179,17 +278,39 @@ public class DslQueryBuilder {
             }
         }
 
+        edgeHops++;
         query.append(edgeTraversalClause).append(edgeType).append(" '").append(aNode).append("','")
             .append(bNode).append("'").append(edgeLabelsClause).append(")");
+        addEdgeStep(edgeLabels, aNode, bNode, edgeType);
 
         return this;
     }
 
+    private void addEdgeStep(List<String> edgeLabels, String aNode, String bNode,
+        String edgeType) {
+        if (!edgeLabels.isEmpty()) {
+            List<String> labels =
+                edgeLabels.stream().map(this::trimSingleQuotes).collect(Collectors.toList());
+            steps.add(context -> context.update(
+                builder -> builder.createEdgeTraversalWithLabels(aNode, bNode, labels)));
+        } else if (edgeType.startsWith("EdgeType.TREE")) {
+            steps.add(context -> context
+                .update(builder -> builder.createEdgeTraversal(EdgeType.TREE, aNode, bNode)));
+        } else if (edgeType.startsWith("EdgeType.COUSIN")) {
+            steps.add(context -> context
+                .update(builder -> builder.createEdgeTraversal(EdgeType.COUSIN, aNode, bNode)));
+        } else {
+            steps.add(
+                context -> context.update(builder -> builder.createEdgeTraversal(aNode, bNode)));
+        }
+    }
+
     public DslQueryBuilder where(boolean isNot) {
         query.append(".where(");
         if (isNot) {
             query.append("builder.newInstance().not(");
         }
+        steps.add(context -> context.openWhere(isNot));
         return this;
     }
 
@@ -198,17 +319,154 @@ public class DslQueryBuilder {
         if (isNot) {
             query.append(")");
         }
+        steps.add(DslTraversal.Context::closeWhere);
         return this;
     }
 
     public DslQueryBuilder limit(String limit) {
         query.append(".limit(").append(limit).append(")");
+        long amount = Long.parseLong(limit);
+        this.limit = amount;
+        steps.add(context -> context.update(builder -> builder.limit(amount)));
         return this;
     }
 
     public DslQueryBuilder filter(boolean isNot, String node, String key, List<String> values) {
-        return this.filterPropertyStart(isNot, values).filterPropertyKeys(node, key, values)
-            .filterPropertyEnd();
+        // filterPropertyKeys converts the values in place, keep the caller's list untouched
+        List<String> filterValues = values == null ? null : new ArrayList<>(values);
+        boolean isBoolean = filterValues != null && !filterValues.isEmpty()
+            && Boolean.parseBoolean(filterValues.get(0));
+        this.filterPropertyStart(isNot, filterValues)
+            .filterPropertyKeys(node, key, filterValues).filterPropertyEnd();
+        addFilterStep(isNot, isBoolean, node, key, filterValues);
+        if (!isNot && filterValues != null && !filterValues.isEmpty() && node.equals(startNode)
+            && edgeHops == 0) {
+            updateStartSelectivity(node, trimSingleQuotes(key), filterValues.size());
+        }
+        return this;
+    }
+
+    /*
+     * A filter on the start node before the first edge hop narrows down where the
+     * query starts, keeps the most selective of them
+     */
+    private void updateStartSelectivity(String node, String key, int valueCount) {
+        try {
+            Introspector obj = loader.introspectorFromName(node);
+            if (obj.isTopLevel() && obj.getKeys().size() == 1 && obj.getKeys().contains(key)) {
+                startSelectivity = QueryCost.Selectivity.UNIQUE;
+                startCount = valueCount;
+            } else if (startSelectivity == QueryCost.Selectivity.SCAN
+                && obj.getIndexedProperties().contains(key)) {
+                startSelectivity = QueryCost.Selectivity.INDEXED;
+                startCount = valueCount;
+            }
+        } catch (AAIUnknownObjectException e) {
+            // already reported by filterPropertyKeys
+        }
+    }
+
+    /*
+     * Mirrors filterPropertyStart and filterPropertyKeys with typed values instead
+     * of groovy literals. Has to run after filterPropertyKeys which converts the values.
+     */
+    private void addFilterStep(boolean isNot, boolean isBoolean, String node, String key,
+        List<String> values) {
+        String propertyKey;
+        try {
+            Introspector obj = loader.introspectorFromName(node);
+            propertyKey = obj.getPropertyMetadata(key.replace("'", ""), PropertyMetadata.DB_ALIAS)
+                .orElse(trimSingleQuotes(key));
+        } catch (AAIUnknownObjectException e) {
+            // already reported by filterPropertyKeys
+            return;
+        }
+
+        if (values == null || values.isEmpty()) {
+            if (isNot) {
+                steps.add(context -> context
+                    .update(builder -> builder.getVerticesExcludeByProperty(propertyKey)));
+            } else {
+                steps.add(context -> context
+                    .update(builder -> builder.getVerticesByProperty(propertyKey)));
+            }
+            return;
+        }
+
+        Object value;
+        if (values.size() > 1) {
+            List<Object> valueList = new ArrayList<>();
+            for (String v : values) {
+                valueList.add(toValue(v));
+            }
+            value = valueList;
+        } else {
+            value = toValue(values.get(0));
+        }
+
+        if (isNot) {
+            steps.add(context -> context
+                .update(builder -> builder.getVerticesExcludeByProperty(propertyKey, value)));
+        } else if (isBoolean) {
+            steps.add(context -> context
+                .update(builder -> builder.getVerticesByBooleanProperty(propertyKey, value)));
+        } else {
+            steps.add(context -> context
+                .update(builder -> builder.getVerticesByProperty(propertyKey, value)));
+        }
+    }
+
+    /**
+     * Converts a literal of the generated query into the value groovy would evaluate it to
+     *
+     * @param literal a quoted string, a number or a boolean
+     * @return the value of the literal
+     */
+    static Object toValue(String literal) {
+        if (literal.length() >= 2 && literal.startsWith("'") && literal.endsWith("'")) {
+            return unescape(literal.substring(1, literal.length() - 1));
+        }
+        if ("true".equals(literal) || "false".equals(literal)) {
+            return Boolean.valueOf(literal);
+        }
+        try {
+            long number = Long.parseLong(literal);
+            if (number >= Integer.MIN_VALUE && number <= Integer.MAX_VALUE) {
+                return (int) number;
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            return literal;
+        }
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder unescaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 'n':
+                        unescaped.append('\n');
+                        break;
+                    case 't':
+                        unescaped.append('\t');
+                        break;
+                    case 'r':
+                        unescaped.append('\r');
+                        break;
+                    default:
+                        unescaped.append(next);
+                }
+            } else {
+                unescaped.append(c);
+            }
+        }
+        return unescaped.toString();
     }
 
     public DslQueryBuilder filterPropertyStart(boolean isNot, List<String> values) {
@@ -263,6 +521,8 @@ public class DslQueryBuilder {
             // String keysArray = String.join(",", keys);
             query.append(".as('").append(selectStep).append("')").append(".as('stepMain').select(Pop.mixed,'")
                 .append(selectStep).append("')");
+            steps.add(context -> context.update(
+                builder -> builder.as(selectStep).as("stepMain").select(Pop.mixed, selectStep)));
         }
         return this;
     }
@@ -285,10 +545,21 @@ public class DslQueryBuilder {
                         values.set(i, getConvertedValue(classType, key, values.get(i)));
                     }
                     String valuesArray = String.join(",", values);
-                    query.append(",").append(" new ArrayList<>(Arrays.asList(").append(valuesArray)
+                    query.append(",").append(" ");
+                    int start = query.length();
+                    query.append("new ArrayList<>(Arrays.asList(").append(valuesArray)
                         .append("))");
+                    List<Object> valueList = new ArrayList<>();
+                    for (String value : values) {
+                        valueList.add(toValue(value));
+                    }
+                    bind(start, Collections.unmodifiableList(valueList));
                 } else { // otherwise values should only contain one value
-                    query.append(",").append(getConvertedValue(classType, key, values.get(0)));
+                    values.set(0, getConvertedValue(classType, key, values.get(0)));
+                    query.append(",");
+                    int start = query.length();
+                    query.append(values.get(0));
+                    bind(start, toValue(values.get(0)));
                 }
             }
         } catch (AAIUnknownObjectException e) {
@@ -297,6 +568,15 @@ public class DslQueryBuilder {
         return this;
     }
 
+    /*
+     * Records the literal appended to the query since start as a binding
+     */
+    private void bind(int start, Object value) {
+        String name = "dslParam" + bindings.size();
+        bindings.put(name, value);
+        parameters.add(new Parameter(name, start, query.length()));
+    }
+
     private String getConvertedValue(String classType, String key, String value) {
         String convertedValue = value;
         if (isTypeSensitive(classType)) {
@@ -349,21 +629,25 @@ public class DslQueryBuilder {
 
     public DslQueryBuilder union() {
         query.append(".union(");
+        steps.add(DslTraversal.Context::openUnion);
         return this;
     }
 
     public DslQueryBuilder endUnion() {
         query.append(")");
+        steps.add(DslTraversal.Context::closeUnion);
         return this;
     }
 
     public DslQueryBuilder store() {
         query.append(".store('x')");
+        steps.add(context -> context.update(builder -> builder.store("x")));
         return this;
     }
 
     public DslQueryBuilder startInstance() {
         query.append("builder.newInstance()");
+        steps.add(DslTraversal.Context::startInstance);
         return this;
     }
 
@@ -373,7 +657,23 @@ public class DslQueryBuilder {
 
     public DslQueryBuilder comma() {
         query.append(",");
+        steps.add(DslTraversal.Context::nextBranch);
         return this;
     }
 
+    /**
+     * A filter value of the query and where its literal is in the query string.
+     */
+    private static final class Parameter {
+        private final String name;
+        private final int start;
+        private final int end;
+
+        Parameter(String name, int start, int end) {
+            this.name = name;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
 }
@@ -0,0 +1,280 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.dsl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.rest.enums.QueryVersion;
+import org.onap.aai.rest.search.GremlinScriptCache;
+import org.onap.aai.rest.search.StoredQueryTemplate;
+import org.onap.aai.setup.SchemaVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bounded cache of parsed DSL queries.
+ *
+ * Parsing a DSL query lexes, parses, walks and validates it, which only depends on the
+ * query text and the processor settings in the {@link Key}. The cached result map holds
+ * the generated query, the properties map and the {@link DslTraversal}, all of which can
+ * be shared by concurrent requests.
+ *
+ * It also holds the compiled templates of parameterized DSL queries, keyed by the
+ * parameterized query, so queries that only differ in their filter values share one
+ * compiled template. The templates are compiled through the shared {@link GremlinScriptCache}.
+ */
+@Component
+public class DslQueryCache implements MeterBinder {
+
+    private static final String METRIC_PREFIX = "aai.dsl.query.cache";
+    private static final String TEMPLATE_METRIC_PREFIX = "aai.dsl.template.cache";
+
+    private final Cache<Key, Map<String, Object>> queries;
+    private final Cache<String, StoredQueryTemplate> templates;
+    private final SchemaVersions schemaVersions;
+    private final GremlinScriptCache scriptCache;
+
+    @Autowired
+    public DslQueryCache(SchemaVersions schemaVersions, GremlinScriptCache scriptCache,
+        @Value("${aai.dsl.query.cache.size:1000}") long maximumSize) {
+        this.schemaVersions = schemaVersions;
+        this.scriptCache = scriptCache;
+        this.queries = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+        this.templates = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    /**
+     * Creates the cache key of a DSL query for the given processor
+     *
+     * @param processor the processor that parses the query
+     * @param version the DSL api version
+     * @param aaiQuery the DSL query
+     * @return the cache key
+     */
+    public Key key(DslQueryProcessor processor, QueryVersion version, String aaiQuery) {
+        return new Key(aaiQuery, version, processor.getValidationRules(),
+            processor.isAggregate(), processor.hasStartNodeValidationFlag(),
+            schemaVersions.getDefaultVersion().toString());
+    }
+
+    /**
+     * Gets the parse result of a DSL query, parsing it only if it is not cached yet.
+     * Failed parses are not cached.
+     *
+     * @param key the cache key
+     * @param parser parses the query on a cache miss
+     * @return a copy of the result map
+     * @throws AAIException if the query could not be parsed
+     */
+    public Map<String, Object> get(Key key, Callable<Map<String, Object>> parser)
+        throws AAIException {
+        try {
+            return new HashMap<>(
+                queries.get(key, () -> Collections.unmodifiableMap(new HashMap<>(parser.call()))));
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AAIException) {
+                throw (AAIException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Gets the compiled template of a parameterized DSL query, compiling it only
+     * if it is not cached yet
+     *
+     * @param parameterizedQuery the DSL query with its filter values replaced by bindings
+     * @return the compiled template
+     */
+    public StoredQueryTemplate getTemplate(String parameterizedQuery) {
+        try {
+            return templates.get(parameterizedQuery,
+                () -> StoredQueryTemplate.compile(scriptCache, parameterizedQuery));
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Gets the keys of the cached queries
+     *
+     * @return the keys of the cached queries
+     */
+    public List<Key> getKeys() {
+        return new ArrayList<>(queries.asMap().keySet());
+    }
+
+    public long size() {
+        return queries.size();
+    }
+
+    public long hitCount() {
+        return queries.stats().hitCount();
+    }
+
+    public long missCount() {
+        return queries.stats().missCount();
+    }
+
+    public long evictionCount() {
+        return queries.stats().evictionCount();
+    }
+
+    public long templateSize() {
+        return templates.size();
+    }
+
+    public long templateHitCount() {
+        return templates.stats().hitCount();
+    }
+
+    public long templateMissCount() {
+        return templates.stats().missCount();
+    }
+
+    public void invalidateAll() {
+        queries.invalidateAll();
+        templates.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".hits", this, DslQueryCache::hitCount)
+            .description("DSL queries served from the parse cache").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".misses", this, DslQueryCache::missCount)
+            .description("DSL queries that had to be parsed").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".evictions", this, DslQueryCache::evictionCount)
+            .description("Parsed DSL queries evicted from the cache").register(registry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, DslQueryCache::size)
+            .description("Parsed DSL queries currently held in the cache").register(registry);
+        FunctionCounter
+            .builder(TEMPLATE_METRIC_PREFIX + ".hits", this, DslQueryCache::templateHitCount)
+            .description("Parameterized DSL queries that reused a compiled template")
+            .register(registry);
+        FunctionCounter
+            .builder(TEMPLATE_METRIC_PREFIX + ".misses", this, DslQueryCache::templateMissCount)
+            .description("Parameterized DSL queries that had to be compiled")
+            .register(registry);
+        Gauge.builder(TEMPLATE_METRIC_PREFIX + ".size", this, DslQueryCache::templateSize)
+            .description("Compiled DSL templates currently held in the cache")
+            .register(registry);
+    }
+
+    /**
+     * Everything the parse result of a DSL query depends on.
+     */
+    public static final class Key {
+        private final String query;
+        private final QueryVersion version;
+        private final String validationRules;
+        private final boolean isAggregate;
+        private final boolean hasStartNodeValidation;
+        private final String schemaVersion;
+
+        Key(String query, QueryVersion version, String validationRules, boolean isAggregate,
+            boolean hasStartNodeValidation, String schemaVersion) {
+            this.query = query;
+            this.version = version;
+            this.validationRules = validationRules;
+            this.isAggregate = isAggregate;
+            this.hasStartNodeValidation = hasStartNodeValidation;
+            this.schemaVersion = schemaVersion;
+        }
+
+        public String getQuery() {
+            return query;
+        }
+
+        public QueryVersion getVersion() {
+            return version;
+        }
+
+        public String getValidationRules() {
+            return validationRules;
+        }
+
+        public boolean isAggregate() {
+            return isAggregate;
+        }
+
+        public boolean hasStartNodeValidation() {
+            return hasStartNodeValidation;
+        }
+
+        public String getSchemaVersion() {
+            return schemaVersion;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return isAggregate == key.isAggregate
+                && hasStartNodeValidation == key.hasStartNodeValidation
+                && Objects.equals(query, key.query) && version == key.version
+                && Objects.equals(validationRules, key.validationRules)
+                && Objects.equals(schemaVersion, key.schemaVersion);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(query, version, validationRules, isAggregate,
+                hasStartNodeValidation, schemaVersion);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.dsl;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * Actuator endpoint to inspect and clear the {@link DslQueryCache}
+ * (GET and DELETE /actuator/dslquerycache on the management port).
+ */
+@Component
+@Endpoint(id = "dslquerycache")
+public class DslQueryCacheEndpoint {
+
+    private final DslQueryCache queryCache;
+
+    public DslQueryCacheEndpoint(DslQueryCache queryCache) {
+        this.queryCache = queryCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> cache() {
+        Map<String, Object> cache = new LinkedHashMap<>();
+        cache.put("size", queryCache.size());
+        cache.put("hits", queryCache.hitCount());
+        cache.put("misses", queryCache.missCount());
+        cache.put("evictions", queryCache.evictionCount());
+        cache.put("templates", queryCache.templateSize());
+        List<Map<String, Object>> queries =
+            queryCache.getKeys().stream().map(this::toMap).collect(Collectors.toList());
+        cache.put("queries", queries);
+        return cache;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        queryCache.invalidateAll();
+    }
+
+    private Map<String, Object> toMap(DslQueryCache.Key key) {
+        Map<String, Object> query = new LinkedHashMap<>();
+        query.put("dsl", key.getQuery());
+        query.put("version", key.getVersion());
+        query.put("validate", key.getValidationRules());
+        query.put("aggregate", key.isAggregate());
+        query.put("startNodeValidation", key.hasStartNodeValidation());
+        query.put("schemaVersion", key.getSchemaVersion());
+        return query;
+    }
+}
@@ -22,10 +22,17 @@ package org.onap.aai.rest.dsl;
 
 import java.io.IOException;
 import java.util.Map;
+import java.util.function.Function;
 
+import org.antlr.v4.runtime.BailErrorStrategy;
 import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.DefaultErrorStrategy;
+import org.antlr.v4.runtime.Parser;
 import org.antlr.v4.runtime.Token;
+import org.antlr.v4.runtime.atn.PredictionMode;
 import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.onap.aai.config.SpringContextAware;
 import org.onap.aai.exceptions.AAIException;
 import org.onap.aai.rest.enums.QueryVersion;
 
@@ -41,6 +48,14 @@ public abstract class DslQueryProcessor {
 
     public Map<String, Object> parseAaiQuery(QueryVersion version, String aaiQuery)
         throws AAIException {
+        DslQueryCache queryCache = getQueryCache();
+        if (queryCache == null) {
+            return parse(aaiQuery);
+        }
+        return queryCache.get(queryCache.key(this, version, aaiQuery), () -> parse(aaiQuery));
+    }
+
+    private Map<String, Object> parse(String aaiQuery) throws AAIException {
         try {
             return getQueryResultMap(aaiQuery);
         } catch(AAIException ex) {
@@ -56,6 +71,43 @@ public abstract class DslQueryProcessor {
         }
     }
 
+    private DslQueryCache getQueryCache() {
+        if (SpringContextAware.getApplicationContext() == null) {
+            return null;
+        }
+        return SpringContextAware.getApplicationContext().getBeanProvider(DslQueryCache.class)
+            .getIfAvailable();
+    }
+
+    /**
+     * Parses the query with the SLL prediction first and only falls back to the
+     * full LL prediction if that fails. The LL pass decides the queries SLL cannot and
+     * reports syntax errors with the usual messages. Use DslParseBenchmark to compare
+     * this with a plain LL parse.
+     *
+     * The generated parsers share their DFA and prediction context caches statically.
+     *
+     * @param parser the parser for the tokens of the query
+     * @param rule the start rule
+     * @return the parse tree
+     * @throws ParseCancellationException if the query has a syntax error
+     */
+    protected static <P extends Parser> ParseTree parse(P parser, Function<P, ParseTree> rule) {
+        parser.removeErrorListeners();
+        parser.setErrorHandler(new BailErrorStrategy());
+        parser.getInterpreter().setPredictionMode(PredictionMode.SLL);
+        try {
+            return rule.apply(parser);
+        } catch (ParseCancellationException e) {
+            // rewinds the token stream
+            parser.reset();
+            parser.addErrorListener(new AAIDslErrorListener());
+            parser.setErrorHandler(new DefaultErrorStrategy());
+            parser.getInterpreter().setPredictionMode(PredictionMode.LL);
+            return rule.apply(parser);
+        }
+    }
+
     /**
      * Check if there is no EOF token at the end of the parsed aaiQuery
      * If none, DSL query may have not been parsed correctly and omitted part of the query
@@ -0,0 +1,187 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.dsl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.introspection.Loader;
+import org.onap.aai.query.builder.QueryBuilder;
+import org.onap.aai.serialization.engines.QueryStyle;
+import org.onap.aai.serialization.engines.TransactionalGraphEngine;
+
+/**
+ * The steps recorded by the {@link DslQueryBuilder}s of a parsed DSL query.
+ *
+ * Replaying the steps onto a traversal style {@link QueryBuilder} produces the same
+ * traversal the generated groovy builder script would, without compiling any script.
+ * The steps are immutable, so one instance can be replayed by any number of requests.
+ */
+public class DslTraversal {
+
+    private final List<DslStep> steps;
+    private final Loader loader;
+
+    public DslTraversal(List<DslStep> steps, Loader loader) {
+        this.steps = Collections.unmodifiableList(new ArrayList<>(steps));
+        this.loader = loader;
+    }
+
+    public List<DslStep> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Builds the graph traversal for this DSL query
+     *
+     * @param dbEngine the db engine providing the query builder
+     * @param style the query style, either TRAVERSAL or HISTORY_TRAVERSAL
+     * @param traversalSource the traversal source to start from
+     * @param asTree if true the trailing dedup of stored vertices is replaced by a tree step
+     * @return the graph traversal starting at g.V()
+     * @throws AAIException if an edge traversal cannot be resolved
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public GraphTraversal<?, ?> toGraphTraversal(TransactionalGraphEngine dbEngine,
+        QueryStyle style, GraphTraversalSource traversalSource, boolean asTree)
+        throws AAIException {
+        QueryBuilder<Vertex> builder = dbEngine.getQueryBuilder(style, traversalSource);
+        builder.changeLoader(loader);
+
+        Context context = new Context(builder);
+        for (DslStep step : steps) {
+            if (asTree && step instanceof EndStep) {
+                continue;
+            }
+            step.apply(context);
+        }
+
+        GraphTraversal.Admin<Vertex, Vertex> traversal = traversalSource.V().asAdmin();
+        Traversal.Admin query = ((GraphTraversal) context.current().getQuery()).asAdmin();
+        TraversalHelper.insertTraversal((Step) traversal.getEndStep(), query, traversal);
+        if (asTree) {
+            return traversal.tree();
+        }
+        return traversal;
+    }
+
+    /**
+     * A single step of a DSL query.
+     */
+    @FunctionalInterface
+    public interface DslStep {
+        void apply(Context context) throws AAIException;
+    }
+
+    /**
+     * A step applied to the query builder that is currently being built.
+     */
+    @FunctionalInterface
+    public interface BuilderStep {
+        QueryBuilder<Vertex> apply(QueryBuilder<Vertex> builder) throws AAIException;
+    }
+
+    /**
+     * The trailing <code>cap('x').unfold().dedup()</code> that as-tree queries drop.
+     */
+    static final class EndStep implements DslStep {
+        @Override
+        public void apply(Context context) throws AAIException {
+            context.update(builder -> builder.cap("x").unfold().dedup());
+        }
+    }
+
+    /**
+     * Keeps track of the nested where and union clauses while the steps are replayed.
+     */
+    public static final class Context {
+
+        private final QueryBuilder<Vertex> root;
+        private final Deque<Frame> frames = new ArrayDeque<>();
+
+        Context(QueryBuilder<Vertex> root) {
+            this.root = root;
+            Frame frame = new Frame(false);
+            frame.current = root;
+            frames.push(frame);
+        }
+
+        QueryBuilder<Vertex> current() {
+            return frames.peek().current;
+        }
+
+        public void update(BuilderStep step) throws AAIException {
+            Frame frame = frames.peek();
+            frame.current = step.apply(frame.current);
+        }
+
+        public void openWhere(boolean isNot) {
+            frames.push(new Frame(isNot));
+        }
+
+        public void openUnion() {
+            frames.push(new Frame(false));
+        }
+
+        public void startInstance() {
+            frames.peek().current = root.newInstance();
+        }
+
+        public void nextBranch() {
+            Frame frame = frames.peek();
+            frame.branches.add(frame.current);
+            frame.current = null;
+        }
+
+        public void closeWhere() throws AAIException {
+            Frame frame = frames.pop();
+            QueryBuilder<Vertex> condition =
+                frame.isNot ? root.newInstance().not(frame.current) : frame.current;
+            update(builder -> builder.where(condition));
+        }
+
+        public void closeUnion() throws AAIException {
+            Frame frame = frames.pop();
+            frame.branches.add(frame.current);
+            QueryBuilder[] branches = frame.branches.toArray(new QueryBuilder[0]);
+            update(builder -> builder.union(branches));
+        }
+    }
+
+    private static final class Frame {
+        private final boolean isNot;
+        private final List<QueryBuilder<Vertex>> branches = new ArrayList<>();
+        private QueryBuilder<Vertex> current;
+
+        Frame(boolean isNot) {
+            this.isNot = isNot;
+        }
+    }
+}
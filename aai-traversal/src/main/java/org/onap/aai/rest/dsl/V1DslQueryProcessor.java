@@ -21,10 +21,7 @@
  */
 package org.onap.aai.rest.dsl;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.Map;
 import org.antlr.v4.runtime.CharStreams;
@@ -55,26 +52,20 @@ public class V1DslQueryProcessor extends DslQueryProcessor {
     @Override
     public Map<String, Object> getQueryResultMap(String aaiQuery) throws IOException, AAIException {
         Map<String, Object> resultMap = new HashMap<>();
-        // Create a input stream that reads our string
-        InputStream stream =
-            new ByteArrayInputStream(aaiQuery.getBytes(StandardCharsets.UTF_8));
-
-        Lexer lexer = new AAIDslLexer(CharStreams.fromStream(stream, StandardCharsets.UTF_8));
+        Lexer lexer = new AAIDslLexer(CharStreams.fromString(aaiQuery));
         lexer.removeErrorListeners();
         lexer.addErrorListener(new AAIDslErrorListener());
         CommonTokenStream tokens = new CommonTokenStream(lexer);
 
         // Parser that feeds off of the tokens buffer
         AAIDslParser parser = new AAIDslParser(tokens);
-        parser.removeErrorListeners();
-        parser.addErrorListener(new AAIDslErrorListener());
 
-        ParseTree ptree = parser.aaiquery();
+        ParseTree ptree = parse(parser, AAIDslParser::aaiquery);
 
         validateQueryIsParsable(tokens);
 
-        if (LOGGER.isInfoEnabled()) {
-            LOGGER.info("QUERY-interim {}", ptree.toStringTree(parser));
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("QUERY-interim {}", ptree.toStringTree(parser));
         }
 
         DslListener dslListener = SpringContextAware.getApplicationContext().getBean(DslListener.class);
@@ -91,6 +82,10 @@ public class V1DslQueryProcessor extends DslQueryProcessor {
         walker.walk(dslListener, ptree);
         String query = dslListener.getQuery();
         resultMap.put("query", query);
+        resultMap.put("traversal", dslListener.getTraversal());
+        resultMap.put("parameterizedQuery", dslListener.getParameterizedQuery());
+        resultMap.put("bindings", dslListener.getBindings());
+        resultMap.put("cost", dslListener.getCost());
 
         LOGGER.info("Final QUERY {}", query);
         return resultMap;
@@ -21,10 +21,7 @@
  */
 package org.onap.aai.rest.dsl;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -56,26 +53,20 @@ public class V2DslQueryProcessor extends DslQueryProcessor {
 
     @Override
     protected Map<String, Object> getQueryResultMap(String aaiQuery) throws IOException, AAIException {
-        // Create a input stream that reads our string
-        InputStream stream =
-        new ByteArrayInputStream(aaiQuery.getBytes(StandardCharsets.UTF_8));
-
-        Lexer lexer = new AAIDslLexer(CharStreams.fromStream(stream, StandardCharsets.UTF_8));
+        Lexer lexer = new AAIDslLexer(CharStreams.fromString(aaiQuery));
         lexer.removeErrorListeners();
         lexer.addErrorListener(new AAIDslErrorListener());
         CommonTokenStream tokens = new CommonTokenStream(lexer);
 
         // Parser that feeds off of the tokens buffer
         AAIDslParser parser = new AAIDslParser(tokens);
-        parser.removeErrorListeners();
-        parser.addErrorListener(new AAIDslErrorListener());
 
-        ParseTree ptree = parser.aaiquery();
+        ParseTree ptree = parse(parser, AAIDslParser::aaiquery);
 
         validateQueryIsParsable(tokens);
 
-        if (LOGGER.isInfoEnabled()) {
-            LOGGER.info("QUERY-interim {}", ptree.toStringTree(parser));
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("QUERY-interim {}", ptree.toStringTree(parser));
         }
 
         DslListener dslListener = SpringContextAware.getApplicationContext().getBean(DslListener.class);
@@ -94,6 +85,10 @@ public class V2DslQueryProcessor extends DslQueryProcessor {
 
         Map<String, Object> resultMap = new HashMap<>();
         resultMap.put("query", query);
+        resultMap.put("traversal", dslListener.getTraversal());
+        resultMap.put("parameterizedQuery", dslListener.getParameterizedQuery());
+        resultMap.put("bindings", dslListener.getBindings());
+        resultMap.put("cost", dslListener.getCost());
 
         Map<String, List<String>> selectKeys = dslListener.getSelectKeys();
         if (selectKeys != null && !selectKeys.isEmpty()) {
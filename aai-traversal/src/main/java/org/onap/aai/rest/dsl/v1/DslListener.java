@@ -34,8 +34,11 @@ import org.onap.aai.introspection.LoaderFactory;
 import org.onap.aai.introspection.ModelType;
 import org.onap.aai.logging.ErrorLogHelper;
 import org.onap.aai.rest.dsl.DslQueryBuilder;
+import org.onap.aai.rest.dsl.DslTraversal;
+import org.onap.aai.rest.dsl.DslTraversal.DslStep;
 import org.onap.aai.rest.dsl.validation.DslValidator;
 import org.onap.aai.rest.dsl.validation.DslValidatorRule;
+import org.onap.aai.rest.search.QueryCost;
 import org.onap.aai.setup.SchemaVersions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +63,7 @@ public class DslListener extends AAIDslBaseListener {
     private String validationRules = "none";
 
     private Deque<DslQueryBuilder> dslQueryBuilders = new LinkedList<>();
+    private final Map<String, Object> bindings = new LinkedHashMap<>();
     private Deque<String> traversedNodes = new LinkedList<>();
     private Deque<List<String>> returnedNodes = new LinkedList<>();
 
@@ -112,6 +116,37 @@ public class DslListener extends AAIDslBaseListener {
         return String.join("", Lists.reverse(queries));
     }
 
+    public String getParameterizedQuery() {
+        List<String> queries = dslQueryBuilders.stream()
+            .map(DslQueryBuilder::getParameterizedQuery).collect(Collectors.toList());
+        return String.join("", Lists.reverse(queries));
+    }
+
+    /**
+     * Gets the filter values lifted out of the parameterized query
+     *
+     * @return the values by binding name
+     */
+    public Map<String, Object> getBindings() {
+        return Collections.unmodifiableMap(bindings);
+    }
+
+    /**
+     * Gets the estimated cost of the query
+     *
+     * @return the cost
+     */
+    public QueryCost getCost() {
+        return DslQueryBuilder.getCost(dslQueryBuilders);
+    }
+
+    public DslTraversal getTraversal() {
+        List<DslStep> steps = new ArrayList<>();
+        Lists.reverse(new ArrayList<>(dslQueryBuilders))
+            .forEach(dslQb -> steps.addAll(dslQb.getSteps()));
+        return new DslTraversal(steps, loader);
+    }
+
     public String getException() {
         List<String> exceptions = dslQueryBuilders.stream()
             .map(dslQb -> dslQb.getQueryException().toString()).collect(Collectors.toList());
@@ -120,7 +155,7 @@ public class DslListener extends AAIDslBaseListener {
 
     @Override
     public void enterAaiquery(AAIDslParser.AaiqueryContext ctx) {
-        dslQueryBuilders.push(new DslQueryBuilder(edgeIngestor, loader));
+        dslQueryBuilders.push(new DslQueryBuilder(edgeIngestor, loader, bindings));
     }
 
     @Override
@@ -151,7 +186,7 @@ public class DslListener extends AAIDslBaseListener {
 
     @Override
     public void enterNestedStatement(AAIDslParser.NestedStatementContext ctx) {
-        dslQueryBuilders.addFirst(new DslQueryBuilder(edgeIngestor, loader));
+        dslQueryBuilders.addFirst(new DslQueryBuilder(edgeIngestor, loader, bindings));
         builder().startInstance();
     }
 
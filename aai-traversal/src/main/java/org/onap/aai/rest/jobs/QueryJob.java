@@ -0,0 +1,140 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.jobs;
+
+import java.nio.file.Path;
+import java.util.concurrent.Future;
+
+import com.google.gson.JsonObject;
+
+/**
+ * A query that runs in the background, and where its results are spooled to.
+ */
+public final class QueryJob {
+
+    public enum Status {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED;
+
+        boolean isFinished() {
+            return this != QUEUED && this != RUNNING;
+        }
+    }
+
+    private final String id;
+    private final String client;
+    private final String endpoint;
+    private final Path spool;
+    private final long createdAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile long startedAt;
+    private volatile long finishedAt;
+    private volatile long resultCount;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    QueryJob(String id, String client, String endpoint, Path spool) {
+        this.id = id;
+        this.client = client;
+        this.endpoint = endpoint;
+        this.spool = spool;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public long getResultCount() {
+        return resultCount;
+    }
+
+    public long getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Path getSpool() {
+        return spool;
+    }
+
+    Future<?> getFuture() {
+        return future;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    synchronized boolean start() {
+        if (status != Status.QUEUED) {
+            return false;
+        }
+        status = Status.RUNNING;
+        startedAt = System.currentTimeMillis();
+        return true;
+    }
+
+    synchronized void finish(Status finalStatus, long results, String message) {
+        if (status.isFinished()) {
+            return;
+        }
+        status = finalStatus;
+        resultCount = results;
+        error = message;
+        finishedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Gets the status of the job as returned to the client
+     *
+     * @return the status
+     */
+    public JsonObject toJson() {
+        JsonObject json = new JsonObject();
+        json.addProperty("job-id", id);
+        json.addProperty("endpoint", endpoint);
+        json.addProperty("status", status.name());
+        json.addProperty("created", createdAt);
+        if (startedAt > 0) {
+            json.addProperty("started", startedAt);
+        }
+        if (finishedAt > 0) {
+            json.addProperty("finished", finishedAt);
+        }
+        if (status == Status.DONE) {
+            json.addProperty("result-count", resultCount);
+        }
+        if (error != null) {
+            json.addProperty("error", error);
+        }
+        return json;
+    }
+}
@@ -0,0 +1,345 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.jobs;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.rest.util.QueryDeadline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs queries as background jobs and spools their results.
+ *
+ * Queries that take minutes do not fit into the timeout of a request. As a job they run on
+ * a bounded executor, without the request timeout but with a runtime limit of their own,
+ * and their formatted results are spooled to a local file the client fetches in pages or
+ * as a stream once the job is done. Every client may only have a few jobs queued or
+ * running at a time, and finished jobs and their results are removed after a while.
+ * <p>
+ * Jobs only live in this instance, so the client has to come back to the same instance
+ * for the results, and jobs do not survive a restart. The jobs are disabled unless
+ * <code>query.jobs.enabled=true</code>, since they spool their results to the local disk.
+ */
+@Component
+@ConditionalOnProperty(value = "query.jobs.enabled", havingValue = "true")
+public class QueryJobManager implements MeterBinder {
+
+    /**
+     * Runs the query of a job and writes its formatted results as ndjson
+     */
+    @FunctionalInterface
+    public interface JobQuery {
+        void run(OutputStream results) throws Exception;
+    }
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(QueryJobManager.class);
+    private static final String METRIC_PREFIX = "aai.query.jobs";
+    private static final String SPOOL_SUFFIX = ".ndjson.gz";
+
+    private final int maxPerClient;
+    private final long ttlMillis;
+    private final long maxRuntimeMs;
+    private final long maxResultBytes;
+    private final Path spoolDir;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, QueryJob> jobs = new ConcurrentHashMap<>();
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private ScheduledExecutorService cleanupExecutor;
+
+    @Autowired
+    public QueryJobManager(@Value("${query.jobs.threads:2}") int threads,
+        @Value("${query.jobs.max-queued:20}") int maxQueued,
+        @Value("${query.jobs.max-per-client:5}") int maxPerClient,
+        @Value("${query.jobs.ttl-minutes:60}") long ttlMinutes,
+        @Value("${query.jobs.max-runtime-ms:3600000}") long maxRuntimeMs,
+        @Value("${query.jobs.max-result-bytes:1073741824}") long maxResultBytes,
+        @Value("${query.jobs.spool-dir:${java.io.tmpdir}/aai-traversal-jobs}") String spoolDir) {
+        this.maxPerClient = maxPerClient;
+        this.ttlMillis = TimeUnit.MINUTES.toMillis(ttlMinutes);
+        this.maxRuntimeMs = maxRuntimeMs;
+        this.maxResultBytes = maxResultBytes;
+        this.spoolDir = Paths.get(spoolDir);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(Math.max(maxQueued, 1)), runnable -> {
+                Thread thread =
+                    new Thread(runnable, "aai-query-job-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @PostConstruct
+    public void initialize() throws IOException {
+        // jobs do not survive a restart, so neither do their results
+        Files.createDirectories(spoolDir);
+        try (DirectoryStream<Path> spools =
+            Files.newDirectoryStream(spoolDir, "*" + SPOOL_SUFFIX)) {
+            for (Path spool : spools) {
+                Files.deleteIfExists(spool);
+            }
+        }
+        cleanupExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "aai-query-jobs-cleanup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleanupExecutor.scheduleWithFixedDelay(this::cleanUp, 1, 1, TimeUnit.MINUTES);
+    }
+
+    /**
+     * Submits a query as a job
+     *
+     * @param client the X-FromAppId of the request, the only client that may access the job
+     * @param endpoint the endpoint, like query or dsl
+     * @param query runs the query and writes its results
+     * @return the job
+     * @throws AAIException if there is no client, the client has too many jobs or too many
+     *         jobs are queued
+     */
+    public synchronized QueryJob submit(String client, String endpoint, JobQuery query)
+        throws AAIException {
+        // a job without a client could never be accessed again
+        if (client == null || client.isEmpty()) {
+            throw new AAIException("AAI_4009", "Query jobs need an X-FromAppId");
+        }
+        long active = jobs.values().stream()
+            .filter(job -> Objects.equals(job.getClient(), client) && !job.getStatus().isFinished())
+            .count();
+        if (active >= maxPerClient) {
+            rejected.increment();
+            throw new AAIException("AAI_3308",
+                "Client " + client + " already has " + active + " query jobs queued or running");
+        }
+        String id = UUID.randomUUID().toString();
+        QueryJob job = new QueryJob(id, client, endpoint, spoolDir.resolve(id + SPOOL_SUFFIX));
+        try {
+            job.setFuture(executor.submit(() -> run(job, query)));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new AAIException("AAI_3308", "Too many query jobs are queued");
+        }
+        jobs.put(id, job);
+        submitted.increment();
+        return job;
+    }
+
+    private void run(QueryJob job, JobQuery query) {
+        if (!job.start()) {
+            return;
+        }
+        try (QueryDeadline deadline = QueryDeadline.start(maxRuntimeMs)) {
+            try {
+                long resultCount;
+                Files.createDirectories(spoolDir);
+                try (ResultSpool.LineCountingOutputStream results =
+                    ResultSpool.create(job.getSpool(), maxResultBytes)) {
+                    query.run(results);
+                    resultCount = results.getLines();
+                }
+                completed.increment();
+                job.finish(QueryJob.Status.DONE, resultCount, null);
+            } catch (Exception e) {
+                deleteSpool(job);
+                if (job.getStatus() == QueryJob.Status.CANCELLED) {
+                    return;
+                }
+                String message = deadline.isExpired()
+                    ? "The query did not finish within " + maxRuntimeMs + " ms"
+                    : String.valueOf(e.getMessage());
+                failed.increment();
+                job.finish(QueryJob.Status.FAILED, 0, message);
+                LOGGER.warn("Query job {} of {} failed: {}", job.getId(), job.getClient(),
+                    message);
+            }
+        }
+        if (job.getStatus() == QueryJob.Status.CANCELLED) {
+            // cancelled while its results were spooled
+            deleteSpool(job);
+        }
+    }
+
+    /**
+     * Gets a job of a client
+     *
+     * @param client the X-FromAppId of the request
+     * @param jobId the id of the job
+     * @return the job
+     * @throws AAIException if the client has no such job
+     */
+    public QueryJob get(String client, String jobId) throws AAIException {
+        QueryJob job = jobId == null ? null : jobs.get(jobId);
+        // the jobs of other clients do not exist for the client
+        if (job == null || !Objects.equals(job.getClient(), client)) {
+            throw new AAIException("AAI_3306", "Query job " + jobId + " does not exist");
+        }
+        return job;
+    }
+
+    /**
+     * Gets a job of a client whose results can be read
+     *
+     * @param client the X-FromAppId of the request
+     * @param jobId the id of the job
+     * @return the job
+     * @throws AAIException if the client has no such job or the job is not done
+     */
+    public QueryJob getDone(String client, String jobId) throws AAIException {
+        QueryJob job = get(client, jobId);
+        if (job.getStatus() != QueryJob.Status.DONE) {
+            throw new AAIException("AAI_3307",
+                "Query job " + jobId + " is " + job.getStatus().name());
+        }
+        return job;
+    }
+
+    /**
+     * Cancels a job of a client and removes it with its results
+     *
+     * @param client the X-FromAppId of the request
+     * @param jobId the id of the job
+     * @return the job
+     * @throws AAIException if the client has no such job
+     */
+    public QueryJob cancel(String client, String jobId) throws AAIException {
+        QueryJob job = get(client, jobId);
+        job.finish(QueryJob.Status.CANCELLED, 0, null);
+        Future<?> future = job.getFuture();
+        if (future != null) {
+            future.cancel(true);
+        }
+        jobs.remove(jobId, job);
+        deleteSpool(job);
+        return job;
+    }
+
+    /**
+     * Removes the finished jobs whose time to live has passed, with their results
+     */
+    void cleanUp() {
+        long expiredBefore = System.currentTimeMillis() - ttlMillis;
+        jobs.values().removeIf(job -> {
+            if (!job.getStatus().isFinished() || job.getFinishedAt() > expiredBefore) {
+                return false;
+            }
+            deleteSpool(job);
+            return true;
+        });
+    }
+
+    private void deleteSpool(QueryJob job) {
+        try {
+            Files.deleteIfExists(job.getSpool());
+        } catch (IOException e) {
+            LOGGER.warn("Could not delete the results of query job {}: {}", job.getId(),
+                e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        if (cleanupExecutor != null) {
+            cleanupExecutor.shutdownNow();
+        }
+    }
+
+    public int jobCount() {
+        return jobs.size();
+    }
+
+    public int runningCount() {
+        return executor.getActiveCount();
+    }
+
+    public int queuedCount() {
+        return executor.getQueue().size();
+    }
+
+    public long submittedCount() {
+        return submitted.sum();
+    }
+
+    public long completedCount() {
+        return completed.sum();
+    }
+
+    public long failedCount() {
+        return failed.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".submitted", this, QueryJobManager::submittedCount)
+            .description("Query jobs submitted").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".completed", this, QueryJobManager::completedCount)
+            .description("Query jobs whose results were spooled").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".failed", this, QueryJobManager::failedCount)
+            .description("Query jobs that failed or ran too long").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".rejections", this, QueryJobManager::rejectedCount)
+            .description("Query jobs rejected by the quotas").register(registry);
+        Gauge.builder(METRIC_PREFIX + ".running", this, QueryJobManager::runningCount)
+            .description("Query jobs currently running").register(registry);
+        Gauge.builder(METRIC_PREFIX + ".queued", this, QueryJobManager::queuedCount)
+            .description("Query jobs waiting for a thread").register(registry);
+        Gauge.builder(METRIC_PREFIX + ".retained", this, QueryJobManager::jobCount)
+            .description("Query jobs kept until their time to live passed").register(registry);
+    }
+}
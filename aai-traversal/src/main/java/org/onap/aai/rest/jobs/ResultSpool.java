@@ -0,0 +1,176 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.jobs;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.onap.aai.query.builder.Pageable;
+import org.onap.aai.rest.util.PaginationUtil;
+import org.onap.aai.transforms.StreamingXmlTransformer;
+
+import com.google.gson.JsonParser;
+
+/**
+ * Reads and writes the spooled results of a query job.
+ *
+ * The results are spooled as gzip compressed ndjson, one formatted result per line as
+ * written by {@link org.onap.aai.rest.util.StreamingResults#writeLines}. Pages are read
+ * by skipping the lines before them, so no result is held in memory longer than it takes
+ * to write it.
+ */
+public final class ResultSpool {
+
+    private ResultSpool() {}
+
+    /**
+     * Opens a spool for writing
+     *
+     * @param spool the spool file
+     * @param maxBytes the most uncompressed bytes that may be written
+     * @return the stream the ndjson results are written to, counting the results
+     * @throws IOException if the spool cannot be created
+     */
+    static LineCountingOutputStream create(Path spool, long maxBytes) throws IOException {
+        return new LineCountingOutputStream(
+            new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(spool))),
+            maxBytes);
+    }
+
+    /**
+     * Writes the spooled results as ndjson
+     *
+     * @param spool the spool file
+     * @param outputStream the response body
+     * @throws IOException if the spool cannot be read or the response cannot be written
+     */
+    public static void writeLines(Path spool, OutputStream outputStream) throws IOException {
+        try (InputStream results = new GZIPInputStream(Files.newInputStream(spool))) {
+            results.transferTo(outputStream);
+        }
+        outputStream.flush();
+    }
+
+    /**
+     * Writes a page of the spooled results as a json or xml document
+     *
+     * @param spool the spool file
+     * @param pageable the page, all results if it is not valid
+     * @param isXml true to write xml instead of json
+     * @param outputStream the response body
+     * @throws IOException if the spool cannot be read or the response cannot be written
+     */
+    public static void writePage(Path spool, Pageable pageable, boolean isXml,
+        OutputStream outputStream) throws IOException {
+        boolean isPaged = PaginationUtil.hasValidPaginationParams(pageable);
+        long from = isPaged ? PaginationUtil.getFromIndex(pageable) : 0;
+        long to = isPaged ? PaginationUtil.getToIndex(pageable) : Long.MAX_VALUE;
+        Writer writer =
+            new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+            new GZIPInputStream(Files.newInputStream(spool)), StandardCharsets.UTF_8))) {
+            if (isXml) {
+                StreamingXmlTransformer.writeStart(writer);
+            } else {
+                writer.write("{\"results\":[");
+            }
+            String line;
+            long index = 0;
+            while (index < to && (line = reader.readLine()) != null) {
+                if (index >= from) {
+                    if (isXml) {
+                        StreamingXmlTransformer.writeResult(JsonParser.parseString(line), writer);
+                    } else {
+                        if (index > from) {
+                            writer.write(',');
+                        }
+                        writer.write(line);
+                    }
+                }
+                index++;
+            }
+            if (isXml) {
+                StreamingXmlTransformer.writeEnd(writer);
+            } else {
+                writer.write("]}");
+            }
+        }
+        writer.flush();
+    }
+
+    /**
+     * Counts the results written to a spool, every result being one line,
+     * and fails once the results get too large
+     */
+    static final class LineCountingOutputStream extends FilterOutputStream {
+        private final long maxBytes;
+        private long lines;
+        private long bytes;
+
+        LineCountingOutputStream(OutputStream out, long maxBytes) {
+            super(out);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            checkSize(1);
+            out.write(b);
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            checkSize(len);
+            out.write(b, off, len);
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+
+        private void checkSize(int len) throws IOException {
+            bytes += len;
+            if (bytes > maxBytes) {
+                throw new IOException("The results exceed " + maxBytes + " bytes");
+            }
+        }
+
+        long getLines() {
+            return lines;
+        }
+    }
+}
@@ -19,10 +19,125 @@
  */
 package org.onap.aai.rest.search;
 
-public abstract class CQConfig {
-    protected GetCustomQueryConfig queryConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.logging.ErrorLogHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public abstract class CQConfig implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CQConfig.class);
+
+    private static final String METRIC_PREFIX = "aai.traversal.storedqueries.reload";
+
+    private static final long DEFAULT_SCRIPT_CACHE_SIZE = 500;
+
+    /*
+     * the stored queries currently in use, a reload replaces them as a whole
+     * so a request never sees a partially loaded set of stored queries
+     */
+    protected final AtomicReference<GetCustomQueryConfig> queryConfig = new AtomicReference<>();
+
+    /*
+     * the stored queries are compiled through the script cache shared with the gremlin
+     * queries, SearchConfiguration replaces this one before the stored queries are loaded
+     */
+    private GremlinScriptCache scriptCache = new GremlinScriptCache(DEFAULT_SCRIPT_CACHE_SIZE);
+
+    private final AtomicLong reloadCount = new AtomicLong();
+    private final AtomicLong reloadNanos = new AtomicLong();
+    private final AtomicLong reloadFailureCount = new AtomicLong();
 
     public GetCustomQueryConfig getCustomQueryConfig() {
-        return queryConfig;
+        return queryConfig.get();
+    }
+
+    public void setScriptCache(GremlinScriptCache scriptCache) {
+        this.scriptCache = scriptCache;
+    }
+
+    /**
+     * Parses the stored queries and precompiles each of them,
+     * so a broken stored query is reported when it is loaded instead of on first use.
+     * Stored queries that did not change since the last load are reused as they are.
+     *
+     * @param customQueryConfigJson the content of the stored queries file
+     * @return the parsed stored queries
+     */
+    protected GetCustomQueryConfig loadCustomQueryConfig(String customQueryConfigJson) {
+        GetCustomQueryConfig customQueryConfig =
+            new GetCustomQueryConfig(customQueryConfigJson, queryConfig.get());
+        logger.info("Loaded {} stored queries, {} of them unchanged",
+            customQueryConfig.getStoredQueries().size(), customQueryConfig.getReusedCount());
+        customQueryConfig.precompile(scriptCache).forEach((queryName, reason) -> ErrorLogHelper
+            .logError("AAI_4002", "Stored query " + queryName + " failed to compile: " + reason));
+        return customQueryConfig;
+    }
+
+    /**
+     * Reads, parses and precompiles the stored queries and then swaps them in.
+     * If any of that fails the stored queries in use are kept.
+     *
+     * @param source the source of the stored queries document
+     * @return true if the stored queries were replaced
+     */
+    protected boolean reload(StoredQueriesSource source) {
+        long start = System.nanoTime();
+        try {
+            String customQueryConfigJson = source.read();
+            if (customQueryConfigJson == null) {
+                return false;
+            }
+            queryConfig.set(loadCustomQueryConfig(customQueryConfigJson));
+            recordReload(start);
+            return true;
+        } catch (Exception e) {
+            reloadFailureCount.incrementAndGet();
+            recordReload(start);
+            ErrorLogHelper.logException(new AAIException("AAI_4002", e));
+            return false;
+        }
+    }
+
+    private void recordReload(long start) {
+        reloadNanos.addAndGet(System.nanoTime() - start);
+        reloadCount.incrementAndGet();
+    }
+
+    public long getReloadCount() {
+        return reloadCount.get();
+    }
+
+    public long getReloadFailureCount() {
+        return reloadFailureCount.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionTimer.builder(METRIC_PREFIX, this, CQConfig::getReloadCount,
+            config -> config.reloadNanos.get(), TimeUnit.NANOSECONDS)
+            .description("Time spent reading, parsing and precompiling the stored queries")
+            .register(registry);
+        FunctionCounter
+            .builder(METRIC_PREFIX + ".failures", this, CQConfig::getReloadFailureCount)
+            .description("Stored query reloads that failed and kept the previous stored queries")
+            .register(registry);
+    }
+
+    @FunctionalInterface
+    protected interface StoredQueriesSource {
+        /**
+         * @return the stored queries document or null if it did not change
+         */
+        String read() throws Exception;
     }
 }
@@ -29,6 +29,7 @@ public class CustomQueryConfig {
     private String query;
     private List<String> queryOptionalProperties;
     private List<String> queryRequiredProperties;
+    private StoredQueryTemplate template;
 
     public void setQuery(String query) {
         this.query = query;
@@ -53,4 +54,17 @@ public class CustomQueryConfig {
     public List<String> getQueryRequiredProperties() {
         return queryRequiredProperties;
     }
+
+    public void setTemplate(StoredQueryTemplate template) {
+        this.template = template;
+    }
+
+    /**
+     * Gets the precompiled form of the stored query
+     *
+     * @return the template or null if the query was not precompiled
+     */
+    public StoredQueryTemplate getTemplate() {
+        return template;
+    }
 }
@@ -29,25 +29,53 @@ import jakarta.ws.rs.core.MultivaluedHashMap;
 import jakarta.ws.rs.core.MultivaluedMap;
 
 import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.step.SideEffectCapable;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.FilterStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.HasStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.RangeGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.filter.TailGlobalStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.GraphStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.map.UnfoldStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.IdentityStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectCapStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.sideEffect.SideEffectStep;
+import org.apache.tinkerpop.gremlin.process.traversal.step.util.HasContainer;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
 import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.javatuples.Pair;
+import org.onap.aai.aailog.logs.AaiDBTraversalMetricLog;
+import org.onap.aai.config.SpringContextAware;
 import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.introspection.Loader;
+import org.onap.aai.introspection.LoaderFactory;
+import org.onap.aai.introspection.ModelType;
 import org.onap.aai.query.builder.MissingOptionalParameter;
+import org.onap.aai.query.builder.Pageable;
+import org.onap.aai.rest.dsl.DslQueryCache;
 import org.onap.aai.rest.dsl.DslQueryProcessor;
+import org.onap.aai.rest.dsl.DslTraversal;
 import org.onap.aai.rest.enums.QueryVersion;
+import org.onap.aai.rest.util.PaginationUtil;
 import org.onap.aai.restcore.search.GroovyQueryBuilder;
 import org.onap.aai.restcore.util.URITools;
 import org.onap.aai.serialization.engines.QueryStyle;
 import org.onap.aai.serialization.engines.TransactionalGraphEngine;
 import org.onap.aai.serialization.queryformats.Format;
 import org.onap.aai.serialization.queryformats.SubGraphStyle;
+import org.onap.aai.setup.SchemaVersions;
+import org.onap.aai.util.AAIConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.gson.JsonObject;
+
 public abstract class GenericQueryProcessor {
 
     private static Logger LOGGER = LoggerFactory.getLogger(GenericQueryProcessor.class);
@@ -79,6 +107,31 @@ public abstract class GenericQueryProcessor {
      */
     protected Optional<String> dsl;
     protected final boolean isDsl;
+    /*
+     * if set, dsl queries are built as traversals directly instead of
+     * being converted to a gremlin string that is evaluated by groovy
+     */
+    protected final boolean isNativeDsl;
+    protected DslTraversal dslTraversal;
+    /*
+     * if set, the filter values of dsl queries are lifted into bindings, so
+     * queries that only differ in their values share one compiled template
+     */
+    protected final boolean isParameterizedDsl;
+    protected String parameterizedDslQuery;
+    protected StoredQueryTemplate storedQueryTemplate;
+    /*
+     * the query that was run, reported when explaining or profiling
+     */
+    protected String executedQuery;
+    /*
+     * the number of results of the last query that had to be run in full to be paged
+     */
+    protected Long resultCount;
+    /*
+     * the parsed dsl query, shared by estimating its cost and running it
+     */
+    private Map<String, Object> dslParseResult;
     protected boolean isHistory;
     protected GraphTraversalSource traversalSource;
     protected QueryStyle style;
@@ -93,6 +146,8 @@ public abstract class GenericQueryProcessor {
         this.isGremlin = builder.isGremlin();
         this.dsl = builder.getDsl();
         this.isDsl = builder.isDsl();
+        this.isNativeDsl = builder.isNativeDsl();
+        this.isParameterizedDsl = builder.isParameterizedDsl();
         this.gremlinServerSingleton = builder.getGremlinServerSingleton();
         this.dslQueryProcessorOptional = builder.getDslQueryProcessor();
         this.dslApiVersion = builder.getDslApiVersion();
@@ -133,31 +188,294 @@ public abstract class GenericQueryProcessor {
     }
 
     public List<Object> execute(SubGraphStyle style) throws FileNotFoundException, AAIException {
-        final List<Object> resultVertices;
+        GraphTraversal<?, ?> g = this.createTraversal();
+        if (g == null) {
+            // nothing to do, just exit
+            return new ArrayList<>();
+        }
+        return this.processSubGraph(style, g);
+    }
 
+    /**
+     * Runs the query for one page of results.
+     *
+     * Without a subgraph the range of the page is pushed into the traversal, so only
+     * the results of the page are fetched. Subgraphs are built from all results,
+     * so they are still run in full and paged afterwards.
+     *
+     * @param style the subgraph style
+     * @param pageable the page, all results are returned if it has no valid pagination params
+     * @return the results of the page
+     */
+    public List<Object> execute(SubGraphStyle style, Pageable pageable)
+        throws FileNotFoundException, AAIException {
+        if (!PaginationUtil.hasValidPaginationParams(pageable)) {
+            return this.execute(style);
+        }
+        if (!SubGraphStyle.no_op.equals(style)) {
+            List<Object> results = this.execute(style);
+            resultCount = (long) results.size();
+            return PaginationUtil.getPaginatedVertexList(results, pageable);
+        }
+        GraphTraversal<?, ?> g = this.createTraversal();
+        if (g == null) {
+            return new ArrayList<>();
+        }
+        g.range(PaginationUtil.getFromIndex(pageable), PaginationUtil.getToIndex(pageable));
+        return this.processSubGraph(style, g);
+    }
+
+    /**
+     * Runs the query without collecting its results, so they can be serialized
+     * while the traversal is iterated. Subgraphs are built from all results,
+     * so they are still collected first.
+     *
+     * @param style the subgraph style
+     * @param pageable the page, all results are returned if it has no valid pagination params
+     * @return the results of the page
+     */
+    public Iterator<?> iterate(SubGraphStyle style, Pageable pageable)
+        throws FileNotFoundException, AAIException {
+        if (!SubGraphStyle.no_op.equals(style)) {
+            return this.execute(style, pageable).iterator();
+        }
+        GraphTraversal<?, ?> g = this.createTraversal();
+        if (g == null) {
+            return Collections.emptyIterator();
+        }
+        if (PaginationUtil.hasValidPaginationParams(pageable)) {
+            g.range(PaginationUtil.getFromIndex(pageable), PaginationUtil.getToIndex(pageable));
+        }
+        return g;
+    }
+
+    /**
+     * Runs the query for the page of results after a cursor.
+     *
+     * The results are ordered by their vertex id, so a page continues after the id of the
+     * last result of the previous page instead of skipping all earlier results by offset.
+     * The seek is a has(T.id, gt(lastId)) step right behind the start step, so the vertices
+     * before the cursor are dropped before the rest of the query runs on them. This only
+     * gives the right page for queries that return the vertices they start from, like
+     * <code>pserver*('in-maint', false)</code>, so only those can be paged this way.
+     *
+     * @param lastId the vertex id of the last result of the previous page,
+     *        null for the first page
+     * @param pageSize the number of results of the page
+     * @return the results of the page
+     * @throws AAIException AAI_3019 if the query returns anything but its start vertices
+     */
+    public List<Object> executeAfter(Long lastId, int pageSize)
+        throws FileNotFoundException, AAIException {
+        GraphTraversal<?, ?> g = this.createTraversal();
+        if (g == null) {
+            return new ArrayList<>();
+        }
+        Traversal.Admin<?, ?> traversal = g.asAdmin();
+        if (!returnsItsStartVertices(traversal)) {
+            throw new AAIException("AAI_3019",
+                "Cursor pagination is only supported for queries that return their start vertices");
+        }
+        if (lastId != null) {
+            Step startStep = traversal.getStartStep();
+            TraversalHelper.insertAfterStep(
+                new HasStep(traversal, new HasContainer(T.id.getAccessor(), P.gt(lastId))),
+                startStep, traversal);
+        }
+        g.order().by(T.id).limit(pageSize);
+        return this.processSubGraph(SubGraphStyle.no_op, g);
+    }
+
+    /**
+     * Checks if a traversal only filters the vertices of its start step. The vertices may be
+     * stored on the way and read back with cap(), as the dsl queries do.
+     */
+    private static boolean returnsItsStartVertices(Traversal.Admin<?, ?> traversal) {
+        List<Step> steps = traversal.getSteps();
+        if (steps.isEmpty() || !(steps.get(0) instanceof GraphStep)
+            || !((GraphStep<?, ?>) steps.get(0)).returnsVertex()) {
+            return false;
+        }
+        // vertices stored inside a where() or sideEffect() need not be start vertices
+        if (TraversalHelper.getStepsOfAssignableClassRecursively(SideEffectCapable.class,
+            traversal).size() != TraversalHelper
+                .getStepsOfAssignableClass(SideEffectCapable.class, traversal).size()) {
+            return false;
+        }
+        for (int i = 1; i < steps.size(); i++) {
+            Step<?, ?> step = steps.get(i);
+            boolean isFilter = step instanceof FilterStep && !(step instanceof RangeGlobalStep)
+                && !(step instanceof TailGlobalStep);
+            boolean isSideEffect = step instanceof SideEffectStep || step instanceof IdentityStep
+                || step instanceof SideEffectCapStep;
+            boolean unfoldsTheCap =
+                step instanceof UnfoldStep && steps.get(i - 1) instanceof SideEffectCapStep;
+            if (!isFilter && !isSideEffect && !unfoldsTheCap) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Counts the results of the query with a separate count traversal,
+     * unless the query already had to be run in full to be paged
+     *
+     * @return the total number of results
+     */
+    public long count() throws FileNotFoundException, AAIException {
+        if (resultCount != null) {
+            return resultCount;
+        }
+        GraphTraversal<?, ?> g = this.createTraversal();
+        if (g == null) {
+            return 0;
+        }
+        return g.count().next();
+    }
+
+    /**
+     * Estimates the cost of the query without running it. Dsl queries are estimated
+     * from their parsed traversal, gremlin and stored queries from their script.
+     *
+     * @return the cost
+     */
+    public QueryCost estimateCost() throws AAIException {
+        if (isDsl && dslQueryProcessorOptional.isPresent()) {
+            Object cost = parseDsl().get("cost");
+            if (cost instanceof QueryCost) {
+                return (QueryCost) cost;
+            }
+        }
+        String query = null;
+        if (isGremlin) {
+            query = gremlin.get();
+        } else if (uri.isPresent()) {
+            Matcher m = p.matcher(uri.get().getPath());
+            if (m.find()) {
+                CustomQueryConfig queryConfig =
+                    gremlinServerSingleton.getCustomQueryConfig(m.group(1));
+                query = queryConfig != null ? queryConfig.getQuery() : null;
+            }
+        }
+        return QueryCost.ofGremlin(query, vertices.map(Collection::size).orElse(0));
+    }
+
+    /**
+     * Explains the query without running it
+     *
+     * @return the query, the traversal before and after every traversal strategy
+     *         and the final traversal
+     */
+    public JsonObject explain() throws FileNotFoundException, AAIException {
+        GraphTraversal<?, ?> traversal = this.createTraversal();
+        return QueryExplanation.explain(executedQuery, traversal);
+    }
+
+    /**
+     * Runs the query with the profile step
+     *
+     * @return the query and the counts and timings of every step of the traversal
+     */
+    public JsonObject profile() throws FileNotFoundException, AAIException {
+        GraphTraversal<?, ?> traversal = this.createTraversal();
+        return QueryExplanation.profile(executedQuery, traversal);
+    }
+
+    protected GraphTraversal<?, ?> createTraversal() throws FileNotFoundException, AAIException {
         Pair<String, Map<String, Object>> tuple = this.createQuery();
         String query = tuple.getValue0();
-        if (queryParams.containsKey("as-tree")) {
-            if (queryParams.getFirst("as-tree").equalsIgnoreCase("true")) {
-                if (this.isDsl) { // If dsl query and as-tree parameter is true, remove "end"
-                                  // concatenation and append tree.
-                    query = removeDslQueryEnd(query);
-                }
-                query = query.concat(".tree()"); // Otherwise, normal gremlin query will just append
-                                                 // tree
+        executedQuery = query;
+        boolean asTree = queryParams.containsKey("as-tree")
+            && queryParams.getFirst("as-tree").equalsIgnoreCase("true");
+        if (dslTraversal != null) {
+            return this.runDslTraversal(dslTraversal, asTree);
+        }
+        if (parameterizedDslQuery != null) {
+            String templateQuery =
+                asTree ? removeDslQueryEnd(parameterizedDslQuery) : parameterizedDslQuery;
+            executedQuery = templateQuery;
+            return this.runStoredQueryTemplate(getDslTemplate(templateQuery), tuple.getValue1(),
+                asTree);
+        }
+        if (storedQueryTemplate != null) {
+            return this.runStoredQueryTemplate(storedQueryTemplate, tuple.getValue1(), asTree);
+        }
+        if (asTree) {
+            if (this.isDsl) { // If dsl query and as-tree parameter is true, remove "end"
+                              // concatenation and append tree.
+                query = removeDslQueryEnd(query);
             }
+            query = query.concat(".tree()"); // Otherwise, normal gremlin query will just append
+                                             // tree
         }
+        executedQuery = query;
         Map<String, Object> params = tuple.getValue1();
 
         if (query.equals("") && (vertices.isPresent() && vertices.get().isEmpty())) {
-            // nothing to do, just exit
-            return new ArrayList<>();
+            return null;
         }
-        GraphTraversal<?, ?> g = this.runQuery(query, params, traversalSource);
+        return this.runQuery(query, params, traversalSource);
+    }
 
-        resultVertices = this.processSubGraph(style, g);
+    protected GraphTraversal<?, ?> runDslTraversal(DslTraversal traversal, boolean asTree)
+        throws AAIException {
+        AaiDBTraversalMetricLog metricLog =
+            new AaiDBTraversalMetricLog(AAIConstants.AAI_TRAVERSAL_MS);
+        metricLog.pre(uri);
 
-        return resultVertices;
+        GraphTraversal<?, ?> graphTraversal =
+            traversal.toGraphTraversal(dbEngine, getNativeStyle(), traversalSource, asTree);
+
+        metricLog.post();
+        return graphTraversal;
+    }
+
+    protected GraphTraversal<?, ?> runStoredQueryTemplate(StoredQueryTemplate template,
+        Map<String, Object> params, boolean asTree) {
+        AaiDBTraversalMetricLog metricLog =
+            new AaiDBTraversalMetricLog(AAIConstants.AAI_TRAVERSAL_MS);
+        metricLog.pre(uri);
+
+        SchemaVersions schemaVersions = SpringContextAware.getBean(SchemaVersions.class);
+        Loader loader = SpringContextAware.getBean(LoaderFactory.class)
+            .createLoaderForVersion(ModelType.MOXY, schemaVersions.getDefaultVersion());
+        // dsl queries start from all vertices
+        Object[] startVertices = (Object[]) params.getOrDefault("startVertexes", new Object[0]);
+        GraphTraversal<?, ?> graphTraversal = template.bind(dbEngine, getNativeStyle(),
+            traversalSource, loader, startVertices, params);
+        if (asTree) {
+            graphTraversal = graphTraversal.tree();
+        }
+
+        metricLog.post();
+        return graphTraversal;
+    }
+
+    private Map<String, Object> parseDsl() throws AAIException {
+        if (dslParseResult == null) {
+            dslParseResult =
+                dslQueryProcessorOptional.get().parseAaiQuery(dslApiVersion, dsl.get());
+        }
+        return dslParseResult;
+    }
+
+    private StoredQueryTemplate getDslTemplate(String query) {
+        DslQueryCache queryCache = SpringContextAware.getApplicationContext() == null ? null
+            : SpringContextAware.getApplicationContext().getBeanProvider(DslQueryCache.class)
+                .getIfAvailable();
+        if (queryCache == null) {
+            GremlinScriptCache scriptCache =
+                gremlinServerSingleton == null ? null : gremlinServerSingleton.getScriptCache();
+            // without a spring context there is no cache to share, compile it on its own
+            return StoredQueryTemplate.compile(
+                scriptCache == null ? new GremlinScriptCache(1) : scriptCache, query);
+        }
+        return queryCache.getTemplate(query);
+    }
+
+    private QueryStyle getNativeStyle() {
+        return isHistory ? QueryStyle.HISTORY_TRAVERSAL : QueryStyle.TRAVERSAL;
     }
 
     private String removeDslQueryEnd(String query) {
@@ -186,10 +504,8 @@ public abstract class GenericQueryProcessor {
             query = gremlin.get();
 
         } else if (this.isDsl) {
-            String dslUserQuery = dsl.get();
             if (dslQueryProcessorOptional.isPresent()) {
-                Map<String, Object> resultMap =
-                    dslQueryProcessorOptional.get().parseAaiQuery(dslApiVersion, dslUserQuery);
+                Map<String, Object> resultMap = parseDsl();
                 String dslQuery = resultMap.get("query").toString();
                 Object propMap = resultMap.get("propertiesMap");
                 if (propMap instanceof Map) {
@@ -197,16 +513,32 @@ public abstract class GenericQueryProcessor {
                     newPropMap = (Map<String, List<String>>) propMap;
                     setPropertiesMap(newPropMap);
                 }
-                query = groovyQueryBuilder.executeTraversal(dbEngine, dslQuery, params, style,
-                    traversalSource);
-                String startPrefix = "g.V()";
-                query = startPrefix + query;
+                Object traversal = resultMap.get("traversal");
+                Object parameterizedQuery = resultMap.get("parameterizedQuery");
+                Object bindings = resultMap.get("bindings");
+                if (isNativeDsl && traversal instanceof DslTraversal) {
+                    dslTraversal = (DslTraversal) traversal;
+                    query = dslQuery;
+                    LOGGER.debug("Building dsl query natively\n {}", query);
+                } else if (isParameterizedDsl && parameterizedQuery instanceof String
+                    && bindings instanceof Map) {
+                    parameterizedDslQuery = (String) parameterizedQuery;
+                    params.putAll((Map<String, Object>) bindings);
+                    query = dslQuery;
+                    LOGGER.debug("Binding parameterized dsl query\n {}", parameterizedDslQuery);
+                } else {
+                    query = groovyQueryBuilder.executeTraversal(dbEngine, dslQuery, params,
+                        style, traversalSource);
+                    String startPrefix = "g.V()";
+                    query = startPrefix + query;
+                    LOGGER.debug("Converted to gremlin query\n {}", query);
+                }
             }
-            LOGGER.debug("Converted to gremlin query\n {}", query);
         } else {
             Matcher m = p.matcher(uri.get().getPath());
             String queryName = "";
             List<String> optionalParameters = Collections.emptyList();
+            StoredQueryTemplate template = null;
             if (m.find()) {
                 queryName = m.group(1);
                 CustomQueryConfig queryConfig =
@@ -214,19 +546,19 @@ public abstract class GenericQueryProcessor {
                 if (queryConfig != null) {
                     query = queryConfig.getQuery();
                     optionalParameters = queryConfig.getQueryOptionalProperties();
+                    template = queryConfig.getTemplate();
                 }
             }
 
             for (String key : queryParams.keySet()) {
                 params.put(key, queryParams.getFirst(key));
-                if (optionalParameters.contains(key)) {
-                    optionalParameters.remove(key);
-                }
             }
 
-            if (!optionalParameters.isEmpty()) {
-                MissingOptionalParameter missingParameter = MissingOptionalParameter.getInstance();
-                for (String key : optionalParameters) {
+            // the optional parameters belong to the shared stored query config,
+            // so the ones not given are looked up instead of removing the given ones
+            MissingOptionalParameter missingParameter = MissingOptionalParameter.getInstance();
+            for (String key : optionalParameters) {
+                if (!queryParams.containsKey(key)) {
                     params.put(key, missingParameter);
                 }
             }
@@ -247,6 +579,12 @@ public abstract class GenericQueryProcessor {
 
                 if (query == null) {
                     query = "";
+                } else if (template != null) {
+                    // the stored query was compiled when it was loaded,
+                    // so only the parameters and start vertices are bound
+                    storedQueryTemplate = template;
+                    LOGGER.debug("Binding precompiled stored query {}", queryName);
+                    return new Pair<>(query, params);
                 } else {
                     query = groovyQueryBuilder.executeTraversal(dbEngine, query, params, style,
                         traversalSource);
@@ -295,6 +633,8 @@ public abstract class GenericQueryProcessor {
 
         private Optional<String> dsl = Optional.empty();
         private boolean isDsl = false;
+        private boolean isNativeDsl = false;
+        private boolean isParameterizedDsl = false;
         private DslQueryProcessor dslQueryProcessor;
         private GremlinServerSingleton gremlinServerSingleton;
         private Optional<String> nodeType = Optional.empty();
@@ -371,6 +711,16 @@ public abstract class GenericQueryProcessor {
             return this;
         }
 
+        public Builder nativeDsl(boolean isNativeDsl) {
+            this.isNativeDsl = isNativeDsl;
+            return this;
+        }
+
+        public Builder parameterizedDsl(boolean isParameterizedDsl) {
+            this.isParameterizedDsl = isParameterizedDsl;
+            return this;
+        }
+
         public Builder version(QueryVersion version) {
             this.dslApiVersion = version;
             return this;
@@ -408,6 +758,14 @@ public abstract class GenericQueryProcessor {
             return isDsl;
         }
 
+        public boolean isNativeDsl() {
+            return isNativeDsl;
+        }
+
+        public boolean isParameterizedDsl() {
+            return isParameterizedDsl;
+        }
+
         public Optional<Collection<Vertex>> getVertices() {
             return vertices;
         }
@@ -20,20 +20,35 @@
 package org.onap.aai.rest.search;
 
 import java.lang.reflect.Type;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.reflect.TypeToken;
 
+/**
+ * The stored queries of one stored-queries document.
+ *
+ * The document is indexed by query name once when it is parsed; lookups afterwards
+ * neither scan the document nor allocate. A reload builds a new instance, which is
+ * published as a whole by the {@link CQConfig}. Queries whose definition did not change
+ * since the previous instance are taken over from it instead of being parsed and
+ * compiled again.
+ */
 public class GetCustomQueryConfig {
 
-    private JsonArray storedQueries = null;
-    private CustomQueryConfig customQueryConfig;
+    private static final Gson GSON = new Gson();
+    private static final Type LIST_TYPE = new TypeToken<List<String>>() {}.getType();
+
+    private final Map<String, CustomQueryConfig> storedQueries;
+    private final Map<String, JsonElement> definitions = new HashMap<>();
+    private int reusedCount;
 
     private static final String QUERY_CONFIG = "query";
     private static final String REQUIRED_CONFIG = "required-properties";
@@ -42,91 +57,133 @@ public class GetCustomQueryConfig {
     private static final String STORED_QUERY_CONFIG = "stored-query";
 
     public GetCustomQueryConfig(String customQueryJson) {
-        init(customQueryJson);
+        this(customQueryJson, null);
     }
 
-    private void init(String customQueryJson) {
+    /**
+     * Parses the stored queries, reusing the unchanged queries of the previous instance
+     *
+     * @param customQueryJson the stored queries document
+     * @param previous the stored queries currently in use, may be null
+     */
+    public GetCustomQueryConfig(String customQueryJson, GetCustomQueryConfig previous) {
+        this.storedQueries = Collections.unmodifiableMap(init(customQueryJson, previous));
+    }
+
+    private Map<String, CustomQueryConfig> init(String customQueryJson,
+        GetCustomQueryConfig previous) {
+        Map<String, CustomQueryConfig> index = new LinkedHashMap<>();
         JsonObject queriesObject = JsonParser.parseString(customQueryJson).getAsJsonObject();
-        if (queriesObject.has(STORED_QUERIES_CONFIG)) {
+        if (!queriesObject.has(STORED_QUERIES_CONFIG)) {
+            return index;
+        }
 
-            storedQueries = queriesObject.getAsJsonArray(STORED_QUERIES_CONFIG);
+        for (JsonElement storedQuery : queriesObject.getAsJsonArray(STORED_QUERIES_CONFIG)) {
+            if (!storedQuery.isJsonObject()) {
+                continue;
+            }
+            for (Map.Entry<String, JsonElement> entry : storedQuery.getAsJsonObject()
+                .entrySet()) {
+                // the first definition of a query name wins, as it did for the lookup by scan
+                if (entry.getValue().isJsonObject() && !index.containsKey(entry.getKey())) {
+                    definitions.put(entry.getKey(), entry.getValue());
+                    CustomQueryConfig unchanged = previous == null ? null
+                        : previous.getUnchanged(entry.getKey(), entry.getValue());
+                    if (unchanged != null) {
+                        reusedCount++;
+                        index.put(entry.getKey(), unchanged);
+                    } else {
+                        index.put(entry.getKey(), toCustomQueryConfig(entry.getValue()));
+                    }
+                }
+            }
         }
+        return index;
+    }
+
+    private CustomQueryConfig getUnchanged(String queryName, JsonElement definition) {
+        return definition.equals(definitions.get(queryName)) ? storedQueries.get(queryName)
+            : null;
     }
 
-    private List<String> toStringList(JsonArray array) {
-        Gson converter = new Gson();
-        Type listType = new TypeToken<List<String>>() {}.getType();
-        return converter.fromJson(array, listType);
+    private CustomQueryConfig toCustomQueryConfig(JsonElement query) {
+        CustomQueryConfig customQueryConfig = new CustomQueryConfig();
+        JsonObject configObject = query.getAsJsonObject();
+        getStoredQueryBlock(customQueryConfig, configObject, QUERY_CONFIG);
+        if (configObject.has(STORED_QUERY_CONFIG)) {
+            customQueryConfig.setQuery(configObject.get(STORED_QUERY_CONFIG).getAsString());
+        }
+        return customQueryConfig;
+    }
+
+    /**
+     * Compiles every stored query that has no template yet into a template that is reused
+     * by all requests. Must be called before the instance is published to other threads.
+     *
+     * @param scriptCache the cache the stored queries are compiled through
+     * @return the names of the stored queries that failed to compile and the reason
+     */
+    public Map<String, String> precompile(GremlinScriptCache scriptCache) {
+        Map<String, String> failures = new LinkedHashMap<>();
+        for (Map.Entry<String, CustomQueryConfig> entry : storedQueries.entrySet()) {
+            CustomQueryConfig customQueryConfig = entry.getValue();
+            if (customQueryConfig.getQuery() == null || customQueryConfig.getTemplate() != null) {
+                continue;
+            }
+            try {
+                customQueryConfig.setTemplate(
+                    StoredQueryTemplate.compile(scriptCache, customQueryConfig.getQuery()));
+            } catch (RuntimeException e) {
+                failures.put(entry.getKey(), e.getMessage());
+            }
+        }
+        return failures;
     }
 
     private List<String> getPropertyList(JsonObject configObject, String config) {
-        JsonElement subqueryConfig;
-        JsonArray props;
-
-        if (configObject.has(config)) {
-            subqueryConfig = configObject.get(config);
-            if (subqueryConfig != null && !subqueryConfig.isJsonNull()) {
-                props = subqueryConfig.getAsJsonArray();
-                if (props != null) {
-                    return toStringList(props);
-                }
+        JsonElement subqueryConfig = configObject.get(config);
+        if (subqueryConfig != null && !subqueryConfig.isJsonNull()) {
+            List<String> props = GSON.fromJson(subqueryConfig.getAsJsonArray(), LIST_TYPE);
+            if (props != null) {
+                return Collections.unmodifiableList(props);
             }
         }
-        return toStringList(null);
+        return Collections.emptyList();
     }
 
-    private void getStoredQueryBlock(JsonObject configObject, String config) {
+    private void getStoredQueryBlock(CustomQueryConfig customQueryConfig, JsonObject configObject,
+        String config) {
         if (!configObject.has(config)) {
-            customQueryConfig.setQueryRequiredProperties(new ArrayList<>());
-            customQueryConfig.setQueryOptionalProperties(new ArrayList<>());
+            customQueryConfig.setQueryRequiredProperties(Collections.emptyList());
+            customQueryConfig.setQueryOptionalProperties(Collections.emptyList());
             return;
         }
 
-        JsonElement queryConfig;
-        JsonObject subObject;
-        List<String> propertyList;
-
-        queryConfig = configObject.get(config);
-        subObject = queryConfig.getAsJsonObject();
-        propertyList = getPropertyList(subObject, REQUIRED_CONFIG);
-        if (propertyList == null) {
-            propertyList = new ArrayList<>();
-        }
-        customQueryConfig.setQueryRequiredProperties(propertyList);
-        propertyList = getPropertyList(subObject, OPTIONAL_CONFIG);
-        if (propertyList == null) {
-            propertyList = new ArrayList<>();
-        }
-        customQueryConfig.setQueryOptionalProperties(propertyList);
+        JsonObject subObject = configObject.get(config).getAsJsonObject();
+        customQueryConfig.setQueryRequiredProperties(getPropertyList(subObject, REQUIRED_CONFIG));
+        customQueryConfig.setQueryOptionalProperties(getPropertyList(subObject, OPTIONAL_CONFIG));
+    }
 
+    /**
+     * Gets the number of stored queries taken over unchanged from the previous instance
+     *
+     * @return the number of reused stored queries
+     */
+    public int getReusedCount() {
+        return reusedCount;
     }
 
     public CustomQueryConfig getStoredQuery(String queryName) {
+        return storedQueries.get(queryName);
+    }
 
-        customQueryConfig = null;
-        JsonObject configObject;
-        JsonElement query;
-        JsonElement queryConfig;
-
-        for (JsonElement storedQuery : storedQueries) {
-            if (storedQuery.isJsonObject()) {
-                JsonObject queryObject = storedQuery.getAsJsonObject();
-                query = queryObject.get(queryName);
-                if (query != null) {
-                    customQueryConfig = new CustomQueryConfig();
-                    configObject = query.getAsJsonObject();
-                    getStoredQueryBlock(configObject, QUERY_CONFIG);
-                    if (configObject.has(STORED_QUERY_CONFIG)) {
-                        queryConfig = configObject.get(STORED_QUERY_CONFIG);
-                        customQueryConfig.setQuery(queryConfig.getAsString());
-                    }
-                    break;
-                }
-            }
-        }
-
-        return customQueryConfig;
-
+    /**
+     * Gets all stored queries of this document
+     *
+     * @return the unmodifiable stored queries by name
+     */
+    public Map<String, CustomQueryConfig> getStoredQueries() {
+        return storedQueries;
     }
 
 }
@@ -0,0 +1,91 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.Set;
+
+import org.onap.aai.dbgraphgen.ModelTopologyCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds the graph change epoch of the {@link ResponseCache} from the A&AI event topic.
+ *
+ * Every event on the topic is a change of the graph, so every event drops the cached
+ * results. Events of models and named-queries also drop the topologies of the
+ * {@link ModelTopologyCache}. Each instance reads all events with its own consumer group.
+ */
+@Component
+public class GraphChangeListener {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GraphChangeListener.class);
+
+    // the top entities of the model and named-query definitions, their elements are
+    // published as part of them
+    private static final Set<String> DEFINITION_TYPES = Set.of("model", "named-query");
+
+    private final ResponseCache responseCache;
+    private final ModelTopologyCache modelTopologyCache;
+
+    @Autowired
+    public GraphChangeListener(ResponseCache responseCache,
+        ModelTopologyCache modelTopologyCache) {
+        this.responseCache = responseCache;
+        this.modelTopologyCache = modelTopologyCache;
+    }
+
+    @KafkaListener(id = "aai-traversal-response-cache",
+        topics = "${response.cache.invalidation.topic:AAI-EVENT}",
+        groupId = "${response.cache.invalidation.group-id:aai-traversal-${random.uuid}}",
+        autoStartup = "${response.cache.invalidation.enabled:false}")
+    public void onEvent(String event) {
+        LOGGER.debug("Graph changed, dropping the cached query results");
+        responseCache.graphChanged();
+        if (isDefinitionChange(event)) {
+            LOGGER.debug("Model or named-query changed, dropping the cached topologies");
+            modelTopologyCache.definitionsChanged();
+        }
+    }
+
+    /**
+     * Checks if an event may be the change of a model or named-query definition.
+     * Events that cannot be read are taken as one.
+     */
+    static boolean isDefinitionChange(String event) {
+        try {
+            JsonObject header =
+                JsonParser.parseString(event).getAsJsonObject().getAsJsonObject("event-header");
+            JsonElement entityType = header == null ? null
+                : header.has("top-entity-type") ? header.get("top-entity-type")
+                : header.get("entity-type");
+            return entityType == null || !entityType.isJsonPrimitive()
+                || DEFINITION_TYPES.contains(entityType.getAsString());
+        } catch (RuntimeException e) {
+            return true;
+        }
+    }
+}
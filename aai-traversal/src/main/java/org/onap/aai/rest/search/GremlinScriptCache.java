@@ -0,0 +1,287 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import groovy.lang.Binding;
+import groovy.lang.GroovyClassLoader;
+import groovy.lang.GroovyShell;
+import groovy.lang.Script;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.onap.aai.restcore.search.GremlinGroovyShell;
+import org.onap.aai.restcore.search.GroovyQueryBuilder;
+
+/**
+ * Bounded cache of compiled gremlin scripts keyed by the normalized query text.
+ * Only the key is normalized, the script that gets compiled is always the
+ * query text as it was received.
+ *
+ * The compiled script class is shared between requests; every execution gets its
+ * own script instance with its own binding, so <code>g</code>, <code>startVertexes</code>
+ * and the stored query parameters are only bound at execution time.
+ *
+ * Stored queries in their builder form, which {@link StoredQueryTemplate} binds against a
+ * query builder, are compiled through the same cache with the {@link GroovyQueryBuilder}
+ * configuration, so a stored query is compiled once no matter how many templates use it.
+ */
+public class GremlinScriptCache implements MeterBinder {
+
+    private static final String METRIC_PREFIX = "aai.traversal.script.cache";
+
+    private final Cache<Key, Class<? extends Script>> scripts;
+    private final GremlinCompiler gremlinCompiler = new GremlinCompiler();
+    private final StoredQueryCompiler storedQueryCompiler = new StoredQueryCompiler();
+
+    public GremlinScriptCache(long maximumSize) {
+        this.scripts = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    public GraphTraversal<?, ?> executeTraversal(String query, Map<String, Object> params) {
+        Script script = InvokerHelper.createScript(getScriptClass(query), new Binding(params));
+        return (GraphTraversal<?, ?>) script.run();
+    }
+
+    protected Class<? extends Script> getScriptClass(String query) {
+        return get(new Key(false, normalize(query)), () -> gremlinCompiler.compile(query));
+    }
+
+    /**
+     * Gets the compiled script of a stored query in its builder form,
+     * compiling it only if it is not cached yet
+     *
+     * @param storedQuery the stored query run against the <code>builder</code> binding
+     * @return the compiled script class
+     * @throws org.codehaus.groovy.control.CompilationFailedException if the query does not compile
+     */
+    public Class<? extends Script> getStoredQueryClass(String storedQuery) {
+        return get(new Key(true, normalize(storedQuery)),
+            () -> storedQueryCompiler.compile(storedQuery));
+    }
+
+    private Class<? extends Script> get(Key key, Callable<Class<? extends Script>> compiler) {
+        try {
+            return scripts.get(key, compiler);
+        } catch (ExecutionException | UncheckedExecutionException | ExecutionError e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    public long size() {
+        return scripts.size();
+    }
+
+    public long hitCount() {
+        return scripts.stats().hitCount();
+    }
+
+    public long missCount() {
+        return scripts.stats().missCount();
+    }
+
+    public long evictionCount() {
+        return scripts.stats().evictionCount();
+    }
+
+    public void invalidateAll() {
+        scripts.invalidateAll();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".hits", this, GremlinScriptCache::hitCount)
+            .description("Gremlin script executions that reused a compiled script")
+            .register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".misses", this, GremlinScriptCache::missCount)
+            .description("Gremlin script executions that had to compile the script")
+            .register(registry);
+        FunctionCounter
+            .builder(METRIC_PREFIX + ".evictions", this, GremlinScriptCache::evictionCount)
+            .description("Compiled gremlin scripts evicted from the cache").register(registry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, GremlinScriptCache::size)
+            .description("Compiled gremlin scripts currently held in the cache")
+            .register(registry);
+    }
+
+    /**
+     * Builds the cache key of a query. Outside of string literals and comments,
+     * leading and trailing whitespace is dropped, whitespace around
+     * <code>.</code>, <code>,</code> and brackets is removed and any other run of
+     * whitespace is collapsed to a single newline if it spans lines or a single
+     * space otherwise. Line breaks that end a statement or a line comment are
+     * kept, so queries only share a key when they have the same meaning.
+     *
+     * @param query the gremlin query
+     * @return the cache key of the query
+     */
+    static String normalize(String query) {
+        StringBuilder normalized = new StringBuilder(query.length());
+        boolean pendingSpace = false;
+        boolean pendingNewline = false;
+        int i = 0;
+        while (i < query.length()) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                pendingSpace = true;
+                pendingNewline |= c == '\n' || c == '\r';
+                i++;
+                continue;
+            }
+            if (pendingSpace && normalized.length() > 0
+                && !isTight(normalized.charAt(normalized.length() - 1), c)) {
+                normalized.append(pendingNewline ? '\n' : ' ');
+            }
+            pendingSpace = false;
+            pendingNewline = false;
+            int end = tokenEnd(query, i);
+            normalized.append(query, i, end);
+            if (query.startsWith("//", i) && end < query.length()) {
+                normalized.append('\n');
+                end++;
+            }
+            i = end;
+        }
+        return normalized.toString();
+    }
+
+    private static boolean isTight(char previous, char next) {
+        return previous == '\n' || previous == '.' || previous == ',' || previous == '('
+            || previous == '[' || next == '.' || next == ',' || next == ')' || next == ']';
+    }
+
+    /**
+     * Returns the end of the token starting at the given position, where string
+     * literals and comments are single tokens that are copied verbatim.
+     */
+    private static int tokenEnd(String query, int start) {
+        char c = query.charAt(start);
+        if (query.startsWith("//", start)) {
+            int end = query.indexOf('\n', start);
+            return end < 0 ? query.length() : end;
+        }
+        if (query.startsWith("/*", start)) {
+            int end = query.indexOf("*/", start + 2);
+            return end < 0 ? query.length() : end + 2;
+        }
+        if (c != '\'' && c != '"') {
+            return start + 1;
+        }
+        String delimiter = query.startsWith(String.valueOf(c).repeat(3), start)
+            ? String.valueOf(c).repeat(3) : String.valueOf(c);
+        int i = start + delimiter.length();
+        while (i < query.length()) {
+            if (query.charAt(i) == '\\') {
+                i += 2;
+            } else if (query.startsWith(delimiter, i)) {
+                return i + delimiter.length();
+            } else {
+                i++;
+            }
+        }
+        return query.length();
+    }
+
+    /**
+     * Compiles a script with the compiler configuration of the given shell. Every script
+     * gets its own class loader so an evicted script class can be unloaded instead of
+     * piling up in a shared loader.
+     */
+    @SuppressWarnings("unchecked")
+    private static Class<? extends Script> compile(GroovyShell shell, String query) {
+        GroovyClassLoader loader = new GroovyClassLoader(shell.getClassLoader());
+        return (Class<? extends Script>) loader.parseClass(query);
+    }
+
+    /**
+     * Compiles gremlin scripts with the same compiler configuration as the
+     * {@link GremlinGroovyShell}.
+     */
+    private static class GremlinCompiler extends GremlinGroovyShell {
+
+        Class<? extends Script> compile(String query) {
+            return GremlinScriptCache.compile(shell, query);
+        }
+    }
+
+    /**
+     * Compiles stored queries with the same compiler configuration as the
+     * {@link GroovyQueryBuilder}, so the stored queries see the same imports.
+     */
+    private static class StoredQueryCompiler extends GroovyQueryBuilder {
+
+        Class<? extends Script> compile(String storedQuery) {
+            return GremlinScriptCache.compile(shell, storedQuery);
+        }
+    }
+
+    /**
+     * The normalized query together with the compiler it is compiled with, the same
+     * text compiles to a different script as a gremlin script and as a stored query
+     */
+    private static final class Key {
+
+        private final boolean storedQuery;
+        private final String query;
+
+        Key(boolean storedQuery, String query) {
+            this.storedQuery = storedQuery;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return storedQuery == key.storedQuery && query.equals(key.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(storedQuery, query);
+        }
+    }
+}
@@ -27,6 +27,8 @@ public class GremlinServerSingleton {
 
     CQConfig customQueryInfo;
 
+    private GremlinScriptCache scriptCache;
+
     /**
      * Initializes the gremlin server singleton
      * Loads the configuration of the gremlin server and creates a cluster
@@ -61,4 +63,17 @@ public class GremlinServerSingleton {
         return queryConfig.getStoredQuery(key);
     }
 
+    /**
+     * Gets the cache of compiled gremlin scripts shared by all requests
+     *
+     * @return the script cache or null if none is configured
+     */
+    public GremlinScriptCache getScriptCache() {
+        return scriptCache;
+    }
+
+    public void setScriptCache(GremlinScriptCache scriptCache) {
+        this.scriptCache = scriptCache;
+    }
+
 }
@@ -41,8 +41,15 @@ public class GroovyShellImpl extends GenericQueryProcessor {
         metricLog.pre(uri);
 
         params.put("g", traversalSource);
-        GremlinGroovyShell shell = new GremlinGroovyShell();
-        GraphTraversal<?, ?> graphTraversal = shell.executeTraversal(query, params);
+        GremlinScriptCache scriptCache =
+            gremlinServerSingleton == null ? null : gremlinServerSingleton.getScriptCache();
+        GraphTraversal<?, ?> graphTraversal;
+        if (scriptCache != null) {
+            graphTraversal = scriptCache.executeTraversal(query, params);
+        } else {
+            GremlinGroovyShell shell = new GremlinGroovyShell();
+            graphTraversal = shell.executeTraversal(query, params);
+        }
 
         metricLog.post();
         return graphTraversal;
@@ -19,19 +19,28 @@
  */
 package org.onap.aai.rest.search;
 
-import java.io.File;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
 import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Date;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 import org.onap.aai.exceptions.AAIException;
 import org.onap.aai.logging.ErrorLogHelper;
-import org.onap.aai.util.AAIConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -39,75 +48,115 @@ import org.springframework.beans.factory.annotation.Value;
 public class LocalCQConfig extends CQConfig {
     private static Logger logger = LoggerFactory.getLogger(LocalCQConfig.class);
 
+    private static final String STORED_QUERIES_FILE = "stored-queries.json";
+
     @Value("${schema.queries.location}")
     private String storedQueriesLocation;
 
-    private boolean timerSet;
-    private Timer timer;
+    /*
+     * editors and deployments usually write the file in several steps,
+     * so a reload waits until the file has not changed for this long
+     */
+    @Value("${schema.queries.reload.debounce.ms:500}")
+    private long reloadDebounceMillis = 500;
+
+    private WatchService watchService;
+    private ScheduledExecutorService reloadExecutor;
+    private ScheduledFuture<?> pendingReload;
 
     @PostConstruct
     public void init() {
+        Path storedQueriesFile = Path.of(storedQueriesLocation, STORED_QUERIES_FILE);
+        logger.info("Using the Local stored queries");
+        reloadStoredQueries(storedQueriesFile);
 
-        try {
-            String filepath =
-                storedQueriesLocation + AAIConstants.AAI_FILESEP + "stored-queries.json";
-            logger.info("Using the Local stored queries");
-            Path path = Path.of(filepath);
-            String customQueryConfigJson = new String(Files.readAllBytes(path));
-            queryConfig = new GetCustomQueryConfig(customQueryConfigJson);
+        if (watchService == null) {
+            watch(storedQueriesFile);
+        }
+    }
 
+    private boolean reloadStoredQueries(Path storedQueriesFile) {
+        return reload(() -> new String(Files.readAllBytes(storedQueriesFile)));
+    }
+
+    /**
+     * Watches the directory of the stored queries file and reloads the file
+     * on a background thread once it stopped changing
+     *
+     * @param storedQueriesFile the stored queries file
+     */
+    private void watch(Path storedQueriesFile) {
+        Path directory = storedQueriesFile.getParent();
+        WatchService service = null;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            directory.register(service, ENTRY_CREATE, ENTRY_MODIFY);
         } catch (IOException e) {
             AAIException aaiException = new AAIException("AAI_4002", e);
             ErrorLogHelper.logException(aaiException);
-            // logger.error("Error occurred during the processing of query json file: " +
-            // LogFormatTools.getStackTop(e));
+            closeQuietly(service);
+            return;
         }
-
-        TimerTask task = new FileWatcher(new File(storedQueriesLocation)) {
-            @Override
-            protected void onChange(File file) {
-                try {
-                    String filepath = storedQueriesLocation;
-                    Path path = Path.of(filepath);
-                    String customQueryConfigJson = new String(Files.readAllBytes(path));
-                    queryConfig = new GetCustomQueryConfig(customQueryConfigJson);
-
-                } catch (IOException e) {
-                    AAIException aaiException = new AAIException("AAI_4002", e);
-                    ErrorLogHelper.logException(aaiException);
-                    // logger.error("Error occurred during the processing of query json file: " +
-                    // LogFormatTools.getStackTop(e));
+        watchService = service;
+
+        reloadExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stored-queries-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Thread watcher = new Thread(() -> {
+            try {
+                while (true) {
+                    WatchKey key = watchService.take();
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == OVERFLOW
+                            || storedQueriesFile.getFileName().equals(event.context())) {
+                            scheduleReload(storedQueriesFile);
+                        }
+                    }
+                    if (!key.reset()) {
+                        logger.warn("Stopped watching {} for stored query changes", directory);
+                        return;
+                    }
                 }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ClosedWatchServiceException e) {
+                // shutting down
             }
-        };
-
-        if (!timerSet) {
-            timerSet = true;
-            timer = new Timer();
-            timer.schedule(task, new Date(), 10000);
-        }
-
+        }, "stored-queries-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
     }
 
-    abstract class FileWatcher extends TimerTask {
-        private long timeStamp;
-        private File file;
-
-        public FileWatcher(File file) {
-            this.file = file;
-            this.timeStamp = file.lastModified();
+    private synchronized void scheduleReload(Path storedQueriesFile) {
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
         }
-
-        public final void run() {
-            long timeStamp = this.file.lastModified();
-            if (timeStamp - this.timeStamp > 500L) {
-                this.timeStamp = timeStamp;
-                this.onChange(this.file);
+        pendingReload = reloadExecutor.schedule(() -> {
+            if (reloadStoredQueries(storedQueriesFile)) {
+                logger.info("Reloaded the stored queries from {}", storedQueriesFile);
             }
+        }, reloadDebounceMillis, TimeUnit.MILLISECONDS);
+    }
 
+    @PreDestroy
+    public void shutdown() {
+        if (reloadExecutor != null) {
+            reloadExecutor.shutdownNow();
         }
+        closeQuietly(watchService);
+    }
 
-        protected abstract void onChange(File var1);
+    private void closeQuietly(WatchService service) {
+        if (service == null) {
+            return;
+        }
+        try {
+            service.close();
+        } catch (IOException e) {
+            logger.debug("Failed to close the stored queries watch service", e);
+        }
     }
 
 }
@@ -41,6 +41,7 @@ import org.onap.aai.dbgraphmap.SearchGraph;
 import org.onap.aai.exceptions.AAIException;
 import org.onap.aai.logging.ErrorLogHelper;
 import org.onap.aai.rest.util.AAIExtensionMap;
+import org.onap.aai.rest.util.VirtualThreadRunner;
 import org.onap.aai.restcore.HttpMethod;
 import org.onap.aai.restcore.RESTAPI;
 import org.onap.aai.setup.SchemaVersions;
@@ -103,7 +104,8 @@ public class ModelAndNamedQueryRestProvider extends RESTAPI {
     })
     public Response getNamedQueryResponse(@Context HttpHeaders headers,
         @Context HttpServletRequest req, String queryParameters, @Context UriInfo info) {
-        return runner(TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
+        return VirtualThreadRunner.runner(this::runner, this::consumerExceptionResponseGenerator,
+            TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
             TraversalConstants.AAI_TRAVERSAL_TIMEOUT_APP,
             TraversalConstants.AAI_TRAVERSAL_TIMEOUT_LIMIT, headers, info, HttpMethod.GET,
             new AaiCallable<Response>() {
@@ -197,7 +199,8 @@ public class ModelAndNamedQueryRestProvider extends RESTAPI {
     public Response getModelQueryResponse(@Context HttpHeaders headers,
         @Context HttpServletRequest req, String inboundPayload, @QueryParam("action") String action,
         @Context UriInfo info) {
-        return runner(TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
+        return VirtualThreadRunner.runner(this::runner, this::consumerExceptionResponseGenerator,
+            TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
             TraversalConstants.AAI_TRAVERSAL_TIMEOUT_APP,
             TraversalConstants.AAI_TRAVERSAL_TIMEOUT_LIMIT, headers, info, HttpMethod.GET,
             new AaiCallable<Response>() {
@@ -0,0 +1,306 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletRequestEvent;
+import jakarta.servlet.ServletRequestListener;
+
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.util.AAIConfig;
+import org.onap.aai.util.TraversalConstants;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Admits queries against a global budget of estimated cost.
+ *
+ * Every running query holds its estimated {@link QueryCost} until it is done. A query
+ * whose cost does not fit into what is left of the budget waits until enough running
+ * queries are done, so while the service is loaded cheap queries still run and expensive
+ * ones queue. A query that cannot be queued or waits too long is rejected with AAI_3305.
+ * A query is always admitted while nothing else runs, however high its cost.
+ * <p>
+ * Trusted batch clients skip the queue by sending the configured override value in the
+ * X-AdmissionOverride header, their queries still count against the budget.
+ * <p>
+ * A ticket handed to {@link #releaseOnCompletion} is released once its request is completed,
+ * so a streamed response that is never written does not hold its cost forever.
+ */
+@Component
+public class QueryAdmission implements MeterBinder, ServletRequestListener {
+
+    public static final String REJECTED = "AAI_3305";
+    public static final String OVERRIDE_HEADER = "X-AdmissionOverride";
+
+    static final String ADMITTED = "admitted";
+    static final String QUEUED = "queued";
+    static final String OVERRIDE = "override";
+    static final String TICKET_ATTRIBUTE = QueryAdmission.class.getName() + ".ticket";
+
+    private static final String METRIC_PREFIX = "aai.query.admission";
+
+    private final boolean enabled;
+    private final long budget;
+    private final int maxQueued;
+    private final long maxWaitMs;
+    private final String override;
+
+    // guarded by this
+    private long inFlightCost = 0;
+    private int queued = 0;
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder delayed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder overridden = new LongAdder();
+    private volatile Timer waitTimer;
+
+    @Autowired
+    public QueryAdmission(@Value("${query.admission.enabled:false}") boolean enabled,
+        @Value("${query.admission.budget:10000}") long budget,
+        @Value("${query.admission.max-queued:50}") int maxQueued,
+        @Value("${query.admission.max-wait-ms:2000}") long maxWaitMs,
+        @Value("${query.admission.override:}") String override) {
+        this.enabled = enabled;
+        this.budget = budget;
+        this.maxQueued = maxQueued;
+        this.maxWaitMs = maxWaitMs;
+        this.override = override;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Checks if a request skips the queue
+     *
+     * @param overrideHeader the X-AdmissionOverride header of the request
+     * @return true if the header has the configured override value
+     */
+    public boolean isOverride(String overrideHeader) {
+        return !override.isEmpty() && override.equals(overrideHeader);
+    }
+
+    /**
+     * Admits a query, waiting for the budget if needed
+     *
+     * @param cost the estimated cost of the query
+     * @param isOverride true if the query skips the queue
+     * @return the ticket of the query, to be closed once the query is done
+     * @throws AAIException if the query is rejected
+     */
+    public Ticket admit(QueryCost cost, boolean isOverride) throws AAIException {
+        return admit(cost.estimate(getMaxNodeCount()), isOverride);
+    }
+
+    Ticket admit(long estimate, boolean isOverride) throws AAIException {
+        synchronized (this) {
+            if (isOverride) {
+                overridden.increment();
+                return take(estimate, OVERRIDE, 0);
+            }
+            if (fits(estimate)) {
+                admitted.increment();
+                return take(estimate, ADMITTED, 0);
+            }
+            if (queued >= maxQueued) {
+                throw reject(estimate);
+            }
+            queued++;
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+            try {
+                while (!fits(estimate)) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        throw reject(estimate);
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw reject(estimate);
+            } finally {
+                queued--;
+                Timer timer = waitTimer;
+                if (timer != null) {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+            delayed.increment();
+            return take(estimate, QUEUED,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        }
+    }
+
+    private boolean fits(long estimate) {
+        return inFlightCost == 0 || inFlightCost + estimate <= budget;
+    }
+
+    private Ticket take(long estimate, String decision, long waitMs) {
+        inFlightCost += estimate;
+        return new Ticket(this, estimate, decision, waitMs);
+    }
+
+    private AAIException reject(long estimate) {
+        rejected.increment();
+        return new AAIException(REJECTED, "Estimated query cost " + estimate
+            + " does not fit into the remaining budget of " + (budget - inFlightCost));
+    }
+
+    private synchronized void release(long estimate) {
+        inFlightCost -= estimate;
+        notifyAll();
+    }
+
+    /*
+     * a query has at most as many nodes as a dsl query may have
+     */
+    private static int getMaxNodeCount() {
+        return Integer.parseInt(
+            AAIConfig.get("aai.dsl.max.nodecount", TraversalConstants.DSL_MAX_NODE_COUNT));
+    }
+
+    /**
+     * Releases the ticket of a request at the latest when the request is completed
+     *
+     * @param request the request or null if there is none, then the caller has to
+     *        close the ticket
+     * @param ticket the ticket of the query of the request
+     */
+    public static void releaseOnCompletion(ServletRequest request, Ticket ticket) {
+        if (request != null && ticket != null) {
+            request.setAttribute(TICKET_ATTRIBUTE, ticket);
+        }
+    }
+
+    @Override
+    public void requestDestroyed(ServletRequestEvent event) {
+        Object ticket = event.getServletRequest().getAttribute(TICKET_ATTRIBUTE);
+        if (ticket instanceof Ticket) {
+            ((Ticket) ticket).close();
+        }
+    }
+
+    public synchronized long inFlightCost() {
+        return inFlightCost;
+    }
+
+    public synchronized int queuedCount() {
+        return queued;
+    }
+
+    public long admittedCount() {
+        return admitted.sum();
+    }
+
+    public long delayedCount() {
+        return delayed.sum();
+    }
+
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    public long overriddenCount() {
+        return overridden.sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".admitted", this, QueryAdmission::admittedCount)
+            .description("Queries admitted right away").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".queued", this, QueryAdmission::delayedCount)
+            .description("Queries admitted after waiting for the budget").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".rejections", this, QueryAdmission::rejectedCount)
+            .description("Queries rejected because their cost did not fit").register(registry);
+        FunctionCounter
+            .builder(METRIC_PREFIX + ".overrides", this, QueryAdmission::overriddenCount)
+            .description("Queries of trusted clients admitted without waiting")
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".inflight.cost", this, QueryAdmission::inFlightCost)
+            .description("Estimated cost of the queries currently running").register(registry);
+        Gauge.builder(METRIC_PREFIX + ".waiting", this, QueryAdmission::queuedCount)
+            .description("Queries currently waiting for the budget").register(registry);
+        waitTimer = Timer.builder(METRIC_PREFIX + ".wait")
+            .description("Time queries waited for the budget").register(registry);
+    }
+
+    /**
+     * The admission of one query, holding its cost until closed
+     */
+    public static final class Ticket implements AutoCloseable {
+        private final QueryAdmission admission;
+        private final long cost;
+        private final String decision;
+        private final long waitMs;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Ticket(QueryAdmission admission, long cost, String decision, long waitMs) {
+            this.admission = admission;
+            this.cost = cost;
+            this.decision = decision;
+            this.waitMs = waitMs;
+        }
+
+        public long getCost() {
+            return cost;
+        }
+
+        public String getDecision() {
+            return decision;
+        }
+
+        /**
+         * Gets the response headers telling the client how its query was admitted
+         *
+         * @return the headers
+         */
+        public Map<String, String> getHeaders() {
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("X-Query-Cost", String.valueOf(cost));
+            headers.put("X-Query-Admission",
+                QUEUED.equals(decision) ? decision + ";wait-ms=" + waitMs : decision);
+            return headers;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                admission.release(cost);
+            }
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.onap.aai.exceptions.AAIException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Coalesces identical queries that run at the same time.
+ *
+ * The first request of a query executes it, every identical request that arrives while
+ * it is still running waits for it and gets the same serialized result instead of running
+ * its own traversal. Results are not kept once the execution is done, so this is not a
+ * cache: a request that arrives afterwards executes the query again, see {@link ResponseCache}.
+ */
+@Component
+public class QueryCoalescer implements MeterBinder {
+
+    private static final String METRIC_PREFIX = "aai.query.coalescing";
+
+    private final Set<String> endpoints;
+    private final Map<String, CompletableFuture<SerializedQueryResult>> inFlight =
+        new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    @Autowired
+    public QueryCoalescer(@Value("${query.coalescing.endpoints:}") String endpoints) {
+        this.endpoints = Arrays.stream(endpoints.split(",")).map(String::trim)
+            .filter(endpoint -> !endpoint.isEmpty()).collect(Collectors.toSet());
+    }
+
+    /**
+     * Checks if the identical queries of an endpoint are coalesced
+     *
+     * @param endpoint the endpoint, like query or dsl
+     * @return true if coalescing is enabled for the endpoint
+     */
+    public boolean isEnabled(String endpoint) {
+        return endpoints.contains(endpoint);
+    }
+
+    /**
+     * Executes the query, unless an identical query is already executing,
+     * in which case its result is waited for
+     *
+     * @param key everything the result of the query depends on
+     * @param execution executes and serializes the query
+     * @return the result
+     * @throws AAIException if the query failed
+     */
+    public SerializedQueryResult execute(String key, Callable<SerializedQueryResult> execution)
+        throws AAIException {
+        CompletableFuture<SerializedQueryResult> future = new CompletableFuture<>();
+        CompletableFuture<SerializedQueryResult> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            coalesced.increment();
+            return await(running);
+        }
+        executions.increment();
+        try {
+            SerializedQueryResult result = execution.call();
+            future.complete(result);
+            return result;
+        } catch (AAIException | RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            throw new AAIException("AAI_4000", e);
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private SerializedQueryResult await(CompletableFuture<SerializedQueryResult> running)
+        throws AAIException {
+        try {
+            return running.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AAIException("AAI_4000", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof AAIException) {
+                throw (AAIException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new AAIException("AAI_4000", cause);
+        }
+    }
+
+    public long executionCount() {
+        return executions.sum();
+    }
+
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".executions", this, QueryCoalescer::executionCount)
+            .description("Coalescable queries that were executed").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".coalesced", this, QueryCoalescer::coalescedCount)
+            .description("Queries that got the result of an identical query already executing")
+            .register(registry);
+        Gauge.builder(METRIC_PREFIX + ".inflight", this, QueryCoalescer::inFlightCount)
+            .description("Coalescable queries currently executing").register(registry);
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The estimated cost of a query, known before the query is executed.
+ *
+ * The estimate is relative, not a number of vertices: the start of the query costs the
+ * weight of its selectivity for every start vertex, a lookup by the key of a top level
+ * object being the cheapest and a scan of a node type the most expensive, and every node
+ * of the query, the start and one per edge hop, multiplies that by one more. The number of
+ * nodes is bounded by the most nodes a query may have. A limit caps the estimate at the
+ * work of the limited number of results.
+ */
+public final class QueryCost {
+
+    /**
+     * How selective the start of a query is
+     */
+    public enum Selectivity {
+        /** the start is looked up by the key of a top level object */
+        UNIQUE(1),
+        /** the start is filtered by an indexed property */
+        INDEXED(10),
+        /** the start has no indexed filter, so all vertices of its node type are read */
+        SCAN(100);
+
+        private final long weight;
+
+        Selectivity(long weight) {
+            this.weight = weight;
+        }
+
+        public long getWeight() {
+            return weight;
+        }
+    }
+
+    private static final Pattern EDGE_STEPS =
+        Pattern.compile("createEdgeTraversal|\\.(?:out|in|both)E?\\(");
+    private static final Pattern LIMIT = Pattern.compile("\\.limit\\(\\s*(\\d+)\\s*\\)");
+
+    private final Selectivity selectivity;
+    private final int starts;
+    private final int edgeHops;
+    private final long limit;
+
+    /**
+     * Instantiates a new QueryCost
+     *
+     * @param selectivity the selectivity of the start of the query
+     * @param starts the number of start vertices of that selectivity
+     * @param edgeHops the number of edge hops
+     * @param limit the limit of the query, -1 if it has none
+     */
+    public QueryCost(Selectivity selectivity, int starts, int edgeHops, long limit) {
+        this.selectivity = selectivity;
+        this.starts = Math.max(starts, 1);
+        this.edgeHops = edgeHops;
+        this.limit = limit;
+    }
+
+    /**
+     * Estimates the cost of a gremlin or stored query from its script. A query started
+     * from start vertices starts at their ids, any other query is assumed to scan.
+     *
+     * @param query the gremlin script
+     * @param startVertices the number of start vertices, 0 if there are none
+     * @return the cost
+     */
+    public static QueryCost ofGremlin(String query, int startVertices) {
+        int edgeHops = 0;
+        long limit = -1;
+        if (query != null) {
+            Matcher edgeSteps = EDGE_STEPS.matcher(query);
+            while (edgeSteps.find()) {
+                edgeHops++;
+            }
+            Matcher limitStep = LIMIT.matcher(query);
+            if (limitStep.find()) {
+                limit = Long.parseLong(limitStep.group(1));
+            }
+        }
+        return startVertices > 0
+            ? new QueryCost(Selectivity.UNIQUE, startVertices, edgeHops, limit)
+            : new QueryCost(Selectivity.SCAN, 1, edgeHops, limit);
+    }
+
+    /**
+     * Estimates the cost
+     *
+     * @param maxNodeCount the most nodes a query may have, like aai.dsl.max.nodecount
+     * @return the estimated cost, at least 1
+     */
+    public long estimate(int maxNodeCount) {
+        long nodes = getNodeCount(maxNodeCount);
+        long cost = starts * selectivity.getWeight() * nodes;
+        if (limit >= 0) {
+            cost = Math.min(cost, Math.max(limit, 1) * nodes);
+        }
+        return Math.max(cost, 1);
+    }
+
+    /**
+     * Gets the number of nodes of the query, the start and one per edge hop
+     *
+     * @param maxNodeCount the most nodes a query may have
+     * @return the number of nodes, at most maxNodeCount
+     */
+    public long getNodeCount(int maxNodeCount) {
+        return Math.min(1L + edgeHops, Math.max(maxNodeCount, 1));
+    }
+
+    public Selectivity getSelectivity() {
+        return selectivity;
+    }
+
+    public int getStarts() {
+        return starts;
+    }
+
+    public int getEdgeHops() {
+        return edgeHops;
+    }
+
+    public long getLimit() {
+        return limit;
+    }
+
+}
@@ -0,0 +1,141 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.TraversalStrategy;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.util.Metrics;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalExplanation;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalMetrics;
+import org.javatuples.Pair;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * Renders the explanation and the profile of a query traversal as json.
+ *
+ * The profile contains the metrics of every step, including the nested metrics and
+ * annotations the graph adds, like the conditions and indexes JanusGraph used for
+ * its graph centric queries.
+ */
+public final class QueryExplanation {
+
+    private QueryExplanation() {
+        // prevent instantiation
+    }
+
+    /**
+     * Explains the traversal without running it
+     *
+     * @param query the query the traversal was built from
+     * @param traversal the traversal or null if there is nothing to run
+     * @return the explanation
+     */
+    public static JsonObject explain(String query, GraphTraversal<?, ?> traversal) {
+        JsonObject explanation = new JsonObject();
+        explanation.addProperty("query", query);
+        if (traversal == null) {
+            return explanation;
+        }
+
+        TraversalExplanation traversalExplanation = traversal.explain();
+        Traversal.Admin<?, ?> finalTraversal = traversalExplanation.getOriginalTraversal();
+        explanation.addProperty("traversal", finalTraversal.toString());
+
+        JsonArray strategies = new JsonArray();
+        for (Pair<TraversalStrategy, Traversal.Admin<?, ?>> strategyTraversal : traversalExplanation
+            .getStrategyTraversals()) {
+            JsonObject strategy = new JsonObject();
+            strategy.addProperty("strategy",
+                strategyTraversal.getValue0().getClass().getSimpleName());
+            strategy.addProperty("category",
+                strategyTraversal.getValue0().getTraversalCategory().getSimpleName());
+            strategy.addProperty("traversal", strategyTraversal.getValue1().toString());
+            strategies.add(strategy);
+            finalTraversal = strategyTraversal.getValue1();
+        }
+        explanation.add("strategies", strategies);
+        explanation.addProperty("final-traversal", finalTraversal.toString());
+        return explanation;
+    }
+
+    /**
+     * Runs the traversal with the profile step
+     *
+     * @param query the query the traversal was built from
+     * @param traversal the traversal or null if there is nothing to run
+     * @return the profile
+     */
+    public static JsonObject profile(String query, GraphTraversal<?, ?> traversal) {
+        JsonObject profile = new JsonObject();
+        profile.addProperty("query", query);
+        if (traversal == null) {
+            return profile;
+        }
+
+        profile.addProperty("traversal", traversal.toString());
+        TraversalMetrics metrics = traversal.profile().next();
+        profile.addProperty("duration-ms", toMillis(metrics.getDuration(TimeUnit.NANOSECONDS)));
+        JsonArray steps = new JsonArray();
+        for (Metrics stepMetrics : metrics.getMetrics()) {
+            steps.add(toJson(stepMetrics));
+        }
+        profile.add("steps", steps);
+        return profile;
+    }
+
+    private static JsonObject toJson(Metrics metrics) {
+        JsonObject step = new JsonObject();
+        step.addProperty("step", metrics.getName());
+        step.addProperty("count", metrics.getCount(TraversalMetrics.ELEMENT_COUNT_ID));
+        step.addProperty("traversers", metrics.getCount(TraversalMetrics.TRAVERSER_COUNT_ID));
+        step.addProperty("duration-ms", toMillis(metrics.getDuration(TimeUnit.NANOSECONDS)));
+
+        JsonObject annotations = new JsonObject();
+        for (Map.Entry<String, Object> annotation : metrics.getAnnotations().entrySet()) {
+            if (TraversalMetrics.PERCENT_DURATION_KEY.equals(annotation.getKey())) {
+                step.addProperty("percent-duration", (Number) annotation.getValue());
+            } else {
+                annotations.addProperty(annotation.getKey(), String.valueOf(annotation.getValue()));
+            }
+        }
+        if (annotations.size() > 0) {
+            step.add("annotations", annotations);
+        }
+
+        if (!metrics.getNested().isEmpty()) {
+            JsonArray nested = new JsonArray();
+            for (Metrics nestedMetrics : metrics.getNested()) {
+                nested.add(toJson(nestedMetrics));
+            }
+            step.add("nested", nested);
+        }
+        return step;
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cache of the serialized results of the stored queries and dsl queries that opted in.
+ *
+ * Every change of the graph advances the graph change epoch, see
+ * {@link GraphChangeListener}, which drops all cached results. A result is only cached if
+ * the epoch did not advance while its query was executing, so a result is never served
+ * after a change it might not contain. The results expire after the ttl and the
+ * least recently used ones are evicted once the cached bodies exceed the maximum size.
+ */
+@Component
+public class ResponseCache implements MeterBinder {
+
+    private static final String METRIC_PREFIX = "aai.response.cache";
+
+    private final Set<String> storedQueries;
+    private final boolean isDslCached;
+    private final Cache<String, Entry> results;
+    private final AtomicLong epoch = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    @Autowired
+    public ResponseCache(@Value("${response.cache.queries:}") String storedQueries,
+        @Value("${response.cache.dsl.enabled:false}") boolean isDslCached,
+        @Value("${response.cache.ttl.seconds:300}") long ttlSeconds,
+        @Value("${response.cache.max-bytes:67108864}") long maximumBytes) {
+        this.storedQueries = Arrays.stream(storedQueries.split(",")).map(String::trim)
+            .filter(query -> !query.isEmpty()).collect(Collectors.toSet());
+        this.isDslCached = isDslCached;
+        // a single segment, so the maximum size is not split across segments
+        // and a large result can still be cached
+        this.results = CacheBuilder.newBuilder().concurrencyLevel(1)
+            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS).maximumWeight(maximumBytes)
+            .weigher(ResponseCache::weigh).recordStats().build();
+    }
+
+    /**
+     * Checks if the results of a stored query are cached
+     *
+     * @param storedQuery the name of the stored query
+     * @return true if the stored query opted in
+     */
+    public boolean isEnabled(String storedQuery) {
+        return storedQuery != null && storedQueries.contains(storedQuery);
+    }
+
+    /**
+     * Checks if the results of dsl queries are cached
+     *
+     * @return true if dsl queries opted in
+     */
+    public boolean isDslEnabled() {
+        return isDslCached;
+    }
+
+    /**
+     * Gets the current graph change epoch, to be passed to {@link #put}
+     * once the query has been executed
+     *
+     * @return the epoch
+     */
+    public long epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Gets the cached result of a query
+     *
+     * @param key everything the result of the query depends on
+     * @return the result or null if it is not cached
+     */
+    public SerializedQueryResult get(String key) {
+        Entry entry = results.getIfPresent(key);
+        if (entry == null || entry.epoch != epoch.get()) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.result;
+    }
+
+    /**
+     * Caches the result of a query, unless the graph changed since its execution started
+     *
+     * @param key everything the result of the query depends on
+     * @param epoch the epoch from before the query was executed
+     * @param result the result
+     */
+    public void put(String key, long epoch, SerializedQueryResult result) {
+        if (epoch == this.epoch.get()) {
+            results.put(key, new Entry(epoch, result.fromCache()));
+        }
+    }
+
+    /**
+     * Advances the graph change epoch and drops all cached results
+     */
+    public void graphChanged() {
+        epoch.incrementAndGet();
+        results.invalidateAll();
+    }
+
+    private static int weigh(String key, Entry entry) {
+        String body = entry.result.getBody();
+        long bytes = 2L * (key.length() + (body == null ? 0 : body.length()));
+        return (int) Math.min(bytes, Integer.MAX_VALUE);
+    }
+
+    public long size() {
+        return results.size();
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return results.stats().evictionCount();
+    }
+
+    public long epochCount() {
+        return epoch.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder(METRIC_PREFIX + ".hits", this, ResponseCache::hitCount)
+            .description("Query results served from the response cache").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".misses", this, ResponseCache::missCount)
+            .description("Cacheable queries that had to be executed").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".evictions", this, ResponseCache::evictionCount)
+            .description("Query results evicted for their size or age").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".invalidations", this, ResponseCache::epochCount)
+            .description("Graph changes that dropped the cached results").register(registry);
+        Gauge.builder(METRIC_PREFIX + ".size", this, ResponseCache::size)
+            .description("Query results currently held in the response cache")
+            .register(registry);
+    }
+
+    private static final class Entry {
+        private final long epoch;
+        private final SerializedQueryResult result;
+
+        private Entry(long epoch, SerializedQueryResult result) {
+            this.epoch = epoch;
+            this.result = result;
+        }
+    }
+}
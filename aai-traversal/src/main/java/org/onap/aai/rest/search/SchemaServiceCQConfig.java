@@ -21,8 +21,12 @@ package org.onap.aai.rest.search;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 
 import org.onap.aai.restclient.RestClient;
 import org.slf4j.Logger;
@@ -30,6 +34,8 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
 public class SchemaServiceCQConfig extends CQConfig {
@@ -40,14 +46,42 @@ public class SchemaServiceCQConfig extends CQConfig {
     @Value("${schema.service.custom.queries.endpoint}")
     private String customQueriesUri;
 
+    /*
+     * interval in ms in which the stored queries are refreshed from the schema service,
+     * a value of 0 or less only retrieves them once on startup
+     */
+    @Value("${schema.service.custom.queries.refresh.interval.ms:60000}")
+    private long refreshIntervalMillis;
+
     @Qualifier("restClient")
     @Autowired
     private RestClient restClient;
 
+    /*
+     * validators of the stored queries currently in use, sent along so the
+     * schema service only returns the stored queries when they have changed
+     */
+    private String etag;
+    private String lastModified;
+    private String pendingEtag;
+    private String pendingLastModified;
+
+    private ScheduledExecutorService refreshExecutor;
+
     @PostConstruct
     public void initialize() {
         // Call SchemaService to get custom queries
         retrieveCustomQueries();
+
+        if (refreshIntervalMillis > 0) {
+            refreshExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "stored-queries-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refreshExecutor.scheduleWithFixedDelay(this::refreshCustomQueries,
+                refreshIntervalMillis, refreshIntervalMillis, TimeUnit.MILLISECONDS);
+        }
     }
 
     public void retrieveCustomQueries() {
@@ -55,11 +89,60 @@ public class SchemaServiceCQConfig extends CQConfig {
          * Call Schema MS to get custom queries using RestTemplate
          */
         logger.info("Calling the SchemaService to retrieve stored queries");
+        String customQueryConfigJson = retrieveChangedCustomQueries();
+        if (customQueryConfigJson != null) {
+            queryConfig.set(loadCustomQueryConfig(customQueryConfigJson));
+            acceptValidators();
+        }
+    }
+
+    /**
+     * Refreshes the stored queries in the background. The stored queries in use keep
+     * being served until the changed ones are parsed and compiled, or if that fails.
+     */
+    void refreshCustomQueries() {
+        if (reload(this::retrieveChangedCustomQueries)) {
+            acceptValidators();
+            logger.info("Refreshed the stored queries from the SchemaService");
+        }
+    }
+
+    /**
+     * Retrieves the stored queries if they changed since they were last retrieved
+     *
+     * @return the stored queries document or null if it did not change
+     */
+    private String retrieveChangedCustomQueries() {
         String content = "";
         Map<String, String> headersMap = new HashMap<>();
+        if (etag != null) {
+            headersMap.put(HttpHeaders.IF_NONE_MATCH, etag);
+        }
+        if (lastModified != null) {
+            headersMap.put(HttpHeaders.IF_MODIFIED_SINCE, lastModified);
+        }
 
         ResponseEntity<String> schemaResponse =
             restClient.getGetRequest(content, customQueriesUri, headersMap);
-        queryConfig = new GetCustomQueryConfig(schemaResponse.getBody());
+        String customQueryConfigJson = schemaResponse.getBody();
+        if (schemaResponse.getStatusCode().value() == HttpStatus.NOT_MODIFIED.value()) {
+            logger.debug("Stored queries of the SchemaService did not change");
+            return null;
+        }
+        pendingEtag = schemaResponse.getHeaders().getETag();
+        pendingLastModified = schemaResponse.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED);
+        return customQueryConfigJson;
+    }
+
+    private void acceptValidators() {
+        etag = pendingEtag;
+        lastModified = pendingLastModified;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (refreshExecutor != null) {
+            refreshExecutor.shutdownNow();
+        }
     }
 }
@@ -45,6 +45,7 @@ import org.onap.aai.introspection.Loader;
 import org.onap.aai.introspection.LoaderFactory;
 import org.onap.aai.introspection.ModelType;
 import org.onap.aai.logging.ErrorLogHelper;
+import org.onap.aai.rest.util.VirtualThreadRunner;
 import org.onap.aai.restcore.HttpMethod;
 import org.onap.aai.restcore.RESTAPI;
 import org.onap.aai.serialization.db.DBSerializer;
@@ -126,7 +127,8 @@ public class SearchProvider extends RESTAPI {
         @QueryParam("include") final List<String> includeNodeTypes,
         @QueryParam("depth") final int depth, @PathParam("version") String versionParam,
         @Context UriInfo info) {
-        return runner(TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
+        return VirtualThreadRunner.runner(this::runner, this::consumerExceptionResponseGenerator,
+            TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
             TraversalConstants.AAI_TRAVERSAL_TIMEOUT_APP,
             TraversalConstants.AAI_TRAVERSAL_TIMEOUT_LIMIT, headers, info, HttpMethod.GET,
             new AaiCallable<Response>() {
@@ -232,7 +234,8 @@ public class SearchProvider extends RESTAPI {
         @PathParam("version") String versionParam, @Context UriInfo info)
 
     {
-        return runner(TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
+        return VirtualThreadRunner.runner(this::runner, this::consumerExceptionResponseGenerator,
+            TraversalConstants.AAI_TRAVERSAL_TIMEOUT_ENABLED,
             TraversalConstants.AAI_TRAVERSAL_TIMEOUT_APP,
             TraversalConstants.AAI_TRAVERSAL_TIMEOUT_LIMIT, headers, info, HttpMethod.GET,
             new AaiCallable<Response>() {
@@ -0,0 +1,75 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+/**
+ * The serialized result of a query, shared by the requests of coalesced queries
+ * and kept by the {@link ResponseCache}.
+ */
+public final class SerializedQueryResult {
+
+    private final String body;
+    private final Long totalCount;
+    private final long createdAt;
+    private final boolean cached;
+
+    public SerializedQueryResult(String body, Long totalCount) {
+        this(body, totalCount, System.currentTimeMillis(), false);
+    }
+
+    private SerializedQueryResult(String body, Long totalCount, long createdAt, boolean cached) {
+        this.body = body;
+        this.totalCount = totalCount;
+        this.createdAt = createdAt;
+        this.cached = cached;
+    }
+
+    /**
+     * @return the same result marked as served from the cache
+     */
+    SerializedQueryResult fromCache() {
+        return new SerializedQueryResult(body, totalCount, createdAt, true);
+    }
+
+    public String getBody() {
+        return body;
+    }
+
+    /**
+     * @return the total count of the results of a paginated query, or null
+     */
+    public Long getTotalCount() {
+        return totalCount;
+    }
+
+    /**
+     * @return the time in ms the result was created at
+     */
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * @return true if the result was served from the cache
+     */
+    public boolean isCached() {
+        return cached;
+    }
+}
@@ -0,0 +1,240 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import java.io.UnsupportedEncodingException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.tinkerpop.gremlin.process.traversal.P;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.onap.aai.db.props.AAIProperties;
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.introspection.Introspector;
+import org.onap.aai.introspection.Loader;
+import org.onap.aai.introspection.exceptions.AAIUnknownObjectException;
+import org.onap.aai.parsers.query.QueryParser;
+import org.onap.aai.restcore.util.URITools;
+import org.onap.aai.schema.enums.PropertyMetadata;
+import org.onap.aai.serialization.engines.QueryStyle;
+import org.onap.aai.serialization.engines.TransactionalGraphEngine;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Resolves the start URIs of a query to their vertices.
+ *
+ * Resolving every URI on its own costs one round trip per URI. URIs of a single object
+ * with a single key, either top level like <code>network/generic-vnfs/generic-vnf/vnf-1</code>
+ * or through <code>nodes/generic-vnfs/generic-vnf/vnf-1</code>, are instead grouped by
+ * node type and key and resolved with one indexed lookup per group and batch.
+ * All other URIs, like nested objects, objects with multiple keys or URIs with
+ * query parameters, are still resolved on their own.
+ */
+public class StartUriResolver {
+
+    static final int BATCH_SIZE = 100;
+
+    private static final String NODES = "nodes";
+
+    private final TransactionalGraphEngine dbEngine;
+    private final QueryStyle queryStyle;
+    private final GraphTraversalSource traversalSource;
+    private final Loader loader;
+
+    public StartUriResolver(TransactionalGraphEngine dbEngine, QueryStyle queryStyle,
+        GraphTraversalSource traversalSource, Loader loader) {
+        this.dbEngine = dbEngine;
+        this.queryStyle = queryStyle;
+        this.traversalSource = traversalSource;
+        this.loader = loader;
+    }
+
+    /**
+     * Resolves the start URIs
+     *
+     * @param startURIs the start URIs of the query
+     * @return the vertices in the order of the start URIs
+     * @throws AAIException if a start URI is invalid
+     * @throws UnsupportedEncodingException if a start URI cannot be decoded
+     */
+    public Set<Vertex> resolve(List<URI> startURIs)
+        throws AAIException, UnsupportedEncodingException {
+        List<Lookup> lookups = new ArrayList<>(startURIs.size());
+        Map<Lookup, List<String>> keysByGroup = new LinkedHashMap<>();
+        for (URI startUri : startURIs) {
+            // parsing the URI does not touch the graph, but it validates the URI
+            QueryParser uriQuery = dbEngine.getQueryBuilder(queryStyle, traversalSource)
+                .createQueryFromURI(startUri, URITools.getQueryMap(startUri));
+            Lookup lookup = toLookup(startUri);
+            if (lookup == null) {
+                lookups.add(new Lookup(uriQuery));
+            } else {
+                lookups.add(lookup);
+                keysByGroup.computeIfAbsent(lookup.group(), group -> new ArrayList<>())
+                    .add(lookup.keyValue);
+            }
+        }
+
+        Map<Lookup, Map<String, List<Vertex>>> verticesByGroup = new HashMap<>();
+        for (Map.Entry<Lookup, List<String>> group : keysByGroup.entrySet()) {
+            verticesByGroup.put(group.getKey(), lookUp(group.getKey(), group.getValue()));
+        }
+
+        Set<Vertex> vertexSet = new LinkedHashSet<>();
+        for (Lookup lookup : lookups) {
+            if (lookup.uriQuery != null) {
+                vertexSet.addAll(lookup.uriQuery.getQueryBuilder().toList());
+            } else {
+                vertexSet.addAll(verticesByGroup.get(lookup.group())
+                    .getOrDefault(lookup.keyValue, Collections.emptyList()));
+            }
+        }
+        return vertexSet;
+    }
+
+    private Map<String, List<Vertex>> lookUp(Lookup group, List<String> keyValues) {
+        Map<String, List<Vertex>> verticesByKey = new HashMap<>();
+        List<String> distinctKeyValues = new ArrayList<>(new LinkedHashSet<>(keyValues));
+        for (int from = 0; from < distinctKeyValues.size(); from += BATCH_SIZE) {
+            List<String> batch = distinctKeyValues.subList(from,
+                Math.min(from + BATCH_SIZE, distinctKeyValues.size()));
+            traversalSource.V().has(AAIProperties.NODE_TYPE, group.nodeType)
+                .has(group.keyProperty, P.within(batch)).toList()
+                .forEach(vertex -> verticesByKey
+                    .computeIfAbsent(vertex.<String>value(group.keyProperty),
+                        key -> new ArrayList<>())
+                    .add(vertex));
+        }
+        return verticesByKey;
+    }
+
+    /**
+     * Maps a URI of a single object with a single string key to its lookup
+     *
+     * @param startUri the start URI
+     * @return the lookup or null if the URI has to be resolved on its own
+     */
+    Lookup toLookup(URI startUri) {
+        if (queryStyle != QueryStyle.TRAVERSAL || startUri.getRawQuery() != null
+            || startUri.getRawPath() == null) {
+            return null;
+        }
+        String path = startUri.getRawPath();
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        // <namespace or nodes>/<plural>/<node type>/<key>, nested objects have more parts
+        String[] parts = path.split("/");
+        if (parts.length != 4) {
+            return null;
+        }
+        String nodeType = parts[2];
+        try {
+            Introspector obj = loader.introspectorFromName(nodeType);
+            boolean isTopLevel = obj.isTopLevel();
+            if (!NODES.equals(parts[0]) && !isTopLevel || obj.getKeys().size() != 1) {
+                return null;
+            }
+            String key = obj.getKeys().iterator().next();
+            if (!String.class.getName().equals(obj.getType(key))) {
+                return null;
+            }
+            String keyProperty =
+                obj.getPropertyMetadata(key, PropertyMetadata.DB_ALIAS).orElse(key);
+            return new Lookup(nodeType, keyProperty,
+                UriUtils.decode(parts[3], StandardCharsets.UTF_8));
+        } catch (AAIUnknownObjectException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Either a group lookup by node type and key or a URI resolved on its own
+     */
+    static final class Lookup {
+        private final String nodeType;
+        private final String keyProperty;
+        private final String keyValue;
+        private final QueryParser uriQuery;
+
+        Lookup(String nodeType, String keyProperty, String keyValue) {
+            this.nodeType = nodeType;
+            this.keyProperty = keyProperty;
+            this.keyValue = keyValue;
+            this.uriQuery = null;
+        }
+
+        Lookup(QueryParser uriQuery) {
+            this.nodeType = null;
+            this.keyProperty = null;
+            this.keyValue = null;
+            this.uriQuery = uriQuery;
+        }
+
+        Lookup group() {
+            return new Lookup(nodeType, keyProperty, null);
+        }
+
+        String getNodeType() {
+            return nodeType;
+        }
+
+        String getKeyProperty() {
+            return keyProperty;
+        }
+
+        String getKeyValue() {
+            return keyValue;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Lookup)) {
+                return false;
+            }
+            Lookup lookup = (Lookup) o;
+            return Objects.equals(nodeType, lookup.nodeType)
+                && Objects.equals(keyProperty, lookup.keyProperty)
+                && Objects.equals(keyValue, lookup.keyValue)
+                && Objects.equals(uriQuery, lookup.uriQuery);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(nodeType, keyProperty, keyValue, uriQuery);
+        }
+    }
+}
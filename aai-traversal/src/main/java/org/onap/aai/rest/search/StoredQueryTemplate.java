@@ -0,0 +1,98 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import groovy.lang.Binding;
+import groovy.lang.Script;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.Step;
+import org.apache.tinkerpop.gremlin.process.traversal.Traversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalHelper;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.onap.aai.introspection.Loader;
+import org.onap.aai.query.builder.QueryBuilder;
+import org.onap.aai.serialization.engines.QueryStyle;
+import org.onap.aai.serialization.engines.TransactionalGraphEngine;
+
+/**
+ * A stored query compiled once when the stored queries are loaded.
+ *
+ * The stored query is a groovy script against the <code>builder</code> binding. Instead of
+ * expanding it into a gremlin string for every request, which then has to be compiled again,
+ * the compiled script is run directly against a traversal style {@link QueryBuilder}, so
+ * a request only binds its parameters and start vertices. The script is compiled through
+ * the shared {@link GremlinScriptCache}, so templates of the same query share one class.
+ */
+public class StoredQueryTemplate {
+
+    private final Class<? extends Script> scriptClass;
+
+    private StoredQueryTemplate(Class<? extends Script> scriptClass) {
+        this.scriptClass = scriptClass;
+    }
+
+    /**
+     * Compiles the stored query, or reuses its compiled script from the cache
+     *
+     * @param scriptCache the cache of compiled scripts
+     * @param storedQuery the stored query in its builder form
+     * @return the template
+     * @throws org.codehaus.groovy.control.CompilationFailedException if the query does not compile
+     */
+    public static StoredQueryTemplate compile(GremlinScriptCache scriptCache,
+        String storedQuery) {
+        return new StoredQueryTemplate(scriptCache.getStoredQueryClass(storedQuery));
+    }
+
+    /**
+     * Builds the traversal of the stored query for one request
+     *
+     * @param dbEngine the db engine providing the query builder
+     * @param style the query style, either TRAVERSAL or HISTORY_TRAVERSAL
+     * @param traversalSource the traversal source to start from
+     * @param loader the loader used to resolve the edge rules
+     * @param startVertices the vertices the query starts from
+     * @param params the query parameters
+     * @return the graph traversal starting at g.V(startVertices)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public GraphTraversal<?, ?> bind(TransactionalGraphEngine dbEngine, QueryStyle style,
+        GraphTraversalSource traversalSource, Loader loader, Object[] startVertices,
+        Map<String, Object> params) {
+        QueryBuilder<Vertex> builder = dbEngine.getQueryBuilder(style, traversalSource);
+        builder.changeLoader(loader);
+
+        Binding binding = new Binding(new HashMap<>(params));
+        binding.setVariable("builder", builder);
+        InvokerHelper.createScript(scriptClass, binding).run();
+
+        GraphTraversal.Admin<Vertex, Vertex> traversal =
+            traversalSource.V(startVertices).asAdmin();
+        Traversal.Admin query = ((GraphTraversal) builder.getQuery()).asAdmin();
+        TraversalHelper.insertTraversal((Step) traversal.getEndStep(), query, traversal);
+        return traversal;
+    }
+}
@@ -38,6 +38,20 @@ public class PaginationUtil {
         return aggregateVertexList;
     }
 
+    public static List<Object> getPaginatedVertexList(List<Object> vertexList, Pageable pageable) {
+        int fromIndex = (int) Math.min(getFromIndex(pageable), vertexList.size());
+        int toIndex = (int) Math.min(getToIndex(pageable), vertexList.size());
+        return vertexList.subList(fromIndex, toIndex);
+    }
+
+    public static long getFromIndex(Pageable pageable) {
+        return (long) pageable.getPage() * pageable.getPageSize();
+    }
+
+    public static long getToIndex(Pageable pageable) {
+        return getFromIndex(pageable) + pageable.getPageSize();
+    }
+
     public static boolean hasValidPaginationParams(Pageable pageable) {
       return pageable.getPage() >= 0 && pageable.getPageSize() > 0;
     }
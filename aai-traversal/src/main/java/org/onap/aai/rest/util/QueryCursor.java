@@ -0,0 +1,112 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+import org.onap.aai.exceptions.AAIException;
+
+/**
+ * The opaque cursor of cursor based pagination.
+ *
+ * It holds the id of the last vertex of a page together with a fingerprint of the query,
+ * so the next page can continue after that vertex and a cursor cannot be used to page
+ * through a different query.
+ */
+public class QueryCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final String fingerprint;
+    private final long lastId;
+
+    public QueryCursor(String fingerprint, long lastId) {
+        this.fingerprint = fingerprint;
+        this.lastId = lastId;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getLastId() {
+        return lastId;
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString((fingerprint + SEPARATOR + lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor of the query with the given fingerprint
+     *
+     * @param cursor the cursor from the request
+     * @param fingerprint the fingerprint of the query of the request
+     * @return the cursor
+     * @throws AAIException if the cursor is malformed or belongs to a different query
+     */
+    public static QueryCursor decode(String cursor, String fingerprint) throws AAIException {
+        String[] parts;
+        long lastId;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)
+                .split(SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(cursor);
+            }
+            lastId = Long.parseLong(parts[1]);
+        } catch (IllegalArgumentException e) {
+            throw new AAIException("AAI_3102", "The cursor " + cursor + " is malformed");
+        }
+        if (!parts[0].equals(fingerprint)) {
+            throw new AAIException("AAI_3019",
+                "The cursor " + cursor + " belongs to a different query");
+        }
+        return new QueryCursor(fingerprint, lastId);
+    }
+
+    /**
+     * Computes the fingerprint of a query
+     *
+     * @param parts everything the results of the query depend on
+     * @return the fingerprint
+     */
+    public static String fingerprint(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+            StringBuilder fingerprint = new StringBuilder();
+            byte[] hash = digest.digest();
+            for (int i = 0; i < 8; i++) {
+                fingerprint.append(String.format("%02x", hash[i]));
+            }
+            return fingerprint.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.util;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.onap.aai.util.AAIConfig;
+
+/**
+ * Deadline of a query executed on the request thread.
+ *
+ * Once the deadline passes, the request thread is interrupted. Traversal steps check the
+ * interrupt flag while they are iterated and fail with a
+ * <code>TraversalInterruptedException</code>, so the query stops within its current step
+ * instead of holding the thread and its transaction until it is done.
+ * <p>
+ * Closing the deadline cancels it and clears an interrupt it caused, so the request thread
+ * can be reused.
+ */
+public final class QueryDeadline implements AutoCloseable {
+
+    private static final ScheduledExecutorService TIMER = createTimer();
+
+    private final Thread thread;
+    private final ScheduledFuture<?> expiry;
+    private boolean closed;
+    private boolean expired;
+
+    private QueryDeadline(Thread thread, long timeoutMs) {
+        this.thread = thread;
+        this.expiry = timeoutMs > 0
+            ? TIMER.schedule(this::expire, timeoutMs, TimeUnit.MILLISECONDS)
+            : null;
+    }
+
+    /**
+     * Starts the deadline of a query executed on the current thread
+     *
+     * @param timeoutMs the time the query may take in ms, 0 or less for no deadline
+     * @return the deadline, to be closed once the query is done
+     */
+    public static QueryDeadline start(long timeoutMs) {
+        return new QueryDeadline(Thread.currentThread(), timeoutMs);
+    }
+
+    /**
+     * Gets the time a query may take, the way the timeout of the <code>runner</code> is
+     * configured
+     *
+     * @param enabled if the timeout is enabled, true or false
+     * @param appSpecific the timeouts of the apps, like <code>APP1,1000|APP2,-1</code>,
+     *        where -1 means no timeout
+     * @param limit the timeout in ms for all other apps
+     * @param fromAppId the app of the request
+     * @return the timeout in ms, -1 for no timeout
+     */
+    public static long getTimeout(String enabled, String appSpecific, String limit,
+        String fromAppId) {
+        if (!Boolean.parseBoolean(enabled)) {
+            return -1;
+        }
+        if (appSpecific != null && fromAppId != null) {
+            for (String appTimeout : appSpecific.split("\\|")) {
+                String[] parts = appTimeout.split(",");
+                if (parts.length == 2 && parts[0].trim().equals(fromAppId)) {
+                    return parseTimeout(parts[1]);
+                }
+            }
+        }
+        return limit == null ? -1 : parseTimeout(limit);
+    }
+
+    /**
+     * Gets the time a query may take from the timeout properties of a consumer
+     *
+     * @param timeoutEnabled the property enabling the timeout
+     * @param timeoutAppSpecific the property with the timeouts of the apps
+     * @param timeoutLimit the property with the timeout of all other apps
+     * @param fromAppId the app of the request
+     * @return the timeout in ms, -1 for no timeout
+     */
+    public static long getConfiguredTimeout(String timeoutEnabled, String timeoutAppSpecific,
+        String timeoutLimit, String fromAppId) {
+        return getTimeout(AAIConfig.get(timeoutEnabled, "false"),
+            AAIConfig.get(timeoutAppSpecific, ""), AAIConfig.get(timeoutLimit, "-1"), fromAppId);
+    }
+
+    /**
+     * Gets what is left of a timeout that started earlier
+     *
+     * @param timeoutMs the timeout in ms, 0 or less for no timeout
+     * @param startNanos the {@link System#nanoTime()} the timeout started at
+     * @return the remaining time in ms, at least 1 ms, or the timeout if there is none
+     */
+    public static long remaining(long timeoutMs, long startNanos) {
+        if (timeoutMs <= 0) {
+            return timeoutMs;
+        }
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        return Math.max(1, timeoutMs - elapsedMs);
+    }
+
+    private static long parseTimeout(String timeout) {
+        try {
+            return Long.parseLong(timeout.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private synchronized void expire() {
+        if (!closed) {
+            expired = true;
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * @return true if the deadline passed before it was closed
+     */
+    public synchronized boolean isExpired() {
+        return expired;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        if (expiry != null) {
+            expiry.cancel(false);
+        }
+        if (expired && thread == Thread.currentThread()) {
+            Thread.interrupted();
+        }
+    }
+
+    private static ScheduledExecutorService createTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "aai-query-deadline");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jakarta.ws.rs.core.StreamingOutput;
+
+import org.onap.aai.serialization.queryformats.Format;
+import org.onap.aai.serialization.queryformats.Formatter;
+import org.onap.aai.transforms.StreamingXmlTransformer;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Writes query results as they are iterated.
+ *
+ * Formatting all results at once holds the results, their json tree and the response
+ * string in memory together. The formats below format every result on its own, so the
+ * results can instead be formatted and written one at a time into the same
+ * <code>{"results":[...]}</code> document, into the same xml document, or as ndjson
+ * with one result per line.
+ */
+public final class StreamingResults {
+
+    public static final String NDJSON = "application/x-ndjson";
+
+    private static final Set<Format> STREAMABLE_FORMATS =
+        EnumSet.of(Format.graphson, Format.simple, Format.resource, Format.resource_and_url,
+            Format.raw, Format.pathed, Format.pathed_resourceversion, Format.id);
+
+    private enum Layout {
+        JSON, NDJSON, XML
+    }
+
+    private StreamingResults() {}
+
+    /**
+     * Checks if the results of a format can be written one at a time
+     *
+     * @param format the format of the results
+     * @return true if every result is formatted on its own
+     */
+    public static boolean isStreamable(Format format) {
+        return STREAMABLE_FORMATS.contains(format);
+    }
+
+    /**
+     * Checks if the results of a format can be written as ndjson
+     *
+     * @param format the format of the results
+     * @return true if every result, or every row of the aggregate format, is formatted on its own
+     */
+    public static boolean isNdjsonFormat(Format format) {
+        return isStreamable(format) || Format.aggregate.equals(format);
+    }
+
+    /**
+     * Writes the output within what is left of the timeout of the request.
+     *
+     * Streamed results are read while they are written, after the runner of the consumer
+     * returned, so its timeout no longer covers them. The write gets its own
+     * {@link QueryDeadline} for the rest of the timeout instead. Any failure, including
+     * the interrupted traversal of an expired deadline, is rethrown, so the response is
+     * aborted instead of ending as a truncated document with status 200.
+     *
+     * @param output writes the results
+     * @param timeoutMs the timeout of the request in ms, 0 or less for no timeout
+     * @param startNanos the {@link System#nanoTime()} the request started at
+     * @return the output that is written within the deadline
+     */
+    public static StreamingOutput withDeadline(StreamingOutput output, long timeoutMs,
+        long startNanos) {
+        if (timeoutMs <= 0) {
+            return output;
+        }
+        return outputStream -> {
+            try (QueryDeadline deadline =
+                QueryDeadline.start(QueryDeadline.remaining(timeoutMs, startNanos))) {
+                try {
+                    output.write(outputStream);
+                } catch (IOException | RuntimeException e) {
+                    if (!deadline.isExpired()) {
+                        throw e;
+                    }
+                    throw new IOException(
+                        "The query did not finish within " + timeoutMs + " ms", e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Formats the results one at a time and writes them, flushing after every result
+     *
+     * @param formatter the formatter of the request
+     * @param results the results, iterated only once
+     * @param propertiesMap the properties to return for each node type, if any
+     * @param outputStream the response body
+     * @throws IOException if the response cannot be written
+     */
+    public static void write(Formatter formatter, Iterator<?> results,
+        Map<String, List<String>> propertiesMap, OutputStream outputStream) throws IOException {
+        write(formatter, results, propertiesMap, outputStream, Layout.JSON);
+    }
+
+    /**
+     * Formats the results one at a time and writes every formatted result
+     * as one line of json, flushing after every result
+     *
+     * @param formatter the formatter of the request
+     * @param results the results, iterated only once
+     * @param propertiesMap the properties to return for each node type, if any
+     * @param outputStream the response body
+     * @throws IOException if the response cannot be written
+     */
+    public static void writeLines(Formatter formatter, Iterator<?> results,
+        Map<String, List<String>> propertiesMap, OutputStream outputStream) throws IOException {
+        write(formatter, results, propertiesMap, outputStream, Layout.NDJSON);
+    }
+
+    /**
+     * Formats the results one at a time and writes every formatted result
+     * as a result element of the xml document, flushing after every result
+     *
+     * @param formatter the formatter of the request
+     * @param results the results, iterated only once
+     * @param propertiesMap the properties to return for each node type, if any
+     * @param outputStream the response body
+     * @throws IOException if the response cannot be written
+     */
+    public static void writeXml(Formatter formatter, Iterator<?> results,
+        Map<String, List<String>> propertiesMap, OutputStream outputStream) throws IOException {
+        write(formatter, results, propertiesMap, outputStream, Layout.XML);
+    }
+
+    /**
+     * Writes the formatter output as an xml document
+     *
+     * @param formatted the formatter output
+     * @param outputStream the response body
+     * @throws IOException if the response cannot be written
+     */
+    public static void writeXml(JsonObject formatted, OutputStream outputStream)
+        throws IOException {
+        Writer writer =
+            new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        StreamingXmlTransformer.transform(formatted, writer);
+        writer.flush();
+    }
+
+    private static void write(Formatter formatter, Iterator<?> results,
+        Map<String, List<String>> propertiesMap, OutputStream outputStream, Layout layout)
+        throws IOException {
+        Writer writer =
+            new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        if (layout == Layout.JSON) {
+            writer.write("{\"results\":[");
+        } else if (layout == Layout.XML) {
+            StreamingXmlTransformer.writeStart(writer);
+        }
+        boolean isFirst = true;
+        while (results.hasNext()) {
+            List<Object> result = Collections.singletonList(results.next());
+            JsonObject formatted = propertiesMap != null && !propertiesMap.isEmpty()
+                ? formatter.output(result, propertiesMap)
+                : formatter.output(result);
+            JsonArray formattedResults = formatted.getAsJsonArray("results");
+            if (formattedResults == null) {
+                continue;
+            }
+            for (JsonElement formattedResult : formattedResults) {
+                if (layout == Layout.XML) {
+                    StreamingXmlTransformer.writeResult(formattedResult, writer);
+                } else {
+                    if (!isFirst && layout == Layout.JSON) {
+                        writer.write(',');
+                    }
+                    writer.write(formattedResult.toString());
+                    if (layout == Layout.NDJSON) {
+                        writer.write('\n');
+                    }
+                }
+                isFirst = false;
+            }
+            writer.flush();
+        }
+        if (layout == Layout.JSON) {
+            writer.write("]}");
+        } else if (layout == Layout.XML) {
+            StreamingXmlTransformer.writeEnd(writer);
+        }
+        writer.flush();
+    }
+}
@@ -0,0 +1,162 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.util;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.UriInfo;
+
+import org.onap.aai.concurrent.AaiCallable;
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.restcore.HttpMethod;
+
+/**
+ * Runs the requests of the <code>runner</code> based consumers on their virtual request thread.
+ *
+ * With <code>aai.traversal.virtualthreads.enabled=true</code> the servlet container handles
+ * every request on its own virtual thread (see
+ * {@link org.onap.aai.web.VirtualThreadConfiguration}). The runner of the consumers would
+ * still hand such a request to a platform thread and block until it is done, so on a virtual
+ * thread the request is processed right there instead, under a {@link QueryDeadline}: a
+ * request that exceeds its timeout is interrupted, which stops its traversal, and fails with
+ * AAI_7406.
+ * <p>
+ * On platform threads, so on Java 17 or if the mode is off, the requests are handed to the
+ * runner of the consumer as before.
+ */
+public final class VirtualThreadRunner {
+
+    private static final Method IS_VIRTUAL = lookupIsVirtual();
+
+    /**
+     * The runner of a consumer, used when the request does not run on a virtual thread
+     */
+    @FunctionalInterface
+    public interface Runner {
+        Response run(String timeoutEnabled, String timeoutAppSpecific, String timeoutLimit,
+            HttpHeaders headers, UriInfo info, HttpMethod method, AaiCallable<Response> callable);
+    }
+
+    /**
+     * Creates the response of a failed request
+     */
+    @FunctionalInterface
+    public interface ErrorResponder {
+        Response respond(HttpHeaders headers, UriInfo info, HttpMethod method, AAIException e);
+    }
+
+    private VirtualThreadRunner() {}
+
+    /**
+     * Creates an executor that starts a virtual thread per task
+     *
+     * @return the executor or null if the runtime has no virtual threads
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            // looked up at runtime, the code is still built for Java 17
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+                .invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks if a thread is a virtual thread
+     *
+     * @param thread the thread
+     * @return true if it is virtual, always false before Java 21
+     */
+    public static boolean isVirtual(Thread thread) {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (Boolean) IS_VIRTUAL.invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Processes the request on the current thread if it is virtual, otherwise with the runner
+     *
+     * @param runner the runner of the consumer
+     * @param errorResponder creates the response of a failed request
+     * @param timeoutEnabled the property enabling the timeout
+     * @param timeoutAppSpecific the property with the timeouts of the apps
+     * @param timeoutLimit the property with the timeout of all other apps
+     * @param headers the headers of the request
+     * @param info the uri of the request
+     * @param method the method of the request
+     * @param callable processes the request
+     * @return the response
+     */
+    public static Response runner(Runner runner, ErrorResponder errorResponder,
+        String timeoutEnabled, String timeoutAppSpecific, String timeoutLimit,
+        HttpHeaders headers, UriInfo info, HttpMethod method, AaiCallable<Response> callable) {
+        if (!isVirtual(Thread.currentThread())) {
+            return runner.run(timeoutEnabled, timeoutAppSpecific, timeoutLimit, headers, info,
+                method, callable);
+        }
+        long timeout = QueryDeadline.getConfiguredTimeout(timeoutEnabled, timeoutAppSpecific,
+            timeoutLimit, headers.getRequestHeaders().getFirst("X-FromAppId"));
+        return run(callable, timeout, e -> errorResponder.respond(headers, info, method, e));
+    }
+
+    /**
+     * Processes the request on the current thread, interrupting it once the timeout passed
+     */
+    static Response run(AaiCallable<Response> callable, long timeout,
+        Function<AAIException, Response> errorResponse) {
+        try (QueryDeadline deadline = QueryDeadline.start(timeout)) {
+            AAIException failure = null;
+            Response response = null;
+            try {
+                response = callable.call();
+            } catch (AAIException e) {
+                failure = e;
+            } catch (Exception e) {
+                failure = new AAIException("AAI_4000", e);
+            }
+            if (deadline.isExpired()) {
+                // an interrupted request fails with the timeout, whatever it returned
+                deadline.close();
+                return errorResponse.apply(new AAIException("AAI_7406",
+                    "Request did not finish within " + timeout + " ms"));
+            }
+            return failure == null ? response : errorResponse.apply(failure);
+        }
+    }
+
+    private static Method lookupIsVirtual() {
+        try {
+            return Thread.class.getMethod("isVirtual");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
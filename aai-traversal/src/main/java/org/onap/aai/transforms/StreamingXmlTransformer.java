@@ -0,0 +1,181 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.transforms;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Map;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Writes formatted query results as xml while walking their json.
+ *
+ * The xml is written directly, without first turning the json into a string and a map,
+ * so the results are only held once. The keys are converted from lower hyphen to lower
+ * camel case like {@link MapTraverser} does with a {@link LowerHyphenToLowerCamelConverter}.
+ * <p>
+ * Every result becomes a result element inside a results element, and every element
+ * of an array becomes an element with the name of the array.
+ */
+public final class StreamingXmlTransformer {
+
+    private static final String RESULTS = "results";
+    private static final String RESULT = "result";
+    private static final String ARRAY = "array";
+    private static final Converter CONVERTER = new LowerHyphenToLowerCamelConverter();
+
+    private StreamingXmlTransformer() {}
+
+    /**
+     * Writes the formatter output as xml
+     *
+     * @param formatted the formatter output, <code>{"results":[...]}</code>
+     * @param writer the xml is written to
+     * @throws IOException if the xml cannot be written
+     */
+    public static void transform(JsonObject formatted, Writer writer) throws IOException {
+        writeStart(writer);
+        JsonArray results = formatted.getAsJsonArray(RESULTS);
+        if (results != null) {
+            for (JsonElement result : results) {
+                writeResult(result, writer);
+            }
+        }
+        writeEnd(writer);
+    }
+
+    /**
+     * Converts the formatter output to xml
+     *
+     * @param formatted the formatter output, <code>{"results":[...]}</code>
+     * @return the xml
+     */
+    public static String transform(JsonObject formatted) {
+        StringWriter writer = new StringWriter();
+        try {
+            transform(formatted, writer);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return writer.toString();
+    }
+
+    public static void writeStart(Writer writer) throws IOException {
+        startElement(RESULTS, writer);
+    }
+
+    /**
+     * Writes one formatted result as a result element. A result that only holds
+     * a result, like the one of the console format, is not wrapped twice.
+     *
+     * @param result one element of the formatter output
+     * @param writer the xml is written to
+     * @throws IOException if the xml cannot be written
+     */
+    public static void writeResult(JsonElement result, Writer writer) throws IOException {
+        if (result.isJsonObject() && result.getAsJsonObject().size() == 1
+            && result.getAsJsonObject().has(RESULT)) {
+            result = result.getAsJsonObject().get(RESULT);
+        }
+        startElement(RESULT, writer);
+        writeContent(result, writer);
+        endElement(RESULT, writer);
+    }
+
+    public static void writeEnd(Writer writer) throws IOException {
+        endElement(RESULTS, writer);
+    }
+
+    private static void writeElement(String name, JsonElement value, Writer writer)
+        throws IOException {
+        if (value.isJsonNull()) {
+            return;
+        }
+        if (value.isJsonArray()) {
+            // every element of an array is an element of the same name
+            for (JsonElement element : value.getAsJsonArray()) {
+                if (element.isJsonArray()) {
+                    startElement(name, writer);
+                    writeElement(ARRAY, element, writer);
+                    endElement(name, writer);
+                } else {
+                    writeElement(name, element, writer);
+                }
+            }
+            return;
+        }
+        startElement(name, writer);
+        writeContent(value, writer);
+        endElement(name, writer);
+    }
+
+    private static void writeContent(JsonElement value, Writer writer) throws IOException {
+        if (value.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : value.getAsJsonObject().entrySet()) {
+                writeElement(CONVERTER.convert(entry.getKey()), entry.getValue(), writer);
+            }
+        } else if (value.isJsonArray()) {
+            writeElement(ARRAY, value, writer);
+        } else if (value.isJsonPrimitive()) {
+            writeText(value.getAsString(), writer);
+        }
+    }
+
+    private static void startElement(String name, Writer writer) throws IOException {
+        writer.write('<');
+        writer.write(name);
+        writer.write('>');
+    }
+
+    private static void endElement(String name, Writer writer) throws IOException {
+        writer.write("</");
+        writer.write(name);
+        writer.write('>');
+    }
+
+    private static void writeText(String text, Writer writer) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&':
+                    writer.write("&amp;");
+                    break;
+                case '<':
+                    writer.write("&lt;");
+                    break;
+                case '>':
+                    writer.write("&gt;");
+                    break;
+                case '"':
+                    writer.write("&quot;");
+                    break;
+                case '\'':
+                    writer.write("&apos;");
+                    break;
+                default:
+                    writer.write(c);
+            }
+        }
+    }
+}
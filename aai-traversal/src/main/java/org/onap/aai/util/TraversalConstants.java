@@ -34,6 +34,9 @@ public final class TraversalConstants {
     public static final String DSL_NOVALIDATION_CLIENTS = "aai.traversal.dsl.novalidation.clients";
     public static final String DSL_OVERRIDE = "aai.dsl.override";
     public static final String DSL_MAX_NODE_COUNT = "15";
+    public static final String DSL_COMPILER = "aai.dsl.compiler";
+    public static final String DSL_COMPILER_NATIVE = "native";
+    public static final String DSL_COMPILER_PARAMETERIZED = "parameterized";
 
     public static final long HISTORY_MAX_HOURS = 192;
 
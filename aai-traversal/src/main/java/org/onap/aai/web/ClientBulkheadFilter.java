@@ -0,0 +1,311 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.web;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.interceptors.AAIHeaderProperties;
+import org.onap.aai.logging.ErrorLogHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Limits the queries every client, identified by its X-FromAppId, runs at the same time
+ * on each query endpoint.
+ *
+ * A request beyond the limit waits in a short queue for a running request of the same
+ * client and endpoint to finish. If the queue is full or the wait takes too long, the
+ * request is rejected with 429 right away, so one client cannot occupy all threads and
+ * graph transactions. The filter is a servlet filter, so it covers the Jersey endpoints
+ * as well as /dsl, and a streamed response holds its slot until it is written.
+ * <p>
+ * The limits of single clients can be overridden with
+ * <code>client.bulkhead.limits=APP1,50|APP2/dsl,2|APP3,-1</code>, where an entry with an
+ * endpoint only applies to that endpoint and -1 means no limit. Clients beyond
+ * <code>client.bulkhead.max-clients</code> that have no limit of their own share one bulkhead
+ * per endpoint, limited by <code>client.bulkhead.other-clients-max-concurrent</code>.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@Component
+public class ClientBulkheadFilter extends OncePerRequestFilter implements MeterBinder {
+
+    static final String OTHER_CLIENTS = "other";
+
+    private static final String METRIC_PREFIX = "aai.client.bulkhead";
+    private static final Pattern LIMITED_PATHS = Pattern.compile(
+        "^/(?:(?:v[1-9][0-9]*|latest)/(query|dsl|search)|(recents)/[^/]+|(search))(?:/.*)?$");
+
+    private final boolean enabled;
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final long maxWaitMs;
+    private final int maxClients;
+    private final int otherClientsMaxConcurrent;
+    private final Map<String, Integer> limits;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public ClientBulkheadFilter(@Value("${client.bulkhead.enabled:false}") boolean enabled,
+        @Value("${client.bulkhead.max-concurrent:20}") int maxConcurrent,
+        @Value("${client.bulkhead.max-queued:10}") int maxQueued,
+        @Value("${client.bulkhead.max-wait-ms:500}") long maxWaitMs,
+        @Value("${client.bulkhead.max-clients:1000}") int maxClients,
+        @Value("${client.bulkhead.other-clients-max-concurrent:20}") int otherClientsMaxConcurrent,
+        @Value("${client.bulkhead.limits:}") String limits) {
+        this.enabled = enabled;
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+        this.maxWaitMs = maxWaitMs;
+        this.maxClients = maxClients;
+        this.otherClientsMaxConcurrent = otherClientsMaxConcurrent;
+        this.limits = parseLimits(limits);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || getEndpoint(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+        FilterChain filterChain) throws ServletException, IOException {
+
+        String client = request.getHeader(AAIHeaderProperties.FROM_APP_ID);
+        String endpoint = getEndpoint(request);
+        // requests without a client are rejected by the header validation
+        int limit = client == null || client.isEmpty() ? -1 : getLimit(client, endpoint);
+        if (limit < 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        Bulkhead bulkhead = getBulkhead(client, endpoint, limit);
+        boolean acquired;
+        try {
+            acquired = bulkhead.acquire(maxQueued, maxWaitMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            reject(request, response, client);
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    private static String getEndpoint(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Matcher matcher = LIMITED_PATHS.matcher(path);
+        if (!matcher.matches()) {
+            return null;
+        }
+        for (int group = 1; group <= matcher.groupCount(); group++) {
+            if (matcher.group(group) != null) {
+                return matcher.group(group);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the limit of a client on an endpoint
+     *
+     * @param client the X-FromAppId of the request
+     * @param endpoint the endpoint, like query or dsl
+     * @return the maximum number of concurrent requests, -1 for no limit
+     */
+    int getLimit(String client, String endpoint) {
+        Integer limit = limits.get(client + "/" + endpoint);
+        if (limit == null) {
+            limit = limits.get(client);
+        }
+        return limit == null ? maxConcurrent : limit;
+    }
+
+    Bulkhead getBulkhead(String client, String endpoint, int limit) {
+        Bulkhead bulkhead = bulkheads.get(client + "/" + endpoint);
+        if (bulkhead != null) {
+            return bulkhead;
+        }
+        // clients beyond the maximum share one bulkhead with a limit of its own, so unknown
+        // app ids can neither grow the map nor the metrics without bound
+        boolean isOwn = bulkheads.size() < maxClients || limits.containsKey(client)
+            || limits.containsKey(client + "/" + endpoint);
+        String key = isOwn ? client : OTHER_CLIENTS;
+        int permits = isOwn ? limit : otherClientsMaxConcurrent;
+        return bulkheads.computeIfAbsent(key + "/" + endpoint, k -> {
+            Bulkhead created = new Bulkhead(key, endpoint, permits);
+            MeterRegistry meterRegistry = registry;
+            if (meterRegistry != null) {
+                created.bindTo(meterRegistry);
+            }
+            return created;
+        });
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, String client)
+        throws IOException {
+        String accept = request.getHeader("Accept");
+        boolean isXml = accept != null && accept.contains(MediaType.APPLICATION_XML_VALUE);
+        ArrayList<String> templateVars = new ArrayList<>();
+        templateVars.add(client);
+        String body = ErrorLogHelper.getRESTAPIErrorResponse(
+            Collections.singletonList(isXml ? jakarta.ws.rs.core.MediaType.APPLICATION_XML_TYPE
+                : jakarta.ws.rs.core.MediaType.APPLICATION_JSON_TYPE),
+            new AAIException("AAI_3304"), templateVars);
+        response.setStatus(429);
+        response.setHeader("Retry-After", "1");
+        response.setContentType(isXml ? MediaType.APPLICATION_XML_VALUE
+            : MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write(body);
+    }
+
+    private static Map<String, Integer> parseLimits(String limits) {
+        Map<String, Integer> parsed = new HashMap<>();
+        for (String limit : limits.split("\\|")) {
+            String[] parts = limit.split(",");
+            if (parts.length == 2 && !parts[0].trim().isEmpty()) {
+                try {
+                    parsed.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+                } catch (NumberFormatException e) {
+                    // invalid entries fall back to the default limit
+                }
+            }
+        }
+        return parsed;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        bulkheads.values().forEach(bulkhead -> bulkhead.bindTo(registry));
+    }
+
+    /**
+     * The concurrent requests of one client on one endpoint
+     */
+    static final class Bulkhead {
+        private final String client;
+        private final String endpoint;
+        private final int limit;
+        private final Semaphore permits;
+        private final AtomicInteger queued = new AtomicInteger();
+        private final LongAdder rejected = new LongAdder();
+        private volatile Timer waitTimer;
+
+        Bulkhead(String client, String endpoint, int limit) {
+            this.client = client;
+            this.endpoint = endpoint;
+            this.limit = limit;
+            this.permits = new Semaphore(limit, true);
+        }
+
+        boolean acquire(int maxQueued, long maxWaitMs) throws InterruptedException {
+            if (permits.tryAcquire()) {
+                return true;
+            }
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                rejected.increment();
+                return false;
+            }
+            long start = System.nanoTime();
+            try {
+                boolean acquired = permits.tryAcquire(maxWaitMs, TimeUnit.MILLISECONDS);
+                if (!acquired) {
+                    rejected.increment();
+                }
+                return acquired;
+            } finally {
+                queued.decrementAndGet();
+                Timer timer = waitTimer;
+                if (timer != null) {
+                    timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+
+        void release() {
+            permits.release();
+        }
+
+        int queued() {
+            return queued.get();
+        }
+
+        int getLimit() {
+            return limit;
+        }
+
+        int inFlight() {
+            return limit - permits.availablePermits();
+        }
+
+        long rejected() {
+            return rejected.sum();
+        }
+
+        void bindTo(MeterRegistry registry) {
+            Tags tags = Tags.of("client", client, "endpoint", endpoint);
+            Gauge.builder(METRIC_PREFIX + ".queued", this, Bulkhead::queued).tags(tags)
+                .description("Requests of the client waiting for a slot").register(registry);
+            Gauge.builder(METRIC_PREFIX + ".inflight", this, Bulkhead::inFlight).tags(tags)
+                .description("Requests of the client currently running").register(registry);
+            FunctionCounter.builder(METRIC_PREFIX + ".rejections", this, Bulkhead::rejected)
+                .tags(tags).description("Requests of the client rejected with 429")
+                .register(registry);
+            waitTimer = Timer.builder(METRIC_PREFIX + ".wait").tags(tags)
+                .description("Time requests of the client waited for a slot").register(registry);
+        }
+    }
+}
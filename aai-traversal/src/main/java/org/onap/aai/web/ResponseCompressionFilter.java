@@ -0,0 +1,580 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.web;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Compresses the responses of the query endpoints with gzip or deflate,
+ * if the client accepts one of them.
+ *
+ * The response is compressed while it is written, so streamed responses stay streamed.
+ * A flush of the response only flushes the compressor once a buffer full has been written
+ * since the last one, since streamed responses are flushed after every result and every
+ * flush of the compressor ends a deflate block. Responses smaller than the minimum size
+ * are written uncompressed, since compressing them saves nothing.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@Component
+public class ResponseCompressionFilter extends OncePerRequestFilter implements MeterBinder {
+
+    static final String GZIP = "gzip";
+    static final String DEFLATE = "deflate";
+
+    private static final String METRIC_PREFIX = "aai.response.compression";
+    private static final int BUFFER_SIZE = 8192;
+    private static final Pattern COMPRESSED_PATHS = Pattern
+        .compile("^/((v[1-9][0-9]*|latest)/(query|dsl|search)|recents/[^/]+|search)(/.*)?$");
+
+    private final boolean enabled;
+    private final int minSize;
+    private final int level;
+
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder bytesIn = new LongAdder();
+    private final LongAdder bytesOut = new LongAdder();
+
+    public ResponseCompressionFilter(
+        @Value("${response.compression.enabled:false}") boolean enabled,
+        @Value("${response.compression.min-size:2048}") int minSize,
+        @Value("${response.compression.level:6}") int level) {
+        this.enabled = enabled;
+        this.minSize = minSize;
+        this.level = level;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !enabled || !COMPRESSED_PATHS.matcher(path).matches();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+        FilterChain filterChain) throws ServletException, IOException {
+
+        response.addHeader("Vary", "Accept-Encoding");
+        String encoding = negotiate(request.getHeader("Accept-Encoding"));
+        if (encoding == null || "HEAD".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        CompressingResponse compressingResponse = new CompressingResponse(response, encoding);
+        boolean isAsync = false;
+        try {
+            filterChain.doFilter(request, compressingResponse);
+            isAsync = request.isAsyncStarted();
+        } finally {
+            if (isAsync) {
+                compressingResponse.finishAsync(request);
+            } else {
+                compressingResponse.finish();
+            }
+        }
+    }
+
+    /**
+     * Picks the encoding of the response, preferring gzip over deflate
+     *
+     * @param acceptEncoding the Accept-Encoding header of the request
+     * @return gzip, deflate or null if the client accepts neither
+     */
+    static String negotiate(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean isGzip = false;
+        boolean isDeflate = false;
+        boolean isAny = false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] coding = part.trim().split(";");
+            String name = coding[0].trim().toLowerCase();
+            if (isRejected(coding)) {
+                continue;
+            }
+            isGzip |= GZIP.equals(name) || "x-gzip".equals(name);
+            isDeflate |= DEFLATE.equals(name);
+            isAny |= "*".equals(name);
+        }
+        if (isGzip || isAny) {
+            return GZIP;
+        }
+        return isDeflate ? DEFLATE : null;
+    }
+
+    private static boolean isRejected(String[] coding) {
+        for (int i = 1; i < coding.length; i++) {
+            String parameter = coding[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public long compressedResponses() {
+        return compressedResponses.sum();
+    }
+
+    public long bytesIn() {
+        return bytesIn.sum();
+    }
+
+    public long bytesOut() {
+        return bytesOut.sum();
+    }
+
+    public long bytesSaved() {
+        return bytesIn() - bytesOut();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter
+            .builder(METRIC_PREFIX + ".responses", this,
+                ResponseCompressionFilter::compressedResponses)
+            .description("Responses that were compressed").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".bytes.in", this, ResponseCompressionFilter::bytesIn)
+            .description("Bytes of the compressed responses before compression")
+            .baseUnit("bytes").register(registry);
+        FunctionCounter.builder(METRIC_PREFIX + ".bytes.out", this, ResponseCompressionFilter::bytesOut)
+            .description("Bytes of the compressed responses after compression")
+            .baseUnit("bytes").register(registry);
+        FunctionCounter
+            .builder(METRIC_PREFIX + ".bytes.saved", this, ResponseCompressionFilter::bytesSaved)
+            .description("Bytes saved by compressing responses").baseUnit("bytes")
+            .register(registry);
+    }
+
+    /**
+     * Holds back the first bytes of the response until it is known
+     * whether the response is large enough to be compressed.
+     */
+    private class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final String encoding;
+        private CompressingOutputStream outputStream;
+        private PrintWriter writer;
+
+        CompressingResponse(HttpServletResponse response, String encoding) {
+            super(response);
+            this.encoding = encoding;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called");
+            }
+            return getCompressingOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                if (outputStream != null) {
+                    throw new IllegalStateException("getOutputStream() has already been called");
+                }
+                writer = new PrintWriter(
+                    new OutputStreamWriter(getCompressingOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        private CompressingOutputStream getCompressingOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream(this);
+            }
+            return outputStream;
+        }
+
+        // the length is only known once it is decided whether the response is compressed
+        @Override
+        public void setContentLength(int len) {}
+
+        @Override
+        public void setContentLengthLong(long len) {}
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (!"Content-Length".equalsIgnoreCase(name)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (!"Content-Length".equalsIgnoreCase(name)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (!"Content-Length".equalsIgnoreCase(name)) {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            if (!"Content-Length".equalsIgnoreCase(name)) {
+                super.addIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            } else if (outputStream != null) {
+                outputStream.flush();
+            } else {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void resetBuffer() {
+            if (outputStream != null) {
+                outputStream.resetBuffer();
+            }
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            if (outputStream != null) {
+                outputStream.resetBuffer();
+            }
+            super.reset();
+        }
+
+        /**
+         * The rest of a response that went async is written uncompressed, unless it
+         * is already being compressed, then it is finished when the request completes
+         */
+        void finishAsync(HttpServletRequest request) throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream == null || !outputStream.isCompressing()) {
+                getCompressingOutputStream().passThrough();
+            } else {
+                request.getAsyncContext().addListener(new FinishingListener(this));
+            }
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream != null) {
+                outputStream.close();
+            }
+        }
+
+        HttpServletResponse getTarget() {
+            return (HttpServletResponse) getResponse();
+        }
+    }
+
+    private class CompressingOutputStream extends ServletOutputStream {
+
+        private final CompressingResponse response;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private CountingOutputStream compressed;
+        private DeflaterOutputStream compressor;
+        private Deflater deflater;
+        private long uncompressedBytes = 0;
+        private long flushedBytes = 0;
+        private boolean isUncompressed = false;
+        private boolean isClosed = false;
+
+        CompressingOutputStream(CompressingResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            if (isClosed) {
+                throw new IOException("The response has already been written");
+            }
+            if (compressor != null) {
+                compressor.write(b, off, len);
+                uncompressedBytes += len;
+            } else if (isUncompressed) {
+                response.getTarget().getOutputStream().write(b, off, len);
+            } else {
+                buffer.write(b, off, len);
+                if (buffer.size() >= minSize) {
+                    startCompressing();
+                }
+            }
+        }
+
+        private void startCompressing() throws IOException {
+            HttpServletResponse target = response.getTarget();
+            if (target.isCommitted() || target.containsHeader("Content-Encoding")) {
+                isUncompressed = true;
+            } else {
+                target.setHeader("Content-Encoding", response.encoding);
+                compressed = new CountingOutputStream(target.getOutputStream());
+                // the gzip header and trailer are written here, deflate keeps its zlib wrapper
+                boolean isGzip = GZIP.equals(response.encoding);
+                deflater = new Deflater(level, isGzip);
+                try {
+                    compressor = isGzip ? new GzipOutputStream(compressed, deflater)
+                        : new DeflaterOutputStream(compressed, deflater, BUFFER_SIZE, true);
+                } catch (IOException e) {
+                    deflater.end();
+                    throw e;
+                }
+            }
+            OutputStream out = compressor != null ? compressor : target.getOutputStream();
+            uncompressedBytes += buffer.size();
+            buffer.writeTo(out);
+            buffer.reset();
+        }
+
+        /**
+         * Until the minimum size is reached the bytes are held back, afterwards the compressor
+         * is flushed once a buffer full has been written since the last flush
+         */
+        @Override
+        public void flush() throws IOException {
+            if (compressor != null) {
+                if (uncompressedBytes - flushedBytes >= BUFFER_SIZE) {
+                    flushedBytes = uncompressedBytes;
+                    compressor.flush();
+                }
+            } else if (isUncompressed) {
+                response.getTarget().getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (isClosed) {
+                return;
+            }
+            isClosed = true;
+            if (compressor != null) {
+                try {
+                    compressor.finish();
+                } finally {
+                    deflater.end();
+                }
+                compressedResponses.increment();
+                bytesIn.add(uncompressedBytes);
+                bytesOut.add(compressed.getCount());
+            } else if (!isUncompressed && buffer.size() > 0) {
+                HttpServletResponse target = response.getTarget();
+                if (!target.isCommitted()) {
+                    target.setContentLength(buffer.size());
+                }
+                buffer.writeTo(target.getOutputStream());
+            }
+            response.getTarget().getOutputStream().flush();
+        }
+
+        void resetBuffer() {
+            buffer.reset();
+        }
+
+        boolean isCompressing() {
+            return compressor != null;
+        }
+
+        void passThrough() throws IOException {
+            OutputStream out = response.getTarget().getOutputStream();
+            isUncompressed = true;
+            buffer.writeTo(out);
+            buffer.reset();
+        }
+
+        @Override
+        public boolean isReady() {
+            if (!isUncompressed) {
+                return true;
+            }
+            try {
+                return response.getTarget().getOutputStream().isReady();
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        /**
+         * Non blocking writes go straight to the response uncompressed, since the compressor
+         * and the held back bytes could not honour isReady()
+         */
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            if (compressor != null) {
+                throw new IllegalStateException("The response is already being compressed");
+            }
+            try {
+                passThrough();
+                response.getTarget().getOutputStream().setWriteListener(writeListener);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Finishes the compressed response of a request that went async once the request completes
+     */
+    private static class FinishingListener implements AsyncListener {
+
+        private final CompressingResponse response;
+
+        FinishingListener(CompressingResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) throws IOException {
+            response.finish();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) throws IOException {
+            response.finish();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {}
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {}
+    }
+
+    /**
+     * Writes the gzip format around a deflater of its own, unlike GZIPOutputStream,
+     * whose deflater cannot be given and is not ended when the stream is only finished
+     */
+    private static class GzipOutputStream extends DeflaterOutputStream {
+
+        private static final byte[] HEADER =
+            {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+        private final CRC32 crc = new CRC32();
+        private boolean isFinished = false;
+
+        GzipOutputStream(OutputStream out, Deflater deflater) throws IOException {
+            super(out, deflater, BUFFER_SIZE, true);
+            out.write(HEADER);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            super.write(b, off, len);
+            crc.update(b, off, len);
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (isFinished) {
+                return;
+            }
+            isFinished = true;
+            super.finish();
+            writeInt((int) crc.getValue());
+            writeInt((int) def.getBytesRead());
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.write(new byte[] {(byte) value, (byte) (value >> 8), (byte) (value >> 16),
+                (byte) (value >> 24)});
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private long count = 0;
+
+        CountingOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+
+        long getCount() {
+            return count;
+        }
+    }
+}
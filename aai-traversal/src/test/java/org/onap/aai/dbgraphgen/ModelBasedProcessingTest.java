@@ -19,6 +19,8 @@
  */
 package org.onap.aai.dbgraphgen;
 
+import static org.junit.Assert.assertEquals;
+
 import com.google.common.collect.ArrayListMultimap;
 import com.google.common.collect.Multimap;
 
@@ -442,6 +444,37 @@ public class ModelBasedProcessingTest extends AAISetup {
             MODEL_VERSION_ID_VALUE);
     }
 
+    @Test
+    public void testCachedTopologyIsNotTraversedAgain() throws AAIException {
+        ModelTopologyCache topologyCache = new ModelTopologyCache(true, 10, 60);
+        ModelBasedProcessing processor = Mockito.spy(modelBasedProcessor);
+        Mockito.doReturn(topologyCache).when(processor).getTopologyCache();
+        Multimap<String, String> topology = ArrayListMultimap.create();
+        topology.put("generic-vnf", "vserver");
+        Mockito.doReturn(topology).when(processor).genTopoMap4ModelVer(TRANSACTION_ID,
+            FROM_APP_ID, modelVersion, MODEL_VERSION_ID_VALUE);
+        modelVersion.property("resource-version", "1");
+
+        processor.getTopoMap4ModelVer(TRANSACTION_ID, FROM_APP_ID, modelVersion,
+            MODEL_VERSION_ID_VALUE);
+        Mockito.clearInvocations(dbEngine);
+        Multimap<String, String> cached = processor.getTopoMap4ModelVer(TRANSACTION_ID,
+            FROM_APP_ID, modelVersion, MODEL_VERSION_ID_VALUE);
+
+        // the hit neither computes the topology nor traverses the definition
+        assertEquals(topology, cached);
+        Mockito.verify(processor, Mockito.times(1)).genTopoMap4ModelVer(TRANSACTION_ID,
+            FROM_APP_ID, modelVersion, MODEL_VERSION_ID_VALUE);
+        Mockito.verify(dbEngine, Mockito.never()).getQueryBuilder(Mockito.any(Vertex.class));
+
+        // a changed definition is traversed again
+        topologyCache.definitionsChanged();
+        processor.getTopoMap4ModelVer(TRANSACTION_ID, FROM_APP_ID, modelVersion,
+            MODEL_VERSION_ID_VALUE);
+        Mockito.verify(processor, Mockito.times(2)).genTopoMap4ModelVer(TRANSACTION_ID,
+            FROM_APP_ID, modelVersion, MODEL_VERSION_ID_VALUE);
+    }
+
     @Test(expected = AAIException.class)
     public void testGenTopoMap4ModelVer_ServiceType() throws AAIException {
 
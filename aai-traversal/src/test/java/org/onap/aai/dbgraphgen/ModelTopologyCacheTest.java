@@ -0,0 +1,172 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.dbgraphgen;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.rest.search.GraphChangeListener;
+import org.onap.aai.rest.search.ResponseCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ModelTopologyCacheTest {
+
+    private final AtomicInteger computations = new AtomicInteger();
+
+    private Multimap<String, String> topology() {
+        computations.incrementAndGet();
+        Multimap<String, String> topology = ArrayListMultimap.create();
+        topology.put("service-instance", "generic-vnf");
+        topology.put("service-instance|generic-vnf", "vserver");
+        return topology;
+    }
+
+    @Test
+    public void topologyIsComputedOncePerResourceVersion() throws AAIException {
+        ModelTopologyCache cache = new ModelTopologyCache(true, 10, 60);
+
+        Multimap<String, String> first = cache.getModelVerTopology("mv-1", "1", this::topology);
+        Multimap<String, String> second = cache.getModelVerTopology("mv-1", "1", this::topology);
+
+        assertEquals(1, computations.get());
+        assertEquals(first, second);
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.missCount());
+
+        // a new resource-version of the model-ver replaces the cached topology
+        cache.getModelVerTopology("mv-1", "2", this::topology);
+        assertEquals(2, computations.get());
+        assertEquals(1, cache.invalidationCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void kindsOfTopologiesAreCachedApart() throws AAIException {
+        ModelTopologyCache cache = new ModelTopologyCache(true, 10, 60);
+        Map<String, String> elements = new HashMap<>();
+        elements.put("generic-vnf", "element-1");
+
+        cache.getNamedQueryTopology("nq-1", "1", this::topology);
+        Map<String, String> cached = cache.getNamedQueryElementHash("nq-1", "1", () -> elements);
+        cache.getModelVerTopology("nq-1", "1", this::topology);
+
+        assertEquals(2, computations.get());
+        assertEquals(elements, cached);
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void cachedTopologiesCannotBeModified() throws AAIException {
+        ModelTopologyCache cache = new ModelTopologyCache(true, 10, 60);
+
+        Multimap<String, String> topology = cache.getModelVerTopology("mv-1", "1", this::topology);
+        Map<String, String> deleteKeys =
+            cache.getDeleteKeyHash("mv-1", "1", () -> new HashMap<>(Map.of("vserver", "T")));
+
+        assertThrows(UnsupportedOperationException.class, () -> topology.put("vserver", "pserver"));
+        assertThrows(UnsupportedOperationException.class, () -> deleteKeys.put("vserver", "F"));
+    }
+
+    @Test
+    public void topologiesWithoutResourceVersionAreNotCached() throws AAIException {
+        ModelTopologyCache cache = new ModelTopologyCache(true, 10, 60);
+        ModelTopologyCache disabled = new ModelTopologyCache(false, 10, 60);
+
+        cache.getModelVerTopology("mv-1", null, this::topology);
+        cache.getModelVerTopology("mv-1", null, this::topology);
+        disabled.getModelVerTopology("mv-1", "1", this::topology);
+        disabled.getModelVerTopology("mv-1", "1", this::topology);
+
+        assertEquals(4, computations.get());
+        assertEquals(0, cache.size());
+        assertEquals(0, disabled.size());
+    }
+
+    @Test
+    public void modelAndNamedQueryEventsDropTheTopologies() throws AAIException {
+        ModelTopologyCache cache = new ModelTopologyCache(true, 10, 60);
+        ResponseCache responseCache = new ResponseCache("", false, 60, 1024);
+        GraphChangeListener listener = new GraphChangeListener(responseCache, cache);
+        cache.getModelVerTopology("mv-1", "1", this::topology);
+
+        listener.onEvent("{\"event-header\":{\"entity-type\":\"pserver\","
+            + "\"top-entity-type\":\"pserver\"}}");
+        assertEquals(1, cache.size());
+
+        // the elements of a model are published as part of the model
+        listener.onEvent("{\"event-header\":{\"entity-type\":\"model-element\","
+            + "\"top-entity-type\":\"model\"}}");
+        assertEquals(0, cache.size());
+        cache.getModelVerTopology("mv-1", "1", this::topology);
+        assertEquals(2, computations.get());
+
+        listener.onEvent("not an event");
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void cacheIsBoundedBySize() throws AAIException {
+        ModelTopologyCache cache = new ModelTopologyCache(true, 2, 60);
+
+        for (int i = 0; i < 5; i++) {
+            cache.getModelVerTopology("mv-" + i, "1", this::topology);
+        }
+
+        assertEquals(2, cache.size());
+        assertEquals(3, cache.evictionCount());
+    }
+
+    @Test
+    public void failedComputationsAreNotCached() throws AAIException {
+        ModelTopologyCache cache = new ModelTopologyCache(true, 10, 60);
+
+        assertThrows(AAIException.class, () -> cache.getModelVerTopology("mv-1", "1", () -> {
+            throw new AAIException("AAI_6132", "Bad Model Definition");
+        }));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void metricsAreRegistered() throws AAIException {
+        ModelTopologyCache cache = new ModelTopologyCache(true, 10, 60);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.getModelVerTopology("mv-1", "1", this::topology);
+        cache.getModelVerTopology("mv-1", "1", this::topology);
+
+        assertEquals(1.0,
+            registry.get("aai.model.topology.cache.hits").functionCounter().count());
+        assertEquals(1.0,
+            registry.get("aai.model.topology.cache.misses").functionCounter().count());
+        assertEquals(1.0, registry.get("aai.model.topology.cache.size").gauge().value());
+    }
+}
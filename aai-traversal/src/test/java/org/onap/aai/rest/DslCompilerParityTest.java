@@ -0,0 +1,364 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.fail;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversal;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.onap.aai.dbmap.AAIGraph;
+import org.onap.aai.serialization.db.EdgeSerializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+/**
+ * Runs the queries of DslQueryProcessorV1Test and DslQueryProcessorV2Test that compile
+ * to a traversal with the groovy, native and parameterized dsl back ends and expects the
+ * same, non-empty results from all of them. The graph holds at least one match for every
+ * query, so back ends that both find nothing do not pass.
+ */
+@RunWith(Parameterized.class)
+public class DslCompilerParityTest extends AbstractSpringRestTest {
+
+    private static final String[] V1_QUERIES = {
+        "logical-link* ('model-invariant-id','invid')",
+        "logical-link*('link-id','dsl\\'link')",
+        "generic-vnf*('vnf-name','xyz') > [ vnfc* > vserver* > [pserver*, tenant* > cloud-region*], "
+            + "vserver* > [pserver*, tenant* > cloud-region*] ]",
+        "cloud-region*('cloud-owner','xyz') > complex*",
+        "pserver*('hostname','xyz')!(> complex)",
+        "pserver('hostname','xyz')>vserver*!(> vnfc > configuration))",
+        "cloud-region* !('cloud-owner','coid')",
+        "cloud-region* !('cloud-owner','coid') LIMIT 10",
+        "cloud-region* !('cloud-owner','coidhello:?_-)(!@#$%^&*+={}[]|/.<,') LIMIT 10",
+        "cloud-region* !('cloud-owner','coid')('cloud-region-id','cr id')  LIMIT 10",
+        "generic-vnf('vnf-id','vnfId') ( > vserver > tenant > cloud-region('cloud-region-id','One')) "
+            + "> entitlement*",
+        "generic-vnf('vnf-id','vnfId') (> ('tosca.relationships.HostedOn') vserver > "
+            + "('org.onap.relationships.inventory.BelongsTo') tenant > "
+            + "('org.onap.relationships.inventory.BelongsTo') cloud-region('cloud-region-id','One')) "
+            + "> ('org.onap.relationships.inventory.ComposedOf')service-instance*",
+        "cloud-region('cloud-owner','coid')('cloud-region-id','crid')  > [  availability-zone* ,  complex*]",
+        "cloud-region('cloud-owner','coid')('cloud-region-id','crid')  > [  "
+            + "('org.onap.relationships.inventory.BelongsTo')availability-zone* ,  "
+            + "('org.onap.relationships.inventory.LocatedIn')complex*]",
+        "complex('data-center-code','data-center-code-name') >  cloud-region*",
+        "complex('data-center-code','data-center-code-name') >  cloud-region*('cloud-region-version','crv')",
+        "image('application-vendor','F5') > vserver (> generic-vnf('vnf-name','ZALL1MMSC03')) > tenant "
+            + "> cloud-region*",
+        "image('application-vendor','vendor') >  vserver(> generic-vnf('nf-type', 'nfType') ) > tenant "
+            + "> cloud-region*",
+        "generic-vnf('vnf-id','vnfId')  > vnfc* > vserver* > tenant* > cloud-region*",
+        "cloud-region*('cloud-owner','co') > complex*",
+        "generic-vnf*('vnf-id','vnfId') > [ pserver* > complex*,   vserver > pserver* > complex* ]",
+        "generic-vnf*('vnf-id','vnfId')   > [  pserver* ,   vserver > pserver*  ] > complex*",
+        "customer('global-customer-id', 'a9a77d5a-123e-4ca2-9eb9-0b015d2ee0fb') > "
+            + "service-subscription('service-subscription-id', 'Nimbus')  > "
+            + "service-instance('service-instance-id','sid') > generic-vnf*   > "
+            + "[  vnfc* ,  vserver*,  pserver* ,  pnf* ]",
+        "generic-vnf*('vnf-id','vnfId') (> [  pserver('hostname','hostname1'),  "
+            + "vserver > pserver('hostname','hostname1')])",
+        "cloud-region* ('cloud-owner')",
+        "cloud-region* ('cloud-owner','cloud-owner1','cloud-owner2')",
+        "cloud-region* !('cloud-owner','cloud-owner1','cloud-owner2')",
+        "cloud-region* !('cloud-owner',' ',' null ')",
+        "vserver('vserver-id','abc') > l-interface* > lag-interface*",
+        "vserver('vserver-id','abc') > l-interface* > "
+            + "('org.onap.relationships.inventory.BelongsTo') lag-interface*",
+        "cloud-region* !('cloud-owner')",
+        "generic-vnf*('vnf-id','vnfId') (> [ pserver('hostname','hostname1'),  vserver (> [  "
+            + "pserver('hostname','hostname1'),  pserver('hostname','hostname1')])]) > vserver",
+        "generic-vnf*('vnf-id','vnfId') (> [ ('tosca.relationships.HostedOn')pserver('hostname','hostname1'),  "
+            + "('tosca.relationships.HostedOn')vserver (> [  "
+            + "('tosca.relationships.HostedOn')pserver('hostname','hostname1'),  "
+            + "('tosca.relationships.HostedOn')pserver('hostname','hostname1')])]) > "
+            + "('org.onap.relationships.inventory.PartOf')allotted-resource",
+        "pserver*('prov-status')(> complex)(> cloud-region)",
+        "pserver*('prov-status')(> complex)!(> cloud-region)",
+        "generic-vnf*('vnf-id','vnfId')   > [  pserver* ,   vserver > pserver*  ] > complex*  > [  "
+            + "availability-zone > cloud-region*,  cloud-region*,    ctag-pool*  > [  "
+            + "availability-zone* > complex* ,   generic-vnf* > availability-zone* > complex*,  "
+            + "vpls-pe* > complex*] > cloud-region*] > tenant* ",
+        "cloud-region ('cloud-owner','cloud-owner1') > zone*('in-maint',true)",
+        "cloud-region ('cloud-owner','cloud-owner1') > zone*('in-maint',TRUE)",
+        "cloud-region ('cloud-owner','cloud-owner1') > zone*('in-maint')"};
+
+    private static final String[] V2_QUERIES = {
+        "logical-link* ('model-invariant-id','invid')",
+        "logical-link*('link-id','dsl\\'link')",
+        "generic-vnf*('vnf-name','xyz')  [> vnfc* > vserver*  [>pserver*, > tenant* > cloud-region*], "
+            + "> vserver*  [> pserver*, >tenant* > cloud-region*] ]",
+        "generic-vnf*('vnf-name','xyz')  [>> vnfc* >> vserver*  [>>pserver*, >> tenant* >> cloud-region*], "
+            + ">> vserver*  [>> pserver*, >>tenant* >> cloud-region*] ]",
+        "cloud-region*('cloud-owner','xyz') > complex*",
+        "pserver*('hostname','xyz')!(> complex)",
+        "pserver('hostname','xyz')>vserver*!(> vnfc > configuration))",
+        "cloud-region* !('cloud-owner','coid')",
+        "cloud-region* !('cloud-owner','coid') LIMIT 10",
+        "cloud-region* !('cloud-owner','coidhello:?_-)(!@#$%^&*+={}[]|/.<,') LIMIT 10",
+        "cloud-region* !('cloud-owner','coid')('cloud-region-id','cr id')  LIMIT 10",
+        "generic-vnf('vnf-id','vnfId') ( > vserver > tenant > cloud-region('cloud-region-id','One')) "
+            + "> entitlement*",
+        "generic-vnf('vnf-id','vnfId') (> ('tosca.relationships.HostedOn') vserver > "
+            + "('org.onap.relationships.inventory.BelongsTo') tenant > "
+            + "('org.onap.relationships.inventory.BelongsTo') cloud-region('cloud-region-id','One')) "
+            + "> ('org.onap.relationships.inventory.ComposedOf')service-instance*",
+        "cloud-region('cloud-owner','coid')('cloud-region-id','crid')   [>  availability-zone* ,>  complex*]",
+        "cloud-region('cloud-owner','coid')('cloud-region-id','crid')   [>  "
+            + "('org.onap.relationships.inventory.BelongsTo')availability-zone* ,>  "
+            + "('org.onap.relationships.inventory.LocatedIn')complex*]",
+        "complex('data-center-code','data-center-code-name') >  cloud-region*",
+        "complex('data-center-code','data-center-code-name') >  cloud-region*('cloud-region-version','crv')",
+        "image('application-vendor','F5') > vserver (> generic-vnf('vnf-name','ZALL1MMSC03')) > tenant "
+            + "> cloud-region*",
+        "image('application-vendor','vendor') >  vserver(> generic-vnf('nf-type', 'nfType') ) > tenant "
+            + "> cloud-region*",
+        "generic-vnf('vnf-id','vnfId')  > vnfc* > vserver* > tenant* > cloud-region*",
+        "cloud-region*('cloud-owner','co') > complex*",
+        "generic-vnf*('vnf-id','vnfId')  [ > pserver* > complex*,   >vserver > pserver* > complex* ]",
+        "generic-vnf*('vnf-id','vnfId')    [>  pserver* ,   > vserver > pserver*  ] > complex*",
+        "customer('global-customer-id', 'a9a77d5a-123e-4ca2-9eb9-0b015d2ee0fb') > "
+            + "service-subscription('service-subscription-id', 'Nimbus')  > "
+            + "service-instance('service-instance-id','sid') > generic-vnf*    "
+            + "[>  vnfc* ,>  vserver*,>  pserver* ,>  pnf* ]",
+        "generic-vnf*('vnf-id','vnfId') ( [>  pserver('hostname','hostname1'),  "
+            + "> vserver > pserver('hostname','hostname1')])",
+        "cloud-region* ('cloud-owner')",
+        "cloud-region* ('cloud-owner','cloud-owner1','cloud-owner2')",
+        "cloud-region* !('cloud-owner','cloud-owner1','cloud-owner2')",
+        "cloud-region* !('cloud-owner',' ',' null ')",
+        "cloud-region('cloud-region-id','abc') >> complex* >> l3-network*",
+        "cloud-region*('cloud-region-id','whp3a'){'cloud-region-id'}",
+        "cloud-region{'cloud-owner'}('cloud-owner','att-nc')('cloud-region-id','wah2a') > "
+            + "vip-ipv6-address-list > [subnet{'subnet-name'}, instance-group{'id'}]",
+        "vserver('vserver-id','abc') > l-interface* > lag-interface*",
+        "vserver('vserver-id','abc') > l-interface* > "
+            + "('org.onap.relationships.inventory.BelongsTo') lag-interface*",
+        "cloud-region* !('cloud-owner')",
+        "generic-vnf*('vnf-id','vnfId') ( [> pserver('hostname','hostname1'), > vserver ( [>  "
+            + "pserver('hostname','hostname1'), > pserver('hostname','hostname1')])]) > vserver",
+        "generic-vnf*('vnf-id','vnfId') ( [> ('tosca.relationships.HostedOn')pserver('hostname','hostname1'),>  "
+            + "('tosca.relationships.HostedOn')vserver ( [>  "
+            + "('tosca.relationships.HostedOn')pserver('hostname','hostname1'),>  "
+            + "('tosca.relationships.HostedOn')pserver('hostname','hostname1')])]) > "
+            + "('org.onap.relationships.inventory.PartOf')allotted-resource",
+        "pserver*('prov-status')(> complex)(> cloud-region)",
+        "pserver*('prov-status')(> complex)!(> cloud-region)",
+        "generic-vnf*('vnf-id','vnfId')    [>  pserver* ,   > vserver > pserver*  ] > complex*   [>  "
+            + "availability-zone > cloud-region*,>  cloud-region*,   > ctag-pool*   [ > "
+            + "availability-zone* > complex* , >  generic-vnf* > availability-zone* > complex*,>  "
+            + "vpls-pe* > complex*] > cloud-region*] > tenant* ",
+        "cloud-region ('cloud-owner','cloud-owner1') > zone*('in-maint',true)",
+        "cloud-region ('cloud-owner','cloud-owner1') > zone*('in-maint',TRUE)",
+        "cloud-region ('cloud-owner','cloud-owner1') > zone*('in-maint')"};
+
+    @Autowired
+    private EdgeSerializer edgeSerializer;
+
+    @Parameterized.Parameter(value = 0)
+    public String apiVersion;
+
+    @Parameterized.Parameter(value = 1)
+    public String query;
+
+    @Parameterized.Parameters(name = "{0} {1}")
+    public static Collection<Object[]> data() {
+        List<Object[]> data = new ArrayList<>();
+        for (String query : V1_QUERIES) {
+            data.add(new Object[] {"V1", query});
+        }
+        for (String query : V2_QUERIES) {
+            data.add(new Object[] {"V2", query});
+        }
+        return data;
+    }
+
+    @Override
+    public void createTestGraph() {
+        JanusGraphTransaction transaction = AAIGraph.getInstance().getGraph().newTransaction();
+        boolean success = true;
+        try {
+            GraphTraversalSource g = transaction.traversal();
+            String regions = "/cloud-infrastructure/cloud-regions/cloud-region/";
+            Vertex regionOne = addVertex(g, "cloud-region", regions + "test-aic/One",
+                "cloud-owner", "test-aic", "cloud-region-id", "One", "cloud-region-version", "crv");
+            Vertex regionCoid = addVertex(g, "cloud-region", regions + "coid/crid",
+                "cloud-owner", "coid", "cloud-region-id", "crid");
+            addVertex(g, "cloud-region", regions + "xyz/cr id", "cloud-owner", "xyz",
+                "cloud-region-id", "cr id");
+            Vertex regionCo = addVertex(g, "cloud-region", regions + "co/abc", "cloud-owner", "co",
+                "cloud-region-id", "abc");
+            Vertex regionOwner1 = addVertex(g, "cloud-region", regions + "cloud-owner1/whp3a",
+                "cloud-owner", "cloud-owner1", "cloud-region-id", "whp3a");
+            addVertex(g, "cloud-region", regions + "att-nc/wah2a", "cloud-owner", "att-nc",
+                "cloud-region-id", "wah2a");
+            addVertex(g, "cloud-region", regions + "no-owner", "cloud-region-id", "no-owner");
+            Vertex availabilityZone = addVertex(g, "availability-zone",
+                regions + "coid/crid/availability-zones/availability-zone/test-az",
+                "availability-zone-name", "test-az");
+            Vertex zone = addVertex(g, "zone", "/network/zones/zone/test-zone", "zone-id",
+                "test-zone", "in-maint", true);
+            Vertex complex = addVertex(g, "complex",
+                "/cloud-infrastructure/complexes/complex/test-complex", "physical-location-id",
+                "test-complex", "data-center-code", "data-center-code-name");
+            Vertex tenant = addVertex(g, "tenant", regions + "test-aic/One/tenants/tenant/tenant1",
+                "tenant-id", "tenant1", "tenant-name", "tenant1");
+
+            Vertex pserver1 = addVertex(g, "pserver",
+                "/cloud-infrastructure/pservers/pserver/hostname1", "hostname", "hostname1",
+                "prov-status", "ACTIVE");
+            Vertex pserverXyz = addVertex(g, "pserver", "/cloud-infrastructure/pservers/pserver/xyz",
+                "hostname", "xyz");
+            Vertex pserver3 = addVertex(g, "pserver",
+                "/cloud-infrastructure/pservers/pserver/hostname3", "hostname", "hostname3",
+                "prov-status", "ACTIVE");
+
+            String vservers = regions + "test-aic/One/tenants/tenant/tenant1/vservers/vserver/";
+            Vertex vserverAbc = addVertex(g, "vserver", vservers + "abc", "vserver-id", "abc");
+            Vertex vserverF5 = addVertex(g, "vserver", vservers + "f5", "vserver-id", "f5");
+            Vertex vserverXyz = addVertex(g, "vserver", "/vservers/vserver/xyz", "vserver-id", "xyz");
+            Vertex lInterface = addVertex(g, "l-interface",
+                vservers + "abc/l-interfaces/l-interface/test-interface", "interface-name",
+                "test-interface");
+            Vertex imageF5 = addVertex(g, "image", regions + "test-aic/One/images/image/f5",
+                "image-id", "f5", "application-vendor", "F5");
+            Vertex imageVendor = addVertex(g, "image", regions + "test-aic/One/images/image/vendor",
+                "image-id", "vendor", "application-vendor", "vendor");
+
+            Vertex vnf = addVertex(g, "generic-vnf", "/network/generic-vnfs/generic-vnf/vnfId",
+                "vnf-id", "vnfId", "vnf-name", "xyz", "nf-type", "nfType");
+            Vertex vnfZall = addVertex(g, "generic-vnf", "/network/generic-vnfs/generic-vnf/zall",
+                "vnf-id", "zall", "vnf-name", "ZALL1MMSC03");
+            Vertex vnfc = addVertex(g, "vnfc", "/network/vnfcs/vnfc/test-vnfc", "vnfc-name",
+                "test-vnfc");
+            Vertex entitlement = addVertex(g, "entitlement",
+                "/network/generic-vnfs/generic-vnf/vnfId/entitlements/entitlement/group/resource",
+                "group-uuid", "group", "resource-uuid", "resource");
+
+            String customers = "/business/customers/customer/a9a77d5a-123e-4ca2-9eb9-0b015d2ee0fb";
+            Vertex customer = addVertex(g, "customer", customers, "global-customer-id",
+                "a9a77d5a-123e-4ca2-9eb9-0b015d2ee0fb");
+            Vertex subscription = addVertex(g, "service-subscription",
+                customers + "/service-subscriptions/service-subscription/Nimbus", "service-type",
+                "Nimbus", "service-subscription-id", "Nimbus");
+            Vertex serviceInstance = addVertex(g, "service-instance", customers
+                + "/service-subscriptions/service-subscription/Nimbus/service-instances/service-instance/sid",
+                "service-instance-id", "sid");
+            addVertex(g, "logical-link", "/network/logical-links/logical-link/test-link",
+                "link-name", "test-link", "link-id", "dsl'link", "model-invariant-id-local",
+                "invid");
+
+            edgeSerializer.addTreeEdge(g, regionOne, tenant);
+            edgeSerializer.addTreeEdge(g, regionCoid, availabilityZone);
+            edgeSerializer.addTreeEdge(g, tenant, vserverAbc);
+            edgeSerializer.addTreeEdge(g, tenant, vserverF5);
+            edgeSerializer.addTreeEdge(g, vserverAbc, lInterface);
+            edgeSerializer.addTreeEdge(g, vnf, entitlement);
+            edgeSerializer.addTreeEdge(g, customer, subscription);
+            edgeSerializer.addTreeEdge(g, subscription, serviceInstance);
+            edgeSerializer.addEdge(g, regionOne, complex);
+            edgeSerializer.addEdge(g, regionCoid, complex);
+            edgeSerializer.addEdge(g, regionCo, complex);
+            edgeSerializer.addEdge(g, regionOwner1, zone);
+            edgeSerializer.addEdge(g, pserver1, complex);
+            edgeSerializer.addEdge(g, pserver1, regionCo);
+            edgeSerializer.addEdge(g, pserver3, complex);
+            edgeSerializer.addEdge(g, vserverAbc, pserver1);
+            edgeSerializer.addEdge(g, vserverXyz, pserverXyz);
+            edgeSerializer.addEdge(g, imageF5, vserverF5);
+            edgeSerializer.addEdge(g, imageVendor, vserverAbc);
+            edgeSerializer.addEdge(g, vnf, vserverAbc);
+            edgeSerializer.addEdge(g, vnf, pserver1);
+            edgeSerializer.addEdge(g, vnf, vnfc);
+            edgeSerializer.addEdge(g, vnfc, vserverAbc);
+            edgeSerializer.addEdge(g, vnfZall, vserverF5);
+            edgeSerializer.addEdge(g, serviceInstance, vnf);
+        } catch (Exception ex) {
+            success = false;
+        } finally {
+            if (success) {
+                transaction.commit();
+            } else {
+                transaction.rollback();
+                fail("Unable to setup the graph");
+            }
+        }
+    }
+
+    @Test
+    public void testDslCompilersReturnSameResults() throws Exception {
+        Set<String> expected = runDslQuery("groovy");
+
+        assertFalse(query, expected.isEmpty());
+        assertEquals(query, expected, runDslQuery("native"));
+        assertEquals(query, expected, runDslQuery("parameterized"));
+    }
+
+    private Vertex addVertex(GraphTraversalSource g, String nodeType, String uri,
+        Object... properties) {
+        GraphTraversal<Vertex, Vertex> vertex = g.addV().property("aai-node-type", nodeType)
+            .property("source-of-truth", "JUNIT").property("aai-uri", uri);
+        for (int i = 0; i < properties.length; i += 2) {
+            vertex.property(properties[i], properties[i + 1]);
+        }
+        return vertex.next();
+    }
+
+    private Set<String> runDslQuery(String compiler) {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("dsl", query);
+
+        headers.set("X-DslApiVersion", apiVersion);
+        headers.set("X-DslCompiler", compiler);
+        httpEntity = new HttpEntity<String>(payload.toString(), headers);
+        ResponseEntity<String> responseEntity = restTemplate.exchange(
+            baseUrl + "/aai/v29/dsl?format=pathed", HttpMethod.PUT, httpEntity, String.class);
+        assertEquals(query, HttpStatus.OK, responseEntity.getStatusCode());
+
+        Set<String> results = new HashSet<>();
+        JsonArray resultsArray = JsonParser.parseString(responseEntity.getBody())
+            .getAsJsonObject().get("results").getAsJsonArray();
+        for (JsonElement result : resultsArray) {
+            results.add(result.toString());
+        }
+        return results;
+    }
+}
@@ -23,39 +23,66 @@ import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Graph;
 import org.apache.tinkerpop.gremlin.structure.Vertex;
 import org.janusgraph.core.JanusGraphTransaction;
 import org.junit.Assert;
 import org.junit.Test;
+import org.mockito.AdditionalAnswers;
 import org.onap.aai.PayloadUtil;
 import org.onap.aai.WebClientConfiguration;
+import org.onap.aai.config.SpringContextAware;
 import org.onap.aai.dbmap.AAIGraph;
 import org.onap.aai.entities.AAIErrorResponse;
 import org.onap.aai.entities.ServiceException;
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.rest.db.HttpEntry;
+import org.onap.aai.rest.jobs.QueryJobManager;
+import org.onap.aai.rest.util.QueryCursor;
+import org.onap.aai.rest.util.StreamingResults;
 import org.onap.aai.util.AAIConfig;
 import org.onap.aai.util.TraversalConstants;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationContext;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
 
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
@@ -69,6 +96,14 @@ public class DslConsumerTest extends AbstractSpringRestTest {
 
     @Autowired WebTestClient webClient;
 
+    @Autowired DslConsumer dslConsumer;
+
+    @Autowired ApplicationContext applicationContext;
+
+    @Autowired
+    @Qualifier("requestScopedTraversalUriHttpEntry")
+    HttpEntry httpEntry;
+
     @Override
     public void createTestGraph() {
         JanusGraphTransaction transaction = AAIGraph.getInstance().getGraph().newTransaction();
@@ -249,6 +284,229 @@ public class DslConsumerTest extends AbstractSpringRestTest {
         assertThat(responseEntity, is(containsString("<results><result>")));
     }
 
+    @Test
+    public void thatPagesBeyondTheResultsAreEmpty() throws Exception {
+        String path = "/aai/v14/dsl";
+        Map<String, String> dslQueryMap = Collections.singletonMap("dsl-query", "pserver*('hostname','test-pserver-dsl')");
+
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+
+        String responseEntity = webClient.put()
+            .uri(uriBuilder -> uriBuilder
+                .path(path)
+                .queryParam("format", "pathed")
+                .queryParam("resultIndex", 1)
+                .queryParam("resultSize", 1)
+                .build())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(payload)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals("total-results", 1)
+            .expectHeader().valueEquals("total-pages", 1)
+            .returnResult(String.class)
+            .getResponseBody()
+            .blockFirst();
+
+        assertThat(responseEntity, is(not(containsString("resource-link"))));
+    }
+
+    @Test
+    public void thatTheTotalCountCanBeSkipped() throws Exception {
+        String path = "/aai/v14/dsl";
+        Map<String, String> dslQueryMap = Collections.singletonMap("dsl-query", "pserver*('hostname','test-pserver-dsl')");
+
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+
+        String responseEntity = webClient.put()
+            .uri(uriBuilder -> uriBuilder
+                .path(path)
+                .queryParam("format", "pathed")
+                .queryParam("resultIndex", 0)
+                .queryParam("resultSize", 1)
+                .queryParam("includeTotalCount", false)
+                .build())
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(payload)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().doesNotExist("total-results")
+            .expectHeader().doesNotExist("total-pages")
+            .returnResult(String.class)
+            .getResponseBody()
+            .blockFirst();
+
+        assertThat(responseEntity, is(containsString("test-pserver-dsl")));
+    }
+
+    @Test
+    public void thatResultsCanBePagedWithACursor() throws Exception {
+        Map<String, String> dslQueryMap =
+            Collections.singletonMap("dsl-query", "pserver*('in-maint', false)");
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+        httpEntity = new HttpEntity<String>(payload, headers);
+
+        ResponseEntity<String> allResults = restTemplate.exchange(
+            baseUrl + "/aai/v29/dsl?format=pathed", HttpMethod.PUT, httpEntity, String.class);
+        JsonArray expected = JsonParser.parseString(allResults.getBody()).getAsJsonObject()
+            .get("results").getAsJsonArray();
+        assertTrue(expected.size() > 1);
+
+        Set<String> pagedResults = new HashSet<>();
+        String cursor = "";
+        int pages = 0;
+        while (cursor != null) {
+            ResponseEntity<String> page = restTemplate.exchange(
+                baseUrl + "/aai/v29/dsl?format=pathed&resultSize=1&cursor=" + cursor,
+                HttpMethod.PUT, httpEntity, String.class);
+            assertEquals(HttpStatus.OK, page.getStatusCode());
+            for (JsonElement result : JsonParser.parseString(page.getBody()).getAsJsonObject()
+                .get("results").getAsJsonArray()) {
+                assertTrue(result.toString(), pagedResults.add(result.toString()));
+            }
+            cursor = page.getHeaders().getFirst("next-cursor");
+            assertTrue("Too many pages", ++pages <= expected.size() + 1);
+        }
+
+        assertEquals(expected.size(), pagedResults.size());
+    }
+
+    @Test
+    public void thatACursorCannotBeUsedForADifferentQuery() throws Exception {
+        String cursor = new QueryCursor("0000000000000000", 1).encode();
+        Map<String, String> dslQueryMap =
+            Collections.singletonMap("dsl-query", "pserver*('in-maint', false)");
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+        httpEntity = new HttpEntity<String>(payload, headers);
+
+        ResponseEntity<String> responseEntity = restTemplate.exchange(
+            baseUrl + "/aai/v29/dsl?format=pathed&resultSize=1&cursor=" + cursor,
+            HttpMethod.PUT, httpEntity, String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+    }
+
+    @Test
+    public void thatResultsCanBeReturnedAsNdjson() throws Exception {
+        Map<String, String> dslQueryMap =
+            Collections.singletonMap("dsl-query", "pserver*('in-maint', false)");
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+        httpEntity = new HttpEntity<String>(payload, headers);
+        ResponseEntity<String> json = restTemplate.exchange(baseUrl + "/aai/v29/dsl?format=simple",
+            HttpMethod.PUT, httpEntity, String.class);
+        JsonArray expected = JsonParser.parseString(json.getBody()).getAsJsonObject()
+            .get("results").getAsJsonArray();
+
+        headers.setAccept(Collections.singletonList(MediaType.valueOf(StreamingResults.NDJSON)));
+        httpEntity = new HttpEntity<String>(payload, headers);
+        ResponseEntity<String> ndjson = restTemplate.exchange(
+            baseUrl + "/aai/v29/dsl?format=simple", HttpMethod.PUT, httpEntity, String.class);
+
+        assertEquals(HttpStatus.OK, ndjson.getStatusCode());
+        assertTrue(MediaType.valueOf(StreamingResults.NDJSON)
+            .isCompatibleWith(ndjson.getHeaders().getContentType()));
+        String[] lines = ndjson.getBody().split("\n");
+        assertEquals(expected.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(expected.get(i), JsonParser.parseString(lines[i]));
+        }
+    }
+
+    @Test
+    public void thatDslJobsCanBeSubmittedPolledFetchedAndCancelled() throws Exception {
+        Map<String, String> dslQueryMap =
+            Collections.singletonMap("dsl-query", "pserver*('hostname','test-pserver-dsl')");
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+        String jobs = baseUrl + "/aai/v29/dsl/jobs";
+
+        httpEntity = new HttpEntity<String>(payload, headers);
+        ResponseEntity<String> submitted = restTemplate.exchange(jobs + "?format=simple",
+            HttpMethod.POST, httpEntity, String.class);
+        assertEquals(HttpStatus.ACCEPTED, submitted.getStatusCode());
+        String jobId = JsonParser.parseString(submitted.getBody()).getAsJsonObject()
+            .get("id").getAsString();
+
+        httpEntity = new HttpEntity<String>(headers);
+        String status = null;
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!"DONE".equals(status) && System.currentTimeMillis() < deadline) {
+            ResponseEntity<String> job = restTemplate.exchange(jobs + "/" + jobId,
+                HttpMethod.GET, httpEntity, String.class);
+            assertEquals(HttpStatus.OK, job.getStatusCode());
+            status = JsonParser.parseString(job.getBody()).getAsJsonObject().get("status")
+                .getAsString();
+            Thread.sleep(50);
+        }
+        assertEquals("DONE", status);
+
+        ResponseEntity<String> results = restTemplate.exchange(jobs + "/" + jobId + "/results",
+            HttpMethod.GET, httpEntity, String.class);
+        assertEquals(HttpStatus.OK, results.getStatusCode());
+        JsonArray resultArray = JsonParser.parseString(results.getBody()).getAsJsonObject()
+            .get("results").getAsJsonArray();
+        assertEquals(1, resultArray.size());
+        assertThat(results.getBody(), containsString("test-pserver-dsl"));
+
+        // the job is not visible to other clients
+        HttpHeaders otherHeaders = new HttpHeaders();
+        otherHeaders.putAll(headers);
+        otherHeaders.set("X-FromAppId", "JUNIT-OTHER");
+        HttpEntity<String> otherEntity = new HttpEntity<String>(otherHeaders);
+        for (HttpMethod method : new HttpMethod[] {HttpMethod.GET, HttpMethod.DELETE}) {
+            ResponseEntity<String> notFound = restTemplate.exchange(jobs + "/" + jobId, method,
+                otherEntity, String.class);
+            assertEquals(HttpStatus.NOT_FOUND, notFound.getStatusCode());
+            assertThat(notFound.getBody(), containsString("3306"));
+        }
+
+        ResponseEntity<String> cancelled = restTemplate.exchange(jobs + "/" + jobId,
+            HttpMethod.DELETE, httpEntity, String.class);
+        assertEquals(HttpStatus.OK, cancelled.getStatusCode());
+        ResponseEntity<String> gone = restTemplate.exchange(jobs + "/" + jobId, HttpMethod.GET,
+            httpEntity, String.class);
+        assertEquals(HttpStatus.NOT_FOUND, gone.getStatusCode());
+    }
+
+    @Test
+    public void thatDslJobsAreNotFoundWhenQueryJobsAreNotEnabled() throws Exception {
+        Map<String, String> dslQueryMap =
+            Collections.singletonMap("dsl-query", "pserver*('hostname','test-pserver-dsl')");
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+        httpEntity = new HttpEntity<String>(payload, headers);
+
+        // without query.jobs.enabled=true there is no query job manager
+        ApplicationContext jobsDisabled =
+            mock(ApplicationContext.class, AdditionalAnswers.delegatesTo(applicationContext));
+        doReturn(mock(ObjectProvider.class)).when(jobsDisabled)
+            .getBeanProvider(QueryJobManager.class);
+        SpringContextAware springContextAware = new SpringContextAware();
+        springContextAware.setApplicationContext(jobsDisabled);
+        try {
+            ResponseEntity<String> responseEntity = restTemplate.exchange(
+                baseUrl + "/aai/v29/dsl/jobs?format=simple", HttpMethod.POST, httpEntity,
+                String.class);
+
+            assertEquals(HttpStatus.NOT_FOUND, responseEntity.getStatusCode());
+            assertThat(responseEntity.getBody(), containsString("3309"));
+        } finally {
+            springContextAware.setApplicationContext(applicationContext);
+        }
+    }
+
+    @Test
+    public void thatTheCountFormatCannotBeReturnedAsNdjson() throws Exception {
+        Map<String, String> dslQueryMap =
+            Collections.singletonMap("dsl-query", "pserver*('in-maint', false)");
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+        headers.setAccept(Collections.singletonList(MediaType.valueOf(StreamingResults.NDJSON)));
+        httpEntity = new HttpEntity<String>(payload, headers);
+
+        ResponseEntity<String> responseEntity = restTemplate.exchange(
+            baseUrl + "/aai/v29/dsl?format=count", HttpMethod.PUT, httpEntity, String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+    }
+
     @Test
     public void thatWildcardContentTypeCanBeUsed() throws Exception {
 
@@ -408,6 +666,60 @@ public class DslConsumerTest extends AbstractSpringRestTest {
         headers.remove("X-DslApiVersion");
     }
 
+    @Test
+    public void thatTheDslApiVersionDoesNotCarryOverToTheNextRequest() throws Exception {
+        Map<String, String> dslQueryMap = Collections.singletonMap("dsl-query",
+            "pserver{'hostname', 'in-maint'}('hostname','test-pserver-dsl')");
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+        String endpoint = baseUrl + "/aai/v29/dsl?format=simple&depth=0&nodesOnly=true";
+
+        headers.add("X-DslApiVersion", "V2");
+        httpEntity = new HttpEntity<String>(payload, headers);
+        ResponseEntity<String> v2 =
+            restTemplate.exchange(endpoint, HttpMethod.PUT, httpEntity, String.class);
+        assertEquals(HttpStatus.OK, v2.getStatusCode());
+
+        // without the header the query is parsed as V1 again, which has no selected properties
+        headers.remove("X-DslApiVersion");
+        httpEntity = new HttpEntity<String>(payload, headers);
+        ResponseEntity<String> v1 =
+            restTemplate.exchange(endpoint, HttpMethod.PUT, httpEntity, String.class);
+        assertEquals(HttpStatus.BAD_REQUEST, v1.getStatusCode());
+    }
+
+    @Test
+    public void thatConcurrentRequestsOfDifferentDslApiVersionsAreNotMixedUp() throws Exception {
+        Map<String, String> dslQueryMap = Collections.singletonMap("dsl-query",
+            "pserver{'hostname', 'in-maint'}('hostname','test-pserver-dsl')");
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+        String endpoint = baseUrl + "/aai/v29/dsl?format=simple&depth=0&nodesOnly=true";
+        HttpHeaders v2Headers = new HttpHeaders();
+        v2Headers.putAll(headers);
+        v2Headers.set("X-DslApiVersion", "V2");
+        HttpEntity<String> v1Entity = new HttpEntity<String>(payload, headers);
+        HttpEntity<String> v2Entity = new HttpEntity<String>(payload, v2Headers);
+
+        // the dsl endpoint coalesces identical queries in the tests, a V1 request must
+        // neither join nor change the execution of a V2 request
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<HttpStatusCode>> v1 = new ArrayList<>();
+            List<Future<HttpStatusCode>> v2 = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                v1.add(executor.submit(() -> restTemplate
+                    .exchange(endpoint, HttpMethod.PUT, v1Entity, String.class).getStatusCode()));
+                v2.add(executor.submit(() -> restTemplate
+                    .exchange(endpoint, HttpMethod.PUT, v2Entity, String.class).getStatusCode()));
+            }
+            for (int i = 0; i < 20; i++) {
+                assertEquals(HttpStatus.BAD_REQUEST, v1.get(i).get());
+                assertEquals(HttpStatus.OK, v2.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testDslQueryProcessingV2_WithSimpleFormat_WithoutAsTreeQueryParameter()
         throws Exception {
@@ -1089,4 +1401,158 @@ public class DslConsumerTest extends AbstractSpringRestTest {
         // Confirm that the pserver was returned in the response
         Assert.assertTrue(responseString.contains("\"number-of-cpus\":364"));
     }
+
+    @Test
+    public void testDslCompilersReturnSameResults() throws Exception {
+        String[] v1Queries = {"pserver*('hostname','test-pserver-dsl')",
+            "pserver('hostname','test-pserver-dsl') > complex*",
+            "pserver*('hostname','test-pserver-dsl') > [complex*, cloud-region*]",
+            "complex('physical-location-id','test-complex-dsl') > pserver*('in-maint', false)",
+            "pserver*('hostname', 'test-pserver-dsl', 'test-pserver-dsl-02') LIMIT 5"};
+        String[] v2Queries = {"pserver*('hostname','test-pserver-dsl')(> complex)(> cloud-region)",
+            "pserver*('hostname')!(> complex)!(> cloud-region)",
+            "pserver*('hostname', 'test-pserver-dsl', 'test-pserver-dsl-02') > complex*",
+            "complex('state')>pserver*('number-of-cpus', '234', 364, 2342)",
+            "[pserver*('hostname','test-pserver-dsl')>complex*, pnf*('pnf-name','test-pnf-name-01')]",
+            "tenant('tenant-id','test-tenant-id-2') > [vserver*, cloud-region*]"};
+
+        for (String query : v1Queries) {
+            Set<String> expected = runDslQuery(query, "V1", "groovy");
+            assertFalse(query, expected.isEmpty());
+            assertEquals(query, expected, runDslQuery(query, "V1", "native"));
+            assertEquals(query, expected, runDslQuery(query, "V1", "parameterized"));
+        }
+        for (String query : v2Queries) {
+            Set<String> expected = runDslQuery(query, "V2", "groovy");
+            assertFalse(query, expected.isEmpty());
+            assertEquals(query, expected, runDslQuery(query, "V2", "native"));
+            assertEquals(query, expected, runDslQuery(query, "V2", "parameterized"));
+        }
+    }
+
+    @Test
+    public void testExplainReturnsTheTraversalWithoutResults() throws Exception {
+        JsonObject explanation =
+            explainDslQuery("/aai/v29/dsl?format=pathed&explain=true", "JUNIT", HttpStatus.OK);
+
+        assertTrue(explanation.get("query").getAsString().contains("test-pserver-dsl"));
+        assertNotNull(explanation.get("final-traversal"));
+        assertTrue(explanation.get("strategies").getAsJsonArray().size() > 0);
+        assertNull(explanation.get("results"));
+    }
+
+    @Test
+    public void testProfileReturnsTheStepMetrics() throws Exception {
+        JsonObject profile =
+            explainDslQuery("/aai/v29/dsl?format=pathed&profile=true", "JUNIT", HttpStatus.OK);
+
+        assertNotNull(profile.get("duration-ms"));
+        JsonArray steps = profile.get("steps").getAsJsonArray();
+        assertTrue(steps.size() > 0);
+        for (int i = 0; i < steps.size(); i++) {
+            assertNotNull(steps.get(i).getAsJsonObject().get("count"));
+        }
+    }
+
+    @Test
+    public void testExplainIsLimitedToTheConfiguredClients() throws Exception {
+        explainDslQuery("/aai/v29/dsl?format=pathed&explain=true", "OTHER-APP",
+            HttpStatus.FORBIDDEN);
+        explainDslQuery("/aai/v29/dsl?format=pathed&profile=true", "OTHER-APP",
+            HttpStatus.FORBIDDEN);
+    }
+
+    /*
+     * JUNITTESTAPP1 has a dsl timeout of 1 ms in aaiconfig.properties,
+     * enough pservers are added that a query over all of them cannot finish in time
+     */
+    @Test
+    public void thatSlowQueriesTimeOutAndAreRolledBack() throws Exception {
+        addPservers(20000);
+        Map<String, String> dslQueryMap =
+            Collections.singletonMap("dsl-query", "pserver*('in-maint', false)");
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+        headers.set("X-FromAppId", "JUNITTESTAPP1");
+        httpEntity = new HttpEntity<String>(payload, headers);
+
+        ResponseEntity<String> responseEntity = restTemplate.exchange(
+            baseUrl + "/aai/v29/dsl?format=simple", HttpMethod.PUT, httpEntity, String.class);
+
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        assertThat(responseEntity.getBody(), containsString("7406"));
+
+        // run on this thread as well to check the state the request thread is left in
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/aai/v29/dsl");
+        request.setServerPort(randomPort);
+        request.addParameter("format", "simple");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            dslConsumer.executeQuery(payload, "v29", "simple", "no_op", "all", -1, -1, headers,
+                request, new MockHttpServletResponse());
+            fail("Expected the query to time out");
+        } catch (AAIException e) {
+            assertEquals("AAI_7406", e.getCode());
+            Graph transaction = httpEntry.getDbEngine().tx();
+            assertTrue("Expected the transaction to be rolled back",
+                transaction == null || !((JanusGraphTransaction) transaction).isOpen());
+            assertFalse(Thread.currentThread().isInterrupted());
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private void addPservers(int count) {
+        JanusGraphTransaction transaction = AAIGraph.getInstance().getGraph().newTransaction();
+        GraphTraversalSource g = transaction.traversal();
+        for (int i = 0; i < count; i++) {
+            String hostname = "test-pserver-timeout-" + i;
+            g.addV().property("aai-node-type", "pserver").property("hostname", hostname)
+                .property("in-maint", false).property("source-of-truth", "JUNIT")
+                .property("aai-uri", "/cloud-infrastructure/pservers/pserver/" + hostname)
+                .iterate();
+        }
+        transaction.commit();
+    }
+
+    private JsonObject explainDslQuery(String endpoint, String fromAppId, HttpStatus status)
+        throws Exception {
+        Map<String, String> dslQueryMap =
+            Collections.singletonMap("dsl-query", "pserver*('hostname','test-pserver-dsl')");
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+
+        headers.set("X-FromAppId", fromAppId);
+        httpEntity = new HttpEntity<String>(payload, headers);
+        ResponseEntity<String> responseEntity =
+            restTemplate.exchange(baseUrl + endpoint, HttpMethod.PUT, httpEntity, String.class);
+        headers.set("X-FromAppId", "JUNIT");
+        assertEquals(status, responseEntity.getStatusCode());
+        if (status != HttpStatus.OK) {
+            return null;
+        }
+        return JsonParser.parseString(responseEntity.getBody()).getAsJsonObject();
+    }
+
+    private Set<String> runDslQuery(String query, String apiVersion, String compiler)
+        throws Exception {
+        Map<String, String> dslQueryMap = Collections.singletonMap("dsl-query", query);
+        String payload = PayloadUtil.getTemplatePayload("dsl-query.json", dslQueryMap);
+        String endpoint = "/aai/v29/dsl?format=pathed";
+
+        headers.set("X-DslApiVersion", apiVersion);
+        headers.set("X-DslCompiler", compiler);
+        httpEntity = new HttpEntity<String>(payload, headers);
+        ResponseEntity<String> responseEntity =
+            restTemplate.exchange(baseUrl + endpoint, HttpMethod.PUT, httpEntity, String.class);
+        headers.remove("X-DslApiVersion");
+        headers.remove("X-DslCompiler");
+        assertEquals(query, HttpStatus.OK, responseEntity.getStatusCode());
+
+        Set<String> results = new HashSet<>();
+        JsonArray resultsArray = JsonParser.parseString(responseEntity.getBody())
+            .getAsJsonObject().get("results").getAsJsonArray();
+        for (JsonElement result : resultsArray) {
+            results.add(result.toString());
+        }
+        return results;
+    }
 }
@@ -56,7 +56,6 @@ import org.onap.aai.HttpTestUtil;
 import org.onap.aai.PayloadUtil;
 import org.onap.aai.dbmap.AAIGraph;
 import org.onap.aai.setup.SchemaVersion;
-import org.onap.aai.transforms.XmlFormatTransformer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.test.annotation.DirtiesContext;
@@ -119,7 +118,7 @@ public class GfpVserverDataStoredQueryTest extends AAISetup {
         logger.info("Successfully created the cloud region with linterface");
 
         queryConsumer = new QueryConsumer(traversalUriHttpEntry, schemaVersions,
-            gremlinServerSingleton, new XmlFormatTransformer(), basePath);
+            gremlinServerSingleton, basePath);
 
         httpHeaders = mock(HttpHeaders.class);
 
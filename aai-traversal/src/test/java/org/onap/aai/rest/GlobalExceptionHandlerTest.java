@@ -111,6 +111,13 @@ public class GlobalExceptionHandlerTest {
         assertEquals("4.0.4009",responseEntity.getRequestError().getServiceException().getVariables().get(3));
     }
 
+    @Test
+    public void testHandleAAIExceptionWithTheStatusOfItsErrorCode() throws Exception {
+        AAIException exception = new AAIException("AAI_3309");
+        ResponseEntity<String> response = springExceptionHandler.handleAAIException(exception, webRequest);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+    }
+
     @Test
     public void testHandleUnknownException() throws Exception {
         Exception exception = new Exception();
@@ -45,6 +45,7 @@ import org.onap.aai.TraversalTestConfiguration;
 import org.onap.aai.WebClientConfiguration;
 import org.onap.aai.dbmap.AAIGraph;
 import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.rest.util.StreamingResults;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -60,6 +61,10 @@ import org.springframework.test.context.junit4.SpringRunner;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.client.RestTemplate;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
 @RunWith(SpringRunner.class)
 @SpringBootTest(
     webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
@@ -108,12 +113,17 @@ public class QueryConsumerTest {
     }
 
     private void addPserver() throws Exception, UnsupportedEncodingException, AAIException {
-        String hostname = "test-" + UUID.randomUUID().toString();
-        pserverUri = "/aai/v11/cloud-infrastructure/pservers/pserver/" + hostname;
+        pserverUri = addPserver("test-" + UUID.randomUUID().toString());
+    }
+
+    private String addPserver(String hostname)
+        throws Exception, UnsupportedEncodingException, AAIException {
+        String uri = "/aai/v11/cloud-infrastructure/pservers/pserver/" + hostname;
         Map<String, String> pserverMap = new HashMap<>();
         pserverMap.put("hostname", hostname);
         String payload = PayloadUtil.getTemplatePayload("pserver.json", pserverMap);
-        httpTestUtil.doPut(pserverUri, payload);
+        httpTestUtil.doPut(uri, payload);
+        return uri;
     }
 
     private void addCloudRegion(Map<String, String> cloudRegionMap, String cloudRegionUri)
@@ -245,6 +255,136 @@ public class QueryConsumerTest {
         assertThat(responseEntity.getBody().toString(), containsString("3022"));
     }
 
+    @Test
+    public void thatManyStartUrisAreResolved() throws Exception {
+        String prefix = "test-" + UUID.randomUUID().toString();
+        for (int i = 0; i < 3; i++) {
+            addPserver(prefix + "-" + i);
+        }
+
+        JsonArray start = new JsonArray();
+        start.add("cloud-infrastructure/pservers/pserver/" + prefix + "-0");
+        start.add("nodes/pservers/pserver/" + prefix + "-1");
+        start.add("cloud-infrastructure/pservers/pserver/" + prefix + "-0");
+        start.add("cloud-infrastructure/pservers?hostname=" + prefix + "-2");
+        start.add("cloud-infrastructure/pservers/pserver/" + prefix + "-missing");
+        JsonObject payload = new JsonObject();
+        payload.add("start", start);
+        payload.addProperty("query", "query/colocated-devices");
+
+        httpEntity = new HttpEntity(payload.toString(), headers);
+        ResponseEntity<String> responseEntity = restTemplate.exchange(
+            baseUrl + "/aai/v14/query?format=pathed", HttpMethod.PUT, httpEntity, String.class);
+
+        assertThat(responseEntity.getStatusCode(), is(HttpStatus.OK));
+        JsonArray results = JsonParser.parseString(responseEntity.getBody()).getAsJsonObject()
+            .getAsJsonArray("results");
+        assertEquals(3, results.size());
+        for (int i = 0; i < 3; i++) {
+            assertThat(responseEntity.getBody(),
+                containsString("/cloud-infrastructure/pservers/pserver/" + prefix + "-" + i + "\""));
+        }
+    }
+
+    @Test
+    public void thatResultsCanBeReturnedAsNdjson() throws Exception {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("start", pserverUri.replaceFirst("/aai/v11/", ""));
+        payload.addProperty("query", "query/colocated-devices");
+        String endpoint = baseUrl + "/aai/v14/query?format=pathed";
+
+        httpEntity = new HttpEntity(payload.toString(), headers);
+        ResponseEntity<String> json =
+            restTemplate.exchange(endpoint, HttpMethod.PUT, httpEntity, String.class);
+        JsonArray expected = JsonParser.parseString(json.getBody()).getAsJsonObject()
+            .getAsJsonArray("results");
+        assertEquals(1, expected.size());
+
+        headers.setAccept(Collections.singletonList(MediaType.valueOf(StreamingResults.NDJSON)));
+        httpEntity = new HttpEntity(payload.toString(), headers);
+        ResponseEntity<String> ndjson =
+            restTemplate.exchange(endpoint, HttpMethod.PUT, httpEntity, String.class);
+
+        assertThat(ndjson.getStatusCode(), is(HttpStatus.OK));
+        assertTrue(MediaType.valueOf(StreamingResults.NDJSON)
+            .isCompatibleWith(ndjson.getHeaders().getContentType()));
+        String[] lines = ndjson.getBody().split("\n");
+        assertEquals(expected.size(), lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals(expected.get(i), JsonParser.parseString(lines[i]));
+        }
+    }
+
+    @Test
+    public void thatCursorPaginationRejectsResultsThatAreNotVertices() throws Exception {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("gremlin",
+            "g.V().has('aai-node-type','pserver').has('source-of-truth','JUNIT').values('hostname')");
+
+        httpEntity = new HttpEntity(payload.toString(), headers);
+        ResponseEntity<String> responseEntity = restTemplate.exchange(
+            baseUrl + "/aai/v14/query?format=pathed&resultSize=1&cursor=", HttpMethod.PUT,
+            httpEntity, String.class);
+
+        assertThat(responseEntity.getStatusCode(), is(HttpStatus.BAD_REQUEST));
+        assertThat(responseEntity.getBody(), containsString("3019"));
+    }
+
+    @Test
+    public void thatQueryJobsCanBeSubmittedPolledFetchedAndCancelled() throws Exception {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("start", pserverUri.replaceFirst("/aai/v11/", ""));
+        payload.addProperty("query", "query/colocated-devices");
+        String jobs = baseUrl + "/aai/v14/query/jobs";
+
+        httpEntity = new HttpEntity(payload.toString(), headers);
+        ResponseEntity<String> submitted = restTemplate.exchange(jobs + "?format=pathed",
+            HttpMethod.POST, httpEntity, String.class);
+        assertThat(submitted.getStatusCode(), is(HttpStatus.ACCEPTED));
+        String jobId = JsonParser.parseString(submitted.getBody()).getAsJsonObject()
+            .get("id").getAsString();
+
+        httpEntity = new HttpEntity(headers);
+        String status = null;
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!"DONE".equals(status) && System.currentTimeMillis() < deadline) {
+            ResponseEntity<String> job = restTemplate.exchange(jobs + "/" + jobId,
+                HttpMethod.GET, httpEntity, String.class);
+            assertThat(job.getStatusCode(), is(HttpStatus.OK));
+            status = JsonParser.parseString(job.getBody()).getAsJsonObject().get("status")
+                .getAsString();
+            Thread.sleep(50);
+        }
+        assertEquals("DONE", status);
+
+        ResponseEntity<String> results = restTemplate.exchange(jobs + "/" + jobId + "/results",
+            HttpMethod.GET, httpEntity, String.class);
+        assertThat(results.getStatusCode(), is(HttpStatus.OK));
+        JsonArray resultArray = JsonParser.parseString(results.getBody()).getAsJsonObject()
+            .getAsJsonArray("results");
+        assertEquals(1, resultArray.size());
+        assertThat(results.getBody(), containsString(pserverUri.replaceFirst("/aai/v11", "")));
+
+        // the job is not visible to other clients
+        HttpHeaders otherHeaders = new HttpHeaders();
+        otherHeaders.putAll(headers);
+        otherHeaders.set("X-FromAppId", "JUNIT-OTHER");
+        HttpEntity otherEntity = new HttpEntity(otherHeaders);
+        for (HttpMethod method : new HttpMethod[] {HttpMethod.GET, HttpMethod.DELETE}) {
+            ResponseEntity<String> notFound = restTemplate.exchange(jobs + "/" + jobId, method,
+                otherEntity, String.class);
+            assertThat(notFound.getStatusCode(), is(HttpStatus.NOT_FOUND));
+            assertThat(notFound.getBody(), containsString("3306"));
+        }
+
+        ResponseEntity<String> cancelled = restTemplate.exchange(jobs + "/" + jobId,
+            HttpMethod.DELETE, httpEntity, String.class);
+        assertThat(cancelled.getStatusCode(), is(HttpStatus.OK));
+        ResponseEntity<String> gone = restTemplate.exchange(jobs + "/" + jobId, HttpMethod.GET,
+            httpEntity, String.class);
+        assertThat(gone.getStatusCode(), is(HttpStatus.NOT_FOUND));
+    }
+
     @After
     public void tearDown() {
 
@@ -0,0 +1,177 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.dsl;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.antlr.v4.runtime.CharStreams;
+import org.antlr.v4.runtime.CommonTokenStream;
+import org.antlr.v4.runtime.Lexer;
+import org.antlr.v4.runtime.Parser;
+import org.antlr.v4.runtime.misc.ParseCancellationException;
+import org.antlr.v4.runtime.tree.ParseTree;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares parsing the DSL queries of DslQueryProcessorV2Test (V2 grammar) and ProdDslTest
+ * (V1 grammar) with the full LL prediction against the two stage SLL/LL parse of the
+ * DslQueryProcessor. The queries are read from the sources of the two tests, the ones
+ * with a syntax error are left out.
+ *
+ * Only the lexer and parser are measured, walking the tree needs the schema.
+ * Run it from the aai-traversal directory, from the IDE or with
+ * <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.onap.aai.rest.dsl.DslParseBenchmark</code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DslParseBenchmark {
+
+    private static final Path TEST_SOURCES = Paths.get("src/test/java/org/onap/aai/rest/dsl");
+    // the query of a test, which may be concatenated from several literals
+    private static final Pattern QUERY =
+        Pattern.compile("(?m)^\\s*String aaiQuery =\\s*(\"(?:[^\"\\\\]|\\\\.)*\"(?:\\s*\\+\\s*"
+            + "\"(?:[^\"\\\\]|\\\\.)*\")*);");
+    private static final Pattern LITERAL = Pattern.compile("\"((?:[^\"\\\\]|\\\\.)*)\"");
+
+    private final List<Query> queries = new ArrayList<>();
+
+    @Setup
+    public void loadQueries() throws IOException {
+        loadQueries("DslQueryProcessorV2Test.java", Grammar.V2);
+        loadQueries("ProdDslTest.java", Grammar.V1);
+    }
+
+    private void loadQueries(String testSource, Grammar grammar) throws IOException {
+        Matcher query = QUERY.matcher(Files.readString(TEST_SOURCES.resolve(testSource)));
+        while (query.find()) {
+            StringBuilder aaiQuery = new StringBuilder();
+            Matcher literal = LITERAL.matcher(query.group(1));
+            while (literal.find()) {
+                aaiQuery.append(literal.group(1).translateEscapes());
+            }
+            try {
+                DslQueryProcessor.parse(grammar.parser(aaiQuery.toString()), grammar::aaiquery);
+                queries.add(new Query(grammar, aaiQuery.toString()));
+            } catch (ParseCancellationException e) {
+                // the test checks the syntax error
+            }
+        }
+    }
+
+    @Benchmark
+    public void fullLl(Blackhole blackhole) {
+        for (Query query : queries) {
+            Parser parser = query.grammar.parser(query.aaiQuery);
+            parser.removeErrorListeners();
+            parser.addErrorListener(new AAIDslErrorListener());
+            blackhole.consume(query.grammar.aaiquery(parser));
+        }
+    }
+
+    @Benchmark
+    public void twoStage(Blackhole blackhole) {
+        for (Query query : queries) {
+            ParseTree tree = DslQueryProcessor
+                .parse(query.grammar.parser(query.aaiQuery), query.grammar::aaiquery);
+            blackhole.consume(tree);
+        }
+    }
+
+    private static <L extends Lexer> L withErrorListener(L lexer) {
+        lexer.removeErrorListeners();
+        lexer.addErrorListener(new AAIDslErrorListener());
+        return lexer;
+    }
+
+    private enum Grammar {
+        V1 {
+            @Override
+            Parser parser(String aaiQuery) {
+                return new org.onap.aai.dsl.v1.AAIDslParser(new CommonTokenStream(
+                    withErrorListener(new org.onap.aai.dsl.v1.AAIDslLexer(
+                        CharStreams.fromString(aaiQuery)))));
+            }
+
+            @Override
+            ParseTree aaiquery(Parser parser) {
+                return ((org.onap.aai.dsl.v1.AAIDslParser) parser).aaiquery();
+            }
+        },
+        V2 {
+            @Override
+            Parser parser(String aaiQuery) {
+                return new org.onap.aai.dsl.v2.AAIDslParser(new CommonTokenStream(
+                    withErrorListener(new org.onap.aai.dsl.v2.AAIDslLexer(
+                        CharStreams.fromString(aaiQuery)))));
+            }
+
+            @Override
+            ParseTree aaiquery(Parser parser) {
+                return ((org.onap.aai.dsl.v2.AAIDslParser) parser).aaiquery();
+            }
+        };
+
+        abstract Parser parser(String aaiQuery);
+
+        abstract ParseTree aaiquery(Parser parser);
+    }
+
+    private static final class Query {
+
+        private final Grammar grammar;
+        private final String aaiQuery;
+
+        private Query(Grammar grammar, String aaiQuery) {
+            this.grammar = grammar;
+            this.aaiQuery = aaiQuery;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(DslParseBenchmark.class.getSimpleName()).build())
+            .run();
+    }
+}
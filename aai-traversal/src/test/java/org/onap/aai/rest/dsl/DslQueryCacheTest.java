@@ -0,0 +1,148 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.dsl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.rest.enums.QueryVersion;
+import org.onap.aai.rest.search.GremlinScriptCache;
+import org.onap.aai.setup.SchemaVersion;
+import org.onap.aai.setup.SchemaVersions;
+
+public class DslQueryCacheTest {
+
+    private SchemaVersions schemaVersions;
+    private AtomicInteger parses;
+
+    @BeforeEach
+    public void setUp() {
+        schemaVersions = mock(SchemaVersions.class);
+        when(schemaVersions.getDefaultVersion()).thenReturn(new SchemaVersion("v29"));
+        parses = new AtomicInteger();
+    }
+
+    @Test
+    public void repeatedQueryIsParsedOnce() throws AAIException {
+        DslQueryCache cache = new DslQueryCache(schemaVersions, new GremlinScriptCache(10), 10);
+
+        Map<String, Object> first = cache.get(key("pserver*"), this::parse);
+        Map<String, Object> second = cache.get(key("pserver*"), this::parse);
+
+        assertEquals(1, parses.get());
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+    }
+
+    @Test
+    public void processorSettingsArePartOfTheKey() {
+        assertEquals(key("pserver*"), key("pserver*"));
+        assertNotEquals(key("pserver*"),
+            new DslQueryCache.Key("pserver*", QueryVersion.V2, "none", false, false, "v29"));
+        assertNotEquals(key("pserver*"),
+            new DslQueryCache.Key("pserver*", QueryVersion.V1, "all", false, false, "v29"));
+        assertNotEquals(key("pserver*"),
+            new DslQueryCache.Key("pserver*", QueryVersion.V1, "none", true, false, "v29"));
+        assertNotEquals(key("pserver*"),
+            new DslQueryCache.Key("pserver*", QueryVersion.V1, "none", false, true, "v29"));
+        assertNotEquals(key("pserver*"),
+            new DslQueryCache.Key("pserver*", QueryVersion.V1, "none", false, false, "v30"));
+    }
+
+    @Test
+    public void failedParseIsNotCached() throws AAIException {
+        DslQueryCache cache = new DslQueryCache(schemaVersions, new GremlinScriptCache(10), 10);
+
+        assertThrows(AAIException.class, () -> cache.get(key("pserver"), () -> {
+            throw new AAIException("AAI_6149", "DSL Syntax Error");
+        }));
+        assertEquals(0, cache.size());
+
+        cache.get(key("pserver"), this::parse);
+        assertEquals(1, parses.get());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void cacheIsBounded() throws AAIException {
+        DslQueryCache cache = new DslQueryCache(schemaVersions, new GremlinScriptCache(2), 2);
+
+        for (int i = 0; i < 10; i++) {
+            cache.get(key("pserver('hostname', 'host-" + i + "')"), this::parse);
+        }
+
+        assertTrue(cache.size() <= 2);
+        assertTrue(cache.evictionCount() > 0);
+        assertEquals(10, cache.missCount());
+    }
+
+    @Test
+    public void parameterizedQueryIsCompiledOnce() {
+        DslQueryCache cache = new DslQueryCache(schemaVersions, new GremlinScriptCache(10), 10);
+        String parameterizedQuery = "builder.getVerticesByProperty('aai-node-type', 'pserver')"
+            + ".getVerticesByProperty('hostname',dslParam0).store('x').cap('x').unfold().dedup()";
+
+        assertSame(cache.getTemplate(parameterizedQuery), cache.getTemplate(parameterizedQuery));
+        assertEquals(1, cache.templateMissCount());
+        assertEquals(1, cache.templateHitCount());
+    }
+
+    @Test
+    public void invalidateAllClearsTheCache() throws AAIException {
+        DslQueryCache cache = new DslQueryCache(schemaVersions, new GremlinScriptCache(10), 10);
+        cache.get(key("pserver*"), this::parse);
+
+        DslQueryCacheEndpoint endpoint = new DslQueryCacheEndpoint(cache);
+        assertEquals(1L, endpoint.cache().get("size"));
+
+        endpoint.clear();
+        assertEquals(0, cache.size());
+
+        cache.get(key("pserver*"), this::parse);
+        assertEquals(2, parses.get());
+    }
+
+    private DslQueryCache.Key key(String query) {
+        return new DslQueryCache.Key(query, QueryVersion.V1, "none", false, false,
+            schemaVersions.getDefaultVersion().toString());
+    }
+
+    private Map<String, Object> parse() {
+        parses.incrementAndGet();
+        Map<String, Object> resultMap = new HashMap<>();
+        resultMap.put("query", "builder.getVerticesByProperty('aai-node-type', 'pserver')");
+        return resultMap;
+    }
+}
@@ -21,6 +21,9 @@ package org.onap.aai.rest.dsl;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
+import java.util.Map;
+
 import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
@@ -28,6 +31,7 @@ import org.junit.rules.ExpectedException;
 import org.onap.aai.AAISetup;
 import org.onap.aai.exceptions.AAIException;
 import org.onap.aai.rest.enums.QueryVersion;
+import org.onap.aai.rest.search.QueryCost;
 import org.springframework.beans.factory.annotation.Autowired;
 
 /**
@@ -728,6 +732,55 @@ public class DslQueryProcessorV2Test extends AAISetup {
         assertEquals(dslQuery, query);
     }
 
+    @Test
+    public void parameterizedQueryTest() throws AAIException {
+        String parameterizedQuery =
+            "builder.getVerticesByProperty('aai-node-type', 'generic-vnf').getVerticesByProperty('vnf-name',dslParam0).createEdgeTraversal(EdgeType.COUSIN, 'generic-vnf','pserver').getVerticesByProperty('number-of-cpus', dslParam1).store('x').cap('x').unfold().dedup()";
+
+        Map<String, Object> resultMap = dslQueryProcessor.parseAaiQuery(QueryVersion.V2,
+            "generic-vnf('vnf-name','vnf\\'1') > pserver*('number-of-cpus', '234', 364)");
+        Map<String, Object> otherResultMap = dslQueryProcessor.parseAaiQuery(QueryVersion.V2,
+            "generic-vnf('vnf-name','vnf2') > pserver*('number-of-cpus', 8, 16)");
+
+        assertEquals(parameterizedQuery, resultMap.get("parameterizedQuery"));
+        assertEquals(parameterizedQuery, otherResultMap.get("parameterizedQuery"));
+        Map<?, ?> bindings = (Map<?, ?>) resultMap.get("bindings");
+        assertEquals("vnf'1", bindings.get("dslParam0"));
+        assertEquals(Arrays.asList(234, 364), bindings.get("dslParam1"));
+        Map<?, ?> otherBindings = (Map<?, ?>) otherResultMap.get("bindings");
+        assertEquals("vnf2", otherBindings.get("dslParam0"));
+        assertEquals(Arrays.asList(8, 16), otherBindings.get("dslParam1"));
+    }
+
+    @Test
+    public void costTest() throws AAIException {
+        QueryCost byKey = (QueryCost) dslQueryProcessor
+            .parseAaiQuery(QueryVersion.V2, "pserver*('hostname','h1', 'h2') > complex*")
+            .get("cost");
+        assertEquals(QueryCost.Selectivity.UNIQUE, byKey.getSelectivity());
+        assertEquals(2, byKey.getStarts());
+        assertEquals(1, byKey.getEdgeHops());
+        assertEquals(-1, byKey.getLimit());
+
+        QueryCost byIndex = (QueryCost) dslQueryProcessor
+            .parseAaiQuery(QueryVersion.V2, "generic-vnf*('vnf-name','xyz') > vserver*")
+            .get("cost");
+        assertEquals(QueryCost.Selectivity.INDEXED, byIndex.getSelectivity());
+
+        QueryCost scan = (QueryCost) dslQueryProcessor
+            .parseAaiQuery(QueryVersion.V2, "cloud-region* !('cloud-owner','coid') LIMIT 10")
+            .get("cost");
+        assertEquals(QueryCost.Selectivity.SCAN, scan.getSelectivity());
+        assertEquals(0, scan.getEdgeHops());
+        assertEquals(10, scan.getLimit());
+
+        QueryCost nested = (QueryCost) dslQueryProcessor.parseAaiQuery(QueryVersion.V2,
+            "generic-vnf*('vnf-name','xyz')  [> vnfc* > vserver*  [>pserver*, > tenant* > cloud-region*], "
+                + "> vserver*  [> pserver*, >tenant* > cloud-region*] ]")
+            .get("cost");
+        assertEquals(9, nested.getEdgeHops());
+    }
+
     @Test(expected = AAIException.class)
     public void filterOnUnion_vserverFromTentantFromCloudRegion_BadRequest() throws AAIException {
         String aaiQuery =
@@ -0,0 +1,221 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.jobs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.query.builder.Pageable;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class QueryJobManagerTest {
+
+    private static final String RESULTS = "{\"id\":1}\n{\"id\":2}\n{\"id\":3}\n";
+
+    @TempDir
+    Path spoolDir;
+
+    private QueryJobManager queryJobManager;
+
+    @AfterEach
+    public void shutdown() {
+        if (queryJobManager != null) {
+            queryJobManager.shutdown();
+        }
+    }
+
+    private QueryJobManager create(int maxPerClient, long ttlMinutes, long maxResultBytes)
+        throws IOException {
+        queryJobManager = new QueryJobManager(1, 5, maxPerClient, ttlMinutes, 60000,
+            maxResultBytes, spoolDir.toString());
+        queryJobManager.initialize();
+        return queryJobManager;
+    }
+
+    private static void awaitFinished(QueryJob job) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!job.getStatus().isFinished() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void resultsOfADoneJobAreReadInPages() throws Exception {
+        QueryJobManager manager = create(5, 60, 1024);
+
+        QueryJob job = manager.submit("client-a", "dsl",
+            results -> results.write(RESULTS.getBytes(StandardCharsets.UTF_8)));
+        awaitFinished(job);
+
+        QueryJob done = manager.getDone("client-a", job.getId());
+        assertEquals(QueryJob.Status.DONE, done.getStatus());
+        assertEquals(3, done.getResultCount());
+        assertEquals("DONE", done.toJson().get("status").getAsString());
+        assertEquals(3, done.toJson().get("result-count").getAsLong());
+
+        ByteArrayOutputStream page = new ByteArrayOutputStream();
+        ResultSpool.writePage(done.getSpool(), new Pageable(1, 2), false, page);
+        assertEquals("{\"results\":[{\"id\":3}]}", page.toString(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream all = new ByteArrayOutputStream();
+        ResultSpool.writePage(done.getSpool(), new Pageable(-1, -1), true, all);
+        assertEquals("<results><result><id>1</id></result><result><id>2</id></result>"
+            + "<result><id>3</id></result></results>", all.toString(StandardCharsets.UTF_8));
+
+        ByteArrayOutputStream lines = new ByteArrayOutputStream();
+        ResultSpool.writeLines(done.getSpool(), lines);
+        assertEquals(RESULTS, lines.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void jobsAreOnlyVisibleToTheirClient() throws Exception {
+        QueryJobManager manager = create(5, 60, 1024);
+
+        QueryJob job = manager.submit("client-a", "query", results -> {
+        });
+        awaitFinished(job);
+
+        AAIException notFound =
+            assertThrows(AAIException.class, () -> manager.get("client-b", job.getId()));
+        assertEquals("AAI_3306", notFound.getCode());
+        assertThrows(AAIException.class, () -> manager.cancel("client-b", job.getId()));
+        assertEquals(job, manager.get("client-a", job.getId()));
+    }
+
+    @Test
+    public void jobsNeedAClient() throws Exception {
+        QueryJobManager manager = create(5, 60, 1024);
+
+        AAIException rejected = assertThrows(AAIException.class,
+            () -> manager.submit(null, "dsl", results -> {
+            }));
+        assertEquals("AAI_4009", rejected.getCode());
+        assertThrows(AAIException.class, () -> manager.submit("", "dsl", results -> {
+        }));
+
+        QueryJob job = manager.submit("client-a", "dsl", results -> {
+        });
+        awaitFinished(job);
+        AAIException notFound =
+            assertThrows(AAIException.class, () -> manager.get(null, job.getId()));
+        assertEquals("AAI_3306", notFound.getCode());
+    }
+
+    @Test
+    public void clientsAreLimitedInTheirActiveJobs() throws Exception {
+        QueryJobManager manager = create(1, 60, 1024);
+        CountDownLatch release = new CountDownLatch(1);
+
+        QueryJob running = manager.submit("client-a", "dsl", results -> release.await());
+        AAIException rejected = assertThrows(AAIException.class,
+            () -> manager.submit("client-a", "dsl", results -> {
+            }));
+        assertEquals("AAI_3308", rejected.getCode());
+        AAIException notDone = assertThrows(AAIException.class,
+            () -> manager.getDone("client-a", running.getId()));
+        assertEquals("AAI_3307", notDone.getCode());
+
+        release.countDown();
+        awaitFinished(running);
+        // a finished job no longer counts
+        awaitFinished(manager.submit("client-a", "dsl", results -> {
+        }));
+        assertEquals(1, manager.rejectedCount());
+    }
+
+    @Test
+    public void cancelledJobsAreRemovedWithTheirResults() throws Exception {
+        QueryJobManager manager = create(5, 60, 1024);
+        CountDownLatch started = new CountDownLatch(1);
+
+        QueryJob job = manager.submit("client-a", "dsl", results -> {
+            results.write(RESULTS.getBytes(StandardCharsets.UTF_8));
+            started.countDown();
+            Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+        });
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        assertEquals(QueryJob.Status.CANCELLED,
+            manager.cancel("client-a", job.getId()).getStatus());
+        assertThrows(AAIException.class, () -> manager.get("client-a", job.getId()));
+        assertFalse(Files.exists(job.getSpool()));
+    }
+
+    @Test
+    public void failedJobsKeepNoResults() throws Exception {
+        QueryJobManager manager = create(5, 60, 16);
+
+        QueryJob job = manager.submit("client-a", "dsl",
+            results -> results.write(RESULTS.getBytes(StandardCharsets.UTF_8)));
+        awaitFinished(job);
+
+        assertEquals(QueryJob.Status.FAILED, job.getStatus());
+        assertEquals("The results exceed 16 bytes", job.toJson().get("error").getAsString());
+        assertFalse(Files.exists(job.getSpool()));
+        assertEquals(1, manager.failedCount());
+    }
+
+    @Test
+    public void finishedJobsAreRemovedAfterTheirTimeToLive() throws Exception {
+        QueryJobManager manager = create(5, 0, 1024);
+
+        QueryJob job = manager.submit("client-a", "dsl",
+            results -> results.write(RESULTS.getBytes(StandardCharsets.UTF_8)));
+        awaitFinished(job);
+        assertTrue(Files.exists(job.getSpool()));
+
+        manager.cleanUp();
+
+        assertEquals(0, manager.jobCount());
+        assertFalse(Files.exists(job.getSpool()));
+    }
+
+    @Test
+    public void metricsAreRegistered() throws Exception {
+        QueryJobManager manager = create(5, 60, 1024);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        manager.bindTo(registry);
+
+        awaitFinished(manager.submit("client-a", "dsl", results -> {
+        }));
+
+        assertEquals(1.0,
+            registry.get("aai.query.jobs.submitted").functionCounter().count());
+        assertEquals(1.0,
+            registry.get("aai.query.jobs.completed").functionCounter().count());
+        assertEquals(1.0, registry.get("aai.query.jobs.retained").gauge().value());
+        assertEquals(0.0, registry.get("aai.query.jobs.rejections").functionCounter().count());
+    }
+}
@@ -20,6 +20,9 @@
 package org.onap.aai.rest.search;
 
 import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.onap.aai.exceptions.AAIException;
@@ -33,11 +36,14 @@ import java.io.FileNotFoundException;
 import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 public class GenericQueryProcessorTest {
 
+    public static final AtomicInteger TRAVERSED = new AtomicInteger();
+
     private TransactionalGraphEngine mockDbEngine;
     private GremlinServerSingleton mockGremlinServerSingleton;
 
@@ -103,6 +109,46 @@ public class GenericQueryProcessorTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    public void laterCursorPagesDoNotReadTheEarlierStartVertices() throws Exception {
+        Graph graph = TinkerGraph.open();
+        for (int i = 0; i < 5; i++) {
+            graph.addVertex("aai-node-type", "pserver", "hostname", "pserver-" + i);
+        }
+        GenericQueryProcessor queryProcessor =
+            new GenericQueryProcessor.Builder(mockDbEngine, mockGremlinServerSingleton)
+                .queryFrom("g.V().has('aai-node-type','pserver').sideEffect{ "
+                    + GenericQueryProcessorTest.class.getName() + ".TRAVERSED.incrementAndGet() }",
+                    "gremlin")
+                .traversalSource(false, graph.traversal()).create();
+
+        TRAVERSED.set(0);
+        List<Object> firstPage = queryProcessor.executeAfter(null, 2);
+        assertEquals(2, firstPage.size());
+        assertEquals(5, TRAVERSED.get());
+
+        // the second page starts after the cursor, the first two pservers are not read again
+        TRAVERSED.set(0);
+        Long lastId = (Long) ((Vertex) firstPage.get(1)).id();
+        List<Object> secondPage = queryProcessor.executeAfter(lastId, 2);
+        assertEquals(2, secondPage.size());
+        assertEquals(3, TRAVERSED.get());
+        assertTrue((Long) ((Vertex) secondPage.get(0)).id() > lastId);
+    }
+
+    @Test
+    public void onlyQueriesReturningTheirStartVerticesCanBePagedWithACursor() {
+        Graph graph = TinkerGraph.open();
+        GenericQueryProcessor queryProcessor =
+            new GenericQueryProcessor.Builder(mockDbEngine, mockGremlinServerSingleton)
+                .queryFrom("g.V().has('aai-node-type','pserver').out()", "gremlin")
+                .traversalSource(false, graph.traversal()).create();
+
+        AAIException e =
+            assertThrows(AAIException.class, () -> queryProcessor.executeAfter(null, 2));
+        assertEquals("AAI_3019", e.getCode());
+    }
+
     @Test
     public void testAsTreeParameterWithDslQueryShorterThanQueryEnd() throws Exception {
         // Test when query is shorter than the ".cap('x').unfold().dedup()" string.
@@ -20,10 +20,18 @@
 package org.onap.aai.rest.search;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 import com.google.common.collect.Lists;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Map;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -78,4 +86,51 @@ public class GetCustomQueryConfigTest {
         assertEquals("out('bar1').has('stuff','baz1')", cqc.getQuery());
 
     }
+
+    @Test
+    public void testGetStoredQueryReturnsSharedImmutableConfig() {
+
+        GetCustomQueryConfig getCustomQueryConfig = new GetCustomQueryConfig(configJson);
+        CustomQueryConfig cqc = getCustomQueryConfig.getStoredQuery("queryName1");
+
+        assertSame(cqc, getCustomQueryConfig.getStoredQuery("queryName1"));
+        assertEquals(3, getCustomQueryConfig.getStoredQueries().size());
+        assertThrows(UnsupportedOperationException.class,
+            () -> cqc.getQueryOptionalProperties().remove("prop3"));
+    }
+
+    @Test
+    public void testFirstDefinitionOfAQueryNameWins() {
+        String json = "{\"stored-queries\": [{\"dup\": {\"stored-query\": \"first\"}}, "
+            + "{\"dup\": {\"stored-query\": \"second\"}}]}";
+
+        GetCustomQueryConfig getCustomQueryConfig = new GetCustomQueryConfig(json);
+
+        assertEquals("first", getCustomQueryConfig.getStoredQuery("dup").getQuery());
+    }
+
+    @Test
+    public void testPrecompileReportsQueriesThatDoNotCompile() {
+        String json = "{\"stored-queries\": [{\"valid\": {\"stored-query\": "
+            + "\"builder.getVerticesByProperty('aai-node-type', 'pserver')\"}}, "
+            + "{\"broken\": {\"stored-query\": \"builder.store('x'\"}}]}";
+
+        GetCustomQueryConfig getCustomQueryConfig = new GetCustomQueryConfig(json);
+        Map<String, String> failures = getCustomQueryConfig.precompile(new GremlinScriptCache(10));
+
+        assertEquals(1, failures.size());
+        assertTrue(failures.containsKey("broken"));
+        assertNotNull(getCustomQueryConfig.getStoredQuery("valid").getTemplate());
+        assertNull(getCustomQueryConfig.getStoredQuery("broken").getTemplate());
+    }
+
+    @Test
+    public void testAllStoredQueriesPrecompile() throws Exception {
+        String json = new String(Files.readAllBytes(
+            Path.of("src/main/resources/schema/onap/query/stored-queries.json")));
+
+        GetCustomQueryConfig getCustomQueryConfig = new GetCustomQueryConfig(json);
+
+        assertEquals(Map.of(), getCustomQueryConfig.precompile(new GremlinScriptCache(10)));
+    }
 }
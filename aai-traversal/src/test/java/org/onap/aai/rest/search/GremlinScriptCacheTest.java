@@ -0,0 +1,152 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Graph;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class GremlinScriptCacheTest {
+
+    private GraphTraversalSource g;
+
+    @BeforeEach
+    public void setUp() {
+        Graph graph = TinkerGraph.open();
+        g = graph.traversal();
+        g.addV().property(T.id, 1).property("aai-node-type", "pserver")
+            .property("hostname", "host-a").iterate();
+        g.addV().property(T.id, 2).property("aai-node-type", "pserver")
+            .property("hostname", "host-b").iterate();
+    }
+
+    @Test
+    public void repeatedQueryIsCompiledOnce() {
+        GremlinScriptCache cache = new GremlinScriptCache(10);
+
+        List<?> first = cache.executeTraversal("g.V(startVertexes).has('hostname', hostname)",
+            params(new Object[] {1, 2}, "host-a")).toList();
+        List<?> second = cache.executeTraversal("g.V(startVertexes).has('hostname', hostname)",
+            params(new Object[] {1, 2}, "host-b")).toList();
+
+        assertEquals(1, first.size());
+        assertEquals(1, second.size());
+        assertEquals(1, cache.missCount());
+        assertEquals(1, cache.hitCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void formattingDifferencesShareCompiledScript() {
+        GremlinScriptCache cache = new GremlinScriptCache(10);
+
+        assertSame(cache.getScriptClass("g.V().has('hostname','host a')"),
+            cache.getScriptClass("  g.V()\n  .has('hostname','host a')  "));
+        assertSame(cache.getScriptClass("g.V().has('hostname',  'host a')"),
+            cache.getScriptClass("  g.V().has('hostname',\n'host a')  "));
+        assertEquals(1, cache.missCount());
+    }
+
+    @Test
+    public void whitespaceInsideLiteralsIsPreserved() {
+        assertEquals("g.V().has('hostname','host  a')",
+            GremlinScriptCache.normalize(" g.V()\n\t.has('hostname',   'host  a') "));
+        assertEquals("g.V().has(\"name\",\"it\\\"s  x\")",
+            GremlinScriptCache.normalize("g.V().has(\"name\",  \"it\\\"s  x\")"));
+        assertEquals("g.V().has('name','''a  'b'\n  c''')",
+            GremlinScriptCache.normalize("g.V().has('name', '''a  'b'\n  c''')"));
+    }
+
+    @Test
+    public void lineBreaksBetweenStatementsAreKept() {
+        assertEquals("def h = hostname\ng.V().has('hostname',h)",
+            GremlinScriptCache.normalize("def h = hostname\n\n  g.V().has('hostname', h)"));
+        assertEquals("g.V() // all vertices\n.has('hostname',hostname)",
+            GremlinScriptCache.normalize("g.V()   // all vertices\n  .has('hostname', hostname)"));
+        assertNotEquals(GremlinScriptCache.normalize("g.V() // c\n.limit(1)"),
+            GremlinScriptCache.normalize("g.V() // c .limit(1)"));
+    }
+
+    @Test
+    public void originalScriptIsCompiled() {
+        GremlinScriptCache cache = new GremlinScriptCache(10);
+
+        List<?> statements = cache.executeTraversal(
+            "def h = hostname\ng.V(startVertexes).has('hostname', h)",
+            params(new Object[] {1, 2}, "host-a")).toList();
+        List<?> commented = cache.executeTraversal(
+            "// filter the start vertexes by hostname\ng.V(startVertexes).has('hostname', hostname)",
+            params(new Object[] {1, 2}, "host-b")).toList();
+
+        assertEquals(1, statements.size());
+        assertEquals(1, commented.size());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    public void storedQueryTemplatesShareCompiledScript() {
+        GremlinScriptCache cache = new GremlinScriptCache(10);
+        String storedQuery = "builder.getVerticesByProperty('hostname', hostname)";
+
+        StoredQueryTemplate.compile(cache, storedQuery);
+        StoredQueryTemplate.compile(cache, "  " + storedQuery);
+        cache.getScriptClass(storedQuery);
+
+        assertSame(cache.getStoredQueryClass(storedQuery),
+            cache.getStoredQueryClass(storedQuery + "\n"));
+        assertNotSame(cache.getStoredQueryClass(storedQuery), cache.getScriptClass(storedQuery));
+        assertEquals(2, cache.missCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void cacheIsBounded() {
+        GremlinScriptCache cache = new GremlinScriptCache(2);
+
+        for (int i = 0; i < 10; i++) {
+            cache.executeTraversal("g.V().limit(" + i + ")", params(new Object[0], "")).toList();
+        }
+
+        assertTrue(cache.size() <= 2);
+        assertTrue(cache.evictionCount() > 0);
+        assertEquals(10, cache.missCount());
+    }
+
+    private Map<String, Object> params(Object[] startVertexes, String hostname) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("g", g);
+        params.put("startVertexes", startVertexes);
+        params.put("hostname", hostname);
+        return params;
+    }
+}
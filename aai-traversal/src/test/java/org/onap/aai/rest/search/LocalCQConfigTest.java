@@ -4,19 +4,21 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
-import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.lang.reflect.Field;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.nio.file.StandardCopyOption;
+import java.util.function.BooleanSupplier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.spy;
 
 class LocalCQConfigTest {
 
+    private static final String STORED_QUERY =
+        "{\"stored-queries\": [{\"%s\": {\"stored-query\": \"builder.store('x')\"}}]}";
+
     private LocalCQConfig localCQConfig;
     private Path storedQueriesFilePath;
 
@@ -28,39 +30,17 @@ class LocalCQConfigTest {
         storedQueriesLocationField.setAccessible(true);
         storedQueriesLocationField.set(localCQConfig, tempDir.toString());
 
-        Field timerSetField = LocalCQConfig.class.getDeclaredField("timerSet");
-        timerSetField.setAccessible(true);
-        timerSetField.set(localCQConfig, false);
-
-        Field timerField = LocalCQConfig.class.getDeclaredField("timer");
-        timerField.setAccessible(true);
-        timerField.set(localCQConfig, null);
+        Field reloadDebounceField = LocalCQConfig.class.getDeclaredField("reloadDebounceMillis");
+        reloadDebounceField.setAccessible(true);
+        reloadDebounceField.set(localCQConfig, 100L);
 
         storedQueriesFilePath = tempDir.resolve("stored-queries.json");
-
-        Files.createDirectories(storedQueriesFilePath.getParent());
-        if (Files.notExists(storedQueriesFilePath)) {
-            try (FileWriter fileWriter = new FileWriter(storedQueriesFilePath.toFile())) {
-                fileWriter.write("{\"query\": \"select * from example\"}");
-            }
-        }
+        write(String.format(STORED_QUERY, "initial"));
     }
 
     @AfterEach
-    void tearDown() throws NoSuchFieldException, IllegalAccessException {
-        Field timerField = LocalCQConfig.class.getDeclaredField("timer");
-        timerField.setAccessible(true);
-        Timer timerInstance = (Timer) timerField.get(localCQConfig);
-        if (timerInstance != null) {
-            timerInstance.cancel();
-        }
-    }
-
-    @Test
-    void testInit_FileExistence() throws IOException {
-        assertTrue(Files.exists(storedQueriesFilePath));
-        String content = new String(Files.readAllBytes(storedQueriesFilePath));
-        assertEquals("{\"query\": \"select * from example\"}", content);
+    void tearDown() {
+        localCQConfig.shutdown();
     }
 
     @Test
@@ -73,97 +53,88 @@ class LocalCQConfigTest {
             fail("Error setting storedQueriesLocation");
         }
         assertDoesNotThrow(() -> localCQConfig.init());
+        assertNull(localCQConfig.getCustomQueryConfig());
+        assertEquals(1, localCQConfig.getReloadFailureCount());
     }
 
     @Test
-    void testQueryConfigIsSet() throws IOException {
+    void testQueryConfigIsSet() {
         localCQConfig.init();
-        assertNotNull(localCQConfig.queryConfig);
+        assertNotNull(localCQConfig.getCustomQueryConfig());
+        assertNotNull(localCQConfig.getCustomQueryConfig().getStoredQuery("initial").getTemplate());
     }
 
     @Test
-    void testFileWatcherOnChange() throws InterruptedException, IOException {
-        String newQuery = "{\"query\": \"select * from new_example\"}";
-        try (FileWriter fileWriter = new FileWriter(storedQueriesFilePath.toFile())) {
-            fileWriter.write(newQuery);
-        }
+    void testChangedFileIsReloaded() throws Exception {
+        localCQConfig.init();
 
-        TimerTask task = new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    String content = new String(Files.readAllBytes(storedQueriesFilePath));
-                    assertEquals(newQuery, content);
-                } catch (IOException e) {
-                    fail("Error reading the file during the file change test");
-                }
-            }
-        };
+        write(String.format(STORED_QUERY, "modified"));
 
-        Timer timer = new Timer();
-        timer.schedule(task, 1000);
-        Thread.sleep(2000);
+        awaitTrue(() -> localCQConfig.getCustomQueryConfig().getStoredQuery("modified") != null);
+        assertNull(localCQConfig.getCustomQueryConfig().getStoredQuery("initial"));
     }
 
     @Test
-    void testTimerTaskInitialization() throws NoSuchFieldException, IllegalAccessException {
-        Field timerSetField = LocalCQConfig.class.getDeclaredField("timerSet");
-        timerSetField.setAccessible(true);
-        assertFalse((Boolean) timerSetField.get(localCQConfig));
-
+    void testReplacedFileIsReloaded() throws Exception {
         localCQConfig.init();
 
-        assertTrue((Boolean) timerSetField.get(localCQConfig));
+        Path replacement = storedQueriesFilePath.resolveSibling("stored-queries.json.tmp");
+        Files.writeString(replacement, String.format(STORED_QUERY, "replaced"));
+        Files.move(replacement, storedQueriesFilePath, StandardCopyOption.REPLACE_EXISTING);
+
+        awaitTrue(() -> localCQConfig.getCustomQueryConfig().getStoredQuery("replaced") != null);
     }
 
     @Test
-    void testFileWatcherIndirect() throws InterruptedException, IOException {
-        String initialContent = "{\"query\": \"select * from example\"}";
-        String updatedContent = "{\"query\": \"select * from modified_example\"}";
+    void testInvalidFileKeepsThePreviousQueries() throws Exception {
+        localCQConfig.init();
+        GetCustomQueryConfig initial = localCQConfig.getCustomQueryConfig();
 
-        try (FileWriter fileWriter = new FileWriter(storedQueriesFilePath.toFile())) {
-            fileWriter.write(initialContent);
-        }
+        write("{\"stored-queries\": [");
+
+        awaitTrue(() -> localCQConfig.getReloadFailureCount() == 1);
+        assertSame(initial, localCQConfig.getCustomQueryConfig());
+    }
 
+    @Test
+    void testBurstOfChangesIsReloadedOnce() throws Exception {
         localCQConfig.init();
+        long reloads = localCQConfig.getReloadCount();
 
-        try (FileWriter fileWriter = new FileWriter(storedQueriesFilePath.toFile())) {
-            fileWriter.write(updatedContent);
+        for (int i = 0; i < 5; i++) {
+            write(String.format(STORED_QUERY, "burst" + i));
         }
 
-        TimerTask watcherTask = new TimerTask() {
-            @Override
-            public void run() {
-                try {
-                    String content = new String(Files.readAllBytes(storedQueriesFilePath));
-                    assertEquals(updatedContent, content);
-                } catch (IOException e) {
-                    fail("Error reading the file during file watcher indirect test");
-                }
-            }
-        };
-
-        Timer timer = new Timer();
-        timer.schedule(watcherTask, 1000);
-        Thread.sleep(2000);
+        awaitTrue(() -> localCQConfig.getCustomQueryConfig().getStoredQuery("burst4") != null);
+        Thread.sleep(300);
+        assertTrue(localCQConfig.getReloadCount() - reloads < 5);
     }
 
     @Test
-    void testOnChange() throws Exception {
-        LocalCQConfig.FileWatcher fileWatcher = spy(localCQConfig.new FileWatcher(new File(storedQueriesFilePath.toString())) {
-            @Override
-            protected void onChange(File var1) {
-            }
-        });
+    void testReloadMetrics() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        localCQConfig.bindTo(registry);
 
-        String updatedContent = "{\"query\": \"select * from updated_example\"}";
+        localCQConfig.init();
+
+        assertEquals(1, registry.get("aai.traversal.storedqueries.reload").functionTimer().count());
+        assertEquals(0, registry.get("aai.traversal.storedqueries.reload.failures")
+            .functionCounter().count());
+    }
+
+    private void write(String content) throws IOException {
         try (FileWriter fileWriter = new FileWriter(storedQueriesFilePath.toFile())) {
-            fileWriter.write(updatedContent);
+            fileWriter.write(content);
         }
+    }
 
-        fileWatcher.run();
-
-        String content = new String(Files.readAllBytes(storedQueriesFilePath));
-        assertEquals(updatedContent, content);
+    private void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Condition not met within 10 seconds");
+            }
+            Thread.sleep(50);
+        }
     }
 }
@@ -0,0 +1,183 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.ServletRequestEvent;
+
+import org.junit.jupiter.api.Test;
+import org.onap.aai.exceptions.AAIException;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockServletContext;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class QueryAdmissionTest {
+
+    @Test
+    public void costGrowsWithSelectivityAndEdgeHops() {
+        assertEquals(2, new QueryCost(QueryCost.Selectivity.UNIQUE, 1, 1, -1).estimate(15));
+        assertEquals(40, new QueryCost(QueryCost.Selectivity.INDEXED, 2, 1, -1).estimate(15));
+        assertEquals(400, new QueryCost(QueryCost.Selectivity.SCAN, 1, 3, -1).estimate(15));
+        // the nodes of the query, not just its edge hops, are bounded by the max node count
+        assertEquals(200, new QueryCost(QueryCost.Selectivity.SCAN, 1, 30, -1).estimate(2));
+        assertEquals(15, new QueryCost(QueryCost.Selectivity.SCAN, 1, 30, -1).getNodeCount(15));
+        // a limit caps the cost at the limited results
+        assertEquals(20, new QueryCost(QueryCost.Selectivity.SCAN, 1, 1, 10).estimate(15));
+    }
+
+    @Test
+    public void ticketsAreReleasedWhenTheirRequestCompletes() throws AAIException {
+        QueryAdmission admission = new QueryAdmission(true, 100, 0, 0, "");
+        MockHttpServletRequest request = new MockHttpServletRequest();
+
+        QueryAdmission.releaseOnCompletion(request, admission.admit(60, false));
+        assertEquals(60, admission.inFlightCost());
+
+        // the response was never written, so only the completion releases the ticket
+        admission.requestDestroyed(new ServletRequestEvent(new MockServletContext(), request));
+        assertEquals(0, admission.inFlightCost());
+        admission.requestDestroyed(new ServletRequestEvent(new MockServletContext(), request));
+        assertEquals(0, admission.inFlightCost());
+    }
+
+    @Test
+    public void gremlinCostIsEstimatedFromTheScript() {
+        QueryCost cost = QueryCost.ofGremlin(
+            "builder.createEdgeTraversal(EdgeType.TREE, 'vserver', 'tenant')"
+                + ".out('org.onap.relationships.inventory.BelongsTo').limit(5)",
+            3);
+
+        assertEquals(QueryCost.Selectivity.UNIQUE, cost.getSelectivity());
+        assertEquals(3, cost.getStarts());
+        assertEquals(2, cost.getEdgeHops());
+        assertEquals(5, cost.getLimit());
+        assertEquals(QueryCost.Selectivity.SCAN, QueryCost.ofGremlin("g.V()", 0).getSelectivity());
+    }
+
+    @Test
+    public void queriesWithinTheBudgetAreAdmitted() throws AAIException {
+        QueryAdmission admission = new QueryAdmission(true, 100, 0, 0, "");
+
+        QueryAdmission.Ticket first = admission.admit(60, false);
+        QueryAdmission.Ticket second = admission.admit(40, false);
+
+        assertEquals("admitted", first.getDecision());
+        assertEquals(100, admission.inFlightCost());
+        assertEquals("40", second.getHeaders().get("X-Query-Cost"));
+        assertEquals("admitted", second.getHeaders().get("X-Query-Admission"));
+        AAIException rejected = assertThrows(AAIException.class, () -> admission.admit(1, false));
+        assertEquals(QueryAdmission.REJECTED, rejected.getCode());
+
+        first.close();
+        first.close();
+        assertEquals(40, admission.inFlightCost());
+        second.close();
+        assertEquals(0, admission.inFlightCost());
+    }
+
+    @Test
+    public void expensiveQueriesAreAdmittedWhileNothingElseRuns() throws AAIException {
+        QueryAdmission admission = new QueryAdmission(true, 100, 0, 0, "");
+
+        try (QueryAdmission.Ticket ticket = admission.admit(1000, false)) {
+            assertEquals("admitted", ticket.getDecision());
+        }
+        assertEquals(1, admission.admittedCount());
+    }
+
+    @Test
+    public void queuedQueriesWaitForTheBudget() throws Exception {
+        QueryAdmission admission = new QueryAdmission(true, 100, 1, 5000, "");
+        QueryAdmission.Ticket running = admission.admit(100, false);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<QueryAdmission.Ticket> queued =
+                executor.submit(() -> admission.admit(50, false));
+            while (admission.queuedCount() == 0) {
+                Thread.sleep(1);
+            }
+            // the queue is full
+            assertThrows(AAIException.class, () -> admission.admit(50, false));
+
+            running.close();
+            QueryAdmission.Ticket ticket = queued.get(5, TimeUnit.SECONDS);
+            assertEquals("queued", ticket.getDecision());
+            assertTrue(ticket.getHeaders().get("X-Query-Admission").startsWith("queued;wait-ms="));
+            ticket.close();
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, admission.delayedCount());
+        assertEquals(1, admission.rejectedCount());
+    }
+
+    @Test
+    public void queuedQueriesAreRejectedAfterTheMaximumWait() throws AAIException {
+        QueryAdmission admission = new QueryAdmission(true, 100, 10, 20, "");
+
+        try (QueryAdmission.Ticket running = admission.admit(100, false)) {
+            assertThrows(AAIException.class, () -> admission.admit(50, false));
+        }
+        assertEquals(0, admission.queuedCount());
+        assertEquals(1, admission.rejectedCount());
+    }
+
+    @Test
+    public void trustedClientsOverrideTheQueue() throws AAIException {
+        QueryAdmission admission = new QueryAdmission(true, 100, 0, 0, "batch-secret");
+
+        assertTrue(admission.isOverride("batch-secret"));
+        assertFalse(admission.isOverride("guess"));
+        assertFalse(new QueryAdmission(true, 100, 0, 0, "").isOverride(""));
+
+        try (QueryAdmission.Ticket running = admission.admit(100, false);
+            QueryAdmission.Ticket overridden = admission.admit(100, true)) {
+            assertEquals("override", overridden.getHeaders().get("X-Query-Admission"));
+            assertEquals(200, admission.inFlightCost());
+        }
+        assertEquals(1, admission.overriddenCount());
+    }
+
+    @Test
+    public void metricsAreRegistered() throws AAIException {
+        QueryAdmission admission = new QueryAdmission(true, 100, 0, 0, "");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        admission.bindTo(registry);
+
+        try (QueryAdmission.Ticket ticket = admission.admit(30, false)) {
+            assertEquals(30.0,
+                registry.get("aai.query.admission.inflight.cost").gauge().value());
+        }
+        assertEquals(1.0,
+            registry.get("aai.query.admission.admitted").functionCounter().count());
+        assertEquals(0.0,
+            registry.get("aai.query.admission.rejections").functionCounter().count());
+    }
+}
@@ -0,0 +1,138 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.onap.aai.exceptions.AAIException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class QueryCoalescerTest {
+
+    @Test
+    public void coalescingIsEnabledPerEndpoint() {
+        QueryCoalescer coalescer = new QueryCoalescer(" query , ");
+
+        assertTrue(coalescer.isEnabled("query"));
+        assertFalse(coalescer.isEnabled("dsl"));
+        assertFalse(new QueryCoalescer("").isEnabled("query"));
+    }
+
+    @Test
+    public void identicalQueriesShareOneExecution() throws Exception {
+        QueryCoalescer coalescer = new QueryCoalescer("query");
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<SerializedQueryResult> leader = executor.submit(() -> coalescer.execute("key",
+                () -> {
+                    executions.incrementAndGet();
+                    started.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return new SerializedQueryResult("{\"results\":[]}", 3L);
+                }));
+            assertTrue(started.await(10, TimeUnit.SECONDS));
+
+            Thread follower = new Thread(() -> {
+                try {
+                    coalescer.execute("key", () -> {
+                        executions.incrementAndGet();
+                        return new SerializedQueryResult("other", null);
+                    });
+                } catch (AAIException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            follower.start();
+            while (coalescer.coalescedCount() == 0) {
+                Thread.sleep(10);
+            }
+            release.countDown();
+            follower.join(10000);
+
+            SerializedQueryResult result = leader.get(10, TimeUnit.SECONDS);
+            assertEquals("{\"results\":[]}", result.getBody());
+            assertEquals(3L, result.getTotalCount());
+            assertEquals(1, executions.get());
+            assertEquals(1, coalescer.executionCount());
+            assertEquals(1, coalescer.coalescedCount());
+            assertEquals(0, coalescer.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void queriesAreExecutedAgainOnceDone() throws AAIException {
+        QueryCoalescer coalescer = new QueryCoalescer("query");
+
+        coalescer.execute("key", () -> new SerializedQueryResult("first", null));
+        SerializedQueryResult result =
+            coalescer.execute("key", () -> new SerializedQueryResult("second", null));
+
+        assertEquals("second", result.getBody());
+        assertEquals(2, coalescer.executionCount());
+        assertEquals(0, coalescer.coalescedCount());
+    }
+
+    @Test
+    public void failuresAreRethrown() {
+        QueryCoalescer coalescer = new QueryCoalescer("query");
+        AAIException failure = new AAIException("AAI_3102");
+
+        AAIException thrown = assertThrows(AAIException.class,
+            () -> coalescer.execute("key", () -> {
+                throw failure;
+            }));
+
+        assertSame(failure, thrown);
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    public void metricsAreRegistered() throws AAIException {
+        QueryCoalescer coalescer = new QueryCoalescer("query");
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coalescer.bindTo(registry);
+
+        coalescer.execute("key", () -> new SerializedQueryResult("{}", null));
+
+        assertEquals(1.0,
+            registry.get("aai.query.coalescing.executions").functionCounter().count());
+        assertEquals(0.0,
+            registry.get("aai.query.coalescing.coalesced").functionCounter().count());
+        assertEquals(0.0, registry.get("aai.query.coalescing.inflight").gauge().value());
+    }
+}
@@ -21,6 +21,7 @@ package org.onap.aai.rest.search;
 
 import static org.junit.Assert.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
@@ -60,6 +61,7 @@ import org.onap.aai.introspection.LoaderFactory;
 import org.onap.aai.introspection.ModelType;
 import org.onap.aai.nodes.NodeIngestor;
 import org.onap.aai.query.builder.GremlinTraversal;
+import org.onap.aai.query.builder.TraversalQuery;
 import org.onap.aai.rest.notification.NotificationService;
 import org.onap.aai.rest.notification.DeltaEventsService;
 import org.onap.aai.restcore.search.GremlinGroovyShell;
@@ -193,6 +195,28 @@ public abstract class QueryTest {
         // Actual :[v[1], v[2], v[3], v[4], v[5], v[6], v[7], v[8], v[9], v[10], v[11], v[12]]
         assertEquals("Expected all the vertices to be found", nonDuplicateExpectedResult, vertices);
 
+        assertEquals("Expected the precompiled stored query to find the same vertices",
+            nonDuplicateExpectedResult, runTemplate());
+    }
+
+    protected List<Vertex> runTemplate() {
+        StoredQueryTemplate template =
+            StoredQueryTemplate.compile(gremlinServerSingleton.getScriptCache(),
+                gremlinServerSingleton.getStoredQueryFromConfig(getQueryName()));
+        when(dbEngine.getQueryBuilder(eq(QueryStyle.TRAVERSAL), any(GraphTraversalSource.class)))
+            .thenReturn(new TraversalQuery<>(loader, gts));
+
+        GraphTraversal<Vertex, Vertex> start = gts.V();
+        addStartNode(start);
+        Object[] startVertices = start.toList().toArray();
+        Map<String, Object> templateParams = new LinkedHashMap<>();
+        addParam(templateParams);
+
+        List<Vertex> vertices = new ArrayList<>(new HashSet<>((List<Vertex>) template
+            .bind(dbEngine, QueryStyle.TRAVERSAL, gts, loader, startVertices, templateParams)
+            .toList()));
+        vertices.sort(Comparator.comparing(vertex -> vertex.id().toString()));
+        return vertices;
     }
 
     protected String convert(List<Vertex> vertices) {
@@ -0,0 +1,114 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.onap.aai.dbgraphgen.ModelTopologyCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ResponseCacheTest {
+
+    private static final long MAX_BYTES = 1024 * 1024;
+
+    @Test
+    public void onlyOptedInQueriesAreCached() {
+        ResponseCache cache =
+            new ResponseCache("tenant-lookup, complex-lookup", false, 60, MAX_BYTES);
+
+        assertTrue(cache.isEnabled("tenant-lookup"));
+        assertTrue(cache.isEnabled("complex-lookup"));
+        assertFalse(cache.isEnabled("model-info"));
+        assertFalse(cache.isEnabled(null));
+        assertFalse(cache.isDslEnabled());
+        assertTrue(new ResponseCache("", true, 60, MAX_BYTES).isDslEnabled());
+    }
+
+    @Test
+    public void cachedResultsAreServedUntilTheGraphChanges() {
+        ResponseCache cache = new ResponseCache("tenant-lookup", false, 60, MAX_BYTES);
+
+        assertNull(cache.get("key"));
+        SerializedQueryResult result = new SerializedQueryResult("{\"results\":[]}", 5L);
+        assertFalse(result.isCached());
+        cache.put("key", cache.epoch(), result);
+
+        SerializedQueryResult cached = cache.get("key");
+        assertEquals("{\"results\":[]}", cached.getBody());
+        assertEquals(5L, cached.getTotalCount());
+        assertEquals(result.getCreatedAt(), cached.getCreatedAt());
+        assertTrue(cached.isCached());
+
+        new GraphChangeListener(cache, new ModelTopologyCache(true, 10, 60))
+            .onEvent("{\"event-header\":{\"action\":\"UPDATE\"}}");
+
+        assertNull(cache.get("key"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.hitCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    public void resultsOfQueriesRunningDuringAGraphChangeAreNotCached() {
+        ResponseCache cache = new ResponseCache("tenant-lookup", false, 60, MAX_BYTES);
+        long epoch = cache.epoch();
+
+        cache.graphChanged();
+        cache.put("key", epoch, new SerializedQueryResult("{}", null));
+
+        assertNull(cache.get("key"));
+    }
+
+    @Test
+    public void resultsAreEvictedBeyondTheMaximumSize() {
+        ResponseCache cache = new ResponseCache("tenant-lookup", false, 60, 1000);
+        String body = new String(new char[300]).replace('\0', 'x');
+
+        cache.put("first", cache.epoch(), new SerializedQueryResult(body, null));
+        cache.put("second", cache.epoch(), new SerializedQueryResult(body, null));
+
+        assertEquals(1, cache.size());
+        assertNull(cache.get("first"));
+        assertEquals(body, cache.get("second").getBody());
+        assertEquals(1, cache.evictionCount());
+    }
+
+    @Test
+    public void metricsAreRegistered() {
+        ResponseCache cache = new ResponseCache("tenant-lookup", false, 60, MAX_BYTES);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.put("key", cache.epoch(), new SerializedQueryResult("{}", null));
+        cache.get("key");
+        cache.graphChanged();
+
+        assertEquals(1.0, registry.get("aai.response.cache.hits").functionCounter().count());
+        assertEquals(0.0, registry.get("aai.response.cache.misses").functionCounter().count());
+        assertEquals(1.0,
+            registry.get("aai.response.cache.invalidations").functionCounter().count());
+        assertEquals(0.0, registry.get("aai.response.cache.size").gauge().value());
+    }
+}
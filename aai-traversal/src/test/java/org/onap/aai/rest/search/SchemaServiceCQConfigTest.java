@@ -26,9 +26,22 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.onap.aai.restclient.RestClient;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestTemplate;
+import com.sun.net.httpserver.HttpServer;
 import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -124,4 +137,75 @@ public class SchemaServiceCQConfigTest {
 
         verify(schemaServiceCQConfig, times(1)).retrieveCustomQueries();
     }
+
+    @Test
+    public void testRefreshIsConditionalAndOnlyRecompilesChangedQueries() throws Exception {
+        AtomicReference<String> document =
+            new AtomicReference<>(catalog("builder.store('x')", "builder.store('y')"));
+        List<String> conditions = new CopyOnWriteArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/stored-queries", exchange -> {
+            String etag = "\"" + document.get().hashCode() + "\"";
+            String ifNoneMatch = exchange.getRequestHeaders().getFirst(HttpHeaders.IF_NONE_MATCH);
+            conditions.add(String.valueOf(ifNoneMatch));
+            if (etag.equals(ifNoneMatch)) {
+                exchange.sendResponseHeaders(304, -1);
+            } else {
+                byte[] body = document.get().getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().add(HttpHeaders.ETAG, etag);
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+            exchange.close();
+        });
+        server.start();
+        try {
+            stubRestClient("http://localhost:" + server.getAddress().getPort() + "/");
+
+            schemaServiceCQConfig.retrieveCustomQueries();
+            GetCustomQueryConfig initial = schemaServiceCQConfig.getCustomQueryConfig();
+            assertNotNull(initial.getStoredQuery("second").getTemplate());
+
+            // unchanged catalog, the schema service answers 304 and nothing is reloaded
+            schemaServiceCQConfig.refreshCustomQueries();
+            assertSame(initial, schemaServiceCQConfig.getCustomQueryConfig());
+            assertEquals("\"" + document.get().hashCode() + "\"", conditions.get(1));
+
+            document.set(catalog("builder.store('x')", "builder.store('z')"));
+            schemaServiceCQConfig.refreshCustomQueries();
+            GetCustomQueryConfig changed = schemaServiceCQConfig.getCustomQueryConfig();
+            assertNotSame(initial, changed);
+            assertEquals(1, changed.getReusedCount());
+            assertSame(initial.getStoredQuery("first"), changed.getStoredQuery("first"));
+            assertEquals("builder.store('z')", changed.getStoredQuery("second").getQuery());
+
+            // a broken catalog keeps the stored queries in use
+            document.set("{\"stored-queries\": [");
+            schemaServiceCQConfig.refreshCustomQueries();
+            assertSame(changed, schemaServiceCQConfig.getCustomQueryConfig());
+            assertEquals(1, schemaServiceCQConfig.getReloadFailureCount());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private void stubRestClient(String baseUrl) throws NoSuchFieldException, IllegalAccessException {
+        Field field = SchemaServiceCQConfig.class.getDeclaredField("customQueriesUri");
+        field.setAccessible(true);
+        field.set(schemaServiceCQConfig, "stored-queries");
+
+        RestTemplate restTemplate = new RestTemplate();
+        when(restClient.getGetRequest(anyString(), anyString(), anyMap())).thenAnswer(invocation -> {
+            HttpHeaders headers = new HttpHeaders();
+            Map<String, String> headersMap = invocation.getArgument(2);
+            headersMap.forEach(headers::add);
+            return restTemplate.exchange(baseUrl + invocation.getArgument(1), HttpMethod.GET,
+                new HttpEntity<>(headers), String.class);
+        });
+    }
+
+    private String catalog(String first, String second) {
+        return "{\"stored-queries\": [{\"first\": {\"stored-query\": \"" + first + "\"}}, "
+            + "{\"second\": {\"stored-query\": \"" + second + "\"}}]}";
+    }
 }
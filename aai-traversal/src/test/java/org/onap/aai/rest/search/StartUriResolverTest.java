@@ -0,0 +1,124 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.onap.aai.introspection.Introspector;
+import org.onap.aai.introspection.Loader;
+import org.onap.aai.introspection.exceptions.AAIUnknownObjectException;
+import org.onap.aai.parsers.query.QueryParser;
+import org.onap.aai.schema.enums.PropertyMetadata;
+import org.onap.aai.serialization.engines.QueryStyle;
+
+public class StartUriResolverTest {
+
+    private Loader loader;
+    private StartUriResolver resolver;
+
+    @BeforeEach
+    void setUp() throws AAIUnknownObjectException {
+        loader = mock(Loader.class);
+        mockIntrospector("pserver", true, "hostname");
+        mockIntrospector("l-interface", false, "interface-name");
+        mockIntrospector("cloud-region", true, "cloud-owner", "cloud-region-id");
+        when(loader.introspectorFromName("unknown"))
+            .thenThrow(new AAIUnknownObjectException("unknown"));
+        resolver = new StartUriResolver(null, QueryStyle.TRAVERSAL, null, loader);
+    }
+
+    @Test
+    void topLevelObjectsAreLookedUpByKey() {
+        StartUriResolver.Lookup lookup =
+            resolver.toLookup(URI.create("cloud-infrastructure/pservers/pserver/host%201"));
+
+        assertEquals("pserver", lookup.getNodeType());
+        assertEquals("hostname", lookup.getKeyProperty());
+        assertEquals("host 1", lookup.getKeyValue());
+        assertEquals(lookup.group(),
+            resolver.toLookup(URI.create("/cloud-infrastructure/pservers/pserver/host2")).group());
+    }
+
+    @Test
+    void lookupsAreEqualOnlyWithEqualHashCodes() {
+        QueryParser uriQuery = mock(QueryParser.class);
+        StartUriResolver.Lookup lookup = new StartUriResolver.Lookup(uriQuery);
+
+        assertEquals(lookup, new StartUriResolver.Lookup(uriQuery));
+        assertEquals(lookup.hashCode(), new StartUriResolver.Lookup(uriQuery).hashCode());
+        assertNotEquals(lookup, new StartUriResolver.Lookup(mock(QueryParser.class)));
+        assertEquals(new StartUriResolver.Lookup("pserver", "hostname", "host1").hashCode(),
+            new StartUriResolver.Lookup("pserver", "hostname", "host1").hashCode());
+    }
+
+    @Test
+    void nodesUrisAreLookedUpByKey() {
+        StartUriResolver.Lookup lookup =
+            resolver.toLookup(URI.create("nodes/l-interfaces/l-interface/eth0"));
+
+        assertEquals("l-interface", lookup.getNodeType());
+        assertEquals("eth0", lookup.getKeyValue());
+    }
+
+    @Test
+    void otherUrisAreResolvedOnTheirOwn() {
+        assertNull(resolver.toLookup(URI.create("cloud-infrastructure/pservers?hostname=host1")));
+        assertNull(resolver.toLookup(URI.create("cloud-infrastructure/pservers")));
+        assertNull(resolver.toLookup(URI.create(
+            "cloud-infrastructure/pservers/pserver/host1/p-interfaces/p-interface/eth0")));
+        assertNull(resolver.toLookup(
+            URI.create("cloud-infrastructure/cloud-regions/cloud-region/owner/region")));
+        assertNull(resolver.toLookup(URI.create("network/l-interfaces/l-interface/eth0")));
+        assertNull(resolver.toLookup(URI.create("nodes/unknowns/unknown/key")));
+    }
+
+    @Test
+    void historyQueriesAreResolvedOnTheirOwn() {
+        StartUriResolver historyResolver =
+            new StartUriResolver(null, QueryStyle.HISTORY_TRAVERSAL, null, loader);
+
+        assertNull(
+            historyResolver.toLookup(URI.create("cloud-infrastructure/pservers/pserver/host1")));
+    }
+
+    private void mockIntrospector(String nodeType, boolean isTopLevel, String... keys)
+        throws AAIUnknownObjectException {
+        Introspector obj = mock(Introspector.class);
+        when(obj.isTopLevel()).thenReturn(isTopLevel);
+        when(obj.getKeys()).thenReturn(new LinkedHashSet<>(Arrays.asList(keys)));
+        when(obj.getType(any())).thenReturn(String.class.getName());
+        when(obj.getPropertyMetadata(any(), eq(PropertyMetadata.DB_ALIAS)))
+            .thenReturn(Optional.empty());
+        when(loader.introspectorFromName(nodeType)).thenReturn(obj);
+    }
+}
@@ -73,6 +73,21 @@ public class PaginationUtilTest {
         assertEquals("item4", page.get(1)); // second page, item4
     }
 
+    @Test
+    public void testGetPaginatedVertexList() {
+        Pageable pageable = Mockito.mock(Pageable.class);
+        Mockito.when(pageable.getPage()).thenReturn(1);
+        Mockito.when(pageable.getPageSize()).thenReturn(3);
+
+        List<Object> vertexList = Arrays.asList("item1", "item2", "item3", "item4");
+
+        assertEquals(Collections.singletonList("item4"),
+            PaginationUtil.getPaginatedVertexList(vertexList, pageable)); // last, partial page
+
+        Mockito.when(pageable.getPage()).thenReturn(2);
+        assertTrue(PaginationUtil.getPaginatedVertexList(vertexList, pageable).isEmpty());
+    }
+
     @Test
     public void testHasValidPaginationParams_ValidParams() {
         Pageable pageable = Mockito.mock(Pageable.class);
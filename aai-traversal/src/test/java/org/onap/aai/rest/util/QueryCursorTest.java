@@ -0,0 +1,66 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+import org.onap.aai.exceptions.AAIException;
+
+public class QueryCursorTest {
+
+    @Test
+    public void cursorCanBeDecoded() throws AAIException {
+        String fingerprint = QueryCursor.fingerprint("pserver*('in-maint', false)", "pathed");
+        String cursor = new QueryCursor(fingerprint, 40964232L).encode();
+
+        QueryCursor decoded = QueryCursor.decode(cursor, fingerprint);
+
+        assertEquals(fingerprint, decoded.getFingerprint());
+        assertEquals(40964232L, decoded.getLastId());
+    }
+
+    @Test
+    public void fingerprintDependsOnTheQuery() {
+        assertEquals(QueryCursor.fingerprint("pserver*", "pathed"),
+            QueryCursor.fingerprint("pserver*", "pathed"));
+        assertNotEquals(QueryCursor.fingerprint("pserver*", "pathed"),
+            QueryCursor.fingerprint("pserver*", "simple"));
+        assertNotEquals(QueryCursor.fingerprint("a", "bc"), QueryCursor.fingerprint("ab", "c"));
+    }
+
+    @Test
+    public void cursorOfADifferentQueryIsRejected() {
+        String cursor = new QueryCursor(QueryCursor.fingerprint("pserver*"), 1).encode();
+
+        AAIException e = assertThrows(AAIException.class,
+            () -> QueryCursor.decode(cursor, QueryCursor.fingerprint("complex*")));
+        assertEquals("AAI_3019", e.getCode());
+    }
+
+    @Test
+    public void malformedCursorIsRejected() {
+        AAIException e = assertThrows(AAIException.class,
+            () -> QueryCursor.decode("not a cursor", QueryCursor.fingerprint("pserver*")));
+        assertEquals("AAI_3102", e.getCode());
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.__;
+import org.apache.tinkerpop.gremlin.process.traversal.util.TraversalInterruptedException;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.junit.jupiter.api.Test;
+
+public class QueryDeadlineTest {
+
+    private static final String APP_SPECIFIC = "JUNITTESTAPP1,1|JUNITTESTAPP2,-1";
+
+    @Test
+    public void expiredDeadlineStopsTheTraversal() {
+        GraphTraversalSource g = TinkerGraph.open().traversal();
+        Vertex first = g.addV("pserver").next();
+        Vertex second = g.addV("pserver").next();
+        first.addEdge("next", second);
+        second.addEdge("next", first);
+
+        try (QueryDeadline deadline = QueryDeadline.start(50)) {
+            // the traversal cycles between the two vertices forever
+            assertThrows(TraversalInterruptedException.class,
+                () -> g.V(first).repeat(__.out()).until(__.hasId(-1)).toList());
+            assertTrue(deadline.isExpired());
+        }
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void closedDeadlineDoesNotInterrupt() throws InterruptedException {
+        QueryDeadline deadline = QueryDeadline.start(20);
+        deadline.close();
+        Thread.sleep(100);
+
+        assertFalse(deadline.isExpired());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void queriesWithoutTimeoutHaveNoDeadline() throws InterruptedException {
+        try (QueryDeadline deadline = QueryDeadline.start(-1)) {
+            Thread.sleep(50);
+            assertFalse(deadline.isExpired());
+        }
+    }
+
+    @Test
+    public void timeoutCanBeOverriddenPerApp() {
+        assertEquals(180000, QueryDeadline.getTimeout("true", APP_SPECIFIC, "180000", "JUNIT"));
+        assertEquals(1, QueryDeadline.getTimeout("true", APP_SPECIFIC, "180000", "JUNITTESTAPP1"));
+        assertEquals(-1,
+            QueryDeadline.getTimeout("true", APP_SPECIFIC, "180000", "JUNITTESTAPP2"));
+        assertEquals(180000, QueryDeadline.getTimeout("true", APP_SPECIFIC, "180000", null));
+        assertEquals(-1, QueryDeadline.getTimeout("false", APP_SPECIFIC, "180000", "JUNIT"));
+    }
+}
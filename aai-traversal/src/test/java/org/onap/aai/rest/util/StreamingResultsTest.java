@@ -0,0 +1,179 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import jakarta.ws.rs.core.StreamingOutput;
+
+import org.junit.jupiter.api.Test;
+import org.onap.aai.serialization.queryformats.Format;
+import org.onap.aai.serialization.queryformats.Formatter;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+public class StreamingResultsTest {
+
+    @Test
+    public void resultsAreWrittenOneAtATime() throws IOException {
+        Formatter formatter = mock(Formatter.class);
+        when(formatter.output(anyList())).thenAnswer(invocation -> {
+            List<?> results = invocation.getArgument(0);
+            assertEquals(1, results.size());
+            JsonArray formatted = new JsonArray();
+            if (!"skipped".equals(results.get(0))) {
+                JsonObject result = new JsonObject();
+                result.addProperty("id", results.get(0).toString());
+                formatted.add(result);
+            }
+            JsonObject output = new JsonObject();
+            output.add("results", formatted);
+            return output;
+        });
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        StreamingResults.write(formatter, Arrays.asList("a", "skipped", "b").iterator(), null,
+            outputStream);
+
+        String written = outputStream.toString(StandardCharsets.UTF_8);
+        assertEquals("{\"results\":[{\"id\":\"a\"},{\"id\":\"b\"}]}", written);
+        assertEquals(2, JsonParser.parseString(written).getAsJsonObject()
+            .getAsJsonArray("results").size());
+    }
+
+    @Test
+    public void resultsCanBeWrittenAsLines() throws IOException {
+        Formatter formatter = mock(Formatter.class);
+        when(formatter.output(anyList())).thenAnswer(invocation -> {
+            JsonObject result = new JsonObject();
+            result.addProperty("id", ((List<?>) invocation.getArgument(0)).get(0).toString());
+            JsonArray formatted = new JsonArray();
+            formatted.add(result);
+            JsonObject output = new JsonObject();
+            output.add("results", formatted);
+            return output;
+        });
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        StreamingResults.writeLines(formatter, Arrays.asList("a", "b").iterator(), null,
+            outputStream);
+
+        assertEquals("{\"id\":\"a\"}\n{\"id\":\"b\"}\n",
+            outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void resultsCanBeWrittenAsXml() throws IOException {
+        Formatter formatter = mock(Formatter.class);
+        when(formatter.output(anyList())).thenAnswer(invocation -> {
+            JsonObject result = new JsonObject();
+            result.addProperty("node-type", ((List<?>) invocation.getArgument(0)).get(0).toString());
+            JsonArray formatted = new JsonArray();
+            formatted.add(result);
+            JsonObject output = new JsonObject();
+            output.add("results", formatted);
+            return output;
+        });
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        StreamingResults.writeXml(formatter, Arrays.asList("a", "b").iterator(), null,
+            outputStream);
+
+        assertEquals("<results><result><nodeType>a</nodeType></result>"
+            + "<result><nodeType>b</nodeType></result></results>",
+            outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void noResultsAreAnEmptyArray() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        StreamingResults.write(mock(Formatter.class), Collections.emptyIterator(), null,
+            outputStream);
+
+        assertEquals("{\"results\":[]}", outputStream.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void writingFailsOnceTheDeadlinePassed() {
+        Iterator<Object> endless = new Iterator<Object>() {
+            @Override
+            public boolean hasNext() {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("interrupted");
+                }
+                return true;
+            }
+
+            @Override
+            public Object next() {
+                return "a";
+            }
+        };
+        Formatter formatter = mock(Formatter.class);
+        when(formatter.output(anyList())).thenReturn(new JsonObject());
+        StreamingOutput output = StreamingResults.withDeadline(
+            outputStream -> StreamingResults.write(formatter, endless, null, outputStream), 50,
+            System.nanoTime());
+
+        IOException e = assertThrows(IOException.class,
+            () -> output.write(new ByteArrayOutputStream()));
+
+        assertTrue(e.getMessage().contains("50 ms"));
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void failuresWithinTheDeadlineAreRethrown() {
+        StreamingOutput output = StreamingResults.withDeadline(outputStream -> {
+            throw new IllegalStateException("broken");
+        }, 60000, System.nanoTime());
+
+        assertThrows(IllegalStateException.class,
+            () -> output.write(new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void onlyPerResultFormatsAreStreamable() {
+        assertTrue(StreamingResults.isStreamable(Format.graphson));
+        assertTrue(StreamingResults.isStreamable(Format.simple));
+        assertTrue(StreamingResults.isStreamable(Format.resource));
+        assertFalse(StreamingResults.isStreamable(Format.count));
+        assertFalse(StreamingResults.isStreamable(Format.aggregate));
+        assertTrue(StreamingResults.isNdjsonFormat(Format.aggregate));
+        assertFalse(StreamingResults.isNdjsonFormat(Format.count));
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.util;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.ws.rs.core.Response;
+
+import org.janusgraph.core.JanusGraph;
+import org.janusgraph.core.JanusGraphFactory;
+import org.janusgraph.core.JanusGraphTransaction;
+import org.onap.aai.concurrent.AaiCallable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares the throughput and latency percentiles of fast requests while slow requests
+ * keep more than the platform thread pool busy, once on a pool the size of the Tomcat
+ * request threads (<code>server.tomcat.threads.max</code>) and once on a virtual thread
+ * per request, like with <code>aai.traversal.virtualthreads.enabled=true</code>.
+ *
+ * It only measures the runner and the threads it runs on, not the request path of the
+ * consumers: every request calls {@link VirtualThreadRunner#run} directly on the thread
+ * it was submitted to, with the default query timeout, and reads a vertex of an in-memory
+ * JanusGraph. Tomcat, the filters, the consumers and the query processing are left out.
+ * The in-memory backend has no I/O, so the slow backend is a Thread.sleep before the read,
+ * which parks a virtual thread the way blocking on a remote backend would. Results from it
+ * show what the threads alone change, not the latency of real queries.
+ *
+ * The virtual threads need Java 21. Run it from the IDE or with
+ * <code>mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=org.onap.aai.rest.util.VirtualThreadRunnerBenchmark</code>
+ * and compare the p0.99 of the sample time results.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class VirtualThreadRunnerBenchmark {
+
+    private static final int PLATFORM_THREADS = 200;
+    private static final int SLOW_REQUESTS_IN_FLIGHT = 400;
+    private static final long BACKEND_LATENCY_MS = 50;
+    private static final int VERTICES = 1000;
+    private static final long TIMEOUT_MS = 180000;
+
+    @Param({"platform", "virtual"})
+    public String threads;
+
+    private JanusGraph graph;
+    private Object[] vertexIds;
+    private ExecutorService executor;
+    private Thread slowRequests;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        graph = JanusGraphFactory.build().set("storage.backend", "inmemory").open();
+        vertexIds = new Object[VERTICES];
+        JanusGraphTransaction tx = graph.newTransaction();
+        for (int i = 0; i < VERTICES; i++) {
+            vertexIds[i] = tx.addVertex("aai-node-type", "pserver", "hostname", "pserver-" + i)
+                .id();
+        }
+        tx.commit();
+
+        executor = "virtual".equals(threads) ? VirtualThreadRunner.newVirtualThreadExecutor()
+            : Executors.newFixedThreadPool(PLATFORM_THREADS);
+        if (executor == null) {
+            throw new IllegalStateException("Virtual threads need Java 21");
+        }
+
+        Semaphore inFlight = new Semaphore(SLOW_REQUESTS_IN_FLIGHT);
+        slowRequests = new Thread(() -> {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    inFlight.acquire();
+                    executor.submit(() -> {
+                        try {
+                            return handle(BACKEND_LATENCY_MS);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+            } catch (InterruptedException | RuntimeException e) {
+                // the benchmark is over
+            }
+        }, "slow-requests");
+        slowRequests.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        slowRequests.interrupt();
+        slowRequests.join();
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        graph.close();
+    }
+
+    @Benchmark
+    public Object fastRequest() throws InterruptedException, ExecutionException {
+        return executor.submit(() -> handle(0)).get();
+    }
+
+    private Response handle(long backendLatencyMs) {
+        return VirtualThreadRunner.run(new AaiCallable<Response>() {
+            @Override
+            public Response process() throws InterruptedException {
+                return Response.ok(request(backendLatencyMs)).build();
+            }
+        }, TIMEOUT_MS, e -> Response.serverError().entity(e.getCode()).build());
+    }
+
+    private Object request(long backendLatencyMs) throws InterruptedException {
+        if (backendLatencyMs > 0) {
+            Thread.sleep(backendLatencyMs);
+        }
+        Object id = vertexIds[ThreadLocalRandom.current().nextInt(VERTICES)];
+        JanusGraphTransaction tx = graph.newTransaction();
+        try {
+            return tx.traversal().V(id).values("hostname").next();
+        } finally {
+            tx.rollback();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(VirtualThreadRunnerBenchmark.class.getSimpleName()).build()).run();
+    }
+}
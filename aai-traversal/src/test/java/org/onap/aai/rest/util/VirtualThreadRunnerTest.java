@@ -0,0 +1,106 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.rest.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import org.junit.jupiter.api.Test;
+import org.onap.aai.concurrent.AaiCallable;
+import org.onap.aai.exceptions.AAIException;
+import org.onap.aai.restcore.HttpMethod;
+
+public class VirtualThreadRunnerTest {
+
+    private static final Function<AAIException, Response> ERROR_RESPONSE =
+        e -> Response.status(Response.Status.BAD_REQUEST).entity(e.getCode()).build();
+
+    @Test
+    public void requestIsProcessedOnTheCallingThread() {
+        Response response = VirtualThreadRunner.run(
+            callable(() -> Response.ok(Thread.currentThread()).build()), 1000, ERROR_RESPONSE);
+
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertSame(Thread.currentThread(), response.getEntity());
+    }
+
+    @Test
+    public void requestExceedingItsTimeoutIsInterrupted() {
+        AtomicBoolean interrupted = new AtomicBoolean();
+
+        Response response = VirtualThreadRunner.run(callable(() -> {
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+            return Response.ok().build();
+        }), 50, ERROR_RESPONSE);
+
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        assertEquals("AAI_7406", response.getEntity());
+        assertTrue(interrupted.get());
+        assertFalse(Thread.currentThread().isInterrupted());
+    }
+
+    @Test
+    public void failedRequestGetsTheErrorResponse() {
+        Response response = VirtualThreadRunner.run(new AaiCallable<Response>() {
+            @Override
+            public Response process() throws AAIException {
+                throw new AAIException("AAI_3102");
+            }
+        }, -1, ERROR_RESPONSE);
+
+        assertEquals("AAI_3102", response.getEntity());
+    }
+
+    @Test
+    public void requestsOnPlatformThreadsAreHandedToTheRunner() {
+        Response handedOver = Response.accepted().build();
+
+        Response response = VirtualThreadRunner.runner(
+            (enabled, appSpecific, limit, headers, info, method, callable) -> handedOver,
+            (headers, info, method, e) -> ERROR_RESPONSE.apply(e), "timeoutenabled",
+            "timeout.appspecific", "timeoutlimit", (HttpHeaders) null, null, HttpMethod.GET,
+            callable(() -> Response.ok().build()));
+
+        assertFalse(VirtualThreadRunner.isVirtual(Thread.currentThread()));
+        assertSame(handedOver, response);
+    }
+
+    private static AaiCallable<Response> callable(Supplier<Response> process) {
+        return new AaiCallable<Response>() {
+            @Override
+            public Response process() {
+                return process.get();
+            }
+        };
+    }
+}
@@ -0,0 +1,149 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.transforms;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+public class StreamingXmlTransformerTest {
+
+    @Test
+    void keysAreConvertedToLowerCamelCase() {
+        JsonObject formatted = JsonParser.parseString(
+            "{\"results\":[{\"node-type\":\"pserver\",\"properties\":{\"in-maint\":false}}]}")
+            .getAsJsonObject();
+
+        assertEquals("<results><result><nodeType>pserver</nodeType>"
+            + "<properties><inMaint>false</inMaint></properties></result></results>",
+            StreamingXmlTransformer.transform(formatted));
+    }
+
+    @Test
+    void resultsAreNotWrappedTwice() {
+        JsonObject formatted =
+            JsonParser.parseString("{\"results\":[{\"result\":\"v[1]\"}]}").getAsJsonObject();
+
+        assertEquals("<results><result>v[1]</result></results>",
+            StreamingXmlTransformer.transform(formatted));
+    }
+
+    @Test
+    void arrayElementsAreRepeatedElements() {
+        JsonObject formatted = JsonParser.parseString(
+            "{\"results\":[{\"related-to\":[{\"node-type\":\"vserver\"},{\"node-type\":\"pnf\"}],"
+                + "\"ids\":[[1,2]],\"skipped\":null}]}")
+            .getAsJsonObject();
+
+        assertEquals("<results><result><relatedTo><nodeType>vserver</nodeType></relatedTo>"
+            + "<relatedTo><nodeType>pnf</nodeType></relatedTo>"
+            + "<ids><array>1</array><array>2</array></ids></result></results>",
+            StreamingXmlTransformer.transform(formatted));
+    }
+
+    @Test
+    void textIsEscaped() {
+        JsonObject formatted = JsonParser
+            .parseString("{\"results\":[{\"description\":\"<a & 'b'>\"}]}").getAsJsonObject();
+
+        assertEquals("<results><result><description>&lt;a &amp; &apos;b&apos;&gt;"
+            + "</description></result></results>", StreamingXmlTransformer.transform(formatted));
+    }
+
+    @Test
+    void noResultsAreAnEmptyDocument() {
+        JsonObject formatted = JsonParser.parseString("{\"results\":[]}").getAsJsonObject();
+
+        assertEquals("<results></results>", StreamingXmlTransformer.transform(formatted));
+    }
+
+    /*
+     * The legacy transformer builds the xml from json objects that do not keep the order
+     * of their keys, so sibling elements are compared regardless of their order.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "{\"results\":[]}",
+        "{\"results\":[{\"resource-type\":\"pserver\","
+            + "\"resource-link\":\"/aai/v14/cloud-infrastructure/pservers/pserver/host-1\"}]}",
+        "{\"results\":[{\"id\":\"4096\",\"node-type\":\"pserver\","
+            + "\"url\":\"/aai/v14/cloud-infrastructure/pservers/pserver/host-1\","
+            + "\"properties\":{\"hostname\":\"host-1\",\"in-maint\":false,\"number-of-cpus\":4},"
+            + "\"related-to\":[{\"id\":\"8192\","
+            + "\"relationship-label\":\"org.onap.relationships.inventory.LocatedIn\","
+            + "\"node-type\":\"complex\","
+            + "\"url\":\"/aai/v14/cloud-infrastructure/complexes/complex/loc-1\"},"
+            + "{\"id\":\"12288\",\"relationship-label\":\"tosca.relationships.HostedOn\","
+            + "\"node-type\":\"vserver\",\"url\":\"/aai/v14/vservers/vserver/vs-1\"}]}]}",
+        "{\"results\":[{\"pserver\":{\"hostname\":\"host-1\",\"in-maint\":false,"
+            + "\"relationship-list\":{\"relationship\":[{\"related-to\":\"complex\","
+            + "\"relationship-data\":[{\"relationship-key\":\"complex.physical-location-id\","
+            + "\"relationship-value\":\"loc-1\"}]}]}}},"
+            + "{\"complex\":{\"physical-location-id\":\"loc-1\"}}]}",
+        "{\"results\":[{\"result\":\"v[1]\"},{\"result\":\"v[2]\"}]}",
+        "{\"results\":[{\"description\":\"<a & 'b'> \\\"c\\\"\"}]}"})
+    void outputMatchesTheLegacyTransformer(String json) throws Exception {
+        JsonObject formatted = JsonParser.parseString(json).getAsJsonObject();
+
+        String legacy = new XmlFormatTransformer().transform(formatted.toString());
+
+        assertEquals(canonical(legacy), canonical(StreamingXmlTransformer.transform(formatted)));
+    }
+
+    private static String canonical(String xml) throws Exception {
+        Element root = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+            .parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)))
+            .getDocumentElement();
+        return canonical(root);
+    }
+
+    private static String canonical(Element element) {
+        List<String> children = new ArrayList<>();
+        StringBuilder text = new StringBuilder();
+        NodeList nodes = element.getChildNodes();
+        for (int i = 0; i < nodes.getLength(); i++) {
+            Node node = nodes.item(i);
+            if (node instanceof Element) {
+                children.add(canonical((Element) node));
+            } else if (node.getNodeType() == Node.TEXT_NODE) {
+                text.append(node.getNodeValue());
+            }
+        }
+        Collections.sort(children);
+        return "<" + element.getTagName() + ">" + text.toString().trim()
+            + String.join("", children) + "</" + element.getTagName() + ">";
+    }
+}
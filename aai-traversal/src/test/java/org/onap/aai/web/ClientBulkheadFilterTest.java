@@ -0,0 +1,199 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.servlet.FilterChain;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ClientBulkheadFilterTest {
+
+    private final ClientBulkheadFilter filter =
+        new ClientBulkheadFilter(true, 1, 0, 0, 2, 3, "APP2,5|APP2/dsl,2|APP3,-1");
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void limitsAreOverriddenPerClientAndEndpoint() {
+        assertEquals(1, filter.getLimit("APP1", "query"));
+        assertEquals(5, filter.getLimit("APP2", "query"));
+        assertEquals(2, filter.getLimit("APP2", "dsl"));
+        assertEquals(-1, filter.getLimit("APP3", "dsl"));
+    }
+
+    @Test
+    void requestsBeyondTheLimitAreRejected() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<?> blocking = executor.submit(() -> filter(request("/v29/query", "APP1"),
+            (req, res) -> {
+                running.countDown();
+                await(finish);
+            }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        MockHttpServletResponse rejected =
+            filter(request("/v29/query", "APP1"), new MockFilterChain());
+        assertEquals(429, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+
+        // other clients and other endpoints of the same client have their own slots
+        assertEquals(200, filter(request("/v29/query", "APP2"), new MockFilterChain()).getStatus());
+        assertEquals(200, filter(request("/v29/dsl", "APP1"), new MockFilterChain()).getStatus());
+
+        finish.countDown();
+        blocking.get(5, TimeUnit.SECONDS);
+        assertEquals(200, filter(request("/v29/query", "APP1"), new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void queuedRequestsGetTheSlotOfAFinishedRequest() throws Exception {
+        ClientBulkheadFilter queueing = new ClientBulkheadFilter(true, 1, 1, 5000, 10, 1, "");
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        executor.submit(() -> filter(queueing, request("/v29/query", "APP1"), (req, res) -> {
+            running.countDown();
+            await(finish);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        new Thread(finish::countDown).start();
+        assertEquals(200,
+            filter(queueing, request("/v29/query", "APP1"), new MockFilterChain()).getStatus());
+    }
+
+    @Test
+    void unlimitedRequestsPassThrough() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        executor.submit(() -> filter(request("/v29/query", "APP3"), (req, res) -> {
+            running.countDown();
+            await(finish);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        assertEquals(200, filter(request("/v29/query", "APP3"), new MockFilterChain()).getStatus());
+        assertEquals(200, filter(request("/v29/query", null), new MockFilterChain()).getStatus());
+        assertTrue(filter.shouldNotFilter(request("/util/echo", "APP1")));
+        assertTrue(new ClientBulkheadFilter(false, 1, 0, 0, 10, 1, "")
+            .shouldNotFilter(request("/v29/query", "APP1")));
+        finish.countDown();
+    }
+
+    @Test
+    void clientsBeyondTheMaximumShareOneBulkhead() {
+        ClientBulkheadFilter.Bulkhead first = filter.getBulkhead("APP1", "query", 1);
+        filter.getBulkhead("APP4", "query", 1);
+
+        assertSame(first, filter.getBulkhead("APP1", "query", 1));
+        ClientBulkheadFilter.Bulkhead other = filter.getBulkhead("APP5", "query", 1);
+        assertSame(other, filter.getBulkhead("APP6", "query", 5));
+        // the shared bulkhead has its own limit, not the one of the client that created it
+        assertEquals(3, other.getLimit());
+        // clients with a limit of their own keep their own bulkhead
+        assertEquals(5, filter.getBulkhead("APP2", "query", 5).getLimit());
+    }
+
+    @Test
+    void clientsAreIdentifiedByTheirAppId() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        MockHttpServletRequest blockingRequest = request("/v29/query", "APP1");
+        blockingRequest.addHeader("X-ONAP-PartnerName", "PARTNER1");
+        executor.submit(() -> filter(blockingRequest, (req, res) -> {
+            running.countDown();
+            await(finish);
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+
+        // another partner name does not give the same app id a second slot
+        MockHttpServletRequest sameApp = request("/v29/query", "APP1");
+        sameApp.addHeader("X-ONAP-PartnerName", "PARTNER2");
+        assertEquals(429, filter(sameApp, new MockFilterChain()).getStatus());
+        finish.countDown();
+    }
+
+    @Test
+    void metricsAreRegisteredPerClientAndEndpoint() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+
+        filter(request("/v29/dsl", "APP1"), new MockFilterChain());
+
+        assertNotNull(registry.find("aai.client.bulkhead.inflight").tag("client", "APP1")
+            .tag("endpoint", "dsl").gauge());
+        assertNotNull(registry.find("aai.client.bulkhead.queued").tag("client", "APP1").gauge());
+        assertNotNull(registry.find("aai.client.bulkhead.rejections").tag("client", "APP1")
+            .functionCounter());
+        assertNotNull(registry.find("aai.client.bulkhead.wait").tag("client", "APP1").timer());
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request, FilterChain chain) {
+        return filter(filter, request, chain);
+    }
+
+    private static MockHttpServletResponse filter(ClientBulkheadFilter filter,
+        MockHttpServletRequest request, FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String path, String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (client != null) {
+            request.addHeader("X-FromAppId", client);
+        }
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,239 @@
+/**
+ * ============LICENSE_START=======================================================
+ * org.onap.aai
+ * ================================================================================
+ * Copyright © 2026 Deutsche Telekom SA.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ============LICENSE_END=========================================================
+ */
+package org.onap.aai.web;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class ResponseCompressionFilterTest {
+
+    private static final byte[] LARGE_BODY =
+        "{\"results\":[{\"resource-link\":\"/aai/v29/cloud-infrastructure/pservers/pserver/a\"}]}"
+            .repeat(100).getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SMALL_BODY = "{\"results\":[]}".getBytes(StandardCharsets.UTF_8);
+
+    private final ResponseCompressionFilter filter = new ResponseCompressionFilter(true, 1024, 6);
+
+    @Test
+    void largeResponsesAreCompressedWithGzip() throws Exception {
+        MockHttpServletResponse response = filter("/v29/query", "gzip, deflate", LARGE_BODY);
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertEquals("Accept-Encoding", response.getHeader("Vary"));
+        assertArrayEquals(LARGE_BODY,
+            new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))
+                .readAllBytes());
+    }
+
+    @Test
+    void largeResponsesAreCompressedWithDeflate() throws Exception {
+        MockHttpServletResponse response = filter("/recents/v29/pserver", "deflate", LARGE_BODY);
+
+        assertEquals("deflate", response.getHeader("Content-Encoding"));
+        InputStream inflated =
+            new InflaterInputStream(new ByteArrayInputStream(response.getContentAsByteArray()));
+        assertArrayEquals(LARGE_BODY, inflated.readAllBytes());
+    }
+
+    @Test
+    void smallResponsesAreNotCompressed() throws Exception {
+        MockHttpServletResponse response = filter("/v29/dsl", "gzip", SMALL_BODY);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertEquals(SMALL_BODY.length, response.getContentLength());
+        assertArrayEquals(SMALL_BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void responsesAreNotCompressedUnlessAccepted() throws Exception {
+        MockHttpServletResponse response = filter("/v29/query", null, LARGE_BODY);
+        assertNull(response.getHeader("Content-Encoding"));
+        assertArrayEquals(LARGE_BODY, response.getContentAsByteArray());
+
+        response = filter("/v29/query", "gzip;q=0, identity", LARGE_BODY);
+        assertNull(response.getHeader("Content-Encoding"));
+        assertArrayEquals(LARGE_BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void otherPathsAreNotCompressed() throws Exception {
+        MockHttpServletResponse response = filter("/util/echo", "gzip", LARGE_BODY);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertNull(response.getHeader("Vary"));
+        assertArrayEquals(LARGE_BODY, response.getContentAsByteArray());
+    }
+
+    @Test
+    void encodingsAreNegotiated() {
+        assertEquals("gzip", ResponseCompressionFilter.negotiate("deflate, gzip"));
+        assertEquals("gzip", ResponseCompressionFilter.negotiate("*"));
+        assertEquals("deflate", ResponseCompressionFilter.negotiate("gzip;q=0, deflate;q=0.5"));
+        assertNull(ResponseCompressionFilter.negotiate("identity, br"));
+    }
+
+    @Test
+    void savedBytesAreCounted() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        filter.bindTo(registry);
+
+        MockHttpServletResponse response = filter("/v29/search/generic-query", "gzip", LARGE_BODY);
+
+        assertEquals(1, registry.get("aai.response.compression.responses").functionCounter().count());
+        assertEquals(LARGE_BODY.length,
+            registry.get("aai.response.compression.bytes.in").functionCounter().count());
+        assertEquals(response.getContentAsByteArray().length,
+            registry.get("aai.response.compression.bytes.out").functionCounter().count());
+        assertTrue(registry.get("aai.response.compression.bytes.saved").functionCounter()
+            .count() > 0);
+    }
+
+    @Test
+    void contentLengthOfTheUncompressedBodyIsDropped() throws Exception {
+        MockHttpServletResponse response = filter("/v29/query", "gzip", new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+                resp.setIntHeader("Content-Length", LARGE_BODY.length);
+                resp.getOutputStream().write(LARGE_BODY);
+            }
+        });
+
+        assertEquals("gzip", response.getHeader("Content-Encoding"));
+        assertNull(response.getHeader("Content-Length"));
+        assertArrayEquals(LARGE_BODY,
+            new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))
+                .readAllBytes());
+    }
+
+    @Test
+    void compressionIsFinishedWhenTheRequestFails() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThrows(IOException.class, () -> filter("/v29/query", "gzip", response,
+            new HttpServlet() {
+                @Override
+                protected void service(HttpServletRequest req, HttpServletResponse resp)
+                    throws IOException {
+                    resp.getOutputStream().write(LARGE_BODY);
+                    throw new IOException("The client went away");
+                }
+            }));
+
+        assertArrayEquals(LARGE_BODY,
+            new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))
+                .readAllBytes());
+    }
+
+    @Test
+    void flushesAfterEveryResultDoNotFlushTheCompressor() throws Exception {
+        byte[] result = "{\"resource-link\":\"/aai/v29/cloud-infrastructure/pservers/pserver/a\"}\n"
+            .getBytes(StandardCharsets.UTF_8);
+        MockHttpServletResponse flushed = filter("/v29/query", "gzip", new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+                for (int i = 0; i < 50; i++) {
+                    resp.getOutputStream().write(result);
+                    resp.getOutputStream().flush();
+                }
+            }
+        });
+        MockHttpServletResponse unflushed =
+            filter("/v29/query", "gzip", new String(result, StandardCharsets.UTF_8).repeat(50)
+                .getBytes(StandardCharsets.UTF_8));
+
+        assertArrayEquals(unflushed.getContentAsByteArray(), flushed.getContentAsByteArray());
+    }
+
+    @Test
+    void asyncResponsesAreNotCompressed() throws Exception {
+        AtomicReference<OutputStream> asyncOutput = new AtomicReference<>();
+        MockHttpServletResponse response = filter("/v29/query", "gzip", new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+                req.startAsync();
+                resp.getOutputStream().write(LARGE_BODY, 0, 100);
+                asyncOutput.set(resp.getOutputStream());
+            }
+        });
+        asyncOutput.get().write(LARGE_BODY, 100, LARGE_BODY.length - 100);
+
+        assertNull(response.getHeader("Content-Encoding"));
+        assertArrayEquals(LARGE_BODY, response.getContentAsByteArray());
+    }
+
+    private MockHttpServletResponse filter(String path, String acceptEncoding, byte[] body)
+        throws ServletException, IOException {
+        return filter(path, acceptEncoding, new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp)
+                throws IOException {
+                // written in two parts with a flush in between, like a streamed response
+                resp.getOutputStream().write(body, 0, body.length / 2);
+                resp.getOutputStream().flush();
+                resp.getOutputStream().write(body, body.length / 2, body.length - body.length / 2);
+            }
+        });
+    }
+
+    private MockHttpServletResponse filter(String path, String acceptEncoding, HttpServlet servlet)
+        throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter(path, acceptEncoding, response, servlet);
+        return response;
+    }
+
+    private void filter(String path, String acceptEncoding, MockHttpServletResponse response,
+        HttpServlet servlet) throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/aai" + path);
+        request.setContextPath("/aai");
+        request.setAsyncSupported(true);
+        if (acceptEncoding != null) {
+            request.addHeader("Accept-Encoding", acceptEncoding);
+        }
+        filter.doFilter(request, response, new MockFilterChain(servlet));
+    }
+}